@@ -61,4 +61,23 @@ do
     done
   done
 done
+# Compact entries do not store a hash or a chain pointer. They are only
+# generated for the thin heap entries that CompactRegionEntryMap stores.
+for VERTYPE in VM Versioned
+do
+  for KEY_INFO in 'ObjectKey KEY_OBJECT' 'IntKey KEY_INT' 'LongKey KEY_LONG' 'UUIDKey KEY_UUID' 'StringKey1 KEY_STRING1' 'StringKey2 KEY_STRING2'
+  do
+    declare -a KEY_ARRAY=($KEY_INFO)
+    KEY_CLASS=${KEY_ARRAY[0]}
+    KEY_TYPE=${KEY_ARRAY[1]}
+    BASE=${VERTYPE}ThinRegionEntryHeap
+    OUT=${BASE}Compact${KEY_CLASS}
+    WP_ARGS=-Wp,-C,-P,-D${KEY_TYPE},-DPARENT_CLASS=$BASE,-DLEAF_CLASS=$OUT,-DCOMPACT
+    if [ "$VERTYPE" = "Versioned" ]; then
+      WP_ARGS=${WP_ARGS},-DVERSIONED
+    fi
+    echo generating $SRCDIR/$OUT.java
+    cpp -E $WP_ARGS $SRCFILE >$SRCDIR/$OUT.java
+  done
+done
 echo now run \'./gradlew spotlessApply\' to format the generated files
@@ -15,14 +15,27 @@
 package org.apache.geode.modules.session;
 
 import static org.apache.geode.distributed.ConfigurationProperties.*;
+import static org.junit.Assert.*;
 
 import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import javax.servlet.http.HttpSession;
 
+import com.meterware.httpunit.GetMethodWebRequest;
+import com.meterware.httpunit.WebConversation;
+import com.meterware.httpunit.WebRequest;
+import com.meterware.httpunit.WebResponse;
+import org.awaitility.Awaitility;
+import org.junit.Test;
 import org.junit.experimental.categories.Category;
 
 import org.apache.geode.cache.Cache;
 import org.apache.geode.cache.CacheFactory;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.client.ClientCache;
+import org.apache.geode.cache.client.ClientCacheFactory;
+import org.apache.geode.cache.client.ClientRegionShortcut;
 import org.apache.geode.cache.client.PoolFactory;
 import org.apache.geode.cache.client.PoolManager;
 import org.apache.geode.cache.server.CacheServer;
@@ -38,6 +51,10 @@ import org.apache.geode.test.junit.categories.UnitTest;
 @Category(DistributedTest.class)
 public class Tomcat8SessionsClientServerDUnitTest extends TestSessionsTomcat8Base {
 
+  private String hostName;
+
+  private int cacheServerPort;
+
   // Set up the session manager we need
   @Override
   public void postSetUp() throws Exception {
@@ -56,8 +73,8 @@ public class Tomcat8SessionsClientServerDUnitTest extends TestSessionsTomcat8Bas
   public void setupServer(DeltaSessionManager manager) throws Exception {
     Host host = Host.getHost(0);
     vm0 = host.getVM(1);
-    String hostName = vm0.getHost().getHostName();
-    int cacheServerPort = vm0.invoke(() -> {
+    hostName = vm0.getHost().getHostName();
+    cacheServerPort = vm0.invoke(() -> {
       Properties props = new Properties();
       CacheFactory cf = new CacheFactory(props);
       Cache cache = cf.create();
@@ -91,4 +108,52 @@ public class Tomcat8SessionsClientServerDUnitTest extends TestSessionsTomcat8Bas
     region = sessionManager.getSessionCache().getSessionRegion();
     sessionManager.getTheContext().setSessionTimeout(30);
   }
+
+  /**
+   * Check that a session changed through another client is invalidated in the local cache of this
+   * one, and fetched again from the servers on its next access.
+   */
+  @Test
+  public void testSessionChangedByAnotherClientIsInvalidatedLocally() throws Exception {
+    String key = "value_testSessionChangedByAnotherClientIsInvalidatedLocally";
+    String value = "Foo";
+
+    WebConversation wc = new WebConversation();
+    WebRequest req = new GetMethodWebRequest(String.format("http://localhost:%d/test", port));
+    req.setParameter("cmd", QueryCommand.SET.name());
+    req.setParameter("param", key);
+    req.setParameter("value", value);
+    WebResponse response = wc.getResponse(req);
+    String sessionId = response.getNewCookieValue("JSESSIONID");
+
+    assertNotNull("No apparent session cookie", sessionId);
+    assertTrue(region.containsValueForKey(sessionId));
+
+    // Write the session back through a second client
+    String regionName = region.getName();
+    String serverHost = hostName;
+    int serverPort = cacheServerPort;
+    Host.getHost(0).getVM(2).invoke(() -> {
+      ClientCache clientCache = new ClientCacheFactory().set(MCAST_PORT, "0")
+          .addPoolServer(serverHost, serverPort).create();
+      try {
+        Region<String, HttpSession> otherRegion = clientCache
+            .<String, HttpSession>createClientRegionFactory(ClientRegionShortcut.PROXY)
+            .create(regionName);
+        otherRegion.put(sessionId, otherRegion.get(sessionId));
+      } finally {
+        clientCache.close();
+      }
+    });
+
+    Awaitility.await().atMost(30, TimeUnit.SECONDS)
+        .until(() -> !region.containsValueForKey(sessionId));
+
+    req.setParameter("cmd", QueryCommand.GET.name());
+    req.setParameter("param", key);
+    req.removeParameter("value");
+    response = wc.getResponse(req);
+
+    assertEquals(value, response.getText());
+  }
 }
@@ -53,7 +53,8 @@ public class ClientServerCache extends AbstractCache {
     String message = null;
     if (this.cache == null || this.cache.isClosed()) {
       // enable pool subscription so that default cache can be used by hibernate module
-      this.cache = new ClientCacheFactory(createDistributedSystemProperties()).create();
+      this.cache = new ClientCacheFactory(createDistributedSystemProperties())
+          .setPoolSubscriptionEnabled(true).create();
       message = "Created ";
     } else {
       message = "Retrieved ";
@@ -22,6 +22,7 @@ import org.apache.geode.cache.client.ClientCache;
 import org.apache.geode.cache.client.ClientRegionFactory;
 import org.apache.geode.cache.client.ClientRegionShortcut;
 import org.apache.geode.cache.client.PoolManager;
+import org.apache.geode.cache.client.SubscriptionNotEnabledException;
 import org.apache.geode.cache.client.internal.PoolImpl;
 import org.apache.geode.cache.execute.Execution;
 import org.apache.geode.cache.execute.FunctionService;
@@ -244,10 +245,20 @@ public class ClientServerSessionCache extends AbstractSessionCache {
 
     /*
      * If we're using an empty client region, we register interest so that expired sessions are
-     * destroyed correctly.
+     * destroyed correctly. Otherwise we register interest without values so that sessions updated
+     * or destroyed through another client are invalidated in the local cache and fetched again from
+     * the servers on their next access, rather than being served stale.
      */
     if (!getSessionManager().getEnableLocalCache()) {
       region.registerInterest("ALL_KEYS", InterestResultPolicy.KEYS);
+    } else {
+      try {
+        region.registerInterest("ALL_KEYS", InterestResultPolicy.NONE, false, false);
+      } catch (SubscriptionNotEnabledException e) {
+        getSessionManager().getLogger().warn("Subscription is not enabled on the pool of "
+            + region.getFullPath() + ". Sessions in the local cache will not be invalidated"
+            + " when they are changed by other clients.");
+      }
     }
 
     return region;
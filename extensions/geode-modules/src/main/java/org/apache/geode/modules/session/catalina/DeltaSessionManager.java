@@ -503,13 +503,16 @@ abstract public class DeltaSessionManager extends ManagerBase
     TimerTask task = new TimerTask() {
       @Override
       public void run() {
-        // Get the sessionIds to touch and clear the set inside synchronization
-        Set<String> sessionIds = null;
-        sessionIds = new HashSet<String>(getSessionsToTouch());
-        getSessionsToTouch().clear();
+        // Drain the sessionIds to touch. Removing them one at a time ensures that a session added
+        // concurrently is either touched now or left for the next run, never lost.
+        Set<String> sessionIds = new HashSet<String>();
+        for (Iterator<String> i = getSessionsToTouch().iterator(); i.hasNext();) {
+          sessionIds.add(i.next());
+          i.remove();
+        }
 
         // Touch the sessions we currently have
-        if (sessionIds != null && (!sessionIds.isEmpty())) {
+        if (!sessionIds.isEmpty()) {
           getSessionCache().touchSessions(sessionIds);
           if (getLogger().isDebugEnabled()) {
             getLogger().debug(DeltaSessionManager.this + ": Touched sessions: " + sessionIds);
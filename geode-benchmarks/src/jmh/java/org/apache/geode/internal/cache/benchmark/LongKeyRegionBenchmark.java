@@ -0,0 +1,96 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.benchmark;
+
+import org.apache.geode.cache.Cache;
+import org.apache.geode.cache.CacheFactory;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.RegionShortcut;
+import org.apache.geode.distributed.internal.DistributionConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Gets from a local region with Long keys, comparing the default region map with the open
+ * addressing map used for Long keys when compact region entries are enabled.
+ */
+@Fork(3)
+public class LongKeyRegionBenchmark {
+
+  private static final int ENTRIES = 1 << 20;
+
+  private static final String COMPACT_REGION_ENTRIES_PROPERTY =
+      DistributionConfig.GEMFIRE_PREFIX + "compactRegionEntries";
+
+  @State(Scope.Benchmark)
+  public static class RegionState {
+    @Param({"false", "true"})
+    public boolean compactRegionEntries;
+
+    private Cache cache;
+    private Region<Long, String> region;
+
+    @Setup
+    public void setup() {
+      System.setProperty(COMPACT_REGION_ENTRIES_PROPERTY, String.valueOf(compactRegionEntries));
+      cache = new CacheFactory().set("mcast-port", "0").set("locators", "").create();
+      region = cache.<Long, String>createRegionFactory(RegionShortcut.LOCAL)
+          .setKeyConstraint(Long.class).create("region");
+      for (long key = 0; key < ENTRIES; key++) {
+        region.put(key, "value");
+      }
+    }
+
+    @TearDown
+    public void tearDown() {
+      cache.close();
+      System.clearProperty(COMPACT_REGION_ENTRIES_PROPERTY);
+    }
+  }
+
+  @State(Scope.Thread)
+  public static class KeyState {
+    private long counter;
+
+    /** Visits every key in an order that defeats the hardware prefetcher */
+    long nextKey() {
+      return (counter++ * 0x9E3779B97F4A7C15L) & (ENTRIES - 1);
+    }
+  }
+
+  @Benchmark
+  @Threads(4)
+  @Warmup(iterations = 10)
+  @Measurement(iterations = 10)
+  public String get(RegionState state, KeyState keys) {
+    return state.region.get(keys.nextKey());
+  }
+
+  @Benchmark
+  @Threads(4)
+  @Warmup(iterations = 10)
+  @Measurement(iterations = 10)
+  public String getLong(RegionState state, KeyState keys) {
+    return state.region.getLong(keys.nextKey());
+  }
+}
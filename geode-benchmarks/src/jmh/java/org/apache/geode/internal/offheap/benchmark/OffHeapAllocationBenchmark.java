@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.offheap.benchmark;
+
+import org.apache.geode.cache.Cache;
+import org.apache.geode.cache.CacheFactory;
+import org.apache.geode.internal.offheap.FreeListManager;
+import org.apache.geode.internal.offheap.MemoryAllocatorImpl;
+import org.apache.geode.internal.offheap.StoredObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Multi-threaded allocate/free of small off-heap objects with and without the per-thread
+ * allocation caches of the {@link FreeListManager}.
+ */
+@Fork(3)
+public class OffHeapAllocationBenchmark {
+
+  private static final int BATCH = 64;
+
+  @State(Scope.Benchmark)
+  public static class AllocatorState {
+    @Param({"0", "256"})
+    public int allocationCacheMaxSize;
+
+    private Cache cache;
+    private MemoryAllocatorImpl allocator;
+
+    @Setup
+    public void setup() {
+      System.setProperty(FreeListManager.ALLOCATION_CACHE_MAX_SIZE_PROPERTY,
+          String.valueOf(allocationCacheMaxSize));
+      cache = new CacheFactory().set("mcast-port", "0").set("locators", "")
+          .set("off-heap-memory-size", "256m").create();
+      allocator = MemoryAllocatorImpl.getAllocator();
+    }
+
+    @TearDown
+    public void tearDown() {
+      cache.close();
+      MemoryAllocatorImpl.freeOffHeapMemory();
+      System.clearProperty(FreeListManager.ALLOCATION_CACHE_MAX_SIZE_PROPERTY);
+    }
+  }
+
+  @State(Scope.Thread)
+  public static class ThreadState {
+    private final StoredObject[] objects = new StoredObject[BATCH];
+  }
+
+  @Benchmark
+  @Threads(8)
+  @Warmup(iterations = 10)
+  @Measurement(iterations = 10)
+  public StoredObject allocateAndFree(AllocatorState state, ThreadState thread) {
+    StoredObject[] objects = thread.objects;
+    for (int i = 0; i < BATCH; i++) {
+      objects[i] = state.allocator.allocate(16 + (i & 7) * 24);
+    }
+    StoredObject last = objects[BATCH - 1];
+    for (int i = 0; i < BATCH; i++) {
+      objects[i].release();
+    }
+    return last;
+  }
+}
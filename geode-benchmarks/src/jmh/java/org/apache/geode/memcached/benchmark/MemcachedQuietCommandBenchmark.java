@@ -0,0 +1,169 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.memcached.benchmark;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+
+import org.apache.geode.cache.CacheFactory;
+import org.apache.geode.internal.memcached.ConnectionHandler;
+import org.apache.geode.memcached.GemFireMemcachedServer;
+import org.apache.geode.memcached.GemFireMemcachedServer.Protocol;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Sends binary protocol multi-gets (GETKQ requests terminated by a NOOP) and multi-sets (SETQ
+ * requests terminated by a NOOP) to a memcached server over a loopback socket, comparing quiet
+ * commands executed as one bulk region operation with executing them one request at a time.
+ */
+@Fork(3)
+public class MemcachedQuietCommandBenchmark {
+
+  private static final int KEYS = 100;
+
+  private static final byte REQUEST_MAGIC = (byte) 0x80;
+
+  private static final byte GETKQ = 0x0d;
+
+  private static final byte SETQ = 0x11;
+
+  private static final byte NOOP = 0x0a;
+
+  private static final int HEADER_LENGTH = 24;
+
+  private static final Charset ASCII = Charset.forName("US-ASCII");
+
+  @State(Scope.Benchmark)
+  public static class ServerState {
+    @Param({"true", "false"})
+    public boolean batchCommands;
+
+    private GemFireMemcachedServer server;
+    private Socket socket;
+    private OutputStream out;
+    private DataInputStream in;
+    private byte[] multiGet;
+    private byte[] multiSet;
+    private byte[] body = new byte[64];
+
+    @Setup
+    public void setup() throws IOException {
+      System.setProperty(ConnectionHandler.BATCH_COMMANDS_SYS_PROP_NAME,
+          String.valueOf(batchCommands));
+      new CacheFactory().set("mcast-port", "0").set("locators", "").create();
+      int port;
+      try (ServerSocket ss = new ServerSocket(0)) {
+        port = ss.getLocalPort();
+      }
+      server = new GemFireMemcachedServer("localhost", port, Protocol.BINARY);
+      server.start();
+
+      socket = new Socket(InetAddress.getByName("localhost"), port);
+      socket.setTcpNoDelay(true);
+      out = socket.getOutputStream();
+      in = new DataInputStream(socket.getInputStream());
+
+      ByteBuffer gets = ByteBuffer.allocate(KEYS * (HEADER_LENGTH + 8) + HEADER_LENGTH);
+      ByteBuffer sets = ByteBuffer.allocate(KEYS * (HEADER_LENGTH + 8 + 8 + 16) + HEADER_LENGTH);
+      for (int i = 0; i < KEYS; i++) {
+        byte[] key = String.format("key%05d", i).getBytes(ASCII);
+        byte[] value = String.format("value%011d", i).getBytes(ASCII);
+        putHeader(gets, GETKQ, key.length, 0, key.length);
+        gets.put(key);
+        putHeader(sets, SETQ, key.length, 8, 8 + key.length + value.length);
+        sets.putInt(0).putInt(0).put(key).put(value);
+      }
+      putHeader(gets, NOOP, 0, 0, 0);
+      putHeader(sets, NOOP, 0, 0, 0);
+      multiGet = toArray(gets);
+      multiSet = toArray(sets);
+
+      // populate the region so that the gets find their keys
+      roundTrip(multiSet);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+      socket.close();
+      server.shutdown();
+      System.clearProperty(ConnectionHandler.BATCH_COMMANDS_SYS_PROP_NAME);
+    }
+
+    /**
+     * Writes the requests and reads replies until the reply to the terminating NOOP
+     * 
+     * @return the number of replies read
+     */
+    int roundTrip(byte[] requests) throws IOException {
+      out.write(requests);
+      out.flush();
+      byte[] header = new byte[HEADER_LENGTH];
+      int replies = 0;
+      for (;;) {
+        in.readFully(header);
+        replies++;
+        int bodyLength = ByteBuffer.wrap(header).getInt(8);
+        if (body.length < bodyLength) {
+          body = new byte[bodyLength];
+        }
+        in.readFully(body, 0, bodyLength);
+        if (header[1] == NOOP) {
+          return replies;
+        }
+      }
+    }
+
+    private static void putHeader(ByteBuffer buffer, byte opCode, int keyLength, int extrasLength,
+        int bodyLength) {
+      buffer.put(REQUEST_MAGIC).put(opCode).putShort((short) keyLength).put((byte) extrasLength)
+          .put((byte) 0).putShort((short) 0).putInt(bodyLength).putInt(0).putLong(0L);
+    }
+
+    private static byte[] toArray(ByteBuffer buffer) {
+      buffer.flip();
+      byte[] bytes = new byte[buffer.remaining()];
+      buffer.get(bytes);
+      return bytes;
+    }
+  }
+
+  @Benchmark
+  @Warmup(iterations = 10)
+  @Measurement(iterations = 10)
+  public int multiGet(ServerState state) throws IOException {
+    return state.roundTrip(state.multiGet);
+  }
+
+  @Benchmark
+  @Warmup(iterations = 10)
+  @Measurement(iterations = 10)
+  public int multiSet(ServerState state) throws IOException {
+    return state.roundTrip(state.multiSet);
+  }
+}
@@ -0,0 +1,114 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.pdx.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+
+import org.apache.geode.DataSerializer;
+import org.apache.geode.cache.Cache;
+import org.apache.geode.cache.CacheFactory;
+import org.apache.geode.internal.HeapDataOutputStream;
+import org.apache.geode.internal.Version;
+import org.apache.geode.pdx.ReflectionBasedAutoSerializer;
+import org.apache.geode.pdx.internal.AutoSerializableManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the reflective field access of the {@link ReflectionBasedAutoSerializer} with the
+ * method handle based field access.
+ */
+@Fork(3)
+public class AutoSerializerBenchmark {
+
+  @State(Scope.Benchmark)
+  public static class SerializerState {
+    @Param({"false", "true"})
+    public boolean useMethodHandles;
+
+    private Cache cache;
+    private Value value;
+    private byte[] bytes;
+
+    @Setup
+    public void setup() throws IOException {
+      ReflectionBasedAutoSerializer serializer =
+          new ReflectionBasedAutoSerializer(Value.class.getName());
+      ((AutoSerializableManager) serializer.getManager()).setUseMethodHandles(useMethodHandles);
+      cache = new CacheFactory().set("mcast-port", "0").set("locators", "")
+          .setPdxSerializer(serializer).create();
+      value = new Value(42);
+      bytes = serialize(value);
+    }
+
+    @TearDown
+    public void tearDown() {
+      cache.close();
+    }
+  }
+
+  @Benchmark
+  @Warmup(iterations = 10)
+  @Measurement(iterations = 10)
+  public byte[] serialize(SerializerState state) throws IOException {
+    return serialize(state.value);
+  }
+
+  @Benchmark
+  @Warmup(iterations = 10)
+  @Measurement(iterations = 10)
+  public Object deserialize(SerializerState state) throws IOException, ClassNotFoundException {
+    return DataSerializer.readObject(new DataInputStream(new ByteArrayInputStream(state.bytes)));
+  }
+
+  private static byte[] serialize(Object value) throws IOException {
+    HeapDataOutputStream out = new HeapDataOutputStream(Version.CURRENT);
+    DataSerializer.writeObject(value, out);
+    return out.toByteArray();
+  }
+
+  public static class Value {
+    private int anInt;
+    private long aLong;
+    private double aDouble;
+    private boolean aBoolean;
+    private short aShort;
+    private String aString;
+    private String anotherString;
+    private int[] anIntArray;
+
+    public Value() {}
+
+    public Value(int seed) {
+      this.anInt = seed;
+      this.aLong = seed * 31L;
+      this.aDouble = seed / 3.0;
+      this.aBoolean = seed % 2 == 0;
+      this.aShort = (short) seed;
+      this.aString = "value-" + seed;
+      this.anotherString = "another-" + seed;
+      this.anIntArray = new int[] {seed, seed + 1, seed + 2};
+    }
+  }
+}
@@ -559,6 +559,21 @@ public interface Region<K, V> extends ConcurrentMap<K, V> {
    */
   public V get(Object key) throws CacheLoaderException, TimeoutException;
 
+  /**
+   * Returns the value associated with the <code>Long</code> key of the given value. This is
+   * equivalent to <code>get(Long.valueOf(key))</code>, except that a region whose keys are
+   * constrained to <code>Long</code> may find a value held in local memory without allocating the
+   * key.
+   *
+   * @param key the value of the key whose associated value is to be returned
+   * @return the value with specified key, or null if the value is not found and can't be loaded
+   * @see #get(Object)
+   * @since Geode 1.2
+   */
+  default V getLong(long key) throws CacheLoaderException, TimeoutException {
+    return get(Long.valueOf(key));
+  }
+
   /**
    * Returns the value associated with the specified key, passing the callback argument to any cache
    * loaders or cache writers that are invoked in the operation. If the value is not present locally
@@ -238,6 +238,57 @@ public class ClientMetadataService {
     return serverToKeysMap;
   }
 
+  /**
+   * Groups the keys of a bulk operation (getAll, putAll, removeAll) by the server hosting the
+   * primary of their bucket. Unlike {@link #getServerToFilterMap(Collection, Region, boolean)}
+   * missing metadata for some buckets does not disable single hop for the whole operation. The keys
+   * of those buckets are sent to a random server hosting the region, which forwards them, and a
+   * metadata refresh is scheduled. Every other key still goes straight to its primary.
+   * 
+   * @return the map of server to keys or null if there is no metadata for the region at all
+   */
+  public Map<ServerLocation, HashSet> getBulkOpServerToFilterMap(final Collection routingKeys,
+      final Region region) {
+    final String regionFullPath = region.getFullPath();
+    ClientPartitionAdvisor prAdvisor = this.getClientPartitionAdvisor(regionFullPath);
+    if (prAdvisor == null) {
+      scheduleGetPRMetaData((LocalRegion) region, false);
+      return null;
+    }
+    ServerLocation fallbackServer = prAdvisor.adviseRandomServerLocation();
+    if (fallbackServer == null) {
+      scheduleGetPRMetaData((LocalRegion) region, false);
+      return null;
+    }
+    HashMap<Integer, HashSet> bucketToKeysMap =
+        groupByBucketOnClientSide(region, prAdvisor, routingKeys, false);
+
+    HashMap<ServerLocation, HashSet> serverToKeysMap = new HashMap<ServerLocation, HashSet>();
+    boolean missingMetadata = false;
+    for (Map.Entry<Integer, HashSet> entry : bucketToKeysMap.entrySet()) {
+      ServerLocation server = prAdvisor.advisePrimaryServerLocation(entry.getKey());
+      if (server == null) {
+        missingMetadata = true;
+        server = fallbackServer;
+      }
+      // use LinkedHashSet to maintain the order of keys
+      // the keys will be iterated several times
+      HashSet keys = serverToKeysMap.get(server);
+      if (keys == null) {
+        keys = new LinkedHashSet();
+        serverToKeysMap.put(server, keys);
+      }
+      keys.addAll(entry.getValue());
+    }
+    if (missingMetadata) {
+      scheduleGetPRMetaData((LocalRegion) region, false);
+    }
+    if (logger.isDebugEnabled()) {
+      logger.debug("Returning bulk op server to keys map : {}", serverToKeysMap);
+    }
+    return serverToKeysMap;
+  }
+
   public HashMap<ServerLocation, HashSet<Integer>> groupByServerToAllBuckets(Region region,
       boolean primaryOnly) {
     final String regionFullPath = region.getFullPath();
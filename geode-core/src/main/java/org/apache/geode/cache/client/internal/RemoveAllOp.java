@@ -89,7 +89,7 @@ public class RemoveAllOp {
     final boolean isDebugEnabled = logger.isDebugEnabled();
     ClientMetadataService cms = ((LocalRegion) region).getCache().getClientMetadataService();
 
-    Map<ServerLocation, HashSet> serverToFilterMap = cms.getServerToFilterMap(keys, region, true);
+    Map<ServerLocation, HashSet> serverToFilterMap = cms.getBulkOpServerToFilterMap(keys, region);
 
     if (serverToFilterMap == null || serverToFilterMap.isEmpty()) {
       AbstractOp op = new RemoveAllOpImpl(region, keys, eventId,
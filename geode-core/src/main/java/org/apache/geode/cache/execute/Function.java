@@ -118,4 +118,22 @@ public interface Function<T> extends Identifiable<String> {
     return true;
   }
 
+  /**
+   * Specifies whether the function, when executed on a partitioned region, should be invoked once
+   * for each local bucket instead of once for all local buckets of a member. The invocations run in
+   * parallel, and each one sees a single bucket through
+   * {@link org.apache.geode.cache.partition.PartitionRegionHelper#getLocalDataForContext}. The
+   * results of all the invocations on a member are sent together once every invocation is done.
+   * <p>
+   * Functions that return true must be thread safe. Functions executed in a transaction are
+   * invoked once for all local buckets.
+   *
+   * @return whether the function is invoked once for each local bucket
+   *
+   * @since Geode 1.2
+   */
+  public default boolean isBucketParallel() {
+    return false;
+  }
+
 }
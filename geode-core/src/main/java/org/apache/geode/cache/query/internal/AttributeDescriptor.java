@@ -26,6 +26,7 @@ import org.apache.geode.pdx.JSONFormatter;
 import org.apache.geode.pdx.PdxInstance;
 import org.apache.geode.pdx.PdxSerializationException;
 import org.apache.geode.pdx.internal.FieldNotFoundInPdxVersion;
+import org.apache.geode.pdx.internal.PdxFieldAccessor;
 import org.apache.geode.pdx.internal.PdxInstanceImpl;
 
 import java.lang.reflect.AccessibleObject;
@@ -210,10 +211,11 @@ public class AttributeDescriptor {
       throws NameNotFoundException, QueryInvocationTargetException {
     if (target instanceof PdxInstanceImpl) {
       PdxInstanceImpl pdxInstance = (PdxInstanceImpl) target;
-      // if the field is present in the pdxinstance
-      if (pdxInstance.hasField(_name)) {
+      // if the field is present in the pdxinstance use the accessor cached on its type
+      PdxFieldAccessor accessor = pdxInstance.getPdxType().getFieldAccessor(_name);
+      if (accessor != null) {
         // return PdxString if field is a String otherwise invoke readField
-        return pdxInstance.getRawField(_name);
+        return accessor.readRawField(pdxInstance);
       } else {
         // field not found in the pdx instance, look for the field in any of the
         // PdxTypes (versions of the pdxinstance) in the type registry
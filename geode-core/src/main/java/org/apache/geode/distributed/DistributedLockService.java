@@ -51,6 +51,10 @@ public abstract class DistributedLockService {
   public static DistributedLockService create(String serviceName, DistributedSystem ds)
       throws IllegalArgumentException {
     DLockService.validateServiceName(serviceName);
+    if (PartitionedDLockService.GRANTOR_PARTITIONS > 1) {
+      return PartitionedDLockService.create(serviceName, (InternalDistributedSystem) ds,
+          PartitionedDLockService.GRANTOR_PARTITIONS);
+    }
     return DLockService.create(serviceName, (InternalDistributedSystem) ds, true /* distributed */,
         true /* destroyOnDisconnect */, false /* automateFreeResources */);
   }
@@ -65,6 +69,10 @@ public abstract class DistributedLockService {
    *         this VM.
    */
   public static DistributedLockService getServiceNamed(String serviceName) {
+    DistributedLockService partitioned = PartitionedDLockService.getServiceNamed(serviceName);
+    if (partitioned != null) {
+      return partitioned;
+    }
     return DLockService.getServiceNamed(serviceName);
   }
 
@@ -81,6 +89,9 @@ public abstract class DistributedLockService {
    *         the given <code>serviceName</code> and <code>dm</code>.
    */
   public static void destroy(String serviceName) throws IllegalArgumentException {
+    if (PartitionedDLockService.destroyServiceNamed(serviceName)) {
+      return;
+    }
     DLockService.destroyServiceNamed(serviceName);
   }
 
@@ -313,6 +324,11 @@ public abstract class DistributedLockService {
    * @see org.apache.geode.distributed.DistributedLockService#becomeLockGrantor()
    */
   public static void becomeLockGrantor(String serviceName) throws IllegalArgumentException {
+    DistributedLockService partitioned = PartitionedDLockService.getServiceNamed(serviceName);
+    if (partitioned != null) {
+      partitioned.becomeLockGrantor();
+      return;
+    }
     DLockService.becomeLockGrantor(serviceName);
   }
 
@@ -343,6 +359,10 @@ public abstract class DistributedLockService {
    * @see org.apache.geode.distributed.DistributedLockService#isLockGrantor()
    */
   public static boolean isLockGrantor(String serviceName) throws IllegalArgumentException {
+    DistributedLockService partitioned = PartitionedDLockService.getServiceNamed(serviceName);
+    if (partitioned != null) {
+      return partitioned.isLockGrantor();
+    }
     return DLockService.isLockGrantor(serviceName);
   }
 
@@ -810,6 +810,10 @@ public class DLockGrantor {
 
       // if request was a failed try-lock...
       else if (request.isTryLock()) {
+        synchronized (grant) {
+          // a cached lease would otherwise fail every try-lock from other members
+          grant.revokeCachedLease();
+        }
         cleanupSuspendState(request);
         request.respondWithTryLockFailed(request.getObjectName());
       }
@@ -2291,6 +2295,10 @@ public class DLockGrantor {
     boolean permitLockRequest = false;
     if (request.getObjectName().equals(DLockService.SUSPEND_LOCKING_TOKEN)) {
       permitLockRequest = acquireSuspendLockPermission(request);
+      if (!permitLockRequest) {
+        // cached leases would otherwise hold off suspension indefinitely
+        revokeCachedLeases();
+      }
     } else {
       permitLockRequest = acquireReadLockPermission(request);
     }
@@ -2298,6 +2306,22 @@ public class DLockGrantor {
     return permitLockRequest;
   }
 
+  /**
+   * Asks every lessee holding a non-expiring lease to release it if cached.
+   * <p>
+   * Synchronizes on grantTokens and each grant token.
+   */
+  private void revokeCachedLeases() {
+    synchronized (this.grantTokens) {
+      for (Iterator iter = this.grantTokens.values().iterator(); iter.hasNext();) {
+        DLockGrantToken grant = (DLockGrantToken) iter.next();
+        synchronized (grant) {
+          grant.revokeCachedLease();
+        }
+      }
+    }
+  }
+
   /**
    * Throws InterruptedException if local lock request exists and is interruptible or
    * CancelException if DistributionManager is forcing us to cancel for shutdown.
@@ -2450,6 +2474,13 @@ public class DLockGrantor {
      */
     private RemoteThread lesseeThread = null;
 
+    /**
+     * Lease id for which the lessee has been asked to release a cached lease, or -1 if none.
+     * 
+     * guarded.By this
+     */
+    private int revokedLeaseId = -1;
+
     /**
      * Instatiates a new instance of DLockGrantToken.
      * 
@@ -2496,9 +2527,31 @@ public class DLockGrantor {
       }
       this.pendingRequests.add(request);
       this.dlock.getStats().incPendingRequests(1);
+      revokeCachedLease();
       return true;
     }
 
+    /**
+     * Asks the lessee to release the current lease if it may be cached by the lessee after unlock.
+     * Whether grants are cached is decided by each lessee, so the revoke is sent for every
+     * non-expiring lease regardless of this member's own setting and is ignored by lessees which
+     * have not cached it. Only one revoke is sent for each lease.
+     * <p>
+     * Caller must synchronize on this grant token.
+     */
+    protected void revokeCachedLease() {
+      if (isSuspendLockingToken()) {
+        return;
+      }
+      if (this.leaseId < 0 || this.leaseExpireTime != Long.MAX_VALUE
+          || this.revokedLeaseId == this.leaseId) {
+        return;
+      }
+      this.revokedLeaseId = this.leaseId;
+      DLockRevokeLeaseProcessor.revoke(this.grantor.dm, this.dlock.getName(), this.lockName,
+          this.lessee, this.leaseId);
+    }
+
     /**
      * Sends NOT_GRANTOR replies to every request waiting for this grant token and then destroys the
      * grant token.
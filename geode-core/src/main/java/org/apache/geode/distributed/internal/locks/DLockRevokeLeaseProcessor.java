@@ -0,0 +1,135 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.distributed.internal.locks;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+import org.apache.logging.log4j.Logger;
+
+import org.apache.geode.DataSerializer;
+import org.apache.geode.distributed.internal.DM;
+import org.apache.geode.distributed.internal.DistributionManager;
+import org.apache.geode.distributed.internal.HighPriorityDistributionMessage;
+import org.apache.geode.distributed.internal.membership.InternalDistributedMember;
+import org.apache.geode.internal.logging.LogService;
+import org.apache.geode.internal.logging.log4j.LogMarker;
+
+/**
+ * Asks the lessee of a cached lock grant to release it so that the grantor can lease the lock to
+ * another member. The lessee does not reply; it releases the lease with a normal
+ * {@link DLockReleaseProcessor.DLockReleaseMessage} once the lease is no longer in use.
+ *
+ * @since Geode 1.2
+ */
+public class DLockRevokeLeaseProcessor {
+  private static final Logger logger = LogService.getLogger();
+
+  private DLockRevokeLeaseProcessor() {}
+
+  /**
+   * Sends a revoke for the specified lease to the lessee. Processed in the waiting thread pool if
+   * the lessee is this member because the caller holds grantor synchronization.
+   * 
+   * @param dm the distribution manager of the grantor
+   * @param serviceName the name of the lock service
+   * @param objectName the name of the lock
+   * @param lessee the member holding the lease
+   * @param leaseId the lease id the lessee used to lease the lock
+   */
+  static void revoke(final DM dm, String serviceName, Object objectName,
+      InternalDistributedMember lessee, int leaseId) {
+    final DLockRevokeLeaseMessage msg = new DLockRevokeLeaseMessage();
+    msg.serviceName = serviceName;
+    msg.objectName = objectName;
+    msg.leaseId = leaseId;
+
+    msg.setRecipient(lessee);
+    if (lessee.equals(dm.getId())) {
+      // local... don't message...
+      msg.setSender(lessee);
+      dm.getWaitingThreadPool().execute(new Runnable() {
+        public void run() {
+          msg.basicProcess();
+        }
+      });
+    } else {
+      dm.putOutgoing(msg);
+    }
+  }
+
+  // -------------------------------------------------------------------------
+  // DLockRevokeLeaseMessage
+  // -------------------------------------------------------------------------
+  public static class DLockRevokeLeaseMessage extends HighPriorityDistributionMessage {
+    /** The name of the DistributedLockService */
+    protected String serviceName;
+
+    /** The object name */
+    protected Object objectName;
+
+    /** Identifies the lease being revoked */
+    protected int leaseId;
+
+    public DLockRevokeLeaseMessage() {}
+
+    /**
+     * Processes this message - invoked on the node that holds the lease.
+     */
+    @Override
+    protected void process(final DistributionManager dm) {
+      basicProcess();
+    }
+
+    protected void basicProcess() {
+      if (logger.isTraceEnabled(LogMarker.DLS)) {
+        logger.trace(LogMarker.DLS, "[DLockRevokeLeaseMessage.basicProcess] {}", this);
+      }
+      DLockService svc = DLockService.getInternalServiceNamed(this.serviceName);
+      if (svc == null || svc.isDestroyed()) {
+        return;
+      }
+      svc.revokeCachedLease(this.objectName, this.leaseId);
+    }
+
+    public int getDSFID() {
+      return DLOCK_REVOKE_LEASE_MESSAGE;
+    }
+
+    @Override
+    public void toData(DataOutput out) throws IOException {
+      super.toData(out);
+      DataSerializer.writeString(this.serviceName, out);
+      DataSerializer.writeObject(this.objectName, out);
+      out.writeInt(this.leaseId);
+    }
+
+    @Override
+    public void fromData(DataInput in) throws IOException, ClassNotFoundException {
+      super.fromData(in);
+      this.serviceName = DataSerializer.readString(in);
+      this.objectName = DataSerializer.readObject(in);
+      this.leaseId = in.readInt();
+    }
+
+    @Override
+    public String toString() {
+      return new StringBuilder("DLockRevokeLeaseMessage for ").append(this.serviceName)
+          .append(", ").append(this.objectName).append("; leaseId=").append(this.leaseId)
+          .toString();
+    }
+  } // DLockRevokeLeaseMessage
+}
@@ -99,6 +99,15 @@ public class DLockService extends DistributedLockService {
   public static final boolean AUTOMATE_FREE_RESOURCES =
       Boolean.getBoolean(DistributionConfig.GEMFIRE_PREFIX + "DLockService.automateFreeResources");
 
+  /**
+   * True if distributed lock services should retain non-expiring leases after unlock so that the
+   * next local lock request for the same name is granted without contacting the grantor. The
+   * grantor revokes a cached lease when another member requests the lock. Must be set identically
+   * on every member.
+   */
+  public static final boolean CACHE_LOCK_GRANTS =
+      Boolean.getBoolean(DistributionConfig.GEMFIRE_PREFIX + "DLockService.cacheLockGrants");
+
   public static final int INVALID_LEASE_ID = -1;
 
   /** Unique name for this instance of the named locking service */
@@ -167,6 +176,9 @@ public class DLockService extends DistributedLockService {
   /** True if this service should automatically freeResources */
   private final boolean automateFreeResources;
 
+  /** True if unlocked non-expiring leases are cached by this member; see CACHE_LOCK_GRANTS */
+  private volatile boolean cacheLockGrants;
+
   /** Identifies the thread that is destroying this lock service. */
   private final ThreadLocal<Boolean> destroyingThread = new ThreadLocal<Boolean>();
 
@@ -1465,6 +1477,7 @@ public class DLockService extends DistributedLockService {
 
           // Check for recursive lock
           boolean reentrant = false;
+          boolean grantedCachedLease = false;
           int recursionBefore = -1;
 
           synchronized (token) {
@@ -1489,8 +1502,28 @@ public class DLockService extends DistributedLockService {
                 continue;
               }
             } // isLeaseHeldByCurrentThread
+
+            else if (requestLeaseTime == Long.MAX_VALUE && token.isLeaseCached()
+                && token.grantCachedLease(
+                    new RemoteThread(getDistributionManager().getId(), threadId))) {
+              // this member still holds the lease from the grantor
+              if (isDebugEnabled_DLS) {
+                logger.trace(LogMarker.DLS, "{}, name: {} - granted cached lease: {}", this, name,
+                    token);
+              }
+              grantedCachedLease = true;
+            }
           } // token sync
 
+          if (grantedCachedLease) {
+            // the cached lease is already counted as an active lock
+            decActiveLocks();
+            gotLock = true;
+            safeExit = true;
+            keepTrying = false;
+            continue;
+          }
+
           LockGrantorId theLockGrantorId = getLockGrantorId();
 
           if (reentrant) {
@@ -1878,6 +1911,7 @@ public class DLockService extends DistributedLockService {
 
     boolean hadRecursion = false;
     boolean unlocked = false;
+    boolean cached = false;
     int lockId = -1;
     DLockToken token = null;
     RemoteThread rThread = null;
@@ -1899,7 +1933,7 @@ public class DLockService extends DistributedLockService {
         synchronized (token) {
           token.checkForExpiration();
           rThread = token.getLesseeThread();
-          if (!token.isLeaseHeldByCurrentOrRemoteThread(rThread)) {
+          if (token.isLeaseCached() || !token.isLeaseHeldByCurrentOrRemoteThread(rThread)) {
             token.throwIfCurrentThreadHadExpiredLease();
             if (isDebugEnabled_DLS) {
               logger.trace(LogMarker.DLS, "{}, [unlock] {} not leased by this thread.", this,
@@ -1915,13 +1949,17 @@ public class DLockService extends DistributedLockService {
           Assert.assertTrue(lockId > -1);
           if (hadRecursion) {
             unlocked = token.releaseLock(lockId, rThread);
+          } else if (this.cacheLockGrants && token.cacheLease()) {
+            // lease stays with this member until the grantor revokes it
+            cached = true;
+            unlocked = true;
           } else {
             token.setIgnoreForRecovery(true);
           }
         } // token sync
       } // tokens map sync
 
-      if (!hadRecursion) {
+      if (!hadRecursion && !cached) {
         boolean lockBatch = false;
         boolean released = false;
 
@@ -1951,7 +1989,7 @@ public class DLockService extends DistributedLockService {
     } // try
     finally {
       try {
-        if (!hadRecursion && lockId > -1 && token != null) {
+        if (!hadRecursion && !cached && lockId > -1 && token != null) {
           decActiveLocks();
           if (!unlocked) {
             // // token is still held if grantor was remote, so now we unlock...
@@ -2082,6 +2120,7 @@ public class DLockService extends DistributedLockService {
     this.isDistributed = isDistributed;
     this.destroyOnDisconnect = destroyOnDisconnect;
     this.automateFreeResources = automateFreeResources || AUTOMATE_FREE_RESOURCES;
+    this.cacheLockGrants = isDistributed && CACHE_LOCK_GRANTS;
   }
 
   // -------------------------------------------------------------------------
@@ -2290,6 +2329,19 @@ public class DLockService extends DistributedLockService {
     return this.isDistributed;
   }
 
+  /** Returns true if unlocked non-expiring leases are cached by this member */
+  public boolean isCacheLockGrants() {
+    return this.cacheLockGrants;
+  }
+
+  /**
+   * Enables or disables caching of unlocked non-expiring leases. Leases that are already cached are
+   * kept until the grantor revokes them.
+   */
+  public void setCacheLockGrants(boolean value) {
+    this.cacheLockGrants = value && this.isDistributed;
+  }
+
   public void setDLockLessorDepartureHandler(DLockLessorDepartureHandler handler) {
     this.lessorDepartureHandler = handler;
   }
@@ -2352,6 +2404,8 @@ public class DLockService extends DistributedLockService {
 
   /** Destroys all lock services in this VM. Used in test tearDown code. */
   public static void destroyAll() {
+    // the partitions of partitioned services are destroyed with all the other services
+    PartitionedDLockService.clearServices();
     Collection svcs = Collections.EMPTY_SET;
     synchronized (services) {
       svcs = new HashSet(services.values());
@@ -2546,6 +2600,83 @@ public class DLockService extends DistributedLockService {
     return this.destroyOnDisconnect;
   }
 
+  /**
+   * Called when the grantor asks this member to give back a cached lease. If the lease is cached it
+   * is released to the grantor asynchronously; if a thread is currently using it the lease will be
+   * released when that thread unlocks.
+   * 
+   * @param name the name of the lock
+   * @param leaseId the lease id the grantor wants back
+   */
+  void revokeCachedLease(final Object name, final int leaseId) {
+    final DLockToken token;
+    final RemoteThread rThread;
+    synchronized (this.tokens) {
+      if (isDestroyed()) {
+        return;
+      }
+      token = basicGetToken(name);
+      if (token == null) {
+        return;
+      }
+      synchronized (token) {
+        if (!token.revokeLease(leaseId)) {
+          return;
+        }
+        rThread = token.getLesseeThread();
+        token.setIgnoreForRecovery(true);
+      }
+    }
+    if (logger.isTraceEnabled(LogMarker.DLS)) {
+      logger.trace(LogMarker.DLS, "{}, name: {} - releasing revoked lease: {}", this, name, token);
+    }
+    this.dm.getWaitingThreadPool().execute(new Runnable() {
+      public void run() {
+        releaseRevokedLease(token, name, leaseId, rThread);
+      }
+    });
+  }
+
+  /**
+   * Releases a revoked cached lease to the grantor and then locally.
+   */
+  private void releaseRevokedLease(DLockToken token, Object name, int leaseId,
+      RemoteThread rThread) {
+    boolean released = false;
+    try {
+      while (!released) {
+        checkDestroyed();
+        LockGrantorId theLockGrantorId = getLockGrantorId();
+        try {
+          released = callReleaseProcessor(theLockGrantorId.getLockGrantorMember(), name, false,
+              leaseId);
+          synchronized (this.lockGrantorIdLock) {
+            token.releaseLock(leaseId, rThread);
+          }
+        } catch (LockGrantorDestroyedException e) {
+          // loop back around to get next lock grantor
+        } catch (LockServiceDestroyedException e) {
+          // done... NonGrantorDestroyedMessage will release locks for us
+          released = true;
+        } finally {
+          if (!released) {
+            notLockGrantorId(theLockGrantorId, 0, TimeUnit.MILLISECONDS);
+          }
+        }
+      }
+    } catch (CancelException e) {
+      // member is shutting down
+    } finally {
+      decActiveLocks();
+      if (!released) {
+        token.releaseLock(leaseId, rThread);
+      }
+      if (this.automateFreeResources) {
+        freeResources(name);
+      }
+    }
+  }
+
   /**
    * Called by grantor recovery to return set of locks held by this process. Synchronizes on
    * lockGrantorIdLock, tokens map, and each lock token.
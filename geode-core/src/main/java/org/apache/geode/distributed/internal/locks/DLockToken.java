@@ -101,6 +101,18 @@ public class DLockToken {
    */
   private boolean ignoreForRecovery = false;
 
+  /**
+   * True if the current lease has been unlocked locally but is retained by this member so that the
+   * next local lock request can reuse it without contacting the grantor.
+   */
+  private boolean leaseCached = false;
+
+  /**
+   * Lease id which the grantor has asked this member to give back, or -1 if none. A cached lease
+   * with this id is never reused.
+   */
+  private int revokedLeaseId = -1;
+
   // -------------------------------------------------------------------------
   // Constructors
   // -------------------------------------------------------------------------
@@ -311,6 +323,11 @@ public class DLockToken {
     checkDestroyed();
     checkForExpiration();
 
+    if (this.leaseCached) {
+      // the grantor has already seen the cached lease released; drop its usage
+      this.leaseCached = false;
+      decUsage();
+    }
     this.ignoreForRecovery = false;
     this.leaseExpireTime = newLeaseExpireTime;
     this.leaseId = newLeaseId;
@@ -334,6 +351,75 @@ public class DLockToken {
     return this.leaseId > -1;
   }
 
+  /**
+   * Returns true if the current lease is cached by this member and not held by any thread. Caller
+   * must synchronize on this lock token.
+   * 
+   * @return true if the current lease is cached
+   */
+  boolean isLeaseCached() {
+    return this.leaseCached;
+  }
+
+  /**
+   * Retains the current lease after the leasing thread unlocks instead of releasing it to the
+   * grantor. Only non-recursive leases that never expire and have not been revoked can be cached.
+   * The suspend locking token is never cached because resumeLocking must always reach the grantor.
+   * The usage count held by the unlocking thread is kept by the cached lease. Caller must
+   * synchronize on this lock token.
+   * 
+   * @return true if the lease is now cached and should not be released to the grantor
+   */
+  boolean cacheLease() {
+    if (this.leaseId < 0 || this.leaseExpireTime != Long.MAX_VALUE || this.recursion > 0
+        || this.revokedLeaseId == this.leaseId
+        || DLockService.SUSPEND_LOCKING_TOKEN.equals(this.name)) {
+      return false;
+    }
+    this.leaseCached = true;
+    this.thread = null;
+    if (logger.isTraceEnabled(LogMarker.DLS)) {
+      logger.trace(LogMarker.DLS, "[DLockToken.cacheLease] cached {}", this);
+    }
+    return true;
+  }
+
+  /**
+   * Hands the cached lease to the calling thread. The usage count of the calling thread replaces
+   * the one retained by the cached lease. Caller must synchronize on this lock token.
+   * 
+   * @param remoteThread identity of the calling thread
+   * @return true if the cached lease was granted to the calling thread
+   */
+  boolean grantCachedLease(RemoteThread remoteThread) {
+    if (!this.leaseCached || this.revokedLeaseId == this.leaseId) {
+      return false;
+    }
+    checkDestroyed();
+    this.leaseCached = false;
+    this.lesseeThread = remoteThread;
+    this.recursion = 0;
+    this.thread = Thread.currentThread();
+    decUsage();
+    if (logger.isTraceEnabled(LogMarker.DLS)) {
+      logger.trace(LogMarker.DLS, "[DLockToken.grantCachedLease] granted {}", this);
+    }
+    return true;
+  }
+
+  /**
+   * Records that the grantor wants the specified lease back. A thread currently holding the lease
+   * keeps it until unlock, which will then release it to the grantor instead of caching it. Caller
+   * must synchronize on this lock token.
+   * 
+   * @param leaseIdToRevoke the lease id the grantor has asked for
+   * @return true if the lease is currently cached and should be released by the caller
+   */
+  boolean revokeLease(int leaseIdToRevoke) {
+    this.revokedLeaseId = leaseIdToRevoke;
+    return this.leaseCached && this.leaseId == leaseIdToRevoke;
+  }
+
   /**
    * Returns true if lease on this lock token is held by calling thread or the specified remote
    * thread. Caller must synchronize on this lock token.
@@ -445,6 +531,7 @@ public class DLockToken {
     this.thread = null;
     this.recursion = 0;
     this.ignoreForRecovery = false;
+    this.leaseCached = false;
 
     decUsage();
   }
@@ -534,7 +621,8 @@ public class DLockToken {
       return "DLockToken" + "@" + Integer.toHexString(hashCode()) + ", name: " + this.name
           + ", thread: <" + getThreadName() + ">" + ", recursion: " + this.recursion
           + ", leaseExpireTime: " + this.leaseExpireTime + ", leaseId: " + this.leaseId
-          + ", ignoreForRecovery: " + this.ignoreForRecovery + ", lesseeThread: "
+          + ", ignoreForRecovery: " + this.ignoreForRecovery + ", leaseCached: "
+          + this.leaseCached + ", lesseeThread: "
           + this.lesseeThread + ", usageCount: " + this.usageCount + ", currentTime: "
           + getCurrentTime();
     }
@@ -0,0 +1,402 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.distributed.internal.locks;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.logging.log4j.Logger;
+
+import org.apache.geode.distributed.DistributedLockService;
+import org.apache.geode.distributed.LeaseExpiredException;
+import org.apache.geode.distributed.LockServiceDestroyedException;
+import org.apache.geode.distributed.internal.DM;
+import org.apache.geode.distributed.internal.DistributionConfig;
+import org.apache.geode.distributed.internal.InternalDistributedSystem;
+import org.apache.geode.distributed.internal.membership.InternalDistributedMember;
+import org.apache.geode.internal.i18n.LocalizedStrings;
+import org.apache.geode.internal.logging.LogService;
+import org.apache.geode.internal.logging.log4j.LogMarker;
+import org.apache.geode.internal.util.BlobHelper;
+
+/**
+ * A DistributedLockService which hashes lock names across several {@link DLockService} partitions
+ * so that lock granting is not limited by a single grantor member. Each partition is an ordinary
+ * distributed lock service with its own grantor, elder-managed grantor selection and grantor
+ * recovery.
+ * <p>
+ * Grantor authority is spread across members by rendezvous hashing each partition over the current
+ * members: a member that creates the service becomes grantor of the partitions for which it ranks
+ * highest. A member joining later only takes over the partitions which now rank it highest, and the
+ * partitions of a departed member fail over independently.
+ * <p>
+ * The partition of a lock name is derived from its serialized form, which is the same in every
+ * member, rather than from its hash code, which may be an identity hash code that differs between
+ * members. String names use {@link String#hashCode()}, which is specified and therefore stable.
+ *
+ * @since Geode 1.2
+ */
+public class PartitionedDLockService extends DistributedLockService {
+  private static final Logger logger = LogService.getLogger();
+
+  /**
+   * Number of grantor partitions used for lock services created by
+   * {@link DistributedLockService#create}. Values less than 2 disable partitioning. Must be set
+   * identically on every member.
+   */
+  public static final int GRANTOR_PARTITIONS =
+      Integer.getInteger(DistributionConfig.GEMFIRE_PREFIX + "DLockService.grantorPartitions", 1);
+
+  /** Separates the service name from the partition index in partition service names */
+  static final String PARTITION_SEPARATOR = "#grantorPartition";
+
+  /** Partitioned lock services created in this VM. Key:serviceName */
+  private static final Map<String, PartitionedDLockService> partitionedServices =
+      new HashMap<String, PartitionedDLockService>();
+
+  private final String serviceName;
+
+  private final DLockService[] partitions;
+
+  private final DM dm;
+
+  private PartitionedDLockService(String serviceName, DLockService[] partitions, DM dm) {
+    this.serviceName = serviceName;
+    this.partitions = partitions;
+    this.dm = dm;
+  }
+
+  /**
+   * Creates a partitioned lock service with the specified number of grantor partitions and claims
+   * grantor authority for the partitions owned by this member.
+   *
+   * @throws IllegalArgumentException if this process has already created the named service
+   */
+  public static PartitionedDLockService create(String serviceName, InternalDistributedSystem ds,
+      int numPartitions) throws IllegalArgumentException {
+    if (numPartitions < 1) {
+      throw new IllegalArgumentException("numPartitions must be positive: " + numPartitions);
+    }
+    PartitionedDLockService svc;
+    synchronized (partitionedServices) {
+      if (partitionedServices.containsKey(serviceName)
+          || DLockService.getServiceNamed(serviceName) != null) {
+        throw new IllegalArgumentException(
+            LocalizedStrings.DLockService_SERVICE_NAMED_0_ALREADY_CREATED
+                .toLocalizedString(serviceName));
+      }
+      DLockService[] partitions = new DLockService[numPartitions];
+      try {
+        for (int i = 0; i < numPartitions; i++) {
+          partitions[i] = (DLockService) DLockService.create(getPartitionName(serviceName, i), ds,
+              true /* distributed */, true /* destroyOnDisconnect */,
+              false /* automateFreeResources */);
+        }
+      } catch (RuntimeException e) {
+        destroyPartitions(partitions);
+        throw e;
+      }
+      svc = new PartitionedDLockService(serviceName, partitions, ds.getDistributionManager());
+      partitionedServices.put(serviceName, svc);
+    }
+    svc.claimOwnedGrantors();
+    return svc;
+  }
+
+  /**
+   * Returns the named partitioned lock service or null if it has not been created in this VM.
+   */
+  public static PartitionedDLockService getServiceNamed(String serviceName) {
+    synchronized (partitionedServices) {
+      return partitionedServices.get(serviceName);
+    }
+  }
+
+  /**
+   * Destroys the named partitioned lock service if it exists.
+   *
+   * @return true if the named partitioned lock service existed and was destroyed
+   */
+  public static boolean destroyServiceNamed(String serviceName) {
+    PartitionedDLockService svc;
+    synchronized (partitionedServices) {
+      svc = partitionedServices.remove(serviceName);
+    }
+    if (svc == null) {
+      return false;
+    }
+    destroyPartitions(svc.partitions);
+    return true;
+  }
+
+  /**
+   * Forgets every partitioned lock service created in this VM. Called by
+   * {@link DLockService#destroyAll()}, which destroys their partitions.
+   */
+  static void clearServices() {
+    synchronized (partitionedServices) {
+      partitionedServices.clear();
+    }
+  }
+
+  static String getPartitionName(String serviceName, int partition) {
+    return serviceName + PARTITION_SEPARATOR + partition;
+  }
+
+  private static void destroyPartitions(DLockService[] partitions) {
+    for (int i = 0; i < partitions.length; i++) {
+      if (partitions[i] != null) {
+        partitions[i].destroyAndRemove();
+      }
+    }
+  }
+
+  /**
+   * Returns the index of the partition that grants locks for the specified name. Every member must
+   * compute the same index for equal names, so only member-independent hash codes are used.
+   *
+   * @throws IllegalArgumentException if the name is not a String and cannot be serialized
+   */
+  static int getPartitionIndex(Object name, int numPartitions) {
+    int h;
+    if (name instanceof String) {
+      h = name.hashCode();
+    } else {
+      try {
+        h = Arrays.hashCode(BlobHelper.serializeToBlob(name));
+      } catch (IOException e) {
+        throw new IllegalArgumentException("Lock name could not be serialized: " + name, e);
+      }
+    }
+    return spreadToPartition(h, numPartitions);
+  }
+
+  /**
+   * Returns the index of the partition for the specified member-independent hash code.
+   */
+  static int spreadToPartition(int h, int numPartitions) {
+    // spread the bits so that sequential names don't cluster
+    h ^= (h >>> 16);
+    h *= 0x85ebca6b;
+    h ^= (h >>> 13);
+    return (h & 0x7fffffff) % numPartitions;
+  }
+
+  /**
+   * Returns the member which ranks highest for the specified partition or null if there are no
+   * members.
+   */
+  static InternalDistributedMember getPartitionOwner(String serviceName, int partition,
+      Set members) {
+    InternalDistributedMember owner = null;
+    long ownerWeight = Long.MIN_VALUE;
+    for (Iterator iter = members.iterator(); iter.hasNext();) {
+      InternalDistributedMember member = (InternalDistributedMember) iter.next();
+      long weight = rendezvousWeight(member.toString(), serviceName, partition);
+      if (owner == null || weight > ownerWeight
+          || (weight == ownerWeight && member.compareTo(owner) > 0)) {
+        owner = member;
+        ownerWeight = weight;
+      }
+    }
+    return owner;
+  }
+
+  private static long rendezvousWeight(String member, String serviceName, int partition) {
+    long h = 1125899906842597L;
+    h = 31 * h + member.hashCode();
+    h = 31 * h + serviceName.hashCode();
+    h = 31 * h + partition;
+    // finalizer from MurmurHash3
+    h ^= (h >>> 33);
+    h *= 0xff51afd7ed558ccdL;
+    h ^= (h >>> 33);
+    h *= 0xc4ceb9fe1a85ec53L;
+    h ^= (h >>> 33);
+    return h;
+  }
+
+  /**
+   * Becomes grantor for every partition which ranks this member highest among the current members.
+   * Grantorship of other partitions is left to the elder.
+   */
+  void claimOwnedGrantors() {
+    Set members = this.dm.getNormalDistributionManagerIds();
+    InternalDistributedMember myId = this.dm.getId();
+    for (int i = 0; i < this.partitions.length; i++) {
+      if (myId.equals(getPartitionOwner(this.serviceName, i, members))
+          && !this.partitions[i].isLockGrantor()) {
+        if (logger.isTraceEnabled(LogMarker.DLS)) {
+          logger.trace(LogMarker.DLS, "{} becoming grantor for partition {}", this, i);
+        }
+        this.partitions[i].becomeLockGrantor();
+      }
+    }
+  }
+
+  /**
+   * Returns the partition lock service which grants locks for the specified name.
+   */
+  DLockService getPartition(Object name) {
+    return this.partitions[getPartitionIndex(name, this.partitions.length)];
+  }
+
+  int getNumPartitions() {
+    return this.partitions.length;
+  }
+
+  public String getName() {
+    return this.serviceName;
+  }
+
+  @Override
+  public boolean lock(Object name, long waitTimeMillis, long leaseTimeMillis) {
+    return getPartition(name).lock(name, waitTimeMillis, leaseTimeMillis);
+  }
+
+  @Override
+  public boolean lockInterruptibly(Object name, long waitTimeMillis, long leaseTimeMillis)
+      throws InterruptedException {
+    return getPartition(name).lockInterruptibly(name, waitTimeMillis, leaseTimeMillis);
+  }
+
+  @Override
+  public void unlock(Object name) throws LeaseExpiredException {
+    getPartition(name).unlock(name);
+  }
+
+  @Override
+  public boolean isHeldByCurrentThread(Object name) {
+    return getPartition(name).isHeldByCurrentThread(name);
+  }
+
+  @Override
+  public boolean suspendLockingInterruptibly(long waitTimeMillis) throws InterruptedException {
+    return suspendAll(waitTimeMillis, true);
+  }
+
+  @Override
+  public boolean suspendLocking(long waitTimeMillis) {
+    try {
+      return suspendAll(waitTimeMillis, false);
+    } catch (InterruptedException e) {
+      // not reachable when not interruptible
+      Thread.currentThread().interrupt();
+      return false;
+    }
+  }
+
+  /**
+   * Suspends locking in every partition in index order, resuming the partitions already suspended
+   * if any partition cannot be suspended within the remaining wait time.
+   */
+  private boolean suspendAll(long waitTimeMillis, boolean interruptible)
+      throws InterruptedException {
+    long start = System.currentTimeMillis();
+    int suspended = 0;
+    try {
+      for (; suspended < this.partitions.length; suspended++) {
+        long remaining = waitTimeMillis;
+        if (waitTimeMillis > 0) {
+          remaining = Math.max(0, waitTimeMillis - (System.currentTimeMillis() - start));
+        }
+        boolean result = interruptible
+            ? this.partitions[suspended].suspendLockingInterruptibly(remaining)
+            : this.partitions[suspended].suspendLocking(remaining);
+        if (!result) {
+          break;
+        }
+      }
+    } finally {
+      if (suspended < this.partitions.length) {
+        for (int i = suspended - 1; i >= 0; i--) {
+          this.partitions[i].resumeLocking();
+        }
+      }
+    }
+    return suspended == this.partitions.length;
+  }
+
+  @Override
+  public void resumeLocking() {
+    for (int i = this.partitions.length - 1; i >= 0; i--) {
+      this.partitions[i].resumeLocking();
+    }
+  }
+
+  @Override
+  public boolean isLockingSuspendedByCurrentThread() {
+    for (int i = 0; i < this.partitions.length; i++) {
+      if (!this.partitions[i].isLockingSuspendedByCurrentThread()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public void freeResources(Object name) {
+    getPartition(name).freeResources(name);
+  }
+
+  /**
+   * Becomes grantor for every partition of this service.
+   */
+  @Override
+  public void becomeLockGrantor() {
+    for (int i = 0; i < this.partitions.length; i++) {
+      this.partitions[i].becomeLockGrantor();
+    }
+  }
+
+  /**
+   * Returns true if this member is the grantor for every partition of this service.
+   */
+  @Override
+  public boolean isLockGrantor() {
+    for (int i = 0; i < this.partitions.length; i++) {
+      if (!this.partitions[i].isLockGrantor()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Returns the number of partitions for which this member is currently the grantor.
+   */
+  public int getLocalGrantorCount() {
+    int count = 0;
+    for (int i = 0; i < this.partitions.length; i++) {
+      try {
+        if (this.partitions[i].isLockGrantor()) {
+          count++;
+        }
+      } catch (LockServiceDestroyedException ignore) {
+      }
+    }
+    return count;
+  }
+
+  @Override
+  public String toString() {
+    return "<PartitionedDLockService named " + this.serviceName + " partitions="
+        + this.partitions.length + '>';
+  }
+}
@@ -83,6 +83,7 @@ import org.apache.geode.distributed.internal.locks.DLockRecoverGrantorProcessor.
 import org.apache.geode.distributed.internal.locks.DLockReleaseProcessor;
 import org.apache.geode.distributed.internal.locks.DLockRemoteToken;
 import org.apache.geode.distributed.internal.locks.DLockRequestProcessor;
+import org.apache.geode.distributed.internal.locks.DLockRevokeLeaseProcessor;
 import org.apache.geode.distributed.internal.locks.DLockService;
 import org.apache.geode.distributed.internal.locks.DeposeGrantorProcessor;
 import org.apache.geode.distributed.internal.locks.ElderInitProcessor;
@@ -227,6 +228,7 @@ import org.apache.geode.internal.cache.FindRemoteTXMessage;
 import org.apache.geode.internal.cache.FindRemoteTXMessage.FindRemoteTXMessageReply;
 import org.apache.geode.internal.cache.FindVersionTagOperation.FindVersionTagMessage;
 import org.apache.geode.internal.cache.FindVersionTagOperation.VersionTagReply;
+import org.apache.geode.internal.cache.FunctionStreamingCreditMessage;
 import org.apache.geode.internal.cache.FunctionStreamingOrderedReplyMessage;
 import org.apache.geode.internal.cache.FunctionStreamingReplyMessage;
 import org.apache.geode.internal.cache.HARegion;
@@ -518,6 +520,8 @@ public class DSFIDFactory implements DataSerializableFixedID {
     registerDSFID(DLOCK_REQUEST_MESSAGE, DLockRequestProcessor.DLockRequestMessage.class);
     registerDSFID(DLOCK_RESPONSE_MESSAGE, DLockRequestProcessor.DLockResponseMessage.class);
     registerDSFID(DLOCK_RELEASE_MESSAGE, DLockReleaseProcessor.DLockReleaseMessage.class);
+    registerDSFID(DLOCK_REVOKE_LEASE_MESSAGE,
+        DLockRevokeLeaseProcessor.DLockRevokeLeaseMessage.class);
     registerDSFID(ADMIN_CACHE_EVENT_MESSAGE,
         SystemMemberCacheEventProcessor.SystemMemberCacheMessage.class);
     registerDSFID(CQ_ENTRY_EVENT, CqEntry.class);
@@ -848,6 +852,7 @@ public class DSFIDFactory implements DataSerializableFixedID {
     registerDSFID(MEMBER_FUNCTION_STREAMING_MESSAGE, MemberFunctionStreamingMessage.class);
     registerDSFID(DR_FUNCTION_STREAMING_MESSAGE, DistributedRegionFunctionStreamingMessage.class);
     registerDSFID(FUNCTION_STREAMING_REPLY_MESSAGE, FunctionStreamingReplyMessage.class);
+    registerDSFID(FUNCTION_STREAMING_CREDIT_MESSAGE, FunctionStreamingCreditMessage.class);
     registerDSFID(GET_ALL_SERVERS_REQUEST, GetAllServersRequest.class);
     registerDSFID(GET_ALL_SERVRES_RESPONSE, GetAllServersResponse.class);
     registerDSFID(PERSISTENT_MEMBERSHIP_VIEW_REQUEST, MembershipViewRequest.class);
@@ -813,6 +813,9 @@ public interface DataSerializableFixedID extends SerializationVersions {
   public static final short LUCENE_PAGE_RESULTS = 2179;
   public static final short LUCENE_RESULT_STRUCT = 2180;
 
+  public static final short DLOCK_REVOKE_LEASE_MESSAGE = 2181;
+  public static final short FUNCTION_STREAMING_CREDIT_MESSAGE = 2182;
+
   // NOTE, codes > 65535 will take 4 bytes to serialize
 
   /**
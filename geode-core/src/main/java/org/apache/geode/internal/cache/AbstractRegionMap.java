@@ -74,6 +74,7 @@ import org.apache.geode.internal.offheap.annotations.Released;
 import org.apache.geode.internal.offheap.annotations.Retained;
 import org.apache.geode.internal.offheap.annotations.Unretained;
 import org.apache.geode.internal.sequencelog.EntryLogger;
+import org.apache.geode.internal.util.concurrent.ConcurrentMapWithReusableEntries;
 import org.apache.geode.internal.util.concurrent.CustomEntryConcurrentHashMap;
 
 /**
@@ -84,8 +85,16 @@ import org.apache.geode.internal.util.concurrent.CustomEntryConcurrentHashMap;
 public abstract class AbstractRegionMap implements RegionMap {
   private static final Logger logger = LogService.getLogger();
 
+  /**
+   * If true, regions whose entries need neither statistics, eviction, disk nor off-heap storage
+   * keep them in a {@link CompactRegionEntryMap}, using entries that store neither their hash nor a
+   * chain pointer.
+   */
+  static final boolean COMPACT_REGION_ENTRIES =
+      Boolean.getBoolean(DistributionConfig.GEMFIRE_PREFIX + "compactRegionEntries");
+
   /** The underlying map for this region. */
-  protected CustomEntryConcurrentHashMap<Object, Object> map;
+  protected ConcurrentMapWithReusableEntries<Object, Object> map;
 
   /**
    * This test hook is used to force the conditions for defect 48182. This hook is used by
@@ -108,17 +117,17 @@ public abstract class AbstractRegionMap implements RegionMap {
       InternalRegionArguments internalRegionArgs, boolean isLRU) {
     _setAttributes(attr);
     setOwner(owner);
-    _setMap(createConcurrentMap(attr.initialCapacity, attr.loadFactor, attr.concurrencyLevel, false,
-        new AbstractRegionEntry.HashRegionEntryCreator()));
 
     boolean isDisk;
     boolean withVersioning;
     boolean offHeap;
+    Class<?> keyConstraint = null;
     if (owner instanceof LocalRegion) {
       LocalRegion region = (LocalRegion) owner;
       isDisk = region.getDiskRegion() != null;
       withVersioning = region.getConcurrencyChecksEnabled();
       offHeap = region.getOffHeap();
+      keyConstraint = region.getKeyConstraint();
     } else if (owner instanceof PlaceHolderDiskRegion) {
       offHeap = ((RegionEntryContext) owner).getOffHeap();
       isDisk = true;
@@ -128,8 +137,22 @@ public abstract class AbstractRegionMap implements RegionMap {
       throw new IllegalStateException("expected LocalRegion or PlaceHolderDiskRegion");
     }
 
-    setEntryFactory(new RegionEntryFactoryBuilder().getRegionEntryFactoryOrNull(
-        attr.statisticsEnabled, isLRU, isDisk, withVersioning, offHeap));
+    if (COMPACT_REGION_ENTRIES && !attr.statisticsEnabled && !isLRU && !isDisk && !offHeap) {
+      if (PrimitiveKeyRegionEntryMap.isSupportedKeyClass(keyConstraint)) {
+        _setMap(new PrimitiveKeyRegionEntryMap(keyConstraint, attr.initialCapacity,
+            attr.loadFactor, attr.concurrencyLevel));
+      } else {
+        _setMap(new CompactRegionEntryMap(attr.initialCapacity, attr.loadFactor,
+            attr.concurrencyLevel));
+      }
+      setEntryFactory(withVersioning ? VersionedThinRegionEntryHeap.getCompactEntryFactory()
+          : VMThinRegionEntryHeap.getCompactEntryFactory());
+    } else {
+      _setMap(createConcurrentMap(attr.initialCapacity, attr.loadFactor, attr.concurrencyLevel,
+          false, new AbstractRegionEntry.HashRegionEntryCreator()));
+      setEntryFactory(new RegionEntryFactoryBuilder().getRegionEntryFactoryOrNull(
+          attr.statisticsEnabled, isLRU, isDisk, withVersioning, offHeap));
+    }
   }
 
   private CustomEntryConcurrentHashMap<Object, Object> createConcurrentMap(int initialCapacity,
@@ -184,11 +207,11 @@ public abstract class AbstractRegionMap implements RegionMap {
     this.owner = r;
   }
 
-  protected CustomEntryConcurrentHashMap<Object, Object> _getMap() {
+  protected ConcurrentMapWithReusableEntries<Object, Object> _getMap() {
     return this.map;
   }
 
-  protected void _setMap(CustomEntryConcurrentHashMap<Object, Object> m) {
+  protected void _setMap(ConcurrentMapWithReusableEntries<Object, Object> m) {
     this.map = m;
   }
 
@@ -237,6 +260,26 @@ public abstract class AbstractRegionMap implements RegionMap {
     return re;
   }
 
+  /**
+   * Returns true if {@link #getEntry(long)} can look up entries without allocating their keys.
+   */
+  boolean hasLongKeyLookup() {
+    ConcurrentMapWithReusableEntries<Object, Object> m = _getMap();
+    return m instanceof PrimitiveKeyRegionEntryMap
+        && ((PrimitiveKeyRegionEntryMap) m).getKeyClass() == Long.class;
+  }
+
+  /**
+   * Returns the entry whose key is the {@link Long} with the given value, or null.
+   */
+  RegionEntry getEntry(long key) {
+    ConcurrentMapWithReusableEntries<Object, Object> m = _getMap();
+    if (m instanceof PrimitiveKeyRegionEntryMap) {
+      return ((PrimitiveKeyRegionEntryMap) m).getEntry(key);
+    }
+    return getEntry(Long.valueOf(key));
+  }
+
   protected RegionEntry getEntry(EntryEventImpl event) {
     return getEntry(event.getKey());
   }
@@ -548,7 +591,7 @@ public abstract class AbstractRegionMap implements RegionMap {
     // so that they will be in the correct order.
     OrderedTombstoneMap<RegionEntry> tombstones = new OrderedTombstoneMap<RegionEntry>();
     if (rm != null) {
-      CustomEntryConcurrentHashMap<Object, Object> other = ((AbstractRegionMap) rm)._getMap();
+      ConcurrentMapWithReusableEntries<Object, Object> other = ((AbstractRegionMap) rm)._getMap();
       Iterator<Map.Entry<Object, Object>> it = other.entrySetWithReusableEntries().iterator();
       while (it.hasNext()) {
         Map.Entry<Object, Object> me = it.next();
@@ -51,6 +51,7 @@ public class CachePerfStats {
   protected static final int deltaGetInitialImagesCompletedId;
   protected static final int getInitialImageTimeId;
   protected static final int getInitialImageKeysReceivedId;
+  protected static final int getInitialImageRVVExceptionsId;
   protected static final int regionsId;
   protected static final int partitionedRegionsId;
   protected static final int destroysId;
@@ -196,6 +197,8 @@ public class CachePerfStats {
         "Total time spent doing getInitialImages for region creation.";
     final String getInitialImageKeysReceivedDesc =
         "Total number of keys received while doing getInitialImage operations.";
+    final String getInitialImageRVVExceptionsDesc =
+        "Total number of region version vector exceptions sent with getInitialImage requests.";
     final String regionsDesc = "The current number of regions in the cache.";
     final String partitionedRegionsDesc = "The current number of partitioned regions in the cache.";
     final String destroysDesc =
@@ -385,6 +388,8 @@ public class CachePerfStats {
             f.createLongCounter("getInitialImageTime", getInitialImageTimeDesc, "nanoseconds"),
             f.createIntCounter("getInitialImageKeysReceived", getInitialImageKeysReceivedDesc,
                 "keys"),
+            f.createLongCounter("getInitialImageRVVExceptions",
+                getInitialImageRVVExceptionsDesc, "exceptions"),
             f.createIntGauge("regions", regionsDesc, "regions"),
             f.createIntGauge("partitionedRegions", partitionedRegionsDesc, "partitionedRegions"),
             f.createIntCounter("destroys", destroysDesc, "operations"),
@@ -533,6 +538,7 @@ public class CachePerfStats {
     deltaGetInitialImagesCompletedId = type.nameToId("deltaGetInitialImagesCompleted");
     getInitialImageTimeId = type.nameToId("getInitialImageTime");
     getInitialImageKeysReceivedId = type.nameToId("getInitialImageKeysReceived");
+    getInitialImageRVVExceptionsId = type.nameToId("getInitialImageRVVExceptions");
     regionsId = type.nameToId("regions");
     partitionedRegionsId = type.nameToId("partitionedRegions");
     destroysId = type.nameToId("destroys");
@@ -720,6 +726,10 @@ public class CachePerfStats {
     return stats.getInt(getInitialImageKeysReceivedId);
   }
 
+  public long getGetInitialImageRVVExceptions() {
+    return stats.getLong(getInitialImageRVVExceptionsId);
+  }
+
   public int getRegions() {
     return stats.getInt(regionsId);
   }
@@ -1062,6 +1072,10 @@ public class CachePerfStats {
     stats.incInt(getInitialImageKeysReceivedId, 1);
   }
 
+  public void incGetInitialImageRVVExceptions(int exceptions) {
+    stats.incLong(getInitialImageRVVExceptionsId, exceptions);
+  }
+
   public long startIndexUpdate() {
     stats.incInt(indexUpdateInProgressId, 1);
     return getStatTime();
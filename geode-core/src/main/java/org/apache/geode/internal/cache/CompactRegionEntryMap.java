@@ -0,0 +1,594 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.geode.internal.util.concurrent.ConcurrentMapWithReusableEntries;
+import org.apache.geode.internal.util.concurrent.CustomEntryConcurrentHashMap;
+import org.apache.geode.internal.util.concurrent.CustomEntryConcurrentHashMap.HashEntry;
+
+/**
+ * A concurrent map from region keys to the {@link RegionEntry} instances that hold them. Unlike
+ * {@link CustomEntryConcurrentHashMap} it uses open addressing: entries are stored directly in a
+ * single table and are never chained, so the entries created by a compact entry factory store
+ * neither their hash nor a pointer to the next entry of their bucket.
+ * <p>
+ * Reads do not lock. Writers lock one of a fixed number of stripes chosen by the hash of the key,
+ * which serializes writers of the same key, and reserve free slots with a compare and set before
+ * publishing their entry in it. Removed entries leave a marker behind that later inserts reuse.
+ * The table is rebuilt, under all stripe locks, once the number of live and removed slots passes
+ * the load factor; readers keep using the old table, which is never modified again, until they see
+ * the new one.
+ * <p>
+ * Each value must be a {@link HashEntry} whose key equals the key it is mapped to.
+ *
+ * @since Geode 1.2
+ */
+class CompactRegionEntryMap extends AbstractMap<Object, Object>
+    implements ConcurrentMapWithReusableEntries<Object, Object> {
+
+  /** Marks a slot whose entry was removed. Probes continue past it. */
+  static final Object REMOVED = new Object();
+
+  /** Marks a slot claimed by an insert that has not published its entry yet */
+  static final Object RESERVED = new Object();
+
+  private static final int MAXIMUM_CAPACITY = 1 << 30;
+
+  /** Linear probing degrades quickly when the table is nearly full */
+  private static final float MAXIMUM_LOAD_FACTOR = 0.9f;
+
+  private static final int MAXIMUM_STRIPES = 1 << 10;
+
+  private final int initialCapacity;
+
+  private final float loadFactor;
+
+  private final ReentrantLock[] locks;
+
+  private volatile Table table;
+
+  /** The number of slots of the current table that are not null */
+  private final AtomicInteger usedSlots = new AtomicInteger();
+
+  private final AtomicInteger size = new AtomicInteger();
+
+  /** Rebuild the table once this many slots are used; only changed with all stripes locked */
+  private int threshold;
+
+  private Set<Map.Entry<Object, Object>> entrySet;
+
+  private Set<Map.Entry<Object, Object>> reusableEntrySet;
+
+  /**
+   * The slots of the map. Subclasses extend it to keep more state for each slot.
+   */
+  static class Table {
+    final AtomicReferenceArray<Object> slots;
+
+    Table(int capacity) {
+      this.slots = new AtomicReferenceArray<Object>(capacity);
+    }
+
+    final int length() {
+      return this.slots.length();
+    }
+  }
+
+  CompactRegionEntryMap(int initialCapacity, float loadFactor, int concurrencyLevel) {
+    if (initialCapacity < 0 || !(loadFactor > 0) || concurrencyLevel <= 0) {
+      throw new IllegalArgumentException();
+    }
+    this.loadFactor = Math.min(loadFactor, MAXIMUM_LOAD_FACTOR);
+    int stripes = 1;
+    while (stripes < concurrencyLevel && stripes < MAXIMUM_STRIPES) {
+      stripes <<= 1;
+    }
+    this.locks = new ReentrantLock[stripes];
+    for (int i = 0; i < stripes; i++) {
+      this.locks[i] = new ReentrantLock();
+    }
+    this.initialCapacity = capacityFor(initialCapacity);
+    setTable(newTable(this.initialCapacity));
+  }
+
+  private int capacityFor(int entries) {
+    long wanted = (long) Math.ceil(entries / this.loadFactor) + 1;
+    int capacity = 2;
+    while (capacity < wanted && capacity < MAXIMUM_CAPACITY) {
+      capacity <<= 1;
+    }
+    return capacity;
+  }
+
+  private void setTable(Table newTable) {
+    int capacity = newTable.length();
+    this.threshold = Math.min((int) (capacity * this.loadFactor), capacity - 1);
+    this.table = newTable;
+  }
+
+  final Table getTable() {
+    return this.table;
+  }
+
+  /**
+   * Creates an empty table with the given number of slots.
+   */
+  Table newTable(int capacity) {
+    return new Table(capacity);
+  }
+
+  /**
+   * Called with the stripe of key locked after a slot was reserved for it and before its entry is
+   * published.
+   */
+  void slotReserved(Table tab, int index, Object key) {
+    // nothing is stored besides the entry
+  }
+
+  /**
+   * Called while the table is rebuilt to copy the state of a live slot into the new table.
+   */
+  void slotMoved(Table from, int fromIndex, Table to, int toIndex) {
+    // nothing is stored besides the entry
+  }
+
+  /**
+   * Returns true if the entry read from the given slot is mapped to key.
+   */
+  boolean isSlotKey(Table tab, int index, Object entry, Object key) {
+    return asEntry(entry).isKeyEqual(key);
+  }
+
+  /**
+   * Returns the hash of the key of the entry in the given slot.
+   */
+  int slotHash(Table tab, int index, Object entry) {
+    return hash(asEntry(entry).getKey());
+  }
+
+  /**
+   * Spreads a hash code so that keys with sequential hash codes do not form clusters in the table.
+   */
+  static int spread(int hashCode) {
+    int h = hashCode * 0x9E3779B9;
+    return h ^ (h >>> 16);
+  }
+
+  static int hash(Object key) {
+    return spread(key.hashCode());
+  }
+
+  static boolean isEntry(Object slot) {
+    return slot != null && slot != REMOVED && slot != RESERVED;
+  }
+
+  private ReentrantLock lockFor(int hash) {
+    // use the high bits so that neighbouring slots do not always share a stripe
+    return this.locks[(hash >>> 16) & (this.locks.length - 1)];
+  }
+
+  @SuppressWarnings("unchecked")
+  static HashEntry<Object, Object> asEntry(Object slot) {
+    return (HashEntry<Object, Object>) slot;
+  }
+
+  private static void checkEntry(Object key, Object value) {
+    if (!(value instanceof HashEntry) || !asEntry(value).isKeyEqual(key)) {
+      throw new IllegalArgumentException("expected an entry with key " + key + " but was " + value);
+    }
+  }
+
+  @Override
+  public int size() {
+    return this.size.get();
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return this.size.get() == 0;
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return get(key) != null;
+  }
+
+  @Override
+  public Object get(Object key) {
+    final Table tab = this.table;
+    final int mask = tab.length() - 1;
+    int index = hash(key) & mask;
+    for (int probes = 0; probes <= mask; probes++) {
+      Object slot = tab.slots.get(index);
+      if (slot == null) {
+        return null;
+      }
+      if (isEntry(slot) && isSlotKey(tab, index, slot, key)) {
+        return slot;
+      }
+      index = (index + 1) & mask;
+    }
+    return null;
+  }
+
+  /**
+   * Returns the index of the slot holding the entry for key in the current table, or -1. Must be
+   * called with the stripe of the key locked.
+   */
+  private int indexOf(Table tab, Object key, int hash) {
+    final int mask = tab.length() - 1;
+    int index = hash & mask;
+    for (int probes = 0; probes <= mask; probes++) {
+      Object slot = tab.slots.get(index);
+      if (slot == null) {
+        return -1;
+      }
+      if (isEntry(slot) && isSlotKey(tab, index, slot, key)) {
+        return index;
+      }
+      index = (index + 1) & mask;
+    }
+    return -1;
+  }
+
+  /**
+   * Stores value in the first free slot of the probe sequence of hash. Must be called with the
+   * stripe of the key locked after checking that the key is not in the table. Returns false if the
+   * table must be rebuilt first.
+   */
+  private boolean insert(Table tab, Object key, int hash, Object value) {
+    if (this.usedSlots.get() >= this.threshold) {
+      return false;
+    }
+    final int mask = tab.length() - 1;
+    int index = hash & mask;
+    for (int probes = 0; probes <= mask; probes++) {
+      // other stripes may claim the same slot so it is only reserved with a compare and set
+      Object slot = tab.slots.get(index);
+      if (slot == REMOVED && tab.slots.compareAndSet(index, REMOVED, RESERVED)) {
+        publish(tab, index, key, value);
+        return true;
+      }
+      if (slot == null && tab.slots.compareAndSet(index, null, RESERVED)) {
+        this.usedSlots.incrementAndGet();
+        publish(tab, index, key, value);
+        return true;
+      }
+      if (tab.slots.get(index) == REMOVED) {
+        // lost a race for a null slot to an insert that was then removed; retry this slot
+        continue;
+      }
+      index = (index + 1) & mask;
+    }
+    return false;
+  }
+
+  private void publish(Table tab, int index, Object key, Object value) {
+    slotReserved(tab, index, key);
+    tab.slots.set(index, value);
+    this.size.incrementAndGet();
+  }
+
+  @Override
+  public Object put(Object key, Object value) {
+    return put(key, value, false);
+  }
+
+  @Override
+  public Object putIfAbsent(Object key, Object value) {
+    return put(key, value, true);
+  }
+
+  private Object put(Object key, Object value, boolean onlyIfAbsent) {
+    checkEntry(key, value);
+    final int hash = hash(key);
+    final ReentrantLock lock = lockFor(hash);
+    for (;;) {
+      lock.lock();
+      try {
+        final Table tab = this.table;
+        int index = indexOf(tab, key, hash);
+        if (index >= 0) {
+          Object oldValue = tab.slots.get(index);
+          if (!onlyIfAbsent) {
+            tab.slots.set(index, value);
+          }
+          return oldValue;
+        }
+        if (insert(tab, key, hash, value)) {
+          return null;
+        }
+      } finally {
+        lock.unlock();
+      }
+      rebuild();
+    }
+  }
+
+  @Override
+  public Object remove(Object key) {
+    return remove(key, null, true);
+  }
+
+  @Override
+  public boolean remove(Object key, Object value) {
+    return value != null && remove(key, value, false) != null;
+  }
+
+  private Object remove(Object key, Object expectedValue, boolean anyValue) {
+    final int hash = hash(key);
+    final ReentrantLock lock = lockFor(hash);
+    lock.lock();
+    try {
+      final Table tab = this.table;
+      int index = indexOf(tab, key, hash);
+      if (index < 0) {
+        return null;
+      }
+      Object oldValue = tab.slots.get(index);
+      if (!anyValue && !expectedValue.equals(oldValue)) {
+        return null;
+      }
+      tab.slots.set(index, REMOVED);
+      this.size.decrementAndGet();
+      return oldValue;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public boolean replace(Object key, Object oldValue, Object newValue) {
+    if (oldValue == null) {
+      throw new NullPointerException();
+    }
+    return replace(key, oldValue, newValue, false) != null;
+  }
+
+  @Override
+  public Object replace(Object key, Object value) {
+    return replace(key, null, value, true);
+  }
+
+  private Object replace(Object key, Object expectedValue, Object newValue, boolean anyValue) {
+    checkEntry(key, newValue);
+    final int hash = hash(key);
+    final ReentrantLock lock = lockFor(hash);
+    lock.lock();
+    try {
+      final Table tab = this.table;
+      int index = indexOf(tab, key, hash);
+      if (index < 0) {
+        return null;
+      }
+      Object oldValue = tab.slots.get(index);
+      if (!anyValue && !expectedValue.equals(oldValue)) {
+        return null;
+      }
+      tab.slots.set(index, newValue);
+      return oldValue;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void clear() {
+    lockAll();
+    try {
+      this.usedSlots.set(0);
+      this.size.set(0);
+      setTable(newTable(this.initialCapacity));
+    } finally {
+      unlockAll();
+    }
+  }
+
+  private void lockAll() {
+    for (ReentrantLock lock : this.locks) {
+      lock.lock();
+    }
+  }
+
+  private void unlockAll() {
+    for (ReentrantLock lock : this.locks) {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Copies the live entries into a new table, doubling its size if they take up more than half of
+   * the load factor. Otherwise the table keeps its size and only drops its removed markers.
+   */
+  private void rebuild() {
+    lockAll();
+    try {
+      final Table oldTab = this.table;
+      if (this.usedSlots.get() < this.threshold) {
+        // another writer already rebuilt the table
+        return;
+      }
+      int capacity = oldTab.length();
+      if (this.size.get() * 2 >= this.threshold && capacity < MAXIMUM_CAPACITY) {
+        capacity <<= 1;
+      }
+      final Table newTab = newTable(capacity);
+      final int mask = capacity - 1;
+      int used = 0;
+      for (int i = 0; i < oldTab.length(); i++) {
+        Object slot = oldTab.slots.get(i);
+        if (!isEntry(slot)) {
+          continue;
+        }
+        int index = slotHash(oldTab, i, slot) & mask;
+        while (newTab.slots.get(index) != null) {
+          index = (index + 1) & mask;
+        }
+        slotMoved(oldTab, i, newTab, index);
+        newTab.slots.set(index, slot);
+        used++;
+      }
+      this.usedSlots.set(used);
+      setTable(newTab);
+    } finally {
+      unlockAll();
+    }
+  }
+
+  @Override
+  public Set<Map.Entry<Object, Object>> entrySet() {
+    Set<Map.Entry<Object, Object>> es = this.entrySet;
+    return es != null ? es : (this.entrySet = new EntrySet(false));
+  }
+
+  @Override
+  public Set<Map.Entry<Object, Object>> entrySetWithReusableEntries() {
+    Set<Map.Entry<Object, Object>> es = this.reusableEntrySet;
+    return es != null ? es : (this.reusableEntrySet = new EntrySet(true));
+  }
+
+  private class EntrySet extends AbstractSet<Map.Entry<Object, Object>> {
+    private final boolean reuseEntries;
+
+    EntrySet(boolean reuseEntries) {
+      this.reuseEntries = reuseEntries;
+    }
+
+    @Override
+    public Iterator<Map.Entry<Object, Object>> iterator() {
+      return new EntryIterator(this.reuseEntries);
+    }
+
+    @Override
+    public boolean contains(Object o) {
+      if (!(o instanceof Map.Entry)) {
+        return false;
+      }
+      Map.Entry<?, ?> e = (Map.Entry<?, ?>) o;
+      Object value = get(e.getKey());
+      return value != null && value.equals(e.getValue());
+    }
+
+    @Override
+    public boolean remove(Object o) {
+      if (!(o instanceof Map.Entry)) {
+        return false;
+      }
+      Map.Entry<?, ?> e = (Map.Entry<?, ?>) o;
+      return CompactRegionEntryMap.this.remove(e.getKey(), e.getValue());
+    }
+
+    @Override
+    public int size() {
+      return CompactRegionEntryMap.this.size();
+    }
+
+    @Override
+    public void clear() {
+      CompactRegionEntryMap.this.clear();
+    }
+  }
+
+  /**
+   * A weakly consistent iterator over the table that was current when it was created.
+   */
+  private class EntryIterator implements Iterator<Map.Entry<Object, Object>> {
+    private final Table tab = CompactRegionEntryMap.this.table;
+
+    private final ReusableEntry reusableEntry;
+
+    private int nextIndex;
+
+    private HashEntry<Object, Object> next;
+
+    private HashEntry<Object, Object> last;
+
+    EntryIterator(boolean reuseEntries) {
+      this.reusableEntry = reuseEntries ? new ReusableEntry() : null;
+      advance();
+    }
+
+    private void advance() {
+      while (this.nextIndex < this.tab.length()) {
+        Object slot = this.tab.slots.get(this.nextIndex++);
+        if (isEntry(slot)) {
+          this.next = asEntry(slot);
+          return;
+        }
+      }
+      this.next = null;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return this.next != null;
+    }
+
+    @Override
+    public Map.Entry<Object, Object> next() {
+      if (this.next == null) {
+        throw new NoSuchElementException();
+      }
+      this.last = this.next;
+      advance();
+      if (this.reusableEntry != null) {
+        this.reusableEntry.key = this.last.getKey();
+        this.reusableEntry.value = this.last;
+        return this.reusableEntry;
+      }
+      return new SimpleImmutableEntry<Object, Object>(this.last.getKey(), this.last);
+    }
+
+    @Override
+    public void remove() {
+      if (this.last == null) {
+        throw new IllegalStateException();
+      }
+      CompactRegionEntryMap.this.remove(this.last.getKey(), this.last);
+      this.last = null;
+    }
+  }
+
+  private static class ReusableEntry implements Map.Entry<Object, Object> {
+    Object key;
+
+    Object value;
+
+    @Override
+    public Object getKey() {
+      return this.key;
+    }
+
+    @Override
+    public Object getValue() {
+      return this.value;
+    }
+
+    @Override
+    public Object setValue(Object value) {
+      throw new UnsupportedOperationException();
+    }
+  }
+}
@@ -40,6 +40,7 @@ import org.apache.geode.distributed.internal.ReplyException;
 import org.apache.geode.distributed.internal.ReplyMessage;
 import org.apache.geode.distributed.internal.ReplyProcessor21;
 import org.apache.geode.distributed.internal.membership.InternalDistributedMember;
+import org.apache.geode.internal.cache.execute.FunctionResultFlowControl;
 import org.apache.geode.internal.i18n.LocalizedStrings;
 import org.apache.geode.internal.logging.LogService;
 import org.apache.geode.internal.logging.log4j.LogMarker;
@@ -221,6 +222,8 @@ public class DistributedRegionFunctionStreamingMessage extends DistributionMessa
         // Send the reply if the operateOnPartitionedRegion returned true
         sendReply(getSender(), this.processorId, dm, rex, null, 0, true, false);
       }
+      // the execution may have failed before sending its last result
+      FunctionResultFlowControl.streamCompleted(getSender(), this.processorId);
     }
   }
 
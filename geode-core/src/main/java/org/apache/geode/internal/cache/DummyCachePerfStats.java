@@ -282,6 +282,9 @@ public class DummyCachePerfStats extends CachePerfStats {
   @Override
   public void incGetInitialImageKeysReceived() {}
 
+  @Override
+  public void incGetInitialImageRVVExceptions(int exceptions) {}
+
   @Override
   public void incRegions(int inc) {}
 
@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+import org.apache.geode.distributed.internal.DM;
+import org.apache.geode.distributed.internal.DistributionManager;
+import org.apache.geode.distributed.internal.HighPriorityDistributionMessage;
+import org.apache.geode.distributed.internal.membership.InternalDistributedMember;
+import org.apache.geode.internal.cache.execute.FunctionResultFlowControl;
+
+/**
+ * Sent by the caller of a function to a member streaming results to it, granting that member
+ * permission to send results up to the specified message number.
+ *
+ * @see FunctionResultFlowControl
+ * @since Geode 1.2
+ */
+public class FunctionStreamingCreditMessage extends HighPriorityDistributionMessage {
+
+  /** the reply processor of the caller */
+  private int processorId;
+
+  /** number of messages the recipient may have sent in total */
+  private int grantedUpTo;
+
+  public FunctionStreamingCreditMessage() {}
+
+  public static void send(InternalDistributedMember recipient, int processorId, int grantedUpTo,
+      DM dm) {
+    FunctionStreamingCreditMessage m = new FunctionStreamingCreditMessage();
+    m.processorId = processorId;
+    m.grantedUpTo = grantedUpTo;
+    m.setRecipient(recipient);
+    dm.putOutgoing(m);
+  }
+
+  @Override
+  protected void process(DistributionManager dm) {
+    FunctionResultFlowControl.grant(getSender(), this.processorId, this.grantedUpTo);
+  }
+
+  public int getDSFID() {
+    return FUNCTION_STREAMING_CREDIT_MESSAGE;
+  }
+
+  @Override
+  public void toData(DataOutput out) throws IOException {
+    super.toData(out);
+    out.writeInt(this.processorId);
+    out.writeInt(this.grantedUpTo);
+  }
+
+  @Override
+  public void fromData(DataInput in) throws IOException, ClassNotFoundException {
+    super.fromData(in);
+    this.processorId = in.readInt();
+    this.grantedUpTo = in.readInt();
+  }
+
+  @Override
+  public String toString() {
+    return "FunctionStreamingCreditMessage(processorId=" + this.processorId + "; grantedUpTo="
+        + this.grantedUpTo + "; sender=" + getSender() + ")";
+  }
+}
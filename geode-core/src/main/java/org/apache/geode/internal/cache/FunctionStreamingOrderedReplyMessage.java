@@ -45,6 +45,7 @@ public class FunctionStreamingOrderedReplyMessage extends FunctionStreamingReply
     m.msgNum = msgNum;
     m.lastMsg = lastMsg;
     m.result = result;
+    awaitCredit(recipient, processorId, dm, msgNum, lastMsg);
     dm.putOutgoing(m);
   }
 
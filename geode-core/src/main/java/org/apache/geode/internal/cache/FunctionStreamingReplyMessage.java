@@ -28,6 +28,7 @@ import org.apache.geode.distributed.internal.DM;
 import org.apache.geode.distributed.internal.ReplyException;
 import org.apache.geode.distributed.internal.ReplyMessage;
 import org.apache.geode.distributed.internal.membership.InternalDistributedMember;
+import org.apache.geode.internal.cache.execute.FunctionResultFlowControl;
 import org.apache.geode.internal.logging.LogService;
 
 public class FunctionStreamingReplyMessage extends ReplyMessage {
@@ -59,9 +60,27 @@ public class FunctionStreamingReplyMessage extends ReplyMessage {
     m.msgNum = msgNum;
     m.lastMsg = lastMsg;
     m.result = result;
+    awaitCredit(recipient, processorId, dm, msgNum, lastMsg);
     dm.putOutgoing(m);
   }
 
+  /**
+   * Waits for the caller to grant flow control credit before sending a message which is not the
+   * last one in its series.
+   */
+  protected static void awaitCredit(InternalDistributedMember recipient, int processorId, DM dm,
+      int msgNum, boolean lastMsg) {
+    if (lastMsg) {
+      FunctionResultFlowControl.streamCompleted(recipient, processorId);
+      return;
+    }
+    try {
+      FunctionResultFlowControl.awaitCredit(dm, recipient, processorId, msgNum);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
   public int getMessageNumber() {
     return this.msgNum;
   }
@@ -439,6 +439,9 @@ public class InitialImageOperation {
         }
       }
 
+      if (m.versionVector != null) {
+        recordRequestedRVV(m.versionVector);
+      }
       ImageProcessor processor = new ImageProcessor(this.region.getSystem(), recipient);
       dm.acquireGIIPermitUninterruptibly();
       try {
@@ -581,6 +584,7 @@ public class InitialImageOperation {
       m.versionVector = this.region.getVersionVector().getCloneForTransmission();
     }
     m.setRecipient(target);
+    recordRequestedRVV(m.versionVector);
     ImageProcessor processor = new ImageProcessor(this.region.getSystem(), target);
     dm.acquireGIIPermitUninterruptibly();
     try {
@@ -1044,6 +1048,13 @@ public class InitialImageOperation {
     return keys;
   }
 
+  /**
+   * Records the number of exceptions in a version vector sent with an image request
+   */
+  private void recordRequestedRVV(RegionVersionVector rvv) {
+    this.region.getCachePerfStats().incGetInitialImageRVVExceptions(rvv.getTotalExceptionCount());
+  }
+
   protected void saveReceivedRVV(RegionVersionVector rvv) {
     assert rvv != null;
 
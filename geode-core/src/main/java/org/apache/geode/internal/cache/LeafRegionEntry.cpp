@@ -64,6 +64,9 @@ import org.apache.geode.internal.offheap.annotations.Released;
 import org.apache.geode.internal.offheap.annotations.Retained;
 import org.apache.geode.internal.offheap.annotations.Unretained;
 #endif
+#ifdef COMPACT
+import org.apache.geode.internal.util.concurrent.CustomEntryConcurrentHashMap;
+#endif
 import org.apache.geode.internal.util.concurrent.CustomEntryConcurrentHashMap.HashEntry;
 
 // macros whose definition changes this class:
@@ -72,6 +75,7 @@ import org.apache.geode.internal.util.concurrent.CustomEntryConcurrentHashMap.Ha
 // stats: STATS
 // versioned: VERSIONED
 // offheap: OFFHEAP
+// compact: COMPACT
 // One of the following key macros must be defined:
 // key object: KEY_OBJECT
 // key int: KEY_INT
@@ -168,8 +172,10 @@ public class LEAF_CLASS extends PARENT_CLASS {
   // DO NOT modify this class. It was generated from LeafRegionEntry.cpp
   
   // common code
+#ifndef COMPACT
   protected int hash;
   private HashEntry<Object, Object> next;
+#endif
   @SuppressWarnings("unused")
   private volatile long lastModified;
   private static final AtomicLongFieldUpdater<LEAF_CLASS> lastModifiedUpdater
@@ -260,6 +266,34 @@ public class LEAF_CLASS extends PARENT_CLASS {
   protected boolean compareAndSetLastModifiedField(long expectedValue, long newValue) {
     return lastModifiedUpdater.compareAndSet(this, expectedValue, newValue);
   }
+#ifdef COMPACT
+  /**
+   * Compact entries are only stored in maps that do not chain entries so the hash is derived from
+   * the key instead of being stored in the entry.
+   *
+   * @see HashEntry#getEntryHash()
+   */
+  public int getEntryHash() {
+    return CustomEntryConcurrentHashMap.keyHash(getKey(), true);
+  }
+  protected void setEntryHash(int v) {
+    // the hash is derived from the key
+  }
+  /**
+   * @see HashEntry#getNextEntry()
+   */
+  public HashEntry<Object, Object> getNextEntry() {
+    return null;
+  }
+  /**
+   * @see HashEntry#setNextEntry
+   */
+  public void setNextEntry(final HashEntry<Object, Object> n) {
+    if (n != null) {
+      throw new UnsupportedOperationException("compact region entries can not be chained");
+    }
+  }
+#else
   /**
    * @see HashEntry#getEntryHash()
    */
@@ -281,6 +315,7 @@ public class LEAF_CLASS extends PARENT_CLASS {
   public void setNextEntry(final HashEntry<Object, Object> n) {
     this.next = n;
   }
+#endif
 #ifdef DISK
 
   // DO NOT modify this class. It was generated from LeafRegionEntry.cpp
@@ -1291,6 +1291,35 @@ public class LocalRegion extends AbstractRegion implements LoaderHelperFactory,
     return result;
   }
 
+  /**
+   * Finds a local hit without allocating the key if this region keeps its entries in a map of
+   * long keys. Transactions and misses take the usual path.
+   */
+  @Override
+  public Object getLong(long key) throws TimeoutException, CacheLoaderException {
+    if (!(this.entries instanceof AbstractRegionMap)
+        || !((AbstractRegionMap) this.entries).hasLongKeyLookup()) {
+      return get(Long.valueOf(key));
+    }
+    checkReadiness();
+    checkForNoAccess();
+    discoverJTA();
+    if (isTX()) {
+      return get(Long.valueOf(key));
+    }
+    RegionEntry re = ((AbstractRegionMap) this.entries).getEntry(key);
+    if (re != null) {
+      CachePerfStats stats = getCachePerfStats();
+      long start = stats.startGet();
+      Object value = getDeserialized(re, true, false, false, false);
+      if (value != null && !(value instanceof Token)) {
+        stats.endGet(start, false);
+        return value;
+      }
+    }
+    return get(Long.valueOf(key));
+  }
+
   /**
    * @see BucketRegion#getSerialized(KeyInfo, boolean, boolean, ClientProxyMembershipID,
    *      EntryEventImpl, boolean)
@@ -11153,6 +11182,12 @@ public class LocalRegion extends AbstractRegion implements LoaderHelperFactory,
       this.cachePerfStats.incGetInitialImageKeysReceived();
     }
 
+    @Override
+    public void incGetInitialImageRVVExceptions(int exceptions) {
+      this.stats.incLong(getInitialImageRVVExceptionsId, exceptions);
+      this.cachePerfStats.incGetInitialImageRVVExceptions(exceptions);
+    }
+
     @Override
     public long startIndexUpdate() {
       this.stats.incInt(indexUpdateInProgressId, 1);
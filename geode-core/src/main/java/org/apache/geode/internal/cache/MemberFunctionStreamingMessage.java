@@ -44,6 +44,7 @@ import org.apache.geode.distributed.internal.ReplyMessage;
 import org.apache.geode.distributed.internal.ReplyProcessor21;
 import org.apache.geode.distributed.internal.membership.InternalDistributedMember;
 import org.apache.geode.internal.cache.execute.FunctionContextImpl;
+import org.apache.geode.internal.cache.execute.FunctionResultFlowControl;
 import org.apache.geode.internal.cache.execute.FunctionStats;
 import org.apache.geode.internal.cache.execute.MemberFunctionResultSender;
 import org.apache.geode.internal.cache.execute.MultiRegionFunctionContextImpl;
@@ -234,6 +235,8 @@ public class MemberFunctionStreamingMessage extends DistributionMessage
         rex = new ReplyException(thr);
         replyWithException(dm, rex);
       }
+      // the execution may have failed before sending its last result
+      FunctionResultFlowControl.streamCompleted(getSender(), this.processorId);
     }
   }
 
@@ -37,6 +37,7 @@ import org.apache.geode.internal.cache.LocalRegion.RegionPerfStats;
 import org.apache.geode.internal.cache.PartitionedRegion.BucketLock;
 import org.apache.geode.internal.cache.PartitionedRegion.SizeEntry;
 import org.apache.geode.internal.cache.execute.BucketMovedException;
+import org.apache.geode.internal.cache.execute.BucketParallelFunctionExecution;
 import org.apache.geode.internal.cache.execute.FunctionStats;
 import org.apache.geode.internal.cache.execute.PartitionedRegionFunctionResultSender;
 import org.apache.geode.internal.cache.execute.RegionFunctionContextImpl;
@@ -2908,7 +2909,7 @@ public class PartitionedRegionDataStore implements HasCachePerfStats {
         logger.debug("Executing Function: {} on Remote Node with context: ", function.getId(),
             prContext);
       }
-      function.execute(prContext);
+      BucketParallelFunctionExecution.execute(function, prContext);
       stats.endFunctionExecution(start, function.hasResult());
     } catch (FunctionException functionException) {
       if (logger.isDebugEnabled()) {
@@ -0,0 +1,140 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A {@link CompactRegionEntryMap} for regions whose keys are constrained to {@link Integer},
+ * {@link Long} or {@link UUID}. Each slot also holds a long digest of its key: the key itself for
+ * integral keys and the xor of both halves of a UUID. Probes compare digests instead of asking the
+ * entries they pass over, and {@link #getEntry(long)} finds the entry of a long key without
+ * allocating a {@link Long}.
+ * <p>
+ * A reader matching a digest reads the slot's entry again and only trusts the digest if the entry
+ * is unchanged. If the slot was concurrently reused the reader compares the key of the entry it
+ * read, or reads the slot again, instead of skipping a slot that may hold its key.
+ *
+ * @since Geode 1.2
+ */
+class PrimitiveKeyRegionEntryMap extends CompactRegionEntryMap {
+
+  private final Class<?> keyClass;
+
+  /** True if equal digests imply equal keys */
+  private final boolean exactDigests;
+
+  static class DigestTable extends Table {
+    final AtomicLongArray digests;
+
+    DigestTable(int capacity) {
+      super(capacity);
+      this.digests = new AtomicLongArray(capacity);
+    }
+  }
+
+  PrimitiveKeyRegionEntryMap(Class<?> keyClass, int initialCapacity, float loadFactor,
+      int concurrencyLevel) {
+    super(initialCapacity, loadFactor, concurrencyLevel);
+    if (!isSupportedKeyClass(keyClass)) {
+      throw new IllegalArgumentException("unsupported key class " + keyClass);
+    }
+    this.keyClass = keyClass;
+    this.exactDigests = keyClass != UUID.class;
+  }
+
+  /**
+   * Returns true if regions whose keys are constrained to keyClass can use this map.
+   */
+  static boolean isSupportedKeyClass(Class<?> keyClass) {
+    return keyClass == Long.class || keyClass == Integer.class || keyClass == UUID.class;
+  }
+
+  Class<?> getKeyClass() {
+    return this.keyClass;
+  }
+
+  private static long digest(Object key) {
+    if (key instanceof UUID) {
+      UUID uuid = (UUID) key;
+      return uuid.getMostSignificantBits() ^ uuid.getLeastSignificantBits();
+    }
+    return ((Number) key).longValue();
+  }
+
+  @Override
+  Table newTable(int capacity) {
+    return new DigestTable(capacity);
+  }
+
+  @Override
+  void slotReserved(Table tab, int index, Object key) {
+    ((DigestTable) tab).digests.set(index, digest(key));
+  }
+
+  @Override
+  void slotMoved(Table from, int fromIndex, Table to, int toIndex) {
+    ((DigestTable) to).digests.set(toIndex, ((DigestTable) from).digests.get(fromIndex));
+  }
+
+  @Override
+  boolean isSlotKey(Table tab, int index, Object entry, Object key) {
+    if (key.getClass() != this.keyClass) {
+      return false;
+    }
+    long digest = ((DigestTable) tab).digests.get(index);
+    if (tab.slots.get(index) != entry) {
+      // the slot was reused after the entry was read, so the digest may not be the entry's
+      return asEntry(entry).isKeyEqual(key);
+    }
+    return digest == digest(key) && (this.exactDigests || asEntry(entry).isKeyEqual(key));
+  }
+
+  @Override
+  int slotHash(Table tab, int index, Object entry) {
+    // Long, Integer and UUID all hash like their digest does as a Long
+    long digest = ((DigestTable) tab).digests.get(index);
+    return spread(this.keyClass == Integer.class ? (int) digest : Long.hashCode(digest));
+  }
+
+  /**
+   * Returns the entry whose key is the {@link Long} with the given value, or null. The keys of this
+   * map must be constrained to Long.
+   */
+  RegionEntry getEntry(long key) {
+    if (this.keyClass != Long.class) {
+      return (RegionEntry) get(key);
+    }
+    final DigestTable tab = (DigestTable) getTable();
+    final int mask = tab.length() - 1;
+    int index = spread(Long.hashCode(key)) & mask;
+    for (int probes = 0; probes <= mask; probes++) {
+      Object slot = tab.slots.get(index);
+      if (slot == null) {
+        return null;
+      }
+      if (isEntry(slot) && tab.digests.get(index) == key) {
+        if (tab.slots.get(index) == slot) {
+          return (RegionEntry) slot;
+        }
+        // the slot was reused after it was read, so the digest may not be its entry's; retry it
+        continue;
+      }
+      index = (index + 1) & mask;
+    }
+    return null;
+  }
+}
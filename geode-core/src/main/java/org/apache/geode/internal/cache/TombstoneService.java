@@ -23,9 +23,13 @@ import java.util.List;
 import java.util.Map;
 import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Predicate;
@@ -35,6 +39,7 @@ import org.apache.logging.log4j.Logger;
 import org.apache.geode.CancelCriterion;
 import org.apache.geode.CancelException;
 import org.apache.geode.SystemFailure;
+import org.apache.geode.cache.RegionDestroyedException;
 import org.apache.geode.cache.util.ObjectSizer;
 import org.apache.geode.distributed.internal.CacheTime;
 import org.apache.geode.distributed.internal.DistributionConfig;
@@ -96,6 +101,15 @@ public class TombstoneService {
   public static long DEFUNCT_TOMBSTONE_SCAN_INTERVAL =
       Long.getLong(DistributionConfig.GEMFIRE_PREFIX + "tombstone-scan-interval", 60000);
 
+  /**
+   * The maximum number of threads, including the sweeper thread, used to remove a batch of expired
+   * tombstones. Each thread removes the tombstones of one region or bucket at a time. The default
+   * is the number of available processors.
+   */
+  public static int GC_THREADS = Integer.getInteger(
+      DistributionConfig.GEMFIRE_PREFIX + "tombstone-gc-threads",
+      Runtime.getRuntime().availableProcessors());
+
   /**
    * The threshold percentage of free max memory that will trigger tombstone GCs. The default
    * percentage is somewhat less than the LRU Heap evictor so that we evict tombstones before we
@@ -312,6 +326,14 @@ public class TombstoneService {
     return this.replicatedTombstoneSweeper.testHook_forceExpiredTombstoneGC(count);
   }
 
+  /**
+   * For test purposes only, the number of expired tombstones of replicated regions that are
+   * awaiting batch removal.
+   */
+  int getExpiredTombstoneCountForTests() {
+    return this.replicatedTombstoneSweeper.expiredTombstoneCount;
+  }
+
   @Override
   public String toString() {
     return "Destroyed entries GC service.  Replicate Queue=" + this.replicatedTombstoneSweeper
@@ -408,11 +430,19 @@ public class TombstoneService {
      */
     private final ExecutorService executor;
     /**
-     * tombstones that have expired and are awaiting batch removal.
+     * tombstones that have expired and are awaiting batch removal, indexed by the region or bucket
+     * holding them. A batch is removed one region at a time by several threads, and a region that
+     * is cleared or destroyed drops its expired tombstones without scanning those of others.
      */
-    private final List<Tombstone> expiredTombstones;
+    private final Map<LocalRegion, List<Tombstone>> expiredTombstones;
     private final Object expiredTombstonesLock = new Object();
 
+    /**
+     * The number of tombstones in {@link #expiredTombstones}. Only modified while holding
+     * expiredTombstonesLock.
+     */
+    private volatile int expiredTombstoneCount;
+
     /**
      * Force batch expiration
      */
@@ -442,7 +472,7 @@ public class TombstoneService {
         CancelCriterion cancelCriterion, ExecutorService executor) {
       super(cacheTime, stats, cancelCriterion, REPLICATE_TOMBSTONE_TIMEOUT,
           "Replicate/Partition Region Garbage Collector");
-      this.expiredTombstones = new ArrayList<Tombstone>();
+      this.expiredTombstones = new HashMap<LocalRegion, List<Tombstone>>();
       this.executor = executor;
     }
 
@@ -473,15 +503,22 @@ public class TombstoneService {
       boolean result = false;
       long removalSize = 0;
       synchronized (expiredTombstonesLock) {
-        // Iterate in reverse order to optimize lots of removes.
-        // Since expiredTombstones is an ArrayList removing from
-        // low indexes requires moving everything at a higher index down.
-        for (int idx = expiredTombstones.size() - 1; idx >= 0; idx--) {
-          Tombstone t = expiredTombstones.get(idx);
-          if (predicate.test(t)) {
-            removalSize += t.getSize();
-            expiredTombstones.remove(idx);
-            result = true;
+        for (Iterator<List<Tombstone>> it = expiredTombstones.values().iterator(); it.hasNext();) {
+          List<Tombstone> segment = it.next();
+          // Iterate in reverse order to optimize lots of removes.
+          // Since each segment is an ArrayList removing from
+          // low indexes requires moving everything at a higher index down.
+          for (int idx = segment.size() - 1; idx >= 0; idx--) {
+            Tombstone t = segment.get(idx);
+            if (predicate.test(t)) {
+              removalSize += t.getSize();
+              segment.remove(idx);
+              expiredTombstoneCount--;
+              result = true;
+            }
+          }
+          if (segment.isEmpty()) {
+            it.remove();
           }
         }
       }
@@ -489,6 +526,34 @@ public class TombstoneService {
       return result;
     }
 
+    @Override
+    protected boolean removeExpiredTombstones(LocalRegion r) {
+      return removeExpiredSegment(r) != null;
+    }
+
+    /**
+     * Removes the expired tombstones of the given region from the batch and updates the memory
+     * estimate.
+     * 
+     * @return the removed tombstones or null if the region had none
+     */
+    private List<Tombstone> removeExpiredSegment(LocalRegion r) {
+      final List<Tombstone> segment;
+      synchronized (expiredTombstonesLock) {
+        segment = expiredTombstones.remove(r);
+        if (segment == null) {
+          return null;
+        }
+        expiredTombstoneCount -= segment.size();
+      }
+      long removalSize = 0;
+      for (Tombstone t : segment) {
+        removalSize += t.getSize();
+      }
+      updateMemoryEstimate(-removalSize);
+      return segment;
+    }
+
     /** expire a batch of tombstones */
     private void expireBatch() {
       // fix for bug #46087 - OOME due to too many GC threads
@@ -517,51 +582,23 @@ public class TombstoneService {
           // memory overhead for a set is much higher than an ArrayList
           // BUT we send it to clients and the old
           // version of them expects it to be a Set.
-          final Map<DistributedRegion, Set<Object>> reapedKeys = new HashMap<>();
+          final Map<DistributedRegion, Set<Object>> reapedKeys = new ConcurrentHashMap<>();
 
           // Update the GC RVV for all of the affected regions.
           // We need to do this so that we can persist the GC RVV before
           // we start removing entries from the map.
           synchronized (expiredTombstonesLock) {
-            for (Tombstone t : expiredTombstones) {
-              DistributedRegion tr = (DistributedRegion) t.region;
-              tr.getVersionVector().recordGCVersion(t.getMemberID(), t.getRegionVersion());
-              if (!reapedKeys.containsKey(tr)) {
-                reapedKeys.put(tr, Collections.emptySet());
+            for (Map.Entry<LocalRegion, List<Tombstone>> segment : expiredTombstones.entrySet()) {
+              DistributedRegion tr = (DistributedRegion) segment.getKey();
+              for (Tombstone t : segment.getValue()) {
+                tr.getVersionVector().recordGCVersion(t.getMemberID(), t.getRegionVersion());
               }
+              reapedKeys.put(tr, Collections.emptySet());
             }
           }
 
-          for (DistributedRegion r : reapedKeys.keySet()) {
-            // Remove any exceptions from the RVV that are older than the GC version
-            r.getVersionVector().pruneOldExceptions();
-
-            // Persist the GC RVV to disk. This needs to happen BEFORE we remove
-            // the entries from map, to prevent us from removing a tombstone
-            // from disk that has a version greater than the persisted
-            // GV RVV.
-            if (r.getDataPolicy().withPersistence()) {
-              r.getDiskRegion().writeRVVGC(r);
-            }
-          }
-
-          // Remove the tombstones from the in memory region map.
-          removeExpiredIf(t -> {
-            // for PR buckets we have to keep track of the keys removed because clients have
-            // them all lumped in a single non-PR region
-            DistributedRegion tr = (DistributedRegion) t.region;
-            boolean tombstoneWasStillInRegionMap =
-                tr.getRegionMap().removeTombstone(t.entry, t, false, true);
-            if (tombstoneWasStillInRegionMap && hasToTrackKeysForClients(tr)) {
-              Set<Object> keys = reapedKeys.get(tr);
-              if (keys.isEmpty()) {
-                keys = new HashSet<Object>();
-                reapedKeys.put(tr, keys);
-              }
-              keys.add(t.entry.getKey());
-            }
-            return true;
-          });
+          // Remove the tombstones from the in memory region maps
+          gcExpiredRegions(reapedKeys);
 
           // do messaging in a pool so this thread is not stuck trying to
           // communicate with other members
@@ -591,6 +628,109 @@ public class TombstoneService {
       } // sync on deltaGIILock
     }
 
+    /**
+     * Removes the expired tombstones of the given regions from their region maps. Regions are
+     * handed out one at a time to the sweeper thread and up to {@link #GC_THREADS} - 1 threads of
+     * the executor so that a batch spanning many buckets is removed in parallel. Disk stores of
+     * persistent regions are asked to compact once all removals are done, so that oplogs left
+     * holding mostly garbage by the removed tombstones are compacted in the same pass.
+     */
+    private void gcExpiredRegions(final Map<DistributedRegion, Set<Object>> reapedKeys) {
+      final Queue<DistributedRegion> regions =
+          new ConcurrentLinkedQueue<DistributedRegion>(reapedKeys.keySet());
+      final Set<DiskStoreImpl> diskStores = ConcurrentHashMap.newKeySet();
+      final Runnable worker = () -> {
+        DistributedRegion r;
+        while ((r = regions.poll()) != null) {
+          gcExpiredRegion(r, reapedKeys, diskStores);
+        }
+      };
+      final int numThreads = Math.min(GC_THREADS, regions.size());
+      final List<Future<?>> helpers = new ArrayList<Future<?>>(Math.max(numThreads - 1, 0));
+      for (int i = 1; i < numThreads; i++) {
+        try {
+          helpers.add(executor.submit(worker));
+        } catch (RejectedExecutionException e) {
+          // the sweeper thread will do the remaining work itself
+          break;
+        }
+      }
+      worker.run();
+      boolean interrupted = false;
+      for (Future<?> helper : helpers) {
+        for (;;) {
+          try {
+            helper.get();
+            break;
+          } catch (InterruptedException e) {
+            interrupted = true;
+          } catch (ExecutionException e) {
+            if (e.getCause() instanceof CancelException) {
+              throw (CancelException) e.getCause();
+            }
+            logger.warn(LocalizedMessage.create(LocalizedStrings.GemFireCacheImpl_TOMBSTONE_ERROR),
+                e.getCause());
+            break;
+          }
+        }
+      }
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+      for (DiskStoreImpl diskStore : diskStores) {
+        diskStore.scheduleCompaction();
+      }
+    }
+
+    /**
+     * Removes the expired tombstones of one region from its region map, after persisting its GC
+     * RVV if it is persistent.
+     */
+    private void gcExpiredRegion(DistributedRegion r,
+        Map<DistributedRegion, Set<Object>> reapedKeys, Set<DiskStoreImpl> diskStores) {
+      final List<Tombstone> segment = removeExpiredSegment(r);
+      if (segment == null) {
+        // the region was cleared or destroyed after the batch was started
+        return;
+      }
+      try {
+        // Remove any exceptions from the RVV that are older than the GC version
+        r.getVersionVector().pruneOldExceptions();
+
+        // Persist the GC RVV to disk. This needs to happen BEFORE we remove
+        // the entries from map, to prevent us from removing a tombstone
+        // from disk that has a version greater than the persisted
+        // GV RVV.
+        final boolean persistent = r.getDataPolicy().withPersistence();
+        if (persistent) {
+          r.getDiskRegion().writeRVVGC(r);
+        }
+
+        // for PR buckets we have to keep track of the keys removed because clients have
+        // them all lumped in a single non-PR region
+        final boolean trackKeys = hasToTrackKeysForClients(r);
+        Set<Object> keys = null;
+        for (Tombstone t : segment) {
+          boolean tombstoneWasStillInRegionMap =
+              r.getRegionMap().removeTombstone(t.entry, t, false, true);
+          if (tombstoneWasStillInRegionMap && trackKeys) {
+            if (keys == null) {
+              keys = new HashSet<Object>();
+            }
+            keys.add(t.entry.getKey());
+          }
+        }
+        if (keys != null) {
+          reapedKeys.put(r, keys);
+        }
+        if (persistent) {
+          diskStores.add(r.getDiskRegion().getDiskStore());
+        }
+      } catch (RegionDestroyedException ignore) {
+        // the region's tombstones are gone with it
+      }
+    }
+
     /**
      * Returns true if keys needs to be tracked for clients registering interests on PR.
      */
@@ -619,14 +759,14 @@ public class TombstoneService {
       if (testHook_forceBatchExpireCall != null) {
         return true;
       }
-      if (expiredTombstones.size() >= EXPIRED_TOMBSTONE_LIMIT) {
+      if (expiredTombstoneCount >= EXPIRED_TOMBSTONE_LIMIT) {
         return true;
       }
       return false;
     }
 
     private void testHookIfIdleExpireBatch() {
-      if (IDLE_EXPIRATION && sleepTime >= EXPIRY_TIME && !this.expiredTombstones.isEmpty()) {
+      if (IDLE_EXPIRATION && sleepTime >= EXPIRY_TIME && this.expiredTombstoneCount != 0) {
         expireBatch();
       }
     }
@@ -646,7 +786,7 @@ public class TombstoneService {
       if (this.batchExpirationInProgress) {
         return;
       }
-      if (this.expiredTombstones.size() <= (EXPIRED_TOMBSTONE_LIMIT / 4)) {
+      if (this.expiredTombstoneCount <= (EXPIRED_TOMBSTONE_LIMIT / 4)) {
         return;
       }
       if (FORCE_GC_MEMORY_EVENTS || isFreeMemoryLow()) {
@@ -683,7 +823,13 @@ public class TombstoneService {
         logger.trace(LogMarker.TOMBSTONE, "adding expired tombstone {} to batch", tombstone);
       }
       synchronized (expiredTombstonesLock) {
-        expiredTombstones.add(tombstone);
+        List<Tombstone> segment = expiredTombstones.get(tombstone.region);
+        if (segment == null) {
+          segment = new ArrayList<Tombstone>();
+          expiredTombstones.put(tombstone.region, segment);
+        }
+        segment.add(tombstone);
+        expiredTombstoneCount++;
       }
     }
 
@@ -694,8 +840,10 @@ public class TombstoneService {
 
     @Override
     public String toString() {
-      return super.toString() + " batchedExpiredTombstones[" + expiredTombstones.size() + "] = "
-          + expiredTombstones.toString();
+      synchronized (expiredTombstonesLock) {
+        return super.toString() + " batchedExpiredTombstones[" + expiredTombstoneCount + "] = "
+            + expiredTombstones.values().toString();
+      }
     }
 
     @Override
@@ -724,11 +872,16 @@ public class TombstoneService {
 
     @Override
     public long getScheduledTombstoneCount() {
-      return super.getScheduledTombstoneCount() + this.expiredTombstones.size();
+      return super.getScheduledTombstoneCount() + this.expiredTombstoneCount;
     }
   }
 
   private static abstract class TombstoneSweeper implements Runnable {
+    /**
+     * The maximum number of tombstones moved from the unexpired queue by one pass of the sweeper.
+     */
+    private static final int EXPIRE_BATCH_SIZE = 1000;
+
     /**
      * the expiration time for tombstones in this sweeper
      */
@@ -794,12 +947,8 @@ public class TombstoneService {
     }
 
     public void unscheduleTombstones(final LocalRegion r) {
-      this.removeIf(t -> {
-        if (t.region == r) {
-          return true;
-        }
-        return false;
-      });
+      removeUnexpiredIf(t -> t.region == r);
+      removeExpiredTombstones(r);
     }
 
     /**
@@ -835,7 +984,9 @@ public class TombstoneService {
      * @return true if predicate ever returned true
      */
     private boolean removeIf(Predicate<Tombstone> predicate) {
-      return removeUnexpiredIf(predicate) || removeExpiredIf(predicate);
+      boolean removedUnexpired = removeUnexpiredIf(predicate);
+      boolean removedExpired = removeExpiredIf(predicate);
+      return removedUnexpired || removedExpired;
     }
 
     synchronized void start() {
@@ -970,36 +1121,43 @@ public class TombstoneService {
     }
 
     /**
-     * See if the oldest unexpired tombstone should be expired.
+     * Expire the oldest unexpired tombstones that are due. At most {@link #EXPIRE_BATCH_SIZE} are
+     * expired per call to bound how long the queue head lock is held.
      */
     private void checkOldestUnexpired(long now) {
       sleepTime = 0;
       lockQueueHead();
-      Tombstone oldest = tombstones.peek();
       try {
-        if (oldest == null) {
-          if (logger.isTraceEnabled(LogMarker.TOMBSTONE)) {
-            logger.trace(LogMarker.TOMBSTONE, "queue is empty - will sleep");
+        for (int expiredCount = 0; expiredCount < EXPIRE_BATCH_SIZE; expiredCount++) {
+          Tombstone oldest = tombstones.peek();
+          if (oldest == null) {
+            if (expiredCount == 0) {
+              if (logger.isTraceEnabled(LogMarker.TOMBSTONE)) {
+                logger.trace(LogMarker.TOMBSTONE, "queue is empty - will sleep");
+              }
+              handleNoUnexpiredTombstones();
+              sleepTime = EXPIRY_TIME;
+            }
+            return;
           }
-          handleNoUnexpiredTombstones();
-          sleepTime = EXPIRY_TIME;
-        } else {
           if (logger.isTraceEnabled(LogMarker.TOMBSTONE)) {
             logger.trace(LogMarker.TOMBSTONE, "oldest unexpired tombstone is {}", oldest);
           }
           long msTillHeadTombstoneExpires = oldest.getVersionTimeStamp() + EXPIRY_TIME - now;
-          if (hasExpired(msTillHeadTombstoneExpires)) {
-            try {
-              tombstones.remove();
-              expireTombstone(oldest);
-            } catch (CancelException ignore) {
-              // nothing needed
-            } catch (Exception e) {
-              logger.warn(
-                  LocalizedMessage.create(LocalizedStrings.GemFireCacheImpl_TOMBSTONE_ERROR), e);
+          if (!hasExpired(msTillHeadTombstoneExpires)) {
+            if (expiredCount == 0) {
+              sleepTime = msTillHeadTombstoneExpires;
             }
-          } else {
-            sleepTime = msTillHeadTombstoneExpires;
+            return;
+          }
+          try {
+            tombstones.remove();
+            expireTombstone(oldest);
+          } catch (CancelException ignore) {
+            // nothing needed
+          } catch (Exception e) {
+            logger.warn(LocalizedMessage.create(LocalizedStrings.GemFireCacheImpl_TOMBSTONE_ERROR),
+                e);
           }
         }
       } finally {
@@ -1026,6 +1184,16 @@ public class TombstoneService {
      */
     protected abstract boolean removeExpiredIf(Predicate<Tombstone> predicate);
 
+    /**
+     * Remove all expired tombstones of the given region that this sweeper knows about and update
+     * the memory estimate.
+     * 
+     * @return true if any tombstone was removed
+     */
+    protected boolean removeExpiredTombstones(LocalRegion r) {
+      return removeExpiredIf(t -> t.region == r);
+    }
+
     /** see if the already expired tombstones should be processed */
     protected abstract void checkExpiredTombstoneGC();
 
@@ -69,4 +69,57 @@ public abstract class VMThinRegionEntryHeap extends VMThinRegionEntry {
       return this;
     }
   }
+
+  private static final VMThinRegionEntryHeapCompactFactory compactFactory =
+      new VMThinRegionEntryHeapCompactFactory();
+
+  /**
+   * Returns a factory for entries that store neither their hash nor a chain pointer. These
+   * entries can only be stored in a {@link CompactRegionEntryMap}.
+   */
+  public static RegionEntryFactory getCompactEntryFactory() {
+    return compactFactory;
+  }
+
+  private static class VMThinRegionEntryHeapCompactFactory implements RegionEntryFactory {
+    public RegionEntry createEntry(RegionEntryContext context, Object key, Object value) {
+      if (InlineKeyHelper.INLINE_REGION_KEYS) {
+        Class<?> keyClass = key.getClass();
+        if (keyClass == Integer.class) {
+          return new VMThinRegionEntryHeapCompactIntKey(context, (Integer) key, value);
+        } else if (keyClass == Long.class) {
+          return new VMThinRegionEntryHeapCompactLongKey(context, (Long) key, value);
+        } else if (keyClass == String.class) {
+          final String skey = (String) key;
+          final Boolean info = InlineKeyHelper.canStringBeInlineEncoded(skey);
+          if (info != null) {
+            final boolean byteEncoded = info;
+            if (skey.length() <= InlineKeyHelper.getMaxInlineStringKey(1, byteEncoded)) {
+              return new VMThinRegionEntryHeapCompactStringKey1(context, skey, value, byteEncoded);
+            } else {
+              return new VMThinRegionEntryHeapCompactStringKey2(context, skey, value, byteEncoded);
+            }
+          }
+        } else if (keyClass == UUID.class) {
+          return new VMThinRegionEntryHeapCompactUUIDKey(context, (UUID) key, value);
+        }
+      }
+      return new VMThinRegionEntryHeapCompactObjectKey(context, key, value);
+    }
+
+    public Class getEntryClass() {
+      // The class returned from this method is used to estimate the memory size.
+      // This estimate will not take into account the memory saved by inlining the keys.
+      return VMThinRegionEntryHeapCompactObjectKey.class;
+    }
+
+    public RegionEntryFactory makeVersioned() {
+      return VersionedThinRegionEntryHeap.getCompactEntryFactory();
+    }
+
+    @Override
+    public RegionEntryFactory makeOnHeap() {
+      return this;
+    }
+  }
 }
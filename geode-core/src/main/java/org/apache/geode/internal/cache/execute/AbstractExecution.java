@@ -28,6 +28,7 @@ import org.apache.geode.SystemFailure;
 import org.apache.geode.cache.LowMemoryException;
 import org.apache.geode.cache.TransactionException;
 import org.apache.geode.cache.client.internal.ProxyCache;
+import org.apache.geode.cache.client.internal.UserAttributes;
 import org.apache.geode.cache.execute.Function;
 import org.apache.geode.cache.execute.FunctionContext;
 import org.apache.geode.cache.execute.FunctionException;
@@ -329,7 +330,7 @@ public abstract class AbstractExecution implements InternalExecution {
         logger.debug("Executing Function: {} on local node with context: {}", fn.getId(),
             cx.toString());
       }
-      fn.execute(cx);
+      BucketParallelFunctionExecution.execute(fn, cx);
       stats.endFunctionExecution(start, fn.hasResult());
     } catch (FunctionInvocationTargetException fite) {
       FunctionException functionException = null;
@@ -426,6 +427,34 @@ public abstract class AbstractExecution implements InternalExecution {
 
   protected abstract ResultCollector executeFunction(Function fn);
 
+  /**
+   * Returns true if this execution's results are streamed to a {@link StreamingResultCollector}.
+   */
+  protected boolean isStreamingResults() {
+    return this.rc != null && StreamingResultCollector.unwrap(this.rc) != null;
+  }
+
+  /**
+   * Runs a client execution whose results are streamed in a background thread and returns the
+   * streaming result collector at once.
+   * 
+   * @see StreamingResultCollector#readInBackground(Runnable)
+   */
+  protected ResultCollector executeInBackground(final Runnable execution) {
+    final UserAttributes attributes = UserAttributes.userAttributes.get();
+    StreamingResultCollector.unwrap(this.rc).readInBackground(new Runnable() {
+      public void run() {
+        UserAttributes.userAttributes.set(attributes);
+        try {
+          execution.run();
+        } finally {
+          UserAttributes.userAttributes.set(null);
+        }
+      }
+    });
+    return this.rc;
+  }
+
   /**
    * validates whether a function should execute in presence of transaction and HeapCritical
    * members. If the function is the first operation in a transaction, bootstraps the function.
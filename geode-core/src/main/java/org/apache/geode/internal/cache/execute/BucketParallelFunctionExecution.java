@@ -0,0 +1,230 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.execute;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+
+import org.apache.geode.SystemFailure;
+import org.apache.geode.cache.Operation;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.execute.Function;
+import org.apache.geode.cache.execute.FunctionContext;
+import org.apache.geode.cache.execute.FunctionException;
+import org.apache.geode.cache.execute.ResultSender;
+import org.apache.geode.distributed.internal.DistributionConfig;
+import org.apache.geode.internal.cache.ColocationHelper;
+import org.apache.geode.internal.cache.PartitionedRegion;
+import org.apache.geode.internal.cache.PartitionedRegionHelper;
+import org.apache.geode.internal.i18n.LocalizedStrings;
+
+/**
+ * Invokes a function whose {@link Function#isBucketParallel()} is true once for each local bucket
+ * of a partitioned region on a shared fork join pool. The results of the invocations are buffered
+ * and sent through the member's result sender, in bucket order, once every invocation is done. If
+ * a bucket moved away before its invocation started, {@link BucketMovedException} is thrown before
+ * any result is sent so the existing re-execution of the member's buckets applies unchanged.
+ *
+ * @since Geode 1.2
+ */
+public class BucketParallelFunctionExecution {
+
+  /** Number of threads invoking bucket parallel functions; defaults to the number of cores */
+  public static final int PARALLELISM =
+      Integer.getInteger(DistributionConfig.GEMFIRE_PREFIX + "function.bucketParallelism",
+          Runtime.getRuntime().availableProcessors());
+
+  private BucketParallelFunctionExecution() {}
+
+  private static class PoolHolder {
+    static final ForkJoinPool pool = new ForkJoinPool(Math.max(1, PARALLELISM),
+        new ForkJoinPool.ForkJoinWorkerThreadFactory() {
+          public ForkJoinWorkerThread newThread(ForkJoinPool pool) {
+            ForkJoinWorkerThread thread =
+                ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("Function Bucket Executor " + thread.getPoolIndex());
+            thread.setDaemon(true);
+            return thread;
+          }
+        }, null, false);
+  }
+
+  /**
+   * Executes the function with the specified context, invoking it once for each local bucket if
+   * the function is bucket parallel and the context covers more than one bucket of a partitioned
+   * region.
+   */
+  public static void execute(Function fn, FunctionContext cx) {
+    if (!fn.isBucketParallel() || !(cx instanceof RegionFunctionContextImpl)) {
+      fn.execute(cx);
+      return;
+    }
+    RegionFunctionContextImpl context = (RegionFunctionContextImpl) cx;
+    Region dataSet = context.getDataSet();
+    if (!(dataSet instanceof PartitionedRegion)) {
+      fn.execute(cx);
+      return;
+    }
+    PartitionedRegion pr = (PartitionedRegion) dataSet;
+    Set<Integer> buckets = context.getLocalBucketSet(pr);
+    if (buckets == null || buckets.size() < 2 || pr.isTX()) {
+      // a transaction is bound to the executing thread
+      fn.execute(cx);
+      return;
+    }
+
+    List<BucketInvocation> invocations = new ArrayList<BucketInvocation>(buckets.size());
+    for (Integer bucketId : new TreeSet<Integer>(buckets)) {
+      invocations.add(new BucketInvocation(fn, context, pr, bucketId));
+    }
+    PoolHolder.pool.invokeAll(invocations);
+
+    Throwable failure = null;
+    for (BucketInvocation invocation : invocations) {
+      if (invocation.failure instanceof BucketMovedException) {
+        throw (BucketMovedException) invocation.failure;
+      }
+      if (failure == null) {
+        failure = invocation.failure;
+      }
+    }
+    if (failure instanceof RuntimeException) {
+      throw (RuntimeException) failure;
+    } else if (failure instanceof Error) {
+      throw (Error) failure;
+    } else if (failure != null) {
+      throw new FunctionException(failure);
+    }
+    if (fn.hasResult()) {
+      sendResults(fn, context.getResultSender(), invocations);
+    }
+  }
+
+  private static void sendResults(Function fn, ResultSender sender,
+      List<BucketInvocation> invocations) {
+    Throwable exception = null;
+    List<Object> results = new ArrayList<Object>();
+    for (BucketInvocation invocation : invocations) {
+      if (!invocation.lastResultSent) {
+        throw new FunctionException(
+            LocalizedStrings.ExecuteFunction_THE_FUNCTION_0_DID_NOT_SENT_LAST_RESULT
+                .toString(fn.getId()));
+      }
+      results.addAll(invocation.results);
+      if (exception == null) {
+        exception = invocation.exception;
+      }
+    }
+    if (exception != null) {
+      for (Object result : results) {
+        sender.sendResult(result);
+      }
+      sender.sendException(exception);
+      return;
+    }
+    int last = results.size() - 1;
+    for (int i = 0; i < last; i++) {
+      sender.sendResult(results.get(i));
+    }
+    sender.lastResult(last < 0 ? null : results.get(last));
+  }
+
+  /**
+   * Invokes the function for one bucket and buffers what it sends.
+   */
+  private static class BucketInvocation implements Callable<Void>, ResultSender<Object> {
+    private final Function fn;
+    private final RegionFunctionContextImpl context;
+    private final PartitionedRegion pr;
+    private final int bucketId;
+
+    final List<Object> results = new ArrayList<Object>();
+    volatile boolean lastResultSent;
+    volatile Throwable exception;
+    volatile Throwable failure;
+
+    BucketInvocation(Function fn, RegionFunctionContextImpl context, PartitionedRegion pr,
+        int bucketId) {
+      this.fn = fn;
+      this.context = context;
+      this.pr = pr;
+      this.bucketId = bucketId;
+    }
+
+    public Void call() {
+      try {
+        if (!this.pr.getRegionAdvisor().getBucketAdvisor(this.bucketId).isHosting()) {
+          throw new BucketMovedException(
+              LocalizedStrings.FunctionService_BUCKET_MIGRATED_TO_ANOTHER_NODE
+                  .toLocalizedString());
+        }
+        Set<Integer> bucketSet = Collections.singleton(this.bucketId);
+        RegionFunctionContextImpl bucketContext =
+            new RegionFunctionContextImpl(this.context.getFunctionId(), this.pr,
+                this.context.getArguments(), getBucketFilter(),
+                ColocationHelper.constructAndGetAllColocatedLocalDataSet(this.pr, bucketSet),
+                bucketSet, this, this.context.isPossibleDuplicate());
+        this.fn.execute(bucketContext);
+      } catch (VirtualMachineError e) {
+        SystemFailure.initiateFailure(e);
+        throw e;
+      } catch (Throwable t) {
+        SystemFailure.checkFailure();
+        this.failure = t;
+      }
+      return null;
+    }
+
+    /**
+     * Returns the keys of the execution filter which route to this bucket, or null if the
+     * execution has no filter.
+     */
+    private Set<?> getBucketFilter() {
+      Set<?> filter = this.context.getFilter();
+      if (filter == null) {
+        return null;
+      }
+      Set<Object> bucketFilter = new HashSet<Object>();
+      for (Object key : filter) {
+        if (PartitionedRegionHelper.getHashKey(this.pr, Operation.FUNCTION_EXECUTION, key, null,
+            null) == this.bucketId) {
+          bucketFilter.add(key);
+        }
+      }
+      return bucketFilter;
+    }
+
+    public void lastResult(Object oneResult) {
+      this.results.add(oneResult);
+      this.lastResultSent = true;
+    }
+
+    public void sendResult(Object oneResult) {
+      this.results.add(oneResult);
+    }
+
+    public void sendException(Throwable t) {
+      this.exception = t;
+      this.lastResultSent = true;
+    }
+  }
+}
@@ -0,0 +1,261 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.execute;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.logging.log4j.Logger;
+
+import org.apache.geode.distributed.DistributedMember;
+import org.apache.geode.distributed.internal.DM;
+import org.apache.geode.distributed.internal.DistributionConfig;
+import org.apache.geode.distributed.internal.membership.InternalDistributedMember;
+import org.apache.geode.internal.cache.FunctionStreamingCreditMessage;
+import org.apache.geode.internal.logging.LogService;
+
+/**
+ * Credit based flow control for function results streamed between members. A member executing a
+ * function may send at most {@link #WINDOW} results to the caller before the caller has consumed
+ * them. The caller returns credits with {@link FunctionStreamingCreditMessage} as it consumes
+ * results, so the results buffered by the caller stay bounded no matter how large the function
+ * result is.
+ * <p>
+ * The sending side keeps one window for each reply stream, identified by caller and processor id.
+ * The calling side keeps one {@link Credits} for each reply processor.
+ *
+ * @since Geode 1.2
+ */
+public class FunctionResultFlowControl {
+  private static final Logger logger = LogService.getLogger();
+
+  /**
+   * Maximum number of results a member sends ahead of the caller's consumption. Zero disables flow
+   * control. Must be set identically on every member.
+   */
+  public static final int WINDOW =
+      Integer.getInteger(DistributionConfig.GEMFIRE_PREFIX + "function.streamingResultWindow", 0);
+
+  /**
+   * Maximum number of milliseconds a sender waits for credit from a caller which is still a member.
+   * Once it is exceeded the sender goes on with a new window starting at the next message, so a
+   * caller which stops consuming without closing its collector can not block a member forever.
+   */
+  public static final long CREDIT_TIMEOUT_MILLIS = Long.getLong(
+      DistributionConfig.GEMFIRE_PREFIX + "function.streamingCreditTimeout", 5 * 60 * 1000);
+
+  /** Credit granted to a reply stream whose caller no longer consumes its results */
+  static final int UNLIMITED_CREDIT = Integer.MAX_VALUE;
+
+  /** How long a blocked sender waits before checking caller membership and cancellation */
+  private static final long CREDIT_WAIT_MILLIS = 1000;
+
+  /** Sending side windows. Key: StreamKey */
+  private static final ConcurrentHashMap<StreamKey, Window> windows =
+      new ConcurrentHashMap<StreamKey, Window>();
+
+  private FunctionResultFlowControl() {}
+
+  public static boolean isEnabled() {
+    return WINDOW > 0;
+  }
+
+  /**
+   * Blocks until the caller has granted credit for the specified message of a reply stream.
+   * Returns early if the caller leaves, if no credit arrives within {@link #CREDIT_TIMEOUT_MILLIS}
+   * or if this member is shutting down. The window of the stream is discarded when the caller
+   * leaves or the wait times out, and a window created for a later message grants a full window
+   * from that message on.
+   *
+   * @param dm the distribution manager of this member
+   * @param caller the member waiting for the results
+   * @param processorId the reply processor of the caller
+   * @param msgNum the 0-based number of the message about to be sent
+   */
+  public static void awaitCredit(DM dm, InternalDistributedMember caller, int processorId,
+      int msgNum) throws InterruptedException {
+    if (!isEnabled() || caller.equals(dm.getId())) {
+      return;
+    }
+    StreamKey key = new StreamKey(caller, processorId);
+    Window window = windows.get(key);
+    if (window == null) {
+      window = new Window(msgNum + WINDOW);
+      Window existing = windows.putIfAbsent(key, window);
+      if (existing != null) {
+        window = existing;
+      }
+    }
+    long timeout = System.currentTimeMillis() + CREDIT_TIMEOUT_MILLIS;
+    synchronized (window) {
+      while (msgNum >= window.granted) {
+        dm.getCancelCriterion().checkCancelInProgress(null);
+        if (!dm.isCurrentMember(caller)) {
+          windows.remove(key, window);
+          return;
+        }
+        long remaining = timeout - System.currentTimeMillis();
+        if (remaining <= 0) {
+          logger.warn("No flow control credit received from {} for function results of processor"
+              + " {} in {} ms; sending the next {} results without waiting for credit", caller,
+              processorId, CREDIT_TIMEOUT_MILLIS, WINDOW);
+          windows.remove(key, window);
+          return;
+        }
+        window.wait(Math.min(remaining, CREDIT_WAIT_MILLIS));
+      }
+    }
+  }
+
+  /**
+   * Discards the window of a reply stream after its last message has been sent, or once the
+   * execution sending it has ended without sending its last message.
+   */
+  public static void streamCompleted(InternalDistributedMember caller, int processorId) {
+    if (isEnabled()) {
+      windows.remove(new StreamKey(caller, processorId));
+    }
+  }
+
+  /**
+   * Raises the window of a reply stream to the specified number of messages. Grants for streams
+   * which have already completed are ignored.
+   */
+  public static void grant(InternalDistributedMember caller, int processorId, int grantedUpTo) {
+    Window window = windows.get(new StreamKey(caller, processorId));
+    if (window == null) {
+      return;
+    }
+    synchronized (window) {
+      if (grantedUpTo > window.granted) {
+        window.granted = grantedUpTo;
+        window.notifyAll();
+      }
+    }
+  }
+
+  /** Returns the number of open sending side windows; used by tests */
+  static int getWindowCount() {
+    return windows.size();
+  }
+
+  /**
+   * Tracks how many results the caller has consumed from each member for one reply processor and
+   * sends credits back once half a window has been consumed.
+   */
+  public static class Credits {
+    private final DM dm;
+    private final int processorId;
+    private final InternalDistributedMember[] members;
+    private final Map<DistributedMember, int[]> consumed = new HashMap<DistributedMember, int[]>();
+
+    /** guarded.By consumed */
+    private boolean released = false;
+
+    /**
+     * @param members the members which stream results to the reply processor
+     */
+    public Credits(DM dm, int processorId, InternalDistributedMember[] members) {
+      this.dm = dm;
+      this.processorId = processorId;
+      this.members = members;
+    }
+
+    /**
+     * Records that one result from the specified member has been consumed.
+     */
+    public void resultConsumed(DistributedMember member) {
+      if (!isEnabled() || member == null || member.equals(this.dm.getId())) {
+        return;
+      }
+      int grantedUpTo;
+      synchronized (this.consumed) {
+        if (this.released) {
+          return;
+        }
+        // [0] results consumed, [1] consumed count when credit was last sent
+        int[] counts = this.consumed.get(member);
+        if (counts == null) {
+          counts = new int[2];
+          this.consumed.put(member, counts);
+        }
+        counts[0]++;
+        if (counts[0] - counts[1] < Math.max(1, WINDOW / 2)) {
+          return;
+        }
+        counts[1] = counts[0];
+        grantedUpTo = counts[0] + WINDOW;
+      }
+      FunctionStreamingCreditMessage.send((InternalDistributedMember) member, this.processorId,
+          grantedUpTo, this.dm);
+    }
+
+    /**
+     * Grants unlimited credit to every member once the caller stops consuming results, so that
+     * members blocked on flow control can finish their reply streams. Later consumption is not
+     * reported.
+     */
+    public void release() {
+      if (!isEnabled()) {
+        return;
+      }
+      synchronized (this.consumed) {
+        if (this.released) {
+          return;
+        }
+        this.released = true;
+      }
+      for (int i = 0; i < this.members.length; i++) {
+        InternalDistributedMember member = this.members[i];
+        if (member != null && !member.equals(this.dm.getId())) {
+          FunctionStreamingCreditMessage.send(member, this.processorId, UNLIMITED_CREDIT, this.dm);
+        }
+      }
+    }
+  }
+
+  private static class Window {
+    int granted;
+
+    Window(int granted) {
+      this.granted = granted;
+    }
+  }
+
+  private static class StreamKey {
+    private final InternalDistributedMember caller;
+    private final int processorId;
+
+    StreamKey(InternalDistributedMember caller, int processorId) {
+      this.caller = caller;
+      this.processorId = processorId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (!(o instanceof StreamKey)) {
+        return false;
+      }
+      StreamKey other = (StreamKey) o;
+      return this.processorId == other.processorId && this.caller.equals(other.caller);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * this.caller.hashCode() + this.processorId;
+    }
+  }
+}
@@ -83,6 +83,11 @@ public class FunctionStreamingResultCollector extends ReplyProcessor21 implement
 
   protected volatile List<FunctionInvocationTargetException> fites;
 
+  /** Returns flow control credits to members as their results are processed; may be null */
+  private final FunctionResultFlowControl.Credits credits;
+
+  private boolean streamingStarted = false;
+
   public FunctionStreamingResultCollector(StreamingFunctionOperation streamingFunctionOperation,
       InternalDistributedSystem system, Set members, ResultCollector rc, Function function,
       AbstractExecution execution) {
@@ -97,6 +102,19 @@ public class FunctionStreamingResultCollector extends ReplyProcessor21 implement
     if (rc instanceof LocalResultCollector<?, ?>) {
       ((LocalResultCollector<?, ?>) rc).setProcessor(this);
     }
+    FunctionResultFlowControl.Credits resultCredits = null;
+    if (FunctionResultFlowControl.isEnabled()) {
+      resultCredits = new FunctionResultFlowControl.Credits(getDistributionManager(),
+          getProcessorId(), getMembers());
+    }
+    StreamingResultCollector<?> streaming = StreamingResultCollector.unwrap(rc);
+    if (streaming != null) {
+      // a streaming collector returns credits as its results are consumed
+      streaming.setCredits(resultCredits, getDistributionManager().getId());
+      this.credits = null;
+    } else {
+      this.credits = resultCredits;
+    }
   }
 
   public void addResult(DistributedMember memId, Object resultOfSingleExecution) {
@@ -131,6 +149,10 @@ public class FunctionStreamingResultCollector extends ReplyProcessor21 implement
       throw new FunctionException(
           LocalizedStrings.ExecuteFunction_RESULTS_ALREADY_COLLECTED.toLocalizedString());
     }
+    Object streamed = startStreamingResults();
+    if (streamed != null) {
+      return streamed;
+    }
 
     this.resultCollected = true;
     if (this.userRC != null) {
@@ -244,6 +266,10 @@ public class FunctionStreamingResultCollector extends ReplyProcessor21 implement
       throw new FunctionException(
           LocalizedStrings.ExecuteFunction_RESULTS_ALREADY_COLLECTED.toLocalizedString());
     }
+    Object streamed = startStreamingResults(timeout, unit);
+    if (streamed != null) {
+      return streamed;
+    }
 
     this.resultCollected = true;
     // Should convert it from unit to milliseconds
@@ -365,6 +391,40 @@ public class FunctionStreamingResultCollector extends ReplyProcessor21 implement
     return null;
   }
 
+  /**
+   * Returns the iterator of a {@link StreamingResultCollector} after starting to wait for the
+   * replies in the background, or null if the user collector does not stream its results. Waiting
+   * in the background lets the caller consume results while members are still sending them.
+   */
+  protected Object startStreamingResults() {
+    StreamingResultCollector<?> streaming = beginStreaming();
+    return streaming == null ? null : streaming.getResult();
+  }
+
+  /**
+   * Like {@link #startStreamingResults()} but the returned iterator fails if the results are not
+   * all received within the specified time.
+   */
+  protected Object startStreamingResults(long timeout, TimeUnit unit) {
+    StreamingResultCollector<?> streaming = beginStreaming();
+    return streaming == null ? null : streaming.getResult(timeout, unit);
+  }
+
+  private StreamingResultCollector<?> beginStreaming() {
+    StreamingResultCollector<?> streaming = StreamingResultCollector.unwrap(this.userRC);
+    if (streaming == null) {
+      return null;
+    }
+    synchronized (this) {
+      if (this.streamingStarted) {
+        return null;
+      }
+      this.streamingStarted = true;
+    }
+    streaming.waitInBackground(this, getDistributionManager());
+    return streaming;
+  }
+
   @Override
   protected void postFinish() {
     if (this.execution.getWaitOnExceptionFlag() && this.fites.size() > 0) {
@@ -499,6 +559,9 @@ public class FunctionStreamingResultCollector extends ReplyProcessor21 implement
           isLast = trackMessage(functionReplyMsg);
           this.functionResultWaiter.processData(result, isLast, msg.getSender());
         }
+        if (this.credits != null && !isLast) {
+          this.credits.resultConsumed(msg.getSender());
+        }
         if (isLast) {
           super.process(msg, false); // removes from members and cause us
           // to ignore future messages received from that member
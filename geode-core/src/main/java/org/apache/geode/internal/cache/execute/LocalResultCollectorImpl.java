@@ -44,13 +44,24 @@ public class LocalResultCollectorImpl implements LocalResultCollector {
 
   private AbstractExecution execution = null;
 
+  private boolean streamingStarted = false;
+
   public LocalResultCollectorImpl(Function function, ResultCollector rc, Execution execution) {
     this.function = function;
     this.userRC = rc;
     this.execution = (AbstractExecution) execution;
   }
 
-  public synchronized void addResult(DistributedMember memberID, Object resultOfSingleExecution) {
+  public void addResult(DistributedMember memberID, Object resultOfSingleExecution) {
+    if (this.userRC instanceof StreamingResultCollector) {
+      // block a local producer before taking the lock so remote results are not held up
+      ((StreamingResultCollector) this.userRC).awaitCapacity(memberID);
+    }
+    basicAddResult(memberID, resultOfSingleExecution);
+  }
+
+  private synchronized void basicAddResult(DistributedMember memberID,
+      Object resultOfSingleExecution) {
     if (resultsCleared) {
       return;
     }
@@ -106,6 +117,10 @@ public class LocalResultCollectorImpl implements LocalResultCollector {
       throw new FunctionException(
           LocalizedStrings.ExecuteFunction_RESULTS_ALREADY_COLLECTED.toLocalizedString());
     }
+    Object streamed = startStreamingResults();
+    if (streamed != null) {
+      return streamed;
+    }
     this.resultCollected = true;
     try {
       this.latch.await();
@@ -144,6 +159,10 @@ public class LocalResultCollectorImpl implements LocalResultCollector {
       throw new FunctionException(
           LocalizedStrings.ExecuteFunction_RESULTS_ALREADY_COLLECTED.toLocalizedString());
     }
+    Object streamed = startStreamingResults(timeout, unit);
+    if (streamed != null) {
+      return streamed;
+    }
     this.resultCollected = true;
     try {
       resultRecieved = this.latch.await(timeout, unit);
@@ -179,6 +198,43 @@ public class LocalResultCollectorImpl implements LocalResultCollector {
     }
   }
 
+  /**
+   * Returns the iterator of a {@link StreamingResultCollector} after starting to wait for the end
+   * of the execution in the background, or null if the user collector does not stream.
+   */
+  private Object startStreamingResults() {
+    StreamingResultCollector streaming = beginStreaming();
+    return streaming == null ? null : streaming.getResult();
+  }
+
+  /**
+   * Like {@link #startStreamingResults()} but the returned iterator fails if the results are not
+   * all received within the specified time.
+   */
+  private Object startStreamingResults(long timeout, TimeUnit unit) {
+    StreamingResultCollector streaming = beginStreaming();
+    return streaming == null ? null : streaming.getResult(timeout, unit);
+  }
+
+  private StreamingResultCollector beginStreaming() {
+    if (!(this.userRC instanceof StreamingResultCollector)) {
+      return null;
+    }
+    synchronized (this) {
+      if (this.streamingStarted) {
+        return null;
+      }
+      this.streamingStarted = true;
+    }
+    StreamingResultCollector streaming = (StreamingResultCollector) this.userRC;
+    streaming.waitInBackground(this, null);
+    return streaming;
+  }
+
+  ResultCollector getUserResultCollector() {
+    return this.userRC;
+  }
+
   public void setException(Throwable exception) {
     if (exception instanceof FunctionException) {
       this.functionException = (FunctionException) exception;
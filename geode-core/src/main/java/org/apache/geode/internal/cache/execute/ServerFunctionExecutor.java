@@ -101,6 +101,9 @@ public class ServerFunctionExecutor extends AbstractExecution {
         if (this.rc == null) { // Default Result Collector
           ResultCollector defaultCollector = new DefaultResultCollector();
           return executeOnServer(functionId, defaultCollector, hasResult, isHA, optimizeForWrite);
+        } else if (isStreamingResults()) {
+          return executeInBackground(
+              () -> executeOnServer(functionId, this.rc, (byte) 1, isHA, optimizeForWrite));
         } else { // Custome Result COllector
           return executeOnServer(functionId, this.rc, hasResult, isHA, optimizeForWrite);
         }
@@ -129,6 +132,8 @@ public class ServerFunctionExecutor extends AbstractExecution {
         if (this.rc == null) { // Default Result Collector
           ResultCollector defaultCollector = new DefaultResultCollector();
           return executeOnServer(function, defaultCollector, hasResult);
+        } else if (isStreamingResults()) {
+          return executeInBackground(() -> executeOnServer(function, this.rc, (byte) 1));
         } else { // Custome Result COllector
           return executeOnServer(function, this.rc, hasResult);
         }
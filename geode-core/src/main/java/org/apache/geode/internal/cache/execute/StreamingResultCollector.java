@@ -0,0 +1,360 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.execute;
+
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.NoSuchElementException;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.geode.cache.execute.FunctionException;
+import org.apache.geode.cache.execute.ResultCollector;
+import org.apache.geode.distributed.DistributedMember;
+import org.apache.geode.distributed.internal.DM;
+import org.apache.geode.distributed.internal.InternalDistributedSystem;
+import org.apache.geode.internal.i18n.LocalizedStrings;
+
+/**
+ * A ResultCollector which hands function results to the caller as they arrive instead of
+ * gathering them. {@link #getResult()} returns immediately with an {@link Iterator} that blocks
+ * until the next result is available, and the results waiting to be consumed are bounded:
+ * <ul>
+ * <li>results sent by other members are limited by {@link FunctionResultFlowControl}; credits are
+ * returned to the sending member as the iterator consumes its results</li>
+ * <li>results produced by a function executing in this member block the executing thread while
+ * more than <code>capacity</code> results are waiting</li>
+ * <li>results sent by a server to a client are read by a background thread which stops reading
+ * while more than <code>capacity</code> results are waiting, so the server is held back by its
+ * socket writes</li>
+ * </ul>
+ * Results produced by the thread which created this collector never block, since that thread is
+ * expected to be the consumer.
+ * <p>
+ * A consumer which stops before the iterator is exhausted must {@link #close()} the collector so
+ * that members blocked on flow control can complete their executions.
+ * <p>
+ * If an HA function is re-executed, results already consumed may be delivered again.
+ *
+ * @since Geode 1.2
+ */
+public class StreamingResultCollector<T> implements ResultCollector<T, Iterator<T>> {
+
+  private final int capacity;
+
+  private final Thread consumerThread;
+
+  /** The thread reading the results of a client execution, or null */
+  private volatile Thread readerThread;
+
+  private final LinkedList<Object[]> results = new LinkedList<Object[]>();
+
+  private final Iterator<T> iterator = new ResultIterator(0);
+
+  /** guarded.By this */
+  private boolean ended = false;
+
+  /** guarded.By this */
+  private boolean closed = false;
+
+  /** guarded.By this */
+  private RuntimeException failure;
+
+  private volatile FunctionResultFlowControl.Credits credits;
+
+  private volatile DistributedMember localMember;
+
+  /**
+   * Creates a collector which lets at most <code>capacity</code> locally produced results wait to
+   * be consumed.
+   */
+  public StreamingResultCollector(int capacity) {
+    if (capacity < 1) {
+      throw new IllegalArgumentException("capacity must be positive: " + capacity);
+    }
+    this.capacity = capacity;
+    this.consumerThread = Thread.currentThread();
+  }
+
+  /**
+   * Returns the streaming collector wrapped by the specified collector, or null if it does not
+   * stream its results.
+   */
+  static StreamingResultCollector<?> unwrap(ResultCollector<?, ?> rc) {
+    if (rc instanceof LocalResultCollectorImpl) {
+      rc = ((LocalResultCollectorImpl) rc).getUserResultCollector();
+    }
+    return rc instanceof StreamingResultCollector ? (StreamingResultCollector<?>) rc : null;
+  }
+
+  /**
+   * Waits for the function results in a background thread so that the caller can consume results
+   * while the execution is still in progress. A failure is delivered to the consumer by the
+   * iterator.
+   */
+  void waitInBackground(final ResultCollector<?, ?> waiter, DM dm) {
+    Runnable wait = new Runnable() {
+      public void run() {
+        try {
+          waiter.getResult();
+        } catch (RuntimeException e) {
+          fail(e);
+        }
+      }
+    };
+    if (dm != null) {
+      dm.getWaitingThreadPool().execute(wait);
+    } else {
+      Thread thread = new Thread(wait, "Function Result Waiter");
+      thread.setDaemon(true);
+      thread.start();
+    }
+  }
+
+  /**
+   * Executes a client function execution in a background thread so that the caller can consume
+   * results while they are read from the server. The reading thread blocks while the collector is
+   * full, which leaves the rest of the server's response unread. A failure is delivered to the
+   * consumer by the iterator.
+   */
+  void readInBackground(final Runnable execution) {
+    Thread thread = new Thread(new Runnable() {
+      public void run() {
+        try {
+          execution.run();
+        } catch (RuntimeException e) {
+          fail(e);
+        }
+      }
+    }, "Function Result Reader");
+    thread.setDaemon(true);
+    this.readerThread = thread;
+    thread.start();
+  }
+
+  /**
+   * Sets the credits used to tell other members which of their results have been consumed.
+   *
+   * @param credits the credits of the reply processor receiving results, or null
+   * @param localMember the member this collector is in
+   */
+  void setCredits(FunctionResultFlowControl.Credits credits, DistributedMember localMember) {
+    this.localMember = localMember;
+    this.credits = credits;
+    synchronized (this) {
+      if (!this.closed && this.failure == null) {
+        return;
+      }
+    }
+    releaseCredits();
+  }
+
+  /**
+   * Lets other members send their remaining results without waiting for them to be consumed.
+   */
+  private void releaseCredits() {
+    FunctionResultFlowControl.Credits c = this.credits;
+    if (c != null) {
+      c.release();
+    }
+  }
+
+  /**
+   * Blocks a thread executing a function in this member, or the thread reading results from a
+   * server, while the collector is full.
+   */
+  void awaitCapacity(DistributedMember memberID) {
+    Thread current = Thread.currentThread();
+    if (current == this.consumerThread
+        || (current != this.readerThread && !isLocal(memberID))) {
+      return;
+    }
+    boolean interrupted = false;
+    synchronized (this) {
+      while (this.results.size() >= this.capacity && this.failure == null && !this.closed) {
+        try {
+          wait();
+        } catch (InterruptedException e) {
+          interrupted = true;
+          break;
+        }
+      }
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private boolean isLocal(DistributedMember memberID) {
+    if (memberID == null) {
+      return true;
+    }
+    DistributedMember local = this.localMember;
+    if (local == null) {
+      InternalDistributedSystem ids = InternalDistributedSystem.getAnyInstance();
+      if (ids == null) {
+        return true;
+      }
+      local = ids.getDistributedMember();
+      this.localMember = local;
+    }
+    return memberID.equals(local);
+  }
+
+  public void addResult(DistributedMember memberID, T resultOfSingleExecution) {
+    awaitCapacity(memberID);
+    synchronized (this) {
+      if (this.closed) {
+        return;
+      }
+      this.results.add(new Object[] {memberID, resultOfSingleExecution});
+      notifyAll();
+    }
+  }
+
+  public synchronized void endResults() {
+    this.ended = true;
+    notifyAll();
+  }
+
+  public synchronized void clearResults() {
+    this.results.clear();
+    this.ended = false;
+    this.failure = null;
+    notifyAll();
+  }
+
+  /**
+   * Ends the results with the specified failure, which the iterator throws once the results
+   * received before it have been consumed.
+   */
+  void fail(RuntimeException e) {
+    synchronized (this) {
+      if (this.failure == null) {
+        this.failure = e;
+      }
+      notifyAll();
+    }
+    releaseCredits();
+  }
+
+  /**
+   * Stops consuming results. The results waiting to be consumed and any that arrive later are
+   * discarded, the iterator has no more results, and members blocked on flow control are allowed
+   * to send the rest of their results without waiting.
+   */
+  public void close() {
+    synchronized (this) {
+      if (this.closed) {
+        return;
+      }
+      this.closed = true;
+      this.results.clear();
+      notifyAll();
+    }
+    releaseCredits();
+  }
+
+  public synchronized boolean isClosed() {
+    return this.closed;
+  }
+
+  /**
+   * Returns an iterator over the results which blocks until the next result arrives. The iterator
+   * throws FunctionException if the execution fails.
+   */
+  public Iterator<T> getResult() throws FunctionException {
+    return this.iterator;
+  }
+
+  /**
+   * Returns an iterator over the results which must all be received within the specified time.
+   * If the iterator has to wait for a result after the time has elapsed it closes this collector
+   * and throws FunctionException.
+   */
+  public Iterator<T> getResult(long timeout, TimeUnit unit) throws FunctionException {
+    return new ResultIterator(System.currentTimeMillis() + unit.toMillis(timeout));
+  }
+
+  /** Returns the number of results waiting to be consumed */
+  public synchronized int size() {
+    return this.results.size();
+  }
+
+  private class ResultIterator implements Iterator<T> {
+    /** time by which all results must be received, or 0 to wait without limit */
+    private final long deadline;
+
+    ResultIterator(long deadline) {
+      this.deadline = deadline;
+    }
+
+    public boolean hasNext() {
+      boolean timedOut = false;
+      synchronized (StreamingResultCollector.this) {
+        while (results.isEmpty() && !ended && failure == null && !closed) {
+          long waitMillis = 0;
+          if (this.deadline != 0) {
+            waitMillis = this.deadline - System.currentTimeMillis();
+            if (waitMillis <= 0) {
+              timedOut = true;
+              break;
+            }
+          }
+          try {
+            StreamingResultCollector.this.wait(waitMillis);
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new FunctionException(e);
+          }
+        }
+        if (!timedOut && !results.isEmpty()) {
+          return true;
+        }
+        if (!timedOut && failure != null) {
+          throw failure instanceof FunctionException ? (FunctionException) failure
+              : new FunctionException(failure);
+        }
+      }
+      if (timedOut) {
+        close();
+        throw new FunctionException(
+            LocalizedStrings.ExecuteFunction_RESULTS_NOT_COLLECTED_IN_TIME_PROVIDED
+                .toLocalizedString());
+      }
+      return false;
+    }
+
+    @SuppressWarnings("unchecked")
+    public T next() {
+      Object[] result;
+      synchronized (StreamingResultCollector.this) {
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        result = results.removeFirst();
+        StreamingResultCollector.this.notifyAll();
+      }
+      FunctionResultFlowControl.Credits c = credits;
+      if (c != null) {
+        c.resultConsumed((DistributedMember) result[0]);
+      }
+      return (T) result[1];
+    }
+
+    public void remove() {
+      throw new UnsupportedOperationException();
+    }
+  }
+}
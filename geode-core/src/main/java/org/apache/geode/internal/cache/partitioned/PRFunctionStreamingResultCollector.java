@@ -84,6 +84,10 @@ public class PRFunctionStreamingResultCollector extends FunctionStreamingResultC
     if (this.resultCollected) {
       throw new FunctionException("Result already collected");
     }
+    Object streamed = startStreamingResults();
+    if (streamed != null) {
+      return streamed;
+    }
 
     this.resultCollected = true;
     if (this.hasResult) {
@@ -217,6 +221,10 @@ public class PRFunctionStreamingResultCollector extends FunctionStreamingResultC
     if (this.resultCollected) {
       throw new FunctionException("Result already collected");
     }
+    Object streamed = startStreamingResults(timeout, unit);
+    if (streamed != null) {
+      return streamed;
+    }
     this.resultCollected = true;
     if (this.hasResult) {
       try {
@@ -35,6 +35,7 @@ import org.apache.geode.internal.cache.FunctionStreamingReplyMessage;
 import org.apache.geode.internal.cache.PartitionedRegion;
 import org.apache.geode.internal.cache.PartitionedRegionDataStore;
 import org.apache.geode.internal.cache.execute.FunctionRemoteContext;
+import org.apache.geode.internal.cache.execute.FunctionResultFlowControl;
 import org.apache.geode.internal.i18n.LocalizedStrings;
 import org.apache.geode.internal.logging.LogService;
 import org.apache.geode.internal.logging.log4j.LogMarker;
@@ -93,19 +94,24 @@ public class PartitionedRegionFunctionStreamingMessage extends PartitionMessage
     }
     PartitionedRegionDataStore ds = r.getDataStore();
     if (ds != null) {
-      // check if the routingKeyorKeys is null
-      // if null call executeOnDataStore otherwise execute on LocalBuckets
-      ds.executeOnDataStore(context.getFilter(), context.getFunction(), context.getArgs(),
-          getProcessorId(), context.getBucketSet(), context.isReExecute(), this, startTime, null,
-          0);
-
-      if (!this.replyLastMsg && context.getFunction().hasResult()) {
-        sendReply(getSender(), getProcessorId(), dm,
-            new ReplyException(new FunctionException(
-                LocalizedStrings.ExecuteFunction_THE_FUNCTION_0_DID_NOT_SENT_LAST_RESULT
-                    .toString(context.getFunction().getId()))),
-            r, startTime);
-        return false;
+      try {
+        // check if the routingKeyorKeys is null
+        // if null call executeOnDataStore otherwise execute on LocalBuckets
+        ds.executeOnDataStore(context.getFilter(), context.getFunction(), context.getArgs(),
+            getProcessorId(), context.getBucketSet(), context.isReExecute(), this, startTime, null,
+            0);
+
+        if (!this.replyLastMsg && context.getFunction().hasResult()) {
+          sendReply(getSender(), getProcessorId(), dm,
+              new ReplyException(new FunctionException(
+                  LocalizedStrings.ExecuteFunction_THE_FUNCTION_0_DID_NOT_SENT_LAST_RESULT
+                      .toString(context.getFunction().getId()))),
+              r, startTime);
+          return false;
+        }
+      } finally {
+        // the execution may have failed before sending its last result
+        FunctionResultFlowControl.streamCompleted(getSender(), getProcessorId());
       }
     } else {
       throw new InternalError(
@@ -17,6 +17,7 @@ package org.apache.geode.internal.cache.versions;
 import java.io.DataInput;
 import java.io.DataOutput;
 import java.io.IOException;
+import java.util.Arrays;
 
 import org.apache.geode.internal.InternalDataSerializer;
 import org.apache.geode.internal.Version;
@@ -80,10 +81,12 @@ abstract class RVVException
     // But if we are deserializing an exception too many received versions use a
     // bitset anyway.
     long delta = nextVersion - previousVersion;
-    if (UseTreeSetsForTesting
-        || (delta > RVV_MAX_BITSET_SPAN && initialExceptionCount * 512 < delta)) {
+    if (UseTreeSetsForTesting) {
       return new RVVExceptionT(previousVersion, nextVersion);
     }
+    if (delta > RVV_MAX_BITSET_SPAN && initialExceptionCount * 512 < delta) {
+      return new RVVExceptionR(previousVersion, nextVersion);
+    }
     return new RVVExceptionB(previousVersion, nextVersion);
   }
 
@@ -119,6 +122,32 @@ abstract class RVVException
   }
 
 
+  /**
+   * RegionVersionHolder.fromData() calls this to create an exception written by
+   * {@link #toDataCompact}
+   */
+  static RVVException createCompactException(DataInput in) throws IOException {
+    long previousVersion = InternalDataSerializer.readUnsignedVL(in);
+    int runCount = (int) InternalDataSerializer.readUnsignedVL(in);
+    long[] runs = new long[2 * runCount];
+    long last = previousVersion;
+    for (int i = 0; i < runCount; i++) {
+      long code = InternalDataSerializer.readUnsignedVL(in);
+      long start = last + (code >>> 1);
+      long end = (code & 1) == 0 ? start : start + InternalDataSerializer.readUnsignedVL(in) + 1;
+      runs[2 * i] = start;
+      runs[2 * i + 1] = end;
+      last = end;
+    }
+    long nextVersion = last + InternalDataSerializer.readUnsignedVL(in);
+    // size the representation by runs, since that is what a run-length exception holds
+    RVVException result = createException(previousVersion, nextVersion, runCount);
+    for (int i = 0; i < runCount; i++) {
+      result.addReceivedRun(runs[2 * i], runs[2 * i + 1]);
+    }
+    return result;
+  }
+
   /** has the given version been recorded as having been received? */
   public abstract boolean contains(long version);
 
@@ -128,11 +157,65 @@ abstract class RVVException
   /** internal method to add a new version to the received-versions collection */
   protected abstract void addReceived(long version);
 
+  /** internal method to add a run of consecutive versions to the received-versions collection */
+  protected void addReceivedRun(long start, long end) {
+    for (long version = start; version <= end; version++) {
+      addReceived(version);
+    }
+  }
+
   public void toData(DataOutput out) throws IOException {
     InternalDataSerializer.writeUnsignedVL(this.previousVersion, out);
     writeReceived(out);
   }
 
+  /**
+   * Writes this exception with its received versions run-length encoded. Each run of consecutive
+   * versions is written as its gap from the last version written, shifted left by one with the low
+   * bit set if the run holds more than one version, in which case its length minus two follows.
+   * An isolated version therefore costs about what it does in {@link #toData}, while a run of any
+   * length costs at most two small numbers.
+   */
+  void toDataCompact(DataOutput out) throws IOException {
+    InternalDataSerializer.writeUnsignedVL(this.previousVersion, out);
+    long[] runs = getReceivedRuns();
+    InternalDataSerializer.writeUnsignedVL(runs.length / 2, out);
+    long last = this.previousVersion;
+    for (int i = 0; i < runs.length; i += 2) {
+      long gap = runs[i] - last;
+      if (runs[i + 1] == runs[i]) {
+        InternalDataSerializer.writeUnsignedVL(gap << 1, out);
+      } else {
+        InternalDataSerializer.writeUnsignedVL((gap << 1) | 1, out);
+        InternalDataSerializer.writeUnsignedVL(runs[i + 1] - runs[i] - 1, out);
+      }
+      last = runs[i + 1];
+    }
+    InternalDataSerializer.writeUnsignedVL(this.nextVersion - last, out);
+  }
+
+  /**
+   * Returns the received versions as runs of consecutive versions, each as a start and an
+   * inclusive end version, in ascending order.
+   */
+  long[] getReceivedRuns() {
+    long[] runs = new long[8];
+    int length = 0;
+    for (ReceivedVersionsIterator it = receivedVersionsIterator(); it.hasNext();) {
+      long version = it.next();
+      if (length > 0 && runs[length - 1] == version - 1) {
+        runs[length - 1] = version;
+      } else {
+        if (length == runs.length) {
+          runs = Arrays.copyOf(runs, length * 2);
+        }
+        runs[length++] = version;
+        runs[length++] = version;
+      }
+    }
+    return Arrays.copyOf(runs, length);
+  }
+
   /**
    * add a received version
    */
@@ -174,6 +257,18 @@ abstract class RVVException
     throw new UnsupportedOperationException("this class does not support hashing at this time");
   }
 
+  /** Test hook - compare the received versions of two exceptions of any form */
+  protected boolean sameReceivedVersionsAs(RVVException other) {
+    ReceivedVersionsIterator mine = receivedVersionsIterator();
+    ReceivedVersionsIterator others = other.receivedVersionsIterator();
+    while (mine.hasNext() && others.hasNext()) {
+      if (mine.next() != others.next()) {
+        return false;
+      }
+    }
+    return !mine.hasNext() && !others.hasNext();
+  }
+
   protected abstract void writeReceived(DataOutput out) throws IOException;
 
   public abstract ReceivedVersionsIterator receivedVersionsIterator();
@@ -199,6 +199,9 @@ public class RVVExceptionB extends RVVException {
     if (ex instanceof RVVExceptionT) {
       return ((RVVExceptionT) ex).sameAs(this);
     }
+    if (ex instanceof RVVExceptionR) {
+      return ex.sameAs(this);
+    }
     if (!super.sameAs(ex)) {
       return false;
     }
@@ -0,0 +1,289 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.versions;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+import org.apache.geode.internal.InternalDataSerializer;
+
+/**
+ * This subclass of RVVException holds received versions as a sorted array of disjoint runs of
+ * consecutive versions. It is used if the exception represents a large gap, where a BitSet would
+ * be too big. Out-of-order traffic tends to fill such a gap in long runs, so a run costs 16 bytes
+ * where the TreeSet of {@link RVVExceptionT} costs an entry per received version.
+ * 
+ * @since Geode 1.2
+ */
+public class RVVExceptionR extends RVVException {
+
+  /** start and (inclusive) end version of each run in ascending order */
+  long[] runs;
+
+  int runCount;
+
+  RVVExceptionR(long previousVersion, long nextVersion) {
+    super(previousVersion, nextVersion);
+  }
+
+  @Override
+  public void add(long receivedVersion) {
+    if (receivedVersion == this.previousVersion + 1) {
+      this.previousVersion = receivedVersion;
+      consumeReceivedVersions();
+    } else if (receivedVersion == this.nextVersion - 1) {
+      this.nextVersion = receivedVersion;
+      consumeReceivedVersions();
+    } else if (this.previousVersion < receivedVersion && receivedVersion < this.nextVersion) {
+      addReceived(receivedVersion);
+    }
+  }
+
+  @Override
+  protected void addReceived(long rv) {
+    addReceivedRun(rv, rv);
+  }
+
+  @Override
+  protected void addReceivedRun(long start, long end) {
+    if (this.runs == null) {
+      this.runs = new long[4];
+    }
+    // the first run that overlaps or directly follows the new one, if any
+    final int i = firstRunEndingAtOrAfter(start - 1);
+    if (i < this.runCount && this.runs[2 * i] <= end + 1) {
+      // merge the new run with every run it overlaps or touches
+      int j = i;
+      long mergedEnd = end;
+      while (j < this.runCount && this.runs[2 * j] <= end + 1) {
+        mergedEnd = Math.max(mergedEnd, this.runs[2 * j + 1]);
+        j++;
+      }
+      this.runs[2 * i] = Math.min(start, this.runs[2 * i]);
+      this.runs[2 * i + 1] = mergedEnd;
+      removeRuns(i + 1, j);
+    } else {
+      if (2 * this.runCount == this.runs.length) {
+        this.runs = Arrays.copyOf(this.runs, this.runs.length * 2);
+      }
+      System.arraycopy(this.runs, 2 * i, this.runs, 2 * i + 2, 2 * (this.runCount - i));
+      this.runs[2 * i] = start;
+      this.runs[2 * i + 1] = end;
+      this.runCount++;
+    }
+  }
+
+  /** returns the index of the first run whose end is >= the given version, or runCount */
+  private int firstRunEndingAtOrAfter(long version) {
+    int low = 0;
+    int high = this.runCount;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (this.runs[2 * mid + 1] < version) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+  /** removes the runs from index from (inclusive) to index to (exclusive) */
+  private void removeRuns(int from, int to) {
+    if (to > from) {
+      System.arraycopy(this.runs, 2 * to, this.runs, 2 * from, 2 * (this.runCount - to));
+      this.runCount -= to - from;
+    }
+  }
+
+  /**
+   * checks to see if any of the received runs can be merged into the start/end version numbers
+   */
+  private void consumeReceivedVersions() {
+    int consumed = 0;
+    while (consumed < this.runCount && this.runs[2 * consumed] <= this.previousVersion + 1) {
+      this.previousVersion = Math.max(this.previousVersion, this.runs[2 * consumed + 1]);
+      consumed++;
+    }
+    removeRuns(0, consumed);
+    while (this.runCount > 0 && this.runs[2 * this.runCount - 1] >= this.nextVersion - 1) {
+      this.nextVersion = Math.min(this.nextVersion, this.runs[2 * this.runCount - 2]);
+      this.runCount--;
+    }
+    if (this.previousVersion >= this.nextVersion) {
+      this.runCount = 0;
+    }
+  }
+
+  @Override
+  long[] getReceivedRuns() {
+    return this.runs == null ? new long[0] : Arrays.copyOf(this.runs, 2 * this.runCount);
+  }
+
+  @Override
+  public RVVException clone() {
+    RVVExceptionR clone = new RVVExceptionR(this.previousVersion, this.nextVersion);
+    if (this.runs != null) {
+      clone.runs = this.runs.clone();
+      clone.runCount = this.runCount;
+    }
+    return clone;
+  }
+
+  @Override
+  protected void writeReceived(DataOutput out) throws IOException {
+    long size = 0;
+    for (int i = 0; i < this.runCount; i++) {
+      size += this.runs[2 * i + 1] - this.runs[2 * i] + 1;
+    }
+    InternalDataSerializer.writeUnsignedVL(size, out);
+
+    // Write each version in the exception as a delta from the previous version
+    // this will likely be smaller than the absolute value, so it will
+    // be more likely to fit into a byte or a short.
+    long last = this.previousVersion;
+    for (int i = 0; i < this.runCount; i++) {
+      for (long version = this.runs[2 * i]; version <= this.runs[2 * i + 1]; version++) {
+        InternalDataSerializer.writeUnsignedVL(version - last, out);
+        last = version;
+      }
+    }
+    InternalDataSerializer.writeUnsignedVL(this.nextVersion - last, out);
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder();
+    sb.append("er(n=").append(this.nextVersion).append(" p=").append(this.previousVersion)
+        .append("; rr=[");
+    for (int i = 0; i < this.runCount; i++) {
+      if (i > 0) {
+        sb.append(',');
+      }
+      sb.append(this.runs[2 * i]);
+      if (this.runs[2 * i + 1] != this.runs[2 * i]) {
+        sb.append('-').append(this.runs[2 * i + 1]);
+      }
+    }
+    return sb.append("])").toString();
+  }
+
+  /**
+   * For test purposes only. Compares the received versions rather than the representation, so an
+   * exception of any form with the same versions matches.
+   */
+  @Override
+  public boolean sameAs(RVVException ex) {
+    return super.sameAs(ex) && sameReceivedVersionsAs(ex);
+  }
+
+  /** has the given version been recorded as having been received? */
+  public boolean contains(long version) {
+    if (version <= this.previousVersion) {
+      return false;
+    }
+    int i = firstRunEndingAtOrAfter(version);
+    return i < this.runCount && this.runs[2 * i] <= version;
+  }
+
+  /** return false if any revisions have been recorded in the range of this exception */
+  public boolean isEmpty() {
+    return this.runCount == 0;
+  }
+
+  public ReceivedVersionsIterator receivedVersionsIterator() {
+    return new ReceivedVersionsIteratorR();
+  }
+
+  public long getHighestReceivedVersion() {
+    if (this.runCount == 0) {
+      return this.previousVersion;
+    }
+    return this.runs[2 * this.runCount - 1];
+  }
+
+  @Override
+  public boolean shouldChangeForm() {
+    // A bit set uses 1 bit for each *possible* version and a run uses 16 bytes, so switch to a
+    // bit set once the runs are that fragmented.
+    return this.runCount * 128L > this.nextVersion - this.previousVersion;
+  }
+
+  @Override
+  public RVVException changeForm() {
+    // Convert the exception to a bitset exception
+    RVVExceptionB ex = new RVVExceptionB(this.previousVersion, this.nextVersion);
+    for (ReceivedVersionsIterator it = this.receivedVersionsIterator(); it.hasNext();) {
+      ex.add(it.next());
+    }
+    return ex;
+  }
+
+  protected class ReceivedVersionsIteratorR extends ReceivedVersionsIterator {
+    /** index of the run holding the next version */
+    int run;
+    long nextVersion;
+    long lastReturned = -1;
+
+    ReceivedVersionsIteratorR() {
+      if (runCount > 0) {
+        this.nextVersion = runs[0];
+      }
+    }
+
+    boolean hasNext() {
+      return this.run < runCount;
+    }
+
+    long next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException("no more elements available");
+      }
+      this.lastReturned = this.nextVersion;
+      if (this.nextVersion < runs[2 * this.run + 1]) {
+        this.nextVersion++;
+      } else if (++this.run < runCount) {
+        this.nextVersion = runs[2 * this.run];
+      }
+      return this.lastReturned;
+    }
+
+    void remove() {
+      if (this.lastReturned < 0) {
+        throw new NoSuchElementException("no more elements available");
+      }
+      final long version = this.lastReturned;
+      this.lastReturned = -1;
+      final int i = firstRunEndingAtOrAfter(version);
+      final long start = runs[2 * i];
+      final long end = runs[2 * i + 1];
+      if (start == end) {
+        removeRuns(i, i + 1);
+        this.run = i;
+      } else if (version == start) {
+        runs[2 * i] = version + 1;
+      } else if (version == end) {
+        runs[2 * i + 1] = version - 1;
+      } else {
+        // split the run in two; the next version is in the second half
+        runs[2 * i + 1] = version - 1;
+        addReceivedRun(version + 1, end);
+        this.run = i + 1;
+      }
+    }
+  }
+}
@@ -157,6 +157,9 @@ public class RVVExceptionT extends RVVException {
    */
   @Override
   public boolean sameAs(RVVException ex) {
+    if (ex instanceof RVVExceptionR) {
+      return ex.sameAs(this);
+    }
     if (!super.sameAs(ex)) {
       return false;
     }
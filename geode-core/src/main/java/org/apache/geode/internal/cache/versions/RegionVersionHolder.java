@@ -28,6 +28,7 @@ import org.apache.logging.log4j.Logger;
 
 import org.apache.geode.DataSerializable;
 import org.apache.geode.internal.InternalDataSerializer;
+import org.apache.geode.internal.Version;
 import org.apache.geode.internal.cache.versions.RVVException.ReceivedVersionsIterator;
 import org.apache.geode.internal.logging.LogService;
 import org.apache.geode.internal.logging.log4j.LogMarker;
@@ -56,6 +57,12 @@ public class RegionVersionHolder<T> implements Cloneable, DataSerializable {
 
   private static List<RVVException> EMPTY_EXCEPTIONS = Collections.emptyList();
 
+  /** serialization flag bit set if the holder is for a departed member */
+  private static final byte DEPARTED_MEMBER = 0x01;
+
+  /** serialization flag bit set if the exceptions were written by RVVException.toDataCompact */
+  private static final byte COMPACT_EXCEPTIONS = 0x02;
+
   long version = -1; // received version
   transient T id;
   private List<RVVException> exceptions;
@@ -640,10 +647,21 @@ public class RegionVersionHolder<T> implements Cloneable, DataSerializable {
     InternalDataSerializer.writeUnsignedVL(this.version, out);
     int size = (this.exceptions == null) ? 0 : this.exceptions.size();
     InternalDataSerializer.writeUnsignedVL(size, out);
-    out.writeBoolean(this.isDepartedMember);
+    // older members read the flags as a boolean, so they only ever see the departed bit
+    boolean compact = InternalDataSerializer.getVersionForDataStream(out)
+        .compareTo(Version.GEODE_120) >= 0;
+    byte flags = this.isDepartedMember ? DEPARTED_MEMBER : 0;
+    if (compact && size > 0) {
+      flags |= COMPACT_EXCEPTIONS;
+    }
+    out.writeByte(flags);
     if (size > 0) {
       for (RVVException e : this.exceptions) {
-        InternalDataSerializer.invokeToData(e, out);
+        if (compact) {
+          e.toDataCompact(out);
+        } else {
+          InternalDataSerializer.invokeToData(e, out);
+        }
       }
     }
   }
@@ -656,11 +674,14 @@ public class RegionVersionHolder<T> implements Cloneable, DataSerializable {
   public void fromData(DataInput in) throws IOException {
     this.version = InternalDataSerializer.readUnsignedVL(in);
     int size = (int) InternalDataSerializer.readUnsignedVL(in);
-    this.isDepartedMember = in.readBoolean();
+    byte flags = in.readByte();
+    this.isDepartedMember = (flags & DEPARTED_MEMBER) != 0;
+    boolean compact = (flags & COMPACT_EXCEPTIONS) != 0;
     if (size > 0) {
       this.exceptions = new LinkedList<RVVException>();
       for (int i = 0; i < size; i++) {
-        RVVException e = RVVException.createException(in);
+        RVVException e =
+            compact ? RVVException.createCompactException(in) : RVVException.createException(in);
         this.exceptions.add(e);
       }
     }
@@ -1091,6 +1091,21 @@ public abstract class RegionVersionVector<T extends VersionSource<?>>
     return h.getExceptionCount();
   }
 
+  /**
+   * Returns the number of exceptions held for all members, which is what dominates the size of
+   * this vector when it is sent during initial image transfer
+   */
+  public int getTotalExceptionCount() {
+    int count = 0;
+    if (this.localExceptions != null) {
+      count += this.localExceptions.getExceptionCount();
+    }
+    for (RegionVersionHolder<T> h : this.memberToVersion.values()) {
+      count += h.getExceptionCount();
+    }
+    return count;
+  }
+
   /**
    * constructor used to create a cloned vector
    * 
@@ -0,0 +1,53 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.memcached;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+import org.apache.geode.cache.Cache;
+
+/**
+ * Implemented by the {@link CommandProcessor}s of binary protocol commands whose consecutive
+ * requests can be executed with one bulk region operation. Clients send a run of quiet commands
+ * such as GETQ or SETQ terminated by a NOOP to pipeline multi-gets and multi-sets, and the
+ * {@link ConnectionHandler} hands such a run to this processor at once.
+ * 
+ *
+ */
+public interface BatchCommandProcessor extends CommandProcessor {
+
+  /**
+   * @param request a binary request for this command
+   * @return true if this request may be executed in a batch. Requests in a batch may be executed
+   *         again one at a time if the batch fails, so this should only be true for requests that
+   *         can safely be repeated
+   */
+  public boolean isBatchable(ByteBuffer request);
+
+  /**
+   * Executes consecutive binary requests for this command, with the same outcome as executing each
+   * of them in order with {@link #processCommand}
+   * 
+   * @param requests the batchable requests, each positioned at its first byte
+   * @param reader used to obtain response buffers
+   * @param cache
+   * @return one reply per request, null for the requests that are not answered. The replies do not
+   *         share their buffers, and are completed by {@link RequestReader#prepareReply}
+   */
+  public List<ByteBuffer> processCommands(List<ByteBuffer> requests, RequestReader reader,
+      Cache cache);
+
+}
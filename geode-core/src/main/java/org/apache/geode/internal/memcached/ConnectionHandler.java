@@ -15,8 +15,14 @@
 package org.apache.geode.internal.memcached;
 
 import java.io.IOException;
-import java.net.Socket;
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
 
 import org.apache.geode.LogWriter;
 import org.apache.geode.cache.Cache;
@@ -27,60 +33,191 @@ import org.apache.geode.memcached.GemFireMemcachedServer.Protocol;
 
 /**
  * One instance of ConnectionHandle is created for each client that connects to
- * {@link GemFireMemcachedServer} and is responsible for reading requests and sending responses to
- * this client.
+ * {@link GemFireMemcachedServer} and is responsible for executing the requests framed by the
+ * {@link RequestDecoder} and sending responses to this client. It runs on the bounded pool of
+ * worker threads of the server rather than on a thread of its own, so a connection only holds a
+ * thread while one of its requests is being executed. Replies are flushed once all of the requests
+ * from a read have been executed.
+ * <p>
+ * Consecutive binary requests for a command that has a {@link BatchCommandProcessor}, such as the
+ * GETQs or SETQs of a multi-get or multi-set, are held back until a different command arrives,
+ * usually the terminating NOOP, and are then executed with one bulk region operation. Batching can
+ * be turned off with the {@link #BATCH_COMMANDS_SYS_PROP_NAME} system property.
  * 
  * 
  *
  */
-public class ConnectionHandler implements Runnable {
+public class ConnectionHandler extends ChannelInboundHandlerAdapter {
+
+  /**
+   * System property name that can be set to false to execute every request on its own
+   */
+  public static final String BATCH_COMMANDS_SYS_PROP_NAME = "gemcached.batchcommands";
 
-  private final Socket socket;
+  /**
+   * Upper bound on the number of requests held back for one batch
+   */
+  private static final int MAX_BATCH_SIZE = 1024;
 
   private final Cache cache;
 
   private final Protocol protocol;
 
+  private final RequestReader request;
+
+  private final boolean batchCommands;
+
+  /**
+   * Consecutive batchable requests for {@link #pendingCommand} that are waiting to be executed
+   */
+  private final List<ByteBuffer> pendingRequests;
+
+  private Command pendingCommand;
+
   private static LogWriter logger;
 
-  public ConnectionHandler(Socket socket, Cache cache, Protocol protocol) {
-    this.socket = socket;
+  public ConnectionHandler(Cache cache, Protocol protocol) {
     this.cache = cache;
     this.protocol = protocol;
+    this.request = new RequestReader(protocol);
+    this.batchCommands = protocol == Protocol.BINARY
+        && Boolean.parseBoolean(System.getProperty(BATCH_COMMANDS_SYS_PROP_NAME, "true"));
+    this.pendingRequests = new ArrayList<ByteBuffer>();
     if (logger == null) {
       logger = this.cache.getLogger();
     }
   }
 
-  public void run() {
-    RequestReader request = new RequestReader(this.socket, this.protocol);
-    while (!Thread.currentThread().isInterrupted()) {
-      try {
-        Command command = request.readCommand();
-        if (logger.fineEnabled()) {
-          logger.fine("processing command:" + command);
+  @Override
+  public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
+    ByteBuffer buffer = (ByteBuffer) msg;
+    try {
+      Command command = this.request.readCommand(buffer);
+      if (isBatchable(command, buffer)) {
+        if (!this.pendingRequests.isEmpty() && this.pendingCommand != command) {
+          processBatch(ctx);
         }
-        ByteBuffer reply =
-            command.getCommandProcessor().processCommand(request, this.protocol, cache);
+        this.pendingCommand = command;
+        this.pendingRequests.add(buffer);
+        if (this.pendingRequests.size() >= MAX_BATCH_SIZE) {
+          processBatch(ctx);
+        }
+        return;
+      }
+      if (!this.pendingRequests.isEmpty()) {
+        processBatch(ctx);
+        // the batch may have made one of its requests the current one
+        this.request.readCommand(buffer);
+      }
+      if (logger.fineEnabled()) {
+        logger.fine("processing command:" + command);
+      }
+      ByteBuffer reply =
+          command.getCommandProcessor().processCommand(this.request, this.protocol, cache);
+      if (command == Command.QUIT || command == Command.QUITQ) {
         if (reply != null) {
-          request.sendReply(reply);
+          // the reply buffer is reused, so it is copied before it is handed to netty
+          ctx.writeAndFlush(Unpooled.copiedBuffer(this.request.prepareReply(reply)))
+              .addListener(ChannelFutureListener.CLOSE);
+        } else {
+          ctx.close();
         }
-        if (command == Command.QUIT || command == Command.QUITQ) {
-          socket.close();
-          break;
+        return;
+      }
+      if (reply != null) {
+        ctx.write(Unpooled.copiedBuffer(this.request.prepareReply(reply)), ctx.voidPromise());
+      }
+    } catch (ClientError e) {
+      ctx.write(Unpooled.wrappedBuffer(this.request.getExceptionReply(e)), ctx.voidPromise());
+    } catch (IllegalArgumentException e) {
+      // thrown by Command.valueOf() when there is no matching command
+      ctx.write(Unpooled.wrappedBuffer(this.request.getExceptionReply(e)), ctx.voidPromise());
+    } catch (CacheClosedException cc) {
+      ctx.close();
+    }
+  }
+
+  @Override
+  public void channelReadComplete(ChannelHandlerContext ctx) {
+    processBatch(ctx);
+    ctx.flush();
+  }
+
+  private boolean isBatchable(Command command, ByteBuffer buffer) {
+    if (!this.batchCommands) {
+      return false;
+    }
+    CommandProcessor processor = command.getCommandProcessor();
+    return processor instanceof BatchCommandProcessor
+        && ((BatchCommandProcessor) processor).isBatchable(buffer);
+  }
+
+  /**
+   * Executes the held back requests with one call to their {@link BatchCommandProcessor}. Should
+   * that fail, the requests are executed one at a time so each gets its own reply.
+   */
+  private void processBatch(ChannelHandlerContext ctx) {
+    if (this.pendingRequests.isEmpty()) {
+      return;
+    }
+    List<ByteBuffer> requests = new ArrayList<ByteBuffer>(this.pendingRequests);
+    this.pendingRequests.clear();
+    Command command = this.pendingCommand;
+    this.pendingCommand = null;
+    BatchCommandProcessor processor = (BatchCommandProcessor) command.getCommandProcessor();
+    if (logger.fineEnabled()) {
+      logger.fine("processing " + requests.size() + " requests for command:" + command);
+    }
+    List<ByteBuffer> replies = null;
+    try {
+      replies = processor.processCommands(requests, this.request, cache);
+    } catch (CacheClosedException cc) {
+      ctx.close();
+      return;
+    } catch (Exception e) {
+      if (logger.fineEnabled()) {
+        logger.fine("batch of " + requests.size() + " " + command
+            + " requests failed, processing them one at a time", e);
+      }
+    }
+    for (int i = 0; i < requests.size(); i++) {
+      ByteBuffer buffer = requests.get(i);
+      ByteBuffer reply;
+      if (replies != null) {
+        reply = replies.get(i);
+      } else {
+        try {
+          this.request.readCommand(buffer);
+          reply = processor.processCommand(this.request, this.protocol, cache);
+        } catch (CacheClosedException cc) {
+          ctx.close();
+          return;
+        } catch (Exception e) {
+          reply = this.request.getExceptionReply(e);
+          ctx.write(Unpooled.wrappedBuffer(reply), ctx.voidPromise());
+          continue;
         }
-      } catch (ClientError e) {
-        request.sendException(e);
-      } catch (IllegalArgumentException e) {
-        // thrown by Command.valueOf() when there is no matching command
-        request.sendException(e);
-      } catch (CacheClosedException cc) {
-        Thread.currentThread().interrupt();
-      } catch (IOException e) {
-        Thread.currentThread().interrupt();
       }
+      if (reply != null) {
+        ctx.write(Unpooled.copiedBuffer(this.request.prepareReply(buffer, reply)),
+            ctx.voidPromise());
+      }
+    }
+  }
+
+  @Override
+  public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+    if (!(cause instanceof IOException) && logger.warningEnabled()) {
+      logger.warning("Closing connection with " + ctx.channel().remoteAddress(), cause);
+    }
+    ctx.close();
+  }
+
+  @Override
+  public void channelInactive(ChannelHandlerContext ctx) {
+    if (logger.fineEnabled()) {
+      logger.fine("Connection with " + ctx.channel().remoteAddress() + " terminating");
     }
-    logger.fine("Connection handler " + Thread.currentThread().getName() + " terminating");
   }
 
   protected static LogWriter getLogger() {
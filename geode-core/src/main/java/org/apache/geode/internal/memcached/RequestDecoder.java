@@ -0,0 +1,151 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.memcached;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.ByteToMessageDecoder;
+import io.netty.handler.codec.TooLongFrameException;
+import io.netty.util.CharsetUtil;
+
+import org.apache.geode.internal.memcached.commands.AbstractCommand;
+import org.apache.geode.memcached.GemFireMemcachedServer;
+import org.apache.geode.memcached.GemFireMemcachedServer.Protocol;
+
+/**
+ * First part of the channel pipeline of the {@link GemFireMemcachedServer}. Incoming bytes are
+ * split into requests, and each complete request is sent down the pipeline as a {@link ByteBuffer}
+ * positioned at its first byte, which is the layout the commands expect from
+ * {@link RequestReader#getRequest()}. When only part of a request has arrived nothing is consumed
+ * and decoding resumes once more bytes have been read.
+ * <p>
+ * For the binary protocol a request is the 24 byte header followed by the body length it announces.
+ * For the ASCII protocol a request is the first line, followed by the data block and its trailing
+ * "\r\n" for the storage commands.
+ * <p>
+ * A request longer than {@link #MAX_REQUEST_LENGTH_SYS_PROP_NAME} bytes, or an ASCII line that
+ * reaches that length without a newline, is never buffered: the connection is closed instead.
+ */
+public class RequestDecoder extends ByteToMessageDecoder {
+
+  /**
+   * System property name that can be used to set the maximum length in bytes of a request, 2MB by
+   * default
+   */
+  public static final String MAX_REQUEST_LENGTH_SYS_PROP_NAME = "gemcached.maxrequestlength";
+
+  private static final int DEFAULT_MAX_REQUEST_LENGTH = 2 * 1024 * 1024;
+
+  private static final int HEADER_LENGTH = 24;
+
+  private static final byte REQUEST_MAGIC = (byte) 0x80;
+
+  private static final byte N = '\n';
+
+  /**
+   * the position of &lt;bytes&gt; in the first line of the ASCII storage commands
+   */
+  private static final int BYTES_INDEX = 4;
+
+  private final Protocol protocol;
+
+  private final int maxRequestLength;
+
+  public RequestDecoder(Protocol protocol) {
+    this(protocol,
+        Integer.getInteger(MAX_REQUEST_LENGTH_SYS_PROP_NAME, DEFAULT_MAX_REQUEST_LENGTH));
+  }
+
+  RequestDecoder(Protocol protocol, int maxRequestLength) {
+    this.protocol = protocol;
+    this.maxRequestLength = maxRequestLength;
+  }
+
+  @Override
+  protected void decode(ChannelHandlerContext ctx, ByteBuf in, List<Object> out) throws Exception {
+    while (in.isReadable()) {
+      long length;
+      try {
+        length = this.protocol == Protocol.ASCII ? getAsciiRequestLength(in)
+            : getBinaryRequestLength(in);
+      } catch (TooLongFrameException e) {
+        // the following bytes can not be framed any more, so the client is dropped
+        in.skipBytes(in.readableBytes());
+        ctx.close();
+        throw e;
+      }
+      if (length == -1 || in.readableBytes() < length) {
+        return;
+      }
+      ByteBuffer request = ByteBuffer.allocate((int) length);
+      in.readBytes(request);
+      request.flip();
+      out.add(request);
+    }
+  }
+
+  private long getBinaryRequestLength(ByteBuf in) {
+    if (in.readableBytes() < HEADER_LENGTH) {
+      return -1;
+    }
+    int start = in.readerIndex();
+    if (in.getByte(start) != REQUEST_MAGIC) {
+      throw new IllegalStateException("Not a valid request, magic byte incorrect");
+    }
+    int bodyLength = in.getInt(start + AbstractCommand.TOTAL_BODY_LENGTH_INDEX);
+    if (bodyLength < 0) {
+      throw new IllegalStateException("Not a valid request, negative body length");
+    }
+    return checkLength(HEADER_LENGTH + (long) bodyLength);
+  }
+
+  private long getAsciiRequestLength(ByteBuf in) {
+    int start = in.readerIndex();
+    int end = in.indexOf(start, in.writerIndex(), N);
+    if (end == -1) {
+      checkLength(in.readableBytes());
+      return -1;
+    }
+    int lineLength = end - start + 1;
+    checkLength(lineLength);
+    String[] elements = in.toString(start, lineLength, CharsetUtil.US_ASCII).trim().split(" ");
+    if (elements.length <= BYTES_INDEX || !isStorageCommand(elements[0])) {
+      return lineLength;
+    }
+    try {
+      return checkLength(lineLength + Math.max(0, Integer.parseInt(elements[BYTES_INDEX])) + 2L);
+    } catch (NumberFormatException e) {
+      // let the command report the malformed request
+      return lineLength;
+    }
+  }
+
+  private long checkLength(long length) {
+    if (length > this.maxRequestLength) {
+      throw new TooLongFrameException(
+          "Request of " + length + " bytes exceeds the maximum of " + this.maxRequestLength);
+    }
+    return length;
+  }
+
+  private boolean isStorageCommand(String command) {
+    return command.equalsIgnoreCase("set") || command.equalsIgnoreCase("add")
+        || command.equalsIgnoreCase("replace") || command.equalsIgnoreCase("append")
+        || command.equalsIgnoreCase("prepend") || command.equalsIgnoreCase("cas");
+  }
+}
@@ -14,23 +14,19 @@
  */
 package org.apache.geode.internal.memcached;
 
-import java.io.IOException;
-import java.net.Socket;
-import java.net.SocketException;
 import java.nio.ByteBuffer;
 import java.nio.CharBuffer;
-import java.nio.channels.SocketChannel;
 import java.nio.charset.CharacterCodingException;
 import java.nio.charset.Charset;
 import java.nio.charset.CharsetDecoder;
 
-import org.apache.geode.internal.memcached.commands.AbstractCommand;
 import org.apache.geode.internal.memcached.commands.ClientError;
 import org.apache.geode.memcached.GemFireMemcachedServer.Protocol;
 
 /**
  * Reads the first line from the request and interprets the {@link Command} from the memcached
- * client
+ * client. The requests are framed by the {@link RequestDecoder}, one instance of this class is used
+ * for all the requests of a connection.
  * 
  *
  */
@@ -54,98 +50,35 @@ public class RequestReader {
 
   private static final byte RESPONSE_MAGIC = (byte) 0x81;
 
-  private static final int HEADER_LENGTH = 24;
-
-  private static final byte REQUEST_MAGIC = (byte) 0x80;
-
   private static final int POSITION_OPCODE = 1;
 
   private static final int POSITION_OPAQUE = 12;
 
-  private Socket socket;
-
   private final Protocol protocol;
 
   private CharBuffer commandBuffer = CharBuffer.allocate(11); // no command exceeds 9 chars
 
-  public RequestReader(Socket socket, Protocol protocol) {
-    buffer = ByteBuffer.allocate(getBufferSize(socket.getChannel()));
-    // set position to limit so that first read attempt
-    // returns hasRemaining() false
-    buffer.position(buffer.limit());
-    this.socket = socket;
+  public RequestReader(Protocol protocol) {
     this.protocol = protocol;
   }
 
-  public Command readCommand() throws IOException {
+  /**
+   * Makes the given request the current one and interprets its {@link Command}
+   * 
+   * @param request one complete request, positioned at its first byte
+   */
+  public Command readCommand(ByteBuffer request) throws CharacterCodingException {
+    this.buffer = request;
+    Command cmd;
     if (protocol == Protocol.ASCII) {
-      return readAsciiCommand();
-    }
-    return readBinaryCommand();
-  }
-
-  private Command readBinaryCommand() throws IOException {
-    SocketChannel channel = this.socket.getChannel();
-    if (channel == null || !channel.isOpen()) {
-      throw new IllegalStateException("cannot read from channel");
-    }
-    Command cmd = null;
-    boolean done = false;
-    boolean read = false;
-    while (!done) {
-      if (!buffer.hasRemaining()) {
-        buffer.clear();
-        read = true;
-      } else if (!read) {
-        // compact is meant for partial writes, but we want to use
-        // it partial reads, so the new limit should be the position
-        // after the compact operation and we want to start reading
-        // from the beginning
-        buffer.compact();
-        buffer.limit(buffer.position());
-        buffer.position(0);
-      }
-      if (read) {
-        int bytesRead = channel.read(buffer);
-        if (bytesRead == -1) {
-          throw new IOException("EOF");
-        }
-        buffer.flip();
-      }
-      // read again if we did not read enough bytes
-      if (buffer.limit() < HEADER_LENGTH) {
-        buffer.compact();
-        read = true;
-        continue;
-      }
-      int requestLength = buffer.remaining();
-      byte magic = buffer.get();
-      if (magic != REQUEST_MAGIC) {
-        throw new IllegalStateException("Not a valid request, magic byte incorrect");
-      }
-      byte opCode = buffer.get();
+      cmd = Command.valueOf(readCommandName(request));
+    } else {
+      byte opCode = request.get(POSITION_OPCODE);
       if (ConnectionHandler.getLogger().finerEnabled()) {
-        String str = Command.buffertoString(buffer);
-        ConnectionHandler.getLogger().finer("Request:" + buffer + str.toString());
-      }
-      int bodyLength = buffer.getInt(AbstractCommand.TOTAL_BODY_LENGTH_INDEX);
-      if ((HEADER_LENGTH + bodyLength) > requestLength) {
-        // set the position back to the start of the request
-        buffer.position(buffer.position() - 2 /* since we read two bytes */);
-        buffer.compact();
-        // ensure that the buffer is big enough
-        if (buffer.capacity() < (HEADER_LENGTH + bodyLength)) {
-          // allocate bigger buffer and copy the bytes to the bigger buffer
-          ByteBuffer oldBuffer = buffer;
-          oldBuffer.position(0);
-          buffer = ByteBuffer.allocate(HEADER_LENGTH + bodyLength);
-          buffer.put(oldBuffer);
-        }
-        read = true;
-        continue;
+        String str = Command.buffertoString(request);
+        ConnectionHandler.getLogger().finer("Request:" + request + str.toString());
       }
       cmd = Command.getCommandFromOpCode(opCode);
-      done = true;
     }
     if (ConnectionHandler.getLogger().fineEnabled()) {
       ConnectionHandler.getLogger().fine("read command " + cmd);
@@ -153,21 +86,7 @@ public class RequestReader {
     return cmd;
   }
 
-  private Command readAsciiCommand() throws IOException {
-    SocketChannel channel = this.socket.getChannel();
-    if (channel == null || !channel.isOpen()) {
-      throw new IllegalStateException("cannot read from channel");
-    }
-    buffer.clear();
-    int bytesRead = channel.read(buffer);
-    if (bytesRead == -1) {
-      throw new IOException("EOF");
-    }
-    buffer.flip();
-    return Command.valueOf(readCommand(buffer));
-  }
-
-  private String readCommand(ByteBuffer buffer) throws CharacterCodingException {
+  private String readCommandName(ByteBuffer buffer) throws CharacterCodingException {
     commandBuffer.clear();
     asciiDecoder.get().decode(buffer, commandBuffer, false);
     commandBuffer.flip();
@@ -194,16 +113,6 @@ public class RequestReader {
     return retVal;
   }
 
-  private int getBufferSize(SocketChannel channel) {
-    int size = 1024;
-    try {
-      size = channel.socket().getReceiveBufferSize();
-    } catch (SocketException e) {
-      // use default size
-    }
-    return size;
-  }
-
   public ByteBuffer getRequest() {
     this.buffer.rewind();
     return this.buffer;
@@ -256,36 +165,39 @@ public class RequestReader {
     return cleanByteArray;
   }
 
-  public void sendReply(ByteBuffer reply) throws IOException {
-    // for binary set the response opCode
+  /**
+   * Completes the reply to the current request, for the binary protocol the opCode and opaque of
+   * the request are copied to the reply
+   * 
+   * @return the reply, ready to be written to the client
+   */
+  public ByteBuffer prepareReply(ByteBuffer reply) {
+    return prepareReply(this.buffer, reply);
+  }
+
+  /**
+   * Completes the reply to the given request, used for the requests of a batch which are not the
+   * current request
+   * 
+   * @return the reply, ready to be written to the client
+   */
+  public ByteBuffer prepareReply(ByteBuffer request, ByteBuffer reply) {
     if (this.protocol == Protocol.BINARY) {
       reply.rewind();
-      reply.put(POSITION_OPCODE, buffer.get(POSITION_OPCODE));
-      reply.putInt(POSITION_OPAQUE, buffer.getInt(POSITION_OPAQUE));
+      reply.put(POSITION_OPCODE, request.get(POSITION_OPCODE));
+      reply.putInt(POSITION_OPAQUE, request.getInt(POSITION_OPAQUE));
       if (ConnectionHandler.getLogger().finerEnabled()) {
         ConnectionHandler.getLogger()
             .finer("sending reply:" + reply + " " + Command.buffertoString(reply));
       }
     }
-    SocketChannel channel = this.socket.getChannel();
-    if (channel == null || !channel.isOpen()) {
-      throw new IllegalStateException("cannot write to channel");
-    }
-    channel.write(reply);
+    return reply;
   }
 
-  public void sendException(Exception e) {
-    SocketChannel channel = this.socket.getChannel();
-    if (channel == null || !channel.isOpen()) {
-      throw new IllegalStateException("cannot write to channel");
-    }
-    try {
-      if (e instanceof ClientError) {
-        channel.write(charsetASCII.encode(Reply.CLIENT_ERROR.toString()));
-      } else {
-        channel.write(charsetASCII.encode(Reply.ERROR.toString()));
-      }
-    } catch (IOException ex) {
+  public ByteBuffer getExceptionReply(Exception e) {
+    if (e instanceof ClientError) {
+      return charsetASCII.encode(Reply.CLIENT_ERROR.toString());
     }
+    return charsetASCII.encode(Reply.ERROR.toString());
   }
 }
@@ -203,6 +203,18 @@ public abstract class AbstractCommand implements CommandProcessor {
   /**
    * Used to handle exceptions thrown by the region callbacks.
    */
+  /**
+   * Copies a reply out of the response buffer of the {@link RequestReader}, which is reused for
+   * the next request
+   */
+  protected ByteBuffer copyReply(ByteBuffer reply) {
+    reply.rewind();
+    ByteBuffer copy = ByteBuffer.allocate(reply.remaining());
+    copy.put(reply);
+    copy.flip();
+    return copy;
+  }
+
   protected ByteBuffer handleBinaryException(Object key, RequestReader request, ByteBuffer response,
       String operation, Exception e) {
     getLogger().info("Exception occurred while processing " + operation + " :" + key, e);
@@ -16,14 +16,17 @@ package org.apache.geode.internal.memcached.commands;
 
 import java.nio.ByteBuffer;
 import java.nio.CharBuffer;
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 
 import org.apache.geode.cache.Cache;
 import org.apache.geode.cache.Region;
+import org.apache.geode.internal.memcached.BatchCommandProcessor;
 import org.apache.geode.internal.memcached.KeyWrapper;
 import org.apache.geode.internal.memcached.Reply;
 import org.apache.geode.internal.memcached.RequestReader;
@@ -47,7 +50,7 @@ import org.apache.geode.memcached.GemFireMemcachedServer.Protocol;
  * 
  *
  */
-public class GetCommand extends AbstractCommand {
+public class GetCommand extends AbstractCommand implements BatchCommandProcessor {
 
   private static final String VALUE = "VALUE";
   private static final String W_SPACE = " ";
@@ -95,6 +98,41 @@ public class GetCommand extends AbstractCommand {
     if (getLogger().fineEnabled()) {
       getLogger().fine("get:key:" + key + " val:" + val);
     }
+    return composeBinaryReply(key, val, request, response);
+  }
+
+  /**
+   * Reads the keys of all the requests with one {@link Region#getAll(java.util.Collection)}
+   */
+  @Override
+  public List<ByteBuffer> processCommands(List<ByteBuffer> requests, RequestReader request,
+      Cache cache) {
+    Region<Object, ValueWrapper> r = getMemcachedRegion(cache);
+
+    List<KeyWrapper> keys = new ArrayList<KeyWrapper>(requests.size());
+    for (ByteBuffer buffer : requests) {
+      keys.add(getKey(buffer, HEADER_LENGTH));
+    }
+    Map<Object, ValueWrapper> values = r.getAll(keys);
+    if (getLogger().fineEnabled()) {
+      getLogger().fine("get:keys:" + keys.size() + " found:" + values.size());
+    }
+
+    List<ByteBuffer> replies = new ArrayList<ByteBuffer>(requests.size());
+    for (KeyWrapper key : keys) {
+      ByteBuffer reply = composeBinaryReply(key, values.get(key), request, request.getResponse());
+      replies.add(reply == null ? null : copyReply(reply));
+    }
+    return replies;
+  }
+
+  @Override
+  public boolean isBatchable(ByteBuffer request) {
+    return true;
+  }
+
+  private ByteBuffer composeBinaryReply(KeyWrapper key, ValueWrapper val, RequestReader request,
+      ByteBuffer response) {
     if (val == null) {
       if (isQuiet()) {
         return null;
@@ -15,9 +15,15 @@
 package org.apache.geode.internal.memcached.commands;
 
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 import org.apache.geode.cache.Cache;
 import org.apache.geode.cache.Region;
+import org.apache.geode.internal.memcached.BatchCommandProcessor;
+import org.apache.geode.internal.memcached.KeyWrapper;
 import org.apache.geode.internal.memcached.Reply;
 import org.apache.geode.internal.memcached.RequestReader;
 import org.apache.geode.internal.memcached.ResponseStatus;
@@ -32,7 +38,7 @@ import org.apache.geode.internal.memcached.ValueWrapper;
  * 
  *
  */
-public class SetCommand extends StorageCommand {
+public class SetCommand extends StorageCommand implements BatchCommandProcessor {
 
   @Override
   public ByteBuffer processStorageCommand(String key, byte[] value, int flags, Cache cache) {
@@ -76,6 +82,55 @@ public class SetCommand extends StorageCommand {
     return response;
   }
 
+  /**
+   * Only sets without a cas and without an expiration time are batched, as these can be repeated
+   */
+  @Override
+  public boolean isBatchable(ByteBuffer request) {
+    if (request.getLong(POSITION_CAS) != 0L) {
+      return false;
+    }
+    int extrasLength = request.get(EXTRAS_LENGTH_INDEX);
+    return extrasLength < 8 || request.getInt(HEADER_LENGTH + 4) == 0;
+  }
+
+  /**
+   * Writes the values of all the requests with one {@link Region#putAll(Map)}
+   */
+  @Override
+  public List<ByteBuffer> processCommands(List<ByteBuffer> requests, RequestReader request,
+      Cache cache) {
+    Region<Object, ValueWrapper> r = getMemcachedRegion(cache);
+
+    Map<Object, ValueWrapper> map = new LinkedHashMap<Object, ValueWrapper>();
+    List<ValueWrapper> values = new ArrayList<ValueWrapper>(requests.size());
+    for (ByteBuffer buffer : requests) {
+      int extrasLength = buffer.get(EXTRAS_LENGTH_INDEX);
+      KeyWrapper key = getKey(buffer, HEADER_LENGTH + extrasLength);
+      int flags = extrasLength > 0 ? buffer.getInt(HEADER_LENGTH) : 0;
+      ValueWrapper val = ValueWrapper.getWrappedValue(getValue(buffer), flags);
+      map.put(key, val);
+      values.add(val);
+    }
+    r.putAll(map);
+    if (getLogger().fineEnabled()) {
+      getLogger().fine("set keys:" + map.size());
+    }
+
+    List<ByteBuffer> replies = new ArrayList<ByteBuffer>(requests.size());
+    for (ValueWrapper val : values) {
+      if (isQuiet()) {
+        replies.add(null);
+        continue;
+      }
+      ByteBuffer response = request.getResponse();
+      response.putShort(POSITION_RESPONSE_STATUS, ResponseStatus.NO_ERROR.asShort());
+      response.putLong(POSITION_CAS, val.getVersion());
+      replies.add(copyReply(response));
+    }
+    return replies;
+  }
+
   /**
    * Overriden by SETQ
    */
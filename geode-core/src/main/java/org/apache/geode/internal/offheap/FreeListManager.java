@@ -20,6 +20,7 @@ import org.apache.geode.internal.logging.LogService;
 import org.apache.logging.log4j.Logger;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentSkipListSet;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -134,8 +135,42 @@ public class FreeListManager {
   private final CopyOnWriteArrayList<Fragment> fragmentList;
   private final MemoryAllocatorImpl ma;
 
+  /**
+   * The number of tiny size classes, starting with the smallest, that are cached per thread. Zero
+   * if per-thread allocation caches are disabled.
+   */
+  private final int allocationCacheSizeClasses;
+  /**
+   * The number of chunks moved at once between a per-thread cache and the shared free lists.
+   */
+  private final int allocationCacheBatchSize;
+  private final ThreadLocal<ThreadAllocationCache> allocationCache;
+  /**
+   * Every per-thread cache created by this manager so that a defragmentation can drain them.
+   */
+  private final Set<ThreadAllocationCache> allocationCaches = ConcurrentHashMap.newKeySet();
+
   public FreeListManager(MemoryAllocatorImpl ma, final Slab[] slabs) {
+    this(ma, slabs, Integer.getInteger(ALLOCATION_CACHE_MAX_SIZE_PROPERTY, 0),
+        Integer.getInteger(ALLOCATION_CACHE_BATCH_SIZE_PROPERTY, 16));
+  }
+
+  FreeListManager(MemoryAllocatorImpl ma, final Slab[] slabs, int allocationCacheMaxSize,
+      int allocationCacheBatchSize) {
     this.ma = ma;
+    this.allocationCacheSizeClasses =
+        Math.min(Math.max(0, allocationCacheMaxSize / TINY_MULTIPLE), TINY_FREE_LIST_COUNT);
+    this.allocationCacheBatchSize = Math.max(1, allocationCacheBatchSize);
+    if (this.allocationCacheSizeClasses > 0) {
+      this.allocationCache = ThreadLocal.withInitial(() -> {
+        ThreadAllocationCache cache = new ThreadAllocationCache(Thread.currentThread(),
+            this.allocationCacheSizeClasses, this.allocationCacheBatchSize * 2);
+        this.allocationCaches.add(cache);
+        return cache;
+      });
+    } else {
+      this.allocationCache = null;
+    }
     this.slabs = slabs;
     long total = 0;
     Fragment[] tmp = new Fragment[slabs.length];
@@ -315,6 +350,19 @@ public class FreeListManager {
     verifyHugeMultiple(HUGE_MULTIPLE);
   }
   public final static int MAX_TINY = TINY_MULTIPLE * TINY_FREE_LIST_COUNT;
+  /**
+   * Chunks whose size, including the off-heap header, is at most this many bytes are cached per
+   * thread so that most small allocations and frees do not touch the shared free lists. The default
+   * of zero disables the per-thread allocation caches.
+   */
+  public static final String ALLOCATION_CACHE_MAX_SIZE_PROPERTY =
+      DistributionConfig.GEMFIRE_PREFIX + "OFF_HEAP_ALLOCATION_CACHE_MAX_SIZE";
+  /**
+   * The number of chunks a per-thread allocation cache moves to or from the shared free lists at
+   * once. Each size class of a cache holds at most twice this many chunks.
+   */
+  public static final String ALLOCATION_CACHE_BATCH_SIZE_PROPERTY =
+      DistributionConfig.GEMFIRE_PREFIX + "OFF_HEAP_ALLOCATION_CACHE_BATCH_SIZE";
 
   /**
    * Return true if the two chunks have been combined into one. If low and high are adjacent to each
@@ -378,6 +426,127 @@ public class FreeListManager {
     }
   }
 
+  /**
+   * The maximum number of free chunks that a single incremental defragmentation step will take off
+   * of the free lists.
+   */
+  public static final int INCREMENTAL_DEFRAGMENTATION_CHUNK_LIMIT =
+      Integer.getInteger(DistributionConfig.GEMFIRE_PREFIX
+          + "OFF_HEAP_INCREMENTAL_DEFRAGMENTATION_CHUNK_LIMIT", 10000);
+
+  /**
+   * The index of the tiny free list the next incremental defragmentation step will start polling.
+   * Guarded by synchronization on this.
+   */
+  private int nextTinyFreeListToDefragment = 0;
+
+  /**
+   * Coalesces adjacent free chunks into new fragments without stopping the world. Unlike defragment
+   * this method only takes at most maxChunks free chunks off of the free lists so the time it holds
+   * the defragmentation lock is bounded. Existing fragments are left in place so concurrent
+   * allocations can continue to use them while the step runs. Free chunks that are not adjacent to
+   * another polled chunk are put back on their free list.
+   *
+   * @return the number of free chunks that were combined into new fragments
+   */
+  int defragmentIncrementally(int maxChunks) {
+    if (maxChunks < 2) {
+      return 0;
+    }
+    final long startTime = this.ma.getStats().startIncrementalDefragmentation();
+    try {
+      synchronized (this) {
+        ResizableLongArray polled = new ResizableLongArray();
+        pollFreeChunks(polled, maxChunks);
+        Arrays.sort(polled.data, 0, polled.size());
+        int combined = 0;
+        ArrayList<Fragment> newFragments = new ArrayList<Fragment>();
+        int i = 0;
+        while (i < polled.size()) {
+          long runAddr = polled.get(i);
+          int runSize = OffHeapStoredObject.getSize(runAddr);
+          int j = i + 1;
+          while (j < polled.size()) {
+            long nextAddr = polled.get(j);
+            if (!isAdjacent(runAddr, runSize, nextAddr)) {
+              break;
+            }
+            long combinedSize = (long) runSize + OffHeapStoredObject.getSize(nextAddr);
+            if (!isSmallEnough(combinedSize)) {
+              break;
+            }
+            runSize = (int) combinedSize;
+            j++;
+          }
+          if (j - i == 1) {
+            // nothing to combine it with so give it back
+            free(runAddr, false);
+          } else {
+            OffHeapStoredObject.setSize(runAddr, runSize);
+            Fragment f = createFragment(runAddr, runSize);
+            if (this.validateMemoryWithFill) {
+              f.fill();
+            }
+            newFragments.add(f);
+            combined += j - i;
+          }
+          i = j;
+        }
+        if (!newFragments.isEmpty()) {
+          // Fragments with no free space left are useless so drop them before adding the new ones.
+          this.fragmentList.removeIf(f -> f.freeSpace() == 0);
+          this.fragmentList.addAll(newFragments);
+          updateFragmentStats();
+          this.ma.getStats().incDefragmentationChunksCombined(combined);
+        }
+        return combined;
+      } // sync
+    } finally {
+      this.ma.getStats().endIncrementalDefragmentation(startTime);
+    }
+  }
+
+  /**
+   * Polls up to maxChunks free chunk addresses into result. Huge chunks are taken first and then
+   * the tiny free lists are visited round robin starting where the previous step stopped.
+   */
+  private void pollFreeChunks(ResizableLongArray result, int maxChunks) {
+    OffHeapStoredObject huge;
+    while (result.size() < maxChunks && (huge = this.hugeChunkSet.pollFirst()) != null) {
+      result.add(huge.getAddress());
+    }
+    final int listCount = this.tinyFreeLists.length();
+    int idx = this.nextTinyFreeListToDefragment;
+    for (int visited = 0; visited < listCount && result.size() < maxChunks; visited++) {
+      OffHeapStoredObjectAddressStack cl = this.tinyFreeLists.get(idx);
+      if (cl != null) {
+        long addr;
+        while (result.size() < maxChunks && (addr = cl.poll()) != 0L) {
+          result.add(addr);
+        }
+        if (result.size() >= maxChunks) {
+          // this list may still have chunks so start with it next time
+          break;
+        }
+      }
+      idx = (idx + 1) % listCount;
+    }
+    this.nextTinyFreeListToDefragment = idx;
+  }
+
+  private void updateFragmentStats() {
+    int largestFragment = 0;
+    for (Fragment f : this.fragmentList) {
+      int freeSpace = f.freeSpace();
+      if (freeSpace > largestFragment) {
+        largestFragment = freeSpace;
+      }
+    }
+    this.ma.getStats().setLargestFragment(largestFragment);
+    this.ma.getStats().setFragments(this.fragmentList.size());
+    this.ma.getStats().setFragmentation(getFragmentation());
+  }
+
   /**
    * Simple interface the represents a "stack" of primitive longs. Currently this interface only
    * allows supports poll but more could be added if needed in the future. This interface was
@@ -578,6 +747,7 @@ public class FreeListManager {
     collectFreeFragmentChunks(l);
     collectFreeHugeChunks(l);
     collectFreeTinyChunks(l);
+    collectCachedChunks(l);
   }
 
   List<Fragment> getFragmentList() {
@@ -627,6 +797,24 @@ public class FreeListManager {
     }
   }
 
+  private void collectCachedChunks(List<LongStack> l) {
+    if (this.allocationCaches.isEmpty()) {
+      return;
+    }
+    OffHeapStoredObjectAddressStack result = new OffHeapStoredObjectAddressStack();
+    Iterator<ThreadAllocationCache> it = this.allocationCaches.iterator();
+    while (it.hasNext()) {
+      ThreadAllocationCache cache = it.next();
+      cache.drainAll(result);
+      if (!cache.isOwnerAlive()) {
+        it.remove();
+      }
+    }
+    if (!result.isEmpty()) {
+      l.add(result);
+    }
+  }
+
   private void collectFreeHugeChunks(List<LongStack> l) {
     OffHeapStoredObject c = this.hugeChunkSet.pollFirst();
     OffHeapStoredObjectAddressStack result = null;
@@ -692,8 +880,88 @@ public class FreeListManager {
   }
 
   private OffHeapStoredObject allocateTiny(int size, boolean useFragments) {
-    return basicAllocate(getNearestTinyMultiple(size), TINY_MULTIPLE, 0, this.tinyFreeLists,
-        useFragments);
+    int idx = getNearestTinyMultiple(size);
+    if (useFragments && idx < this.allocationCacheSizeClasses) {
+      long addr = allocateFromCache(idx);
+      if (addr != 0L) {
+        OffHeapStoredObject result = new OffHeapStoredObject(addr);
+        checkDataIntegrity(result);
+        result.readyForAllocation();
+        return result;
+      }
+    }
+    return basicAllocate(idx, TINY_MULTIPLE, 0, this.tinyFreeLists, useFragments);
+  }
+
+  /**
+   * Returns the address of a free chunk of the given tiny size class from the calling thread's
+   * allocation cache, refilling the cache first if it is empty. Returns {@code 0L} if the cache
+   * could not be refilled.
+   */
+  private long allocateFromCache(int idx) {
+    ThreadAllocationCache cache = this.allocationCache.get();
+    long addr = cache.poll(idx);
+    if (addr == 0L && refillAllocationCache(cache, idx)) {
+      addr = cache.poll(idx);
+    }
+    return addr;
+  }
+
+  private boolean refillAllocationCache(ThreadAllocationCache cache, int idx) {
+    OffHeapStoredObjectAddressStack clq = this.tinyFreeLists.get(idx);
+    if (clq != null) {
+      long head = clq.poll(this.allocationCacheBatchSize);
+      if (head != 0L) {
+        cache.offerAll(idx, head);
+        return true;
+      }
+    }
+    return carveFromFragments(cache, idx);
+  }
+
+  /**
+   * Carves a batch of chunks of the given tiny size class out of a fragment with a single
+   * allocation and puts them in cache. Unlike allocateFromFragments this never defragments; if no
+   * fragment has room the caller falls back to the normal allocation path.
+   */
+  private boolean carveFromFragments(ThreadAllocationCache cache, int idx) {
+    final int chunkSize = (idx + 1) * TINY_MULTIPLE;
+    final int fragmentCount = this.fragmentList.size();
+    final int lastAllocationId = this.lastFragmentAllocation.get();
+    for (int i = 0; i < fragmentCount; i++) {
+      final int fragIdx = (lastAllocationId + i) % fragmentCount;
+      final Fragment fragment;
+      try {
+        fragment = this.fragmentList.get(fragIdx);
+      } catch (IndexOutOfBoundsException ignore) {
+        // A concurrent defragmentation can cause this.
+        return false;
+      }
+      while (true) {
+        int oldOffset = fragment.getFreeIndex();
+        int fragmentFreeSize = fragment.getSize() - oldOffset;
+        int count = Math.min(this.allocationCacheBatchSize, fragmentFreeSize / chunkSize);
+        int extraSize = fragmentFreeSize - (count * chunkSize);
+        if (extraSize > 0 && extraSize < OffHeapStoredObject.MIN_CHUNK_SIZE) {
+          // leave one chunk behind so that the tail of the fragment is not lost forever
+          count--;
+        }
+        if (count <= 0) {
+          break;
+        }
+        if (fragment.allocate(oldOffset, oldOffset + (count * chunkSize))) {
+          this.lastFragmentAllocation.set(fragIdx);
+          long addr = fragment.getAddress() + oldOffset;
+          for (int c = 0; c < count; c++) {
+            new OffHeapStoredObject(addr, chunkSize).readyForFree();
+            cache.offer(idx, addr);
+            addr += chunkSize;
+          }
+          return true;
+        }
+      }
+    }
+    return false;
   }
 
   private OffHeapStoredObject basicAllocate(int idx, int multiple, int offset,
@@ -783,7 +1051,12 @@ public class FreeListManager {
       this.ma.notifyListeners();
     }
     if (cSize <= MAX_TINY) {
-      freeTiny(addr, cSize);
+      int idx = getNearestTinyMultiple(cSize);
+      if (updateStats && idx < this.allocationCacheSizeClasses) {
+        freeToCache(addr, idx);
+      } else {
+        freeTiny(addr, cSize);
+      }
     } else {
       freeHuge(addr, cSize);
     }
@@ -793,6 +1066,26 @@ public class FreeListManager {
     basicFree(addr, getNearestTinyMultiple(cSize), this.tinyFreeLists);
   }
 
+  private void freeToCache(long addr, int idx) {
+    ThreadAllocationCache cache = this.allocationCache.get();
+    if (!cache.offer(idx, addr)) {
+      // The magazine is full so give a batch back to the shared free list.
+      cache.drain(idx, this.allocationCacheBatchSize, getOrCreateTinyFreeList(idx));
+      cache.offer(idx, addr);
+    }
+  }
+
+  private OffHeapStoredObjectAddressStack getOrCreateTinyFreeList(int idx) {
+    OffHeapStoredObjectAddressStack clq = this.tinyFreeLists.get(idx);
+    if (clq == null) {
+      clq = createFreeListForEmptySlot(this.tinyFreeLists, idx);
+      if (!this.tinyFreeLists.compareAndSet(idx, null, clq)) {
+        clq = this.tinyFreeLists.get(idx);
+      }
+    }
+    return clq;
+  }
+
   private void basicFree(long addr, int idx,
       AtomicReferenceArray<OffHeapStoredObjectAddressStack> freeLists) {
     OffHeapStoredObjectAddressStack clq = freeLists.get(idx);
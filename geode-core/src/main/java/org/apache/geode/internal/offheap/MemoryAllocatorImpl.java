@@ -22,6 +22,9 @@ import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.apache.logging.log4j.Logger;
@@ -37,6 +40,7 @@ import org.apache.geode.internal.cache.PartitionedRegion;
 import org.apache.geode.internal.cache.PartitionedRegionDataStore;
 import org.apache.geode.internal.cache.RegionEntry;
 import org.apache.geode.internal.logging.LogService;
+import org.apache.geode.internal.logging.LoggingThreadGroup;
 import org.apache.geode.internal.offheap.annotations.OffHeapIdentifier;
 import org.apache.geode.internal.offheap.annotations.Unretained;
 
@@ -84,6 +88,15 @@ public class MemoryAllocatorImpl implements MemoryAllocator {
   private static final boolean DO_EXPENSIVE_VALIDATION =
       Boolean.getBoolean(DistributionConfig.GEMFIRE_PREFIX + "OFF_HEAP_DO_EXPENSIVE_VALIDATION");
 
+  /**
+   * The number of milliseconds between background incremental defragmentation steps. Zero, the
+   * default, disables background defragmentation.
+   */
+  public static final long DEFRAGMENTATION_INTERVAL_MILLIS =
+      Long.getLong(DistributionConfig.GEMFIRE_PREFIX + "OFF_HEAP_DEFRAGMENTATION_INTERVAL", 0L);
+
+  private final ScheduledExecutorService defragmenter;
+
   public static MemoryAllocator create(OutOfOffHeapMemoryListener ooohml, OffHeapMemoryStats stats,
       int slabCount, long offHeapMemorySize, long maxSlabSize) {
     return create(ooohml, stats, slabCount, offHeapMemorySize, maxSlabSize, null,
@@ -222,6 +235,44 @@ public class MemoryAllocatorImpl implements MemoryAllocator {
 
     this.stats.incMaxMemory(this.freeList.getTotalMemory());
     this.stats.incFreeMemory(this.freeList.getTotalMemory());
+
+    this.defragmenter = startDefragmenter(DEFRAGMENTATION_INTERVAL_MILLIS);
+  }
+
+  private ScheduledExecutorService startDefragmenter(long intervalMillis) {
+    if (intervalMillis <= 0) {
+      return null;
+    }
+    final ThreadGroup threadGroup =
+        LoggingThreadGroup.createThreadGroup("OffHeapDefragmenter Threads", logger);
+    ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(threadGroup, runnable, "OffHeapDefragmenter");
+      thread.setDaemon(true);
+      return thread;
+    });
+    executor.scheduleWithFixedDelay(this::defragmentIncrementally, intervalMillis, intervalMillis,
+        TimeUnit.MILLISECONDS);
+    return executor;
+  }
+
+  private void stopDefragmenter() {
+    this.defragmenter.shutdownNow();
+    try {
+      // a step that is still running must not touch the slabs after they are freed
+      this.defragmenter.awaitTermination(10, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void defragmentIncrementally() {
+    try {
+      this.freeList
+          .defragmentIncrementally(FreeListManager.INCREMENTAL_DEFRAGMENTATION_CHUNK_LIMIT);
+    } catch (RuntimeException e) {
+      // keep the task scheduled; the next step will try again
+      logger.warn("Incremental off-heap defragmentation failed", e);
+    }
   }
 
   public List<OffHeapStoredObject> getLostChunks() {
@@ -387,6 +438,9 @@ public class MemoryAllocatorImpl implements MemoryAllocator {
   private void realClose() {
     // Removing this memory immediately can lead to a SEGV. See 47885.
     if (setClosed()) {
+      if (this.defragmenter != null) {
+        stopDefragmenter();
+      }
       this.freeList.freeSlabs();
       this.stats.close();
       singleton = null;
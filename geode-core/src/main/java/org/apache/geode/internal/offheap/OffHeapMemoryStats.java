@@ -41,6 +41,12 @@ public interface OffHeapMemoryStats {
 
   public void endDefragmentation(long start);
 
+  public long startIncrementalDefragmentation();
+
+  public void endIncrementalDefragmentation(long start);
+
+  public void incDefragmentationChunksCombined(int value);
+
   public void setFragmentation(int value);
 
   public long getFreeMemory();
@@ -65,6 +71,12 @@ public interface OffHeapMemoryStats {
 
   public long getDefragmentationTime();
 
+  public int getIncrementalDefragmentations();
+
+  public long getIncrementalDefragmentationTime();
+
+  public long getDefragmentationChunksCombined();
+
   public Statistics getStats();
 
   public void close();
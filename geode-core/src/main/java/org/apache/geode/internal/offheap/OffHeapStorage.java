@@ -56,6 +56,9 @@ public class OffHeapStorage implements OffHeapMemoryStats {
   private static final int defragmentationTimeId;
   private static final int fragmentationId;
   private static final int defragmentationsInProgressId;
+  private static final int incrementalDefragmentationsId;
+  private static final int incrementalDefragmentationTimeId;
+  private static final int defragmentationChunksCombinedId;
   // NOTE!!!! When adding new stats make sure and update the initialize method on this class
 
   // creates and registers the statistics type
@@ -69,6 +72,14 @@ public class OffHeapStorage implements OffHeapMemoryStats {
     final String defragmentationsInProgressDesc =
         "Current number of defragment operations currently in progress.";
     final String defragmentationTimeDesc = "The total time spent defragmenting off-heap memory.";
+    final String incrementalDefragmentationsDesc =
+        "The total number of bounded incremental defragmentation steps performed on off-heap"
+            + " memory.";
+    final String incrementalDefragmentationTimeDesc =
+        "The total time spent in incremental defragmentation steps of off-heap memory.";
+    final String defragmentationChunksCombinedDesc =
+        "The total number of free off-heap chunks that have been coalesced with an adjacent free"
+            + " chunk by incremental defragmentation.";
     final String fragmentationDesc =
         "The percentage of off-heap free memory that is fragmented.  Updated every time a defragmentation is performed.";
     final String fragmentsDesc =
@@ -87,6 +98,9 @@ public class OffHeapStorage implements OffHeapMemoryStats {
     final String defragmentations = "defragmentations";
     final String defragmentationsInProgress = "defragmentationsInProgress";
     final String defragmentationTime = "defragmentationTime";
+    final String incrementalDefragmentations = "incrementalDefragmentations";
+    final String incrementalDefragmentationTime = "incrementalDefragmentationTime";
+    final String defragmentationChunksCombined = "defragmentationChunksCombined";
     final String fragmentation = "fragmentation";
     final String fragments = "fragments";
     final String freeMemory = "freeMemory";
@@ -101,6 +115,12 @@ public class OffHeapStorage implements OffHeapMemoryStats {
             f.createIntGauge(defragmentationsInProgress, defragmentationsInProgressDesc,
                 "operations"),
             f.createLongCounter(defragmentationTime, defragmentationTimeDesc, "nanoseconds", false),
+            f.createIntCounter(incrementalDefragmentations, incrementalDefragmentationsDesc,
+                "operations"),
+            f.createLongCounter(incrementalDefragmentationTime, incrementalDefragmentationTimeDesc,
+                "nanoseconds", false),
+            f.createLongCounter(defragmentationChunksCombined, defragmentationChunksCombinedDesc,
+                "chunks"),
             f.createIntGauge(fragmentation, fragmentationDesc, "percentage"),
             f.createLongGauge(fragments, fragmentsDesc, "fragments"),
             f.createLongGauge(freeMemory, freeMemoryDesc, "bytes"),
@@ -113,6 +133,9 @@ public class OffHeapStorage implements OffHeapMemoryStats {
     defragmentationId = statsType.nameToId(defragmentations);
     defragmentationsInProgressId = statsType.nameToId(defragmentationsInProgress);
     defragmentationTimeId = statsType.nameToId(defragmentationTime);
+    incrementalDefragmentationsId = statsType.nameToId(incrementalDefragmentations);
+    incrementalDefragmentationTimeId = statsType.nameToId(incrementalDefragmentationTime);
+    defragmentationChunksCombinedId = statsType.nameToId(defragmentationChunksCombined);
     fragmentationId = statsType.nameToId(fragmentation);
     fragmentsId = statsType.nameToId(fragments);
     freeMemoryId = statsType.nameToId(freeMemory);
@@ -360,6 +383,39 @@ public class OffHeapStorage implements OffHeapMemoryStats {
     return stats.getLong(defragmentationTimeId);
   }
 
+  @Override
+  public long startIncrementalDefragmentation() {
+    return DistributionStats.getStatTime();
+  }
+
+  @Override
+  public void endIncrementalDefragmentation(long start) {
+    this.stats.incInt(incrementalDefragmentationsId, 1);
+    if (DistributionStats.enableClockStats) {
+      stats.incLong(incrementalDefragmentationTimeId, DistributionStats.getStatTime() - start);
+    }
+  }
+
+  @Override
+  public int getIncrementalDefragmentations() {
+    return this.stats.getInt(incrementalDefragmentationsId);
+  }
+
+  @Override
+  public long getIncrementalDefragmentationTime() {
+    return this.stats.getLong(incrementalDefragmentationTimeId);
+  }
+
+  @Override
+  public void incDefragmentationChunksCombined(int value) {
+    this.stats.incLong(defragmentationChunksCombinedId, value);
+  }
+
+  @Override
+  public long getDefragmentationChunksCombined() {
+    return this.stats.getLong(defragmentationChunksCombinedId);
+  }
+
   @Override
   public void setFragmentation(int value) {
     this.stats.setInt(fragmentationId, value);
@@ -391,6 +447,9 @@ public class OffHeapStorage implements OffHeapMemoryStats {
     setFragments(oldStats.getFragments());
     setLargestFragment(oldStats.getLargestFragment());
     setDefragmentationTime(oldStats.getDefragmentationTime());
+    setIncrementalDefragmentations(oldStats.getIncrementalDefragmentations());
+    setIncrementalDefragmentationTime(oldStats.getIncrementalDefragmentationTime());
+    setDefragmentationChunksCombined(oldStats.getDefragmentationChunksCombined());
     setFragmentation(oldStats.getFragmentation());
 
     oldStats.close();
@@ -400,6 +459,18 @@ public class OffHeapStorage implements OffHeapMemoryStats {
     stats.setLong(defragmentationTimeId, value);
   }
 
+  private void setIncrementalDefragmentations(int value) {
+    this.stats.setInt(incrementalDefragmentationsId, value);
+  }
+
+  private void setIncrementalDefragmentationTime(long value) {
+    this.stats.setLong(incrementalDefragmentationTimeId, value);
+  }
+
+  private void setDefragmentationChunksCombined(long value) {
+    this.stats.setLong(defragmentationChunksCombinedId, value);
+  }
+
   private void setDefragmentations(int value) {
     this.stats.setInt(defragmentationId, value);
   }
@@ -50,6 +50,54 @@ public class OffHeapStoredObjectAddressStack implements LongStack {
     }
   }
 
+  /**
+   * Pushes the addresses in addrs from start (inclusive) to end (exclusive) while only acquiring
+   * the lock once.
+   */
+  public void offer(long[] addrs, int start, int end) {
+    if (start >= end) {
+      return;
+    }
+    for (int i = start; i < end; i++) {
+      assert addrs[i] != 0;
+      MemoryAllocatorImpl.validateAddress(addrs[i]);
+    }
+    synchronized (this) {
+      long top = this.topAddr;
+      for (int i = start; i < end; i++) {
+        OffHeapStoredObject.setNext(addrs[i], top);
+        top = addrs[i];
+      }
+      this.topAddr = top;
+    }
+  }
+
+  /**
+   * Removes up to max addresses from the top of this stack while only acquiring the lock once. The
+   * removed addresses are returned as a linked list (see {@link OffHeapStoredObject#getNext}) whose
+   * last element has a next address of {@code 0L}. Returns {@code 0L} if this stack is empty.
+   */
+  public long poll(int max) {
+    long result;
+    synchronized (this) {
+      result = this.topAddr;
+      if (result == 0L) {
+        return 0L;
+      }
+      long last = result;
+      for (int i = 1; i < max; i++) {
+        long next = OffHeapStoredObject.getNext(last);
+        if (next == 0L) {
+          break;
+        }
+        last = next;
+      }
+      this.topAddr = OffHeapStoredObject.getNext(last);
+      OffHeapStoredObject.setNext(last, 0L);
+    }
+    return result;
+  }
+
   @Override
   public long poll() {
     long result;
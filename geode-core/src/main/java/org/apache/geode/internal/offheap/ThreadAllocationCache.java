@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.offheap;
+
+import java.lang.ref.WeakReference;
+
+/**
+ * A per-thread cache of free tiny chunks grouped by size class. Each size class has a "magazine" of
+ * chunk addresses that its owning thread can allocate from and free to without touching the shared
+ * free lists of the FreeListManager. Chunks move between a magazine and the shared free lists in
+ * batches.
+ * <p>
+ * The methods are synchronized so that a defragmentation running in another thread can drain the
+ * cache. Since the owning thread is almost always the only one to lock it this lock is uncontended.
+ *
+ * @since Geode 1.2
+ */
+class ThreadAllocationCache {
+  private final WeakReference<Thread> owner;
+  private final long[][] magazines;
+  private final int[] counts;
+  private final int capacity;
+
+  ThreadAllocationCache(Thread owner, int sizeClassCount, int capacity) {
+    this.owner = new WeakReference<Thread>(owner);
+    this.magazines = new long[sizeClassCount][];
+    this.counts = new int[sizeClassCount];
+    this.capacity = capacity;
+  }
+
+  /**
+   * Returns true if the thread that owns this cache is still alive.
+   */
+  boolean isOwnerAlive() {
+    Thread t = this.owner.get();
+    return t != null && t.isAlive();
+  }
+
+  /**
+   * Removes and returns the address of a free chunk of the given size class or returns {@code 0L}
+   * if the magazine is empty.
+   */
+  synchronized long poll(int sizeClass) {
+    int count = this.counts[sizeClass];
+    if (count == 0) {
+      return 0L;
+    }
+    count--;
+    this.counts[sizeClass] = count;
+    return this.magazines[sizeClass][count];
+  }
+
+  /**
+   * Adds the address of a free chunk to the magazine of the given size class. Returns false,
+   * without adding it, if the magazine is full.
+   */
+  synchronized boolean offer(int sizeClass, long addr) {
+    long[] magazine = this.magazines[sizeClass];
+    if (magazine == null) {
+      magazine = new long[this.capacity];
+      this.magazines[sizeClass] = magazine;
+    }
+    int count = this.counts[sizeClass];
+    if (count == magazine.length) {
+      return false;
+    }
+    magazine[count] = addr;
+    this.counts[sizeClass] = count + 1;
+    return true;
+  }
+
+  /**
+   * Adds each chunk of the linked list that starts at headAddr to the magazine of the given size
+   * class. The list must fit in the magazine.
+   *
+   * @return the number of chunks added
+   */
+  synchronized int offerAll(int sizeClass, long headAddr) {
+    int result = 0;
+    long addr = headAddr;
+    while (addr != 0L) {
+      long next = OffHeapStoredObject.getNext(addr);
+      if (!offer(sizeClass, addr)) {
+        throw new IllegalStateException("allocation cache magazine overflow");
+      }
+      result++;
+      addr = next;
+    }
+    return result;
+  }
+
+  /**
+   * Moves up to max of the most recently cached chunks of the given size class to dest.
+   */
+  synchronized void drain(int sizeClass, int max, OffHeapStoredObjectAddressStack dest) {
+    int count = this.counts[sizeClass];
+    int end = count;
+    int start = Math.max(0, count - max);
+    if (start < end) {
+      dest.offer(this.magazines[sizeClass], start, end);
+      this.counts[sizeClass] = start;
+    }
+  }
+
+  /**
+   * Moves every cached chunk to dest.
+   */
+  synchronized void drainAll(OffHeapStoredObjectAddressStack dest) {
+    for (int i = 0; i < this.counts.length; i++) {
+      int count = this.counts[i];
+      if (count > 0) {
+        dest.offer(this.magazines[i], 0, count);
+        this.counts[i] = 0;
+      }
+    }
+  }
+}
@@ -0,0 +1,36 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.util.concurrent;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A {@link ConcurrentMap} that can also be iterated without allocating a new {@link Map.Entry}
+ * for each mapping. Region maps are written against this interface so that the underlying map
+ * implementation can be chosen per region.
+ *
+ * @since Geode 1.2
+ */
+public interface ConcurrentMapWithReusableEntries<K, V> extends ConcurrentMap<K, V> {
+
+  /**
+   * Returns a {@link Set} view of the mappings contained in this map. The <code>Map.Entry</code>
+   * instances returned by its iterator may be reused for each element so the caller must not keep
+   * a reference to them across calls to <code>next</code>.
+   */
+  Set<Map.Entry<K, V>> entrySetWithReusableEntries();
+}
@@ -28,8 +28,10 @@
  * away. Also added a "removeConditionally" method that allows for evaluation of an arbitrary
  * condition before removal from the map (unlike the normal "remove" that can only check for
  * equality with a provided object). In addition, the segments are now locked using read-write
- * locks. File has been reformatted to conform to GemStone conventions. GemStone additions have been
- * marked with "GemStone addition". GemStone changes have been marked with "GemStone change(s)".
+ * locks, reads validate an optimistic stamp instead of locking, and segment tables are resized
+ * incrementally by subsequent writes. File has been reformatted to conform to GemStone
+ * conventions. GemStone additions have been marked with "GemStone addition". GemStone changes have
+ * been marked with "GemStone change(s)".
  * 
  * Original license follows below.
  */
@@ -55,9 +57,9 @@ import java.util.Iterator;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Set;
-import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.locks.StampedLock;
 
 import org.apache.geode.CancelException;
 import org.apache.geode.distributed.internal.InternalDistributedSystem;
@@ -120,7 +122,7 @@ import org.apache.geode.internal.util.ArrayUtils;
  * @param <V> the type of mapped values
  */
 public class CustomEntryConcurrentHashMap<K, V> extends AbstractMap<K, V>
-    implements ConcurrentMap<K, V>, Serializable {
+    implements ConcurrentMapWithReusableEntries<K, V>, Serializable {
 
   private static final long serialVersionUID = -7056732555635108300L;
 
@@ -394,6 +396,48 @@ public class CustomEntryConcurrentHashMap<K, V> extends AbstractMap<K, V>
     public int keyHashCode(Object key, boolean compareValues);
   }
 
+  /**
+   * Bin marker installed in the head slot of a segment table bin once the entries of that bin have
+   * been moved to the next table during an incremental resize. Lookups that find this marker simply
+   * continue in {@link #nextTable}; it is never linked into an entry list.
+   */
+  static final class ForwardingEntry<K, V> implements HashEntry<K, V> {
+
+    final HashEntry<K, V>[] nextTable;
+
+    ForwardingEntry(final HashEntry<K, V>[] nextTable) {
+      this.nextTable = nextTable;
+    }
+
+    public K getKey() {
+      return null;
+    }
+
+    public boolean isKeyEqual(Object k) {
+      return false;
+    }
+
+    public V getMapValue() {
+      return null;
+    }
+
+    public void setMapValue(V newValue) {
+      throw new UnsupportedOperationException();
+    }
+
+    public int getEntryHash() {
+      return -1;
+    }
+
+    public HashEntry<K, V> getNextEntry() {
+      return null;
+    }
+
+    public void setNextEntry(HashEntry<K, V> n) {
+      throw new UnsupportedOperationException();
+    }
+  }
+
   // End GemStone addition
 
   /**
@@ -403,28 +447,26 @@ public class CustomEntryConcurrentHashMap<K, V> extends AbstractMap<K, V>
   static class Segment<K, V> extends ReentrantReadWriteLock implements Serializable {
 
     /*
-     * Segments maintain a table of entry lists that are ALWAYS kept in a consistent state, so can
-     * be read without locking. Next fields of nodes are immutable (final). All list additions are
-     * performed at the front of each bin. This makes it easy to check changes, and also fast to
-     * traverse. When nodes would otherwise be changed, new nodes are created to replace them. This
-     * works well for hash tables since the bin lists tend to be short. (The average length is less
-     * than two for the default load factor threshold.)
-     *
-     * Read operations can thus proceed without locking, but rely on selected uses of volatiles to
-     * ensure that completed write operations performed by other threads are noticed. For most
-     * purposes, the "count" field, tracking the number of elements, serves as that volatile
-     * variable ensuring visibility. This is convenient because this field needs to be read in many
-     * read operations anyway:
+     * Segments maintain a table of entry lists. Unlike the original JSR 166 implementation, the
+     * next fields of the entries are mutable since the entries are the RegionEntries themselves and
+     * cannot be cloned. All list additions are performed at the front of each bin, which never
+     * disturbs a concurrent traversal. Unlinking an entry and moving a bin during resize do change
+     * next fields, and are always performed while holding the write mode of the segment's
+     * listUpdateLock (a StampedLock).
      *
-     * - All (unsynchronized) read operations must first read the "count" field, and should not look
-     * at table entries if it is 0.
+     * Read operations do not lock at all in the common case. They take an optimistic stamp from
+     * listUpdateLock, traverse the bin, and validate the stamp afterwards. Only if an unlink or a
+     * bin move happened concurrently do they retry holding the read lock. The "count" field is
+     * still read first by every reader, and written last by every writer that changes the size, to
+     * ensure visibility of head insertions.
      *
-     * - All (synchronized) write operations should write to the "count" field after structurally
-     * changing any bin. The operations must not take any action that could even momentarily cause a
-     * concurrent read operation to see inconsistent data. This is made easier by the nature of the
-     * read operations in Map. For example, no operation can reveal that the table has grown but the
-     * threshold has not yet been updated, so there are no atomicity requirements for this with
-     * respect to reads.
+     * Writers are serialized by the segment lock. Resizing is incremental: once the threshold is
+     * crossed a table of twice the size is allocated as nextTable and each subsequent write to the
+     * segment moves a small stride of bins (plus the bin it is about to modify) before doing its
+     * own work. A bin that has been moved is replaced by a ForwardingEntry pointing to nextTable,
+     * so lookups landing on an old table just follow it. Once all bins are moved nextTable becomes
+     * the table. No single write pays for moving the whole segment, so large segments growing past
+     * their initial capacity do not stall other writers, and readers are never blocked by a resize.
      *
      * As a guide, all critical volatile reads and writes to the count field are marked in code
      * comments.
@@ -432,6 +474,12 @@ public class CustomEntryConcurrentHashMap<K, V> extends AbstractMap<K, V>
 
     private static final long serialVersionUID = -6972364566212065192L;
 
+    /**
+     * Number of bins moved to the next table by each write operation while a resize is in
+     * progress.
+     */
+    static final int TRANSFER_STRIDE = 16;
+
     /**
      * The number of elements in this segment's region.
      */
@@ -457,6 +505,17 @@ public class CustomEntryConcurrentHashMap<K, V> extends AbstractMap<K, V>
      */
     transient volatile HashEntry<K, V>[] table;
 
+    /**
+     * The table being populated by an incremental resize; null when no resize is in progress.
+     */
+    transient volatile HashEntry<K, V>[] nextTable;
+
+    /**
+     * Bins of {@link #table} at or above this index have been moved to {@link #nextTable}. Only
+     * accessed while holding the segment write lock.
+     */
+    transient int transferIndex;
+
     /**
      * The load factor for the hash table. Even though this value is same for all segments, it is
      * replicated to avoid needing links to outer object.
@@ -477,16 +536,16 @@ public class CustomEntryConcurrentHashMap<K, V> extends AbstractMap<K, V>
     /**
      * Lock used when updating the
      * {@link org.apache.geode.internal.util.concurrent.CustomEntryConcurrentHashMap.HashEntry#getNextEntry()}
-     * link of an entry.
+     * link of an entry. Readers validate an optimistic stamp against it instead of locking.
      */
-    final ReentrantReadWriteLock listUpdateLock;
+    transient StampedLock listUpdateLock;
 
     // End GemStone addition
 
     Segment(final int initialCapacity, final float lf, final HashEntryCreator<K, V> entryCreator) {
       this.loadFactor = lf;
       this.entryCreator = entryCreator;
-      this.listUpdateLock = new ReentrantReadWriteLock();
+      this.listUpdateLock = new StampedLock();
       setTable(Segment.<K, V>newEntryArray(initialCapacity));
     }
 
@@ -495,6 +554,12 @@ public class CustomEntryConcurrentHashMap<K, V> extends AbstractMap<K, V>
       return new Segment[i];
     }
 
+    private void readObject(final java.io.ObjectInputStream s)
+        throws IOException, ClassNotFoundException {
+      s.defaultReadObject();
+      this.listUpdateLock = new StampedLock();
+    }
+
     // GemStone added the method below
     @SuppressWarnings("unchecked")
     static <K, V> HashEntry<K, V>[] newEntryArray(final int size) {
@@ -506,15 +571,159 @@ public class CustomEntryConcurrentHashMap<K, V> extends AbstractMap<K, V>
      */
     void setTable(final HashEntry<K, V>[] newTable) {
       this.threshold = (int) (newTable.length * this.loadFactor);
+      this.nextTable = null;
+      this.transferIndex = 0;
       this.table = newTable;
     }
 
     /**
-     * Returns properly casted first entry of bin for given hash.
+     * Returns the entry for given key, following forwarded bins. Callers must either hold the
+     * segment lock, hold listUpdateLock or validate an optimistic stamp of listUpdateLock after the
+     * call.
+     */
+    HashEntry<K, V> findEntry(final Object key, final int hash) {
+      HashEntry<K, V>[] tab = this.table;
+      for (;;) {
+        HashEntry<K, V> e = tab[hash & (tab.length - 1)];
+        if (e instanceof ForwardingEntry) {
+          tab = ((ForwardingEntry<K, V>) e).nextTable;
+          continue;
+        }
+        while (e != null) {
+          if (e.getEntryHash() == hash && equalityKeyCompare(key, e)) {
+            return e;
+          }
+          e = e.getNextEntry();
+        }
+        return null;
+      }
+    }
+
+    /**
+     * Like {@link #findEntry} but without holding any lock. Falls back to the read lock of
+     * listUpdateLock only if entry lists were changed concurrently.
      */
-    HashEntry<K, V> getFirst(final int hash) {
+    HashEntry<K, V> findEntryOptimistic(final Object key, final int hash) {
+      final StampedLock listLock = this.listUpdateLock;
+      long stamp = listLock.tryOptimisticRead();
+      if (stamp != 0L) {
+        final HashEntry<K, V> e = findEntry(key, hash);
+        if (listLock.validate(stamp)) {
+          return e;
+        }
+      }
+      stamp = listLock.readLock();
+      try {
+        return findEntry(key, hash);
+      } finally {
+        listLock.unlockRead(stamp);
+      }
+    }
+
+    /**
+     * Adds all entries of the given bin, following forwarded bins, to the given list. Caller
+     * should hold the read lock of listUpdateLock or the segment lock.
+     */
+    static <K, V> void collectBin(final HashEntry<K, V>[] tab, final int index,
+        final ArrayList<HashEntry<K, V>> entries) {
+      HashEntry<K, V> e = tab[index];
+      if (e instanceof ForwardingEntry) {
+        final HashEntry<K, V>[] nextTab = ((ForwardingEntry<K, V>) e).nextTable;
+        collectBin(nextTab, index, entries);
+        collectBin(nextTab, index + tab.length, entries);
+        return;
+      }
+      for (; e != null; e = e.getNextEntry()) {
+        entries.add(e);
+      }
+    }
+
+    /**
+     * Returns the table holding the bin for given hash that write operations should modify,
+     * advancing any resize in progress. Call only while holding the segment write lock.
+     */
+    HashEntry<K, V>[] tableForUpdate(final int hash) {
+      final HashEntry<K, V>[] nextTab = this.nextTable;
+      if (nextTab == null) {
+        return this.table;
+      }
       final HashEntry<K, V>[] tab = this.table;
-      return tab[hash & (tab.length - 1)];
+      final StampedLock listLock = this.listUpdateLock;
+      final long stamp = listLock.writeLock();
+      try {
+        transferBin(tab, hash & (tab.length - 1), nextTab);
+        int index = this.transferIndex;
+        final int bound = Math.max(index - TRANSFER_STRIDE, 0);
+        while (index > bound) {
+          transferBin(tab, --index, nextTab);
+        }
+        this.transferIndex = index;
+      } finally {
+        listLock.unlockWrite(stamp);
+      }
+      if (this.transferIndex == 0) {
+        this.nextTable = null;
+        this.table = nextTab;
+      }
+      return nextTab;
+    }
+
+    /**
+     * Moves the entries of a bin of the current table to the next table, splitting them between
+     * the same index and the index offset by the old table length, and then forwards the old bin.
+     * Call only while holding the segment write lock and write mode of listUpdateLock.
+     */
+    private static <K, V> void transferBin(final HashEntry<K, V>[] tab, final int index,
+        final HashEntry<K, V>[] nextTab) {
+      HashEntry<K, V> e = tab[index];
+      if (e instanceof ForwardingEntry) {
+        return;
+      }
+      final int n = tab.length;
+      HashEntry<K, V> lo = null, hi = null;
+      while (e != null) {
+        final HashEntry<K, V> next = e.getNextEntry();
+        if ((e.getEntryHash() & n) == 0) {
+          e.setNextEntry(lo);
+          lo = e;
+        } else {
+          e.setNextEntry(hi);
+          hi = e;
+        }
+        e = next;
+      }
+      nextTab[index] = lo;
+      nextTab[index + n] = hi;
+      tab[index] = new ForwardingEntry<K, V>(nextTab);
+    }
+
+    /**
+     * Starts an incremental resize to twice the current capacity if the size has crossed the
+     * threshold and no resize is already in progress. Call only while holding the segment write
+     * lock.
+     */
+    void resizeIfNeeded(final int newCount) {
+      if (newCount > this.threshold && this.nextTable == null) {
+        final HashEntry<K, V>[] tab = this.table;
+        final int oldCapacity = tab.length;
+        if (oldCapacity >= MAXIMUM_CAPACITY) {
+          return;
+        }
+        final HashEntry<K, V>[] nextTab = newEntryArray(oldCapacity << 1);
+        this.threshold = (int) (nextTab.length * this.loadFactor);
+        this.transferIndex = oldCapacity;
+        this.nextTable = nextTab;
+      }
+    }
+
+    /**
+     * Moves all remaining bins to the next table if a resize is in progress. Call only while
+     * holding the segment write lock.
+     */
+    void completeResize() {
+      while (this.nextTable != null) {
+        tableForUpdate(0);
+      }
     }
 
     /**
@@ -555,28 +764,13 @@ public class CustomEntryConcurrentHashMap<K, V> extends AbstractMap<K, V>
 
     V get(final Object key, final int hash) {
       if (this.count != 0) { // read-volatile
-        // GemStone change to acquire the read lock on list updates
-        final ReentrantReadWriteLock.ReadLock listLock = this.listUpdateLock.readLock();
-        listLock.lock();
-        boolean lockAcquired = true;
-        HashEntry<K, V> e = getFirst(hash);
-        try {
-          while (e != null) {
-            if (e.getEntryHash() == hash && equalityKeyCompare(key, e)) {
-              final V v = e.getMapValue();
-              if (v != null) {
-                return v;
-              }
-              listLock.unlock();
-              lockAcquired = false;
-              return readValueUnderLock(e); // recheck
-            }
-            e = e.getNextEntry();
-          }
-        } finally {
-          if (lockAcquired) {
-            listLock.unlock();
+        final HashEntry<K, V> e = findEntryOptimistic(key, hash);
+        if (e != null) {
+          final V v = e.getMapValue();
+          if (v != null) {
+            return v;
           }
+          return readValueUnderLock(e); // recheck
         }
       }
       return null;
@@ -584,24 +778,10 @@ public class CustomEntryConcurrentHashMap<K, V> extends AbstractMap<K, V>
 
     V getNoLock(final Object key, final int hash, final boolean lockListForRead) {
       if (this.count != 0) { // read-volatile
-        // GemStone change to acquire the read lock on list updates
-        ReentrantReadWriteLock.ReadLock listLock = null;
-        if (lockListForRead) {
-          listLock = this.listUpdateLock.readLock();
-          listLock.lock();
-        }
-        HashEntry<K, V> e = getFirst(hash);
-        try {
-          while (e != null) {
-            if (e.getEntryHash() == hash && equalityKeyCompare(key, e)) {
-              return e.getMapValue();
-            }
-            e = e.getNextEntry();
-          }
-        } finally {
-          if (lockListForRead) {
-            listLock.unlock();
-          }
+        final HashEntry<K, V> e =
+            lockListForRead ? findEntryOptimistic(key, hash) : findEntry(key, hash);
+        if (e != null) {
+          return e.getMapValue();
         }
       }
       return null;
@@ -609,20 +789,7 @@ public class CustomEntryConcurrentHashMap<K, V> extends AbstractMap<K, V>
 
     boolean containsKey(final Object key, final int hash) {
       if (this.count != 0) { // read-volatile
-        // GemStone change to acquire the read lock on list updates
-        final ReentrantReadWriteLock.ReadLock listLock = this.listUpdateLock.readLock();
-        listLock.lock();
-        HashEntry<K, V> e = getFirst(hash);
-        try {
-          while (e != null) {
-            if (e.getEntryHash() == hash && equalityKeyCompare(key, e)) {
-              return true;
-            }
-            e = e.getNextEntry();
-          }
-        } finally {
-          listLock.unlock();
-        }
+        return findEntryOptimistic(key, hash) != null;
       }
       return false;
     }
@@ -630,33 +797,25 @@ public class CustomEntryConcurrentHashMap<K, V> extends AbstractMap<K, V>
     boolean containsValue(final Object value) {
       if (this.count != 0) { // read-volatile
         // GemStone change to acquire the read lock on list updates
-        ReentrantReadWriteLock.ReadLock readLock = this.listUpdateLock.readLock();
-        RETRYLOOP: for (;;) {
-          readLock.lock();
+        final ArrayList<HashEntry<K, V>> entries = new ArrayList<HashEntry<K, V>>();
+        final StampedLock listLock = this.listUpdateLock;
+        final long stamp = listLock.readLock();
+        try {
           final HashEntry<K, V>[] tab = this.table;
-          final int len = tab.length;
-          for (int i = 0; i < len; i++) {
-            for (HashEntry<K, V> e = tab[i]; e != null; e = e.getNextEntry()) {
-              V v = e.getMapValue();
-              if (v == null) {
-                // GemStone changes BEGIN
-                // go back and retry from the very start with segment read lock
-                readLock.unlock();
-                readLock = super.readLock();
-                continue RETRYLOOP;
-                /*
-                 * (original code) v = readValueUnderLock(e);
-                 */
-                // GemStone changes END
-              }
-              if (equalityCompare(value, v)) {
-                readLock.unlock();
-                return true;
-              }
-            }
+          for (int i = 0; i < tab.length; i++) {
+            collectBin(tab, i, entries);
+          }
+        } finally {
+          listLock.unlockRead(stamp);
+        }
+        for (HashEntry<K, V> e : entries) {
+          V v = e.getMapValue();
+          if (v == null) {
+            v = readValueUnderLock(e);
+          }
+          if (v != null && equalityCompare(value, v)) {
+            return true;
           }
-          readLock.unlock();
-          return false;
         }
       }
       return false;
@@ -666,11 +825,7 @@ public class CustomEntryConcurrentHashMap<K, V> extends AbstractMap<K, V>
       final ReentrantReadWriteLock.WriteLock writeLock = super.writeLock();
       writeLock.lock();
       try {
-        HashEntry<K, V> e = getFirst(hash);
-        while (e != null && (e.getEntryHash() != hash || !equalityKeyCompare(key, e))) {
-          e = e.getNextEntry();
-        }
-
+        final HashEntry<K, V> e = findEntry(key, hash);
         boolean replaced = false;
         if (e != null && equalityCompare(oldValue, e.getMapValue())) {
           replaced = true;
@@ -686,11 +841,7 @@ public class CustomEntryConcurrentHashMap<K, V> extends AbstractMap<K, V>
       final ReentrantReadWriteLock.WriteLock writeLock = super.writeLock();
       writeLock.lock();
       try {
-        HashEntry<K, V> e = getFirst(hash);
-        while (e != null && (e.getEntryHash() != hash || !equalityKeyCompare(key, e))) {
-          e = e.getNextEntry();
-        }
-
+        final HashEntry<K, V> e = findEntry(key, hash);
         V oldValue = null;
         if (e != null) {
           oldValue = e.getMapValue();
@@ -706,11 +857,7 @@ public class CustomEntryConcurrentHashMap<K, V> extends AbstractMap<K, V>
       final ReentrantReadWriteLock.WriteLock writeLock = super.writeLock();
       writeLock.lock();
       try {
-        int c = this.count;
-        if (c++ > this.threshold) {
-          rehash();
-        }
-        final HashEntry<K, V>[] tab = this.table;
+        final HashEntry<K, V>[] tab = tableForUpdate(hash);
         final int index = hash & (tab.length - 1);
         final HashEntry<K, V> first = tab[index];
         HashEntry<K, V> e = first;
@@ -728,6 +875,8 @@ public class CustomEntryConcurrentHashMap<K, V> extends AbstractMap<K, V>
           oldValue = null;
           ++this.modCount;
           tab[index] = this.entryCreator.newEntry(key, hash, first, value);
+          final int c = this.count + 1;
+          resizeIfNeeded(c);
           this.count = c; // write-volatile
         }
         return oldValue;
@@ -772,11 +921,7 @@ public class CustomEntryConcurrentHashMap<K, V> extends AbstractMap<K, V>
       final ReentrantReadWriteLock.WriteLock writeLock = super.writeLock();
       writeLock.lock();
       try {
-        int c = this.count;
-        if (c++ > this.threshold) {
-          rehash();
-        }
-        final HashEntry<K, V>[] tab = this.table;
+        final HashEntry<K, V>[] tab = tableForUpdate(hash);
         final int index = hash & (tab.length - 1);
         final HashEntry<K, V> first = tab[index];
         HashEntry<K, V> e = first;
@@ -789,6 +934,8 @@ public class CustomEntryConcurrentHashMap<K, V> extends AbstractMap<K, V>
           ++this.modCount;
           currentValue = valueCreator.newValue(key, context, createParams);
           tab[index] = this.entryCreator.newEntry(key, hash, first, currentValue);
+          final int c = this.count + 1;
+          resizeIfNeeded(c);
           this.count = c; // write-volatile
           return currentValue;
         } else {
@@ -809,18 +956,15 @@ public class CustomEntryConcurrentHashMap<K, V> extends AbstractMap<K, V>
       readLock.lock();
       try {
         if (this.count != 0) { // read-volatile
-          HashEntry<K, V> e = getFirst(hash);
-          while (e != null) {
-            if (e.getEntryHash() == hash && equalityKeyCompare(key, e)) {
-              final V v = e.getMapValue();
-              if (v != null) {
-                if (readCallback != null) {
-                  readCallback.oldValueRead(v);
-                }
-                return v;
+          final HashEntry<K, V> e = findEntry(key, hash);
+          if (e != null) {
+            final V v = e.getMapValue();
+            if (v != null) {
+              if (readCallback != null) {
+                readCallback.oldValueRead(v);
               }
+              return v;
             }
-            e = e.getNextEntry();
           }
         }
       } finally {
@@ -831,104 +975,6 @@ public class CustomEntryConcurrentHashMap<K, V> extends AbstractMap<K, V>
 
     // End GemStone additions
 
-    void rehash() {
-      final HashEntry<K, V>[] oldTable = this.table;
-      final int oldCapacity = oldTable.length;
-      if (oldCapacity >= MAXIMUM_CAPACITY) {
-        return;
-      }
-
-      /*
-       * Reclassify nodes in each list to new Map. Because we are using power-of-two expansion, the
-       * elements from each bin must either stay at same index, or move with a power of two offset.
-       * We eliminate unnecessary node creation by catching cases where old nodes can be reused
-       * because their next fields won't change. Statistically, at the default threshold, only about
-       * one-sixth of them need cloning when a table doubles. The nodes they replace will be garbage
-       * collectable as soon as they are no longer referenced by any reader thread that may be in
-       * the midst of traversing table right now.
-       */
-
-      final HashEntry<K, V>[] newTable = newEntryArray(oldCapacity << 1);
-      this.threshold = (int) (newTable.length * this.loadFactor);
-      final int sizeMask = newTable.length - 1;
-      for (int i = 0; i < oldCapacity; i++) {
-        // We need to guarantee that any existing reads of old Map can
-        // proceed. So we cannot yet null out each bin.
-        final HashEntry<K, V> e = oldTable[i];
-
-        if (e != null) {
-          final HashEntry<K, V> next = e.getNextEntry();
-          final int idx = e.getEntryHash() & sizeMask;
-
-          // Single node on list
-          if (next == null) {
-            newTable[idx] = e;
-          } else {
-            // Reuse trailing consecutive sequence at same slot
-            HashEntry<K, V> lastRun = e;
-            int lastIdx = idx;
-            for (HashEntry<K, V> last = next; last != null; last = last.getNextEntry()) {
-              final int k = last.getEntryHash() & sizeMask;
-              if (k != lastIdx) {
-                lastIdx = k;
-                lastRun = last;
-              }
-            }
-            newTable[lastIdx] = lastRun;
-
-            // Clone all remaining nodes
-            // GemStone changes BEGIN
-            // update the next entry instead of cloning the nodes in newTable;
-            // this is primarily because we don't want to change
-            // the underlying RegionEntry that may be used elsewhere;
-            // however we create new wrapper entries for old table so that
-            // iterators can continue on old table without blocking updates
-            // for indefinite periods
-            HashEntryImpl<K, V> newe, newp = null, newFirst = null;
-            HashEntry<K, V> nextp;
-            // Bug 44155 - we need to clone all of the entries, not just
-            // the entries leading up to lastRun, because the entries
-            // in the last run may have their next pointers changed
-            // by a later rehash.
-            for (HashEntry<K, V> p = e; p != null; p = nextp) {
-              newe = new HashEntryImpl<K, V>(p.getKey(), p.getEntryHash(),
-                  (nextp = p.getNextEntry()), p.getMapValue(), p);
-              if (newp != null) {
-                newp.setNextEntry(newe);
-              } else {
-                newFirst = newe;
-              }
-              newp = newe;
-            }
-            // take the listUpdate write lock before updating the next refs
-            final ReentrantReadWriteLock.WriteLock listWriteLock = this.listUpdateLock.writeLock();
-            listWriteLock.lock();
-            try {
-              if (newFirst != null) {
-                this.table[i] = newFirst; // deliberately using volatile write
-              }
-              for (HashEntry<K, V> p = e; p != lastRun; p = nextp) {
-                final int k = p.getEntryHash() & sizeMask;
-                final HashEntry<K, V> n = newTable[k];
-                nextp = p.getNextEntry();
-                p.setNextEntry(n);
-                newTable[k] = p;
-              }
-            } finally {
-              listWriteLock.unlock();
-            }
-            /*
-             * (original code) for (HashEntry<K, V> p = e; p != lastRun; p = p.next) { final int k =
-             * p.hash & sizeMask; final HashEntry<K, V> n = newTable[k]; newTable[k] =
-             * this.entryCreator.newEntry(p.key, p.hash, n, p.value); }
-             */
-            // GemStone changes END
-          }
-        }
-      }
-      this.table = newTable;
-    }
-
     /**
      * Remove; match on key only if value null, else match both.
      */
@@ -941,7 +987,7 @@ public class CustomEntryConcurrentHashMap<K, V> extends AbstractMap<K, V>
       writeLock.lock();
       try {
         final int c = this.count - 1;
-        final HashEntry<K, V>[] tab = this.table;
+        final HashEntry<K, V>[] tab = tableForUpdate(hash);
         final int index = hash & (tab.length - 1);
         final HashEntry<K, V> first = tab[index];
         HashEntry<K, V> e = first;
@@ -949,12 +995,8 @@ public class CustomEntryConcurrentHashMap<K, V> extends AbstractMap<K, V>
         // the entry previous to the matched one, if any
         HashEntry<K, V> p = null;
         while (e != null && (e.getEntryHash() != hash || !equalityKeyCompare(key, e))) {
+          p = e;
           e = e.getNextEntry();
-          if (p == null) {
-            p = first;
-          } else {
-            p = p.getNextEntry();
-          }
         }
 
         V oldValue = null;
@@ -967,15 +1009,13 @@ public class CustomEntryConcurrentHashMap<K, V> extends AbstractMap<K, V>
               && (condition == null || condition.doRemoveValue(v, context, removeParams))) {
             // End GemStone change
             oldValue = v;
-            // All entries following removed node can stay in list,
-            // but all preceding ones need to be cloned.
             ++this.modCount;
             // GemStone changes BEGIN
             // update the next entry instead of cloning the nodes
             // this is primarily because we don't want to change
             // the underlying RegionEntry that may be used elsewhere
-            final ReentrantReadWriteLock.WriteLock listWriteLock = this.listUpdateLock.writeLock();
-            listWriteLock.lock();
+            final StampedLock listLock = this.listUpdateLock;
+            final long stamp = listLock.writeLock();
             try {
               if (p == null) {
                 tab[index] = e.getNextEntry();
@@ -983,13 +1023,8 @@ public class CustomEntryConcurrentHashMap<K, V> extends AbstractMap<K, V>
                 p.setNextEntry(e.getNextEntry());
               }
             } finally {
-              listWriteLock.unlock();
+              listLock.unlockWrite(stamp);
             }
-            /*
-             * (original code) HashEntry<K, V> newFirst = e.next; for (HashEntry<K, V> p = first; p
-             * != e; p = p.next) { newFirst = this.entryCreator.newEntry(p.key, p.hash, newFirst,
-             * p.value); } tab[index] = newFirst;
-             */
             // GemStone changes END
             this.count = c; // write-volatile
           }
@@ -1008,6 +1043,7 @@ public class CustomEntryConcurrentHashMap<K, V> extends AbstractMap<K, V>
         final ReentrantReadWriteLock.WriteLock writeLock = super.writeLock();
         writeLock.lock();
         try {
+          completeResize();
           final HashEntry<K, V>[] tab = this.table;
           // GemStone changes BEGIN
           boolean collectEntries = clearedEntries != null;
@@ -1911,6 +1947,7 @@ public class CustomEntryConcurrentHashMap<K, V> extends AbstractMap<K, V>
    * This set provides entries that are reused during iteration so caller cannot store the returned
    * <code>Map.Entry</code> objects.
    */
+  @Override
   public Set<Map.Entry<K, V>> entrySetWithReusableEntries() {
     final Set<Map.Entry<K, V>> es = this.reusableEntrySet;
     return (es != null) ? es : (this.reusableEntrySet = new EntrySet(true));
@@ -1980,17 +2017,16 @@ public class CustomEntryConcurrentHashMap<K, V> extends AbstractMap<K, V>
       if (this.nextTableIndex >= 0) {
         final Segment<K, V> seg =
             CustomEntryConcurrentHashMap.this.segments[this.currentSegmentIndex];
-        final ReentrantReadWriteLock.ReadLock listLock = seg.listUpdateLock.readLock();
-        listLock.lock();
+        final StampedLock listLock = seg.listUpdateLock;
+        final long stamp = listLock.readLock();
         try {
           do {
-            if ((this.nextEntry = currentTable[this.nextTableIndex--]) != null) {
-              copyEntriesToList();
+            if (copyEntriesToList(this.nextTableIndex--)) {
               return;
             }
           } while (this.nextTableIndex >= 0);
         } finally {
-          listLock.unlock();
+          listLock.unlockRead(stamp);
         }
       }
       /*
@@ -2007,18 +2043,17 @@ public class CustomEntryConcurrentHashMap<K, V> extends AbstractMap<K, V>
             CustomEntryConcurrentHashMap.this.segments[--this.currentSegmentIndex];
         if (seg.count != 0) {
           this.currentTable = seg.table;
-          final ReentrantReadWriteLock.ReadLock listLock = seg.listUpdateLock.readLock();
-          listLock.lock();
+          final StampedLock listLock = seg.listUpdateLock;
+          final long stamp = listLock.readLock();
           try {
             for (int j = currentTable.length - 1; j >= 0; --j) {
-              if ((this.nextEntry = currentTable[j]) != null) {
+              if (copyEntriesToList(j)) {
                 this.nextTableIndex = j - 1;
-                copyEntriesToList();
                 return;
               }
             }
           } finally {
-            listLock.unlock();
+            listLock.unlockRead(stamp);
           }
         }
       }
@@ -2026,20 +2061,27 @@ public class CustomEntryConcurrentHashMap<K, V> extends AbstractMap<K, V>
 
     // GemStone added the method below
     /**
-     * Copy the tail of list of current matched entry ({@link #nextEntry}) to a temporary list, so
-     * that the read lock can be released after the copy.
+     * Copy the entries of given bin of {@link #currentTable}, including those of a bin that has
+     * been moved by a resize in progress, to a temporary list so that the read lock can be released
+     * after the copy. Sets {@link #nextEntry} to the first entry, if any.
      * 
      * Read lock on {@link #currentSegmentIndex}'s listUpdateLock should already be acquired.
+     * 
+     * @return true if the bin had any entries
      */
-    private void copyEntriesToList() {
+    private boolean copyEntriesToList(final int index) {
       assert segments[currentSegmentIndex] != null : "unexpected null currentSegment";
-      assert segments[currentSegmentIndex].listUpdateLock.getReadLockCount() > 0;
+      assert segments[currentSegmentIndex].listUpdateLock.isReadLocked();
 
       this.currentList.clear();
-      this.currentListIndex = 0;
-      for (HashEntry<K, V> p = this.nextEntry.getNextEntry(); p != null; p = p.getNextEntry()) {
-        this.currentList.add(p);
+      Segment.collectBin(this.currentTable, index, this.currentList);
+      if (this.currentList.isEmpty()) {
+        this.currentListIndex = 0;
+        return false;
       }
+      this.nextEntry = this.currentList.get(0);
+      this.currentListIndex = 1;
+      return true;
     }
 
     public boolean hasNext() {
@@ -2399,11 +2441,13 @@ public class CustomEntryConcurrentHashMap<K, V> extends AbstractMap<K, V>
       readLock.lock();
       try {
         final HashEntry<K, V>[] tab = seg.table;
+        final ArrayList<HashEntry<K, V>> entries = new ArrayList<HashEntry<K, V>>();
         for (int i = 0; i < tab.length; ++i) {
-          for (HashEntry<K, V> e = tab[i]; e != null; e = e.getNextEntry()) {
-            s.writeObject(e.getKey());
-            s.writeObject(e.getMapValue());
-          }
+          Segment.collectBin(tab, i, entries);
+        }
+        for (HashEntry<K, V> e : entries) {
+          s.writeObject(e.getKey());
+          s.writeObject(e.getMapValue());
         }
       } finally {
         readLock.unlock();
@@ -17,17 +17,24 @@ package org.apache.geode.memcached;
 import java.io.IOException;
 import java.net.InetAddress;
 import java.net.InetSocketAddress;
-import java.net.ServerSocket;
-import java.net.Socket;
 import java.net.UnknownHostException;
-import java.nio.channels.ClosedByInterruptException;
-import java.nio.channels.ServerSocketChannel;
-import java.util.concurrent.CountDownLatch;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.atomic.AtomicInteger;
 
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.ChannelPipeline;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.util.concurrent.DefaultEventExecutorGroup;
+import io.netty.util.concurrent.EventExecutorGroup;
+import io.netty.util.concurrent.Future;
+
 import org.apache.geode.LogWriter;
 import org.apache.geode.cache.Cache;
 import org.apache.geode.cache.CacheFactory;
@@ -37,6 +44,7 @@ import org.apache.geode.distributed.internal.InternalDistributedSystem;
 import org.apache.geode.internal.net.SocketCreator;
 import org.apache.geode.internal.cache.GemFireCacheImpl;
 import org.apache.geode.internal.memcached.ConnectionHandler;
+import org.apache.geode.internal.memcached.RequestDecoder;
 
 /**
  * This is the Server that listens for incoming memcached client connections. This server
@@ -47,6 +55,11 @@ import org.apache.geode.internal.memcached.ConnectionHandler;
  * <p>
  * "gemcached" region is {@link RegionShortcut#PARTITION} by default, though a cache.xml can be
  * provided to override region attributes.
+ * <p>
+ * Client connections are served with non-blocking I/O by one selector thread per core, while the
+ * requests are executed on a bounded pool of worker threads whose size can be set with the
+ * {@link #NUM_THREADS_SYS_PROP_NAME} system property. A connection does not hold a thread while it
+ * is idle.
  * 
  * This class has a Main method that can be used to start the server.
  * 
@@ -86,19 +99,25 @@ public class GemFireMemcachedServer {
   private final int DEFAULT_PORT = 11212;
 
   /**
-   * the thread executor pool to handle requests from clients. We create one thread for each client.
+   * System property name that can be used to set the number of threads that execute client
+   * requests, four per core by default
    */
-  private ExecutorService executor = Executors.newCachedThreadPool(new ThreadFactory() {
-    private final AtomicInteger counter = new AtomicInteger();
+  public static final String NUM_THREADS_SYS_PROP_NAME = "gemcached.numthreads";
 
-    @Override
-    public Thread newThread(Runnable r) {
-      Thread t = new Thread(r);
-      t.setName("Gemcached-" + counter.incrementAndGet());
-      t.setDaemon(true);
-      return t;
-    }
-  });
+  /**
+   * accepts client connections
+   */
+  private EventLoopGroup bossGroup;
+
+  /**
+   * does the socket reads and writes of all client connections
+   */
+  private EventLoopGroup selectorGroup;
+
+  /**
+   * the bounded thread pool that executes the requests from clients
+   */
+  private EventExecutorGroup workerGroup;
 
   /**
    * GemFire cache where data will be stored
@@ -106,9 +125,9 @@ public class GemFireMemcachedServer {
   private Cache cache;
 
   /**
-   * thread that listens for client connections
+   * channel that listens for client connections
    */
-  private Thread acceptor;
+  private Channel serverChannel;
 
   /**
    * The protocol that this server understands, ASCII by default
@@ -173,45 +192,54 @@ public class GemFireMemcachedServer {
   }
 
   private void startMemcachedServer() throws IOException, InterruptedException {
-    ServerSocketChannel channel = ServerSocketChannel.open();
-    final ServerSocket serverSocket = channel.socket();
-    serverSocket.setReceiveBufferSize(getSocketBufferSize());
-    serverSocket.setReuseAddress(true);
-    serverSocket.bind(new InetSocketAddress(getBindAddress(), serverPort));
+    bossGroup = new NioEventLoopGroup(1, newThreadFactory("Gemcached-AcceptorThread-"));
+    selectorGroup = new NioEventLoopGroup(Runtime.getRuntime().availableProcessors(),
+        newThreadFactory("Gemcached-SelectorThread-"));
+    workerGroup =
+        new DefaultEventExecutorGroup(getNumWorkerThreads(), newThreadFactory("Gemcached-"));
+    ServerBootstrap b = new ServerBootstrap();
+    b.group(bossGroup, selectorGroup).channel(NioServerSocketChannel.class)
+        .childHandler(new ChannelInitializer<SocketChannel>() {
+          @Override
+          public void initChannel(SocketChannel ch) throws Exception {
+            ChannelPipeline p = ch.pipeline();
+            p.addLast(RequestDecoder.class.getSimpleName(), new RequestDecoder(protocol));
+            p.addLast(workerGroup, ConnectionHandler.class.getSimpleName(),
+                new ConnectionHandler(cache, protocol));
+          }
+        }).option(ChannelOption.SO_REUSEADDR, true)
+        .option(ChannelOption.SO_RCVBUF, getSocketBufferSize())
+        .childOption(ChannelOption.SO_KEEPALIVE, SocketCreator.ENABLE_TCP_KEEP_ALIVE)
+        .childOption(ChannelOption.ALLOCATOR, PooledByteBufAllocator.DEFAULT);
     if (logger.fineEnabled()) {
       logger.fine("GemFireMemcachedServer configured socket buffer size:" + getSocketBufferSize());
     }
-    final CountDownLatch latch = new CountDownLatch(1);
-    acceptor = new Thread(new Runnable() {
-      public void run() {
-        for (;;) {
-          Socket s = null;
-          try {
-            latch.countDown();
-            s = serverSocket.accept();
-            s.setKeepAlive(SocketCreator.ENABLE_TCP_KEEP_ALIVE);
-            handleNewClient(s);
-          } catch (ClosedByInterruptException e) {
-            try {
-              serverSocket.close();
-            } catch (IOException e1) {
-              e1.printStackTrace();
-            }
-            break;
-          } catch (IOException e) {
-            e.printStackTrace();
-            break;
-          }
-        }
-      }
-    }, "AcceptorThread");
-    acceptor.setDaemon(true);
-    acceptor.start();
-    latch.await();
+    this.serverChannel =
+        b.bind(new InetSocketAddress(getBindAddress(), serverPort)).sync().channel();
     logger.config("GemFireMemcachedServer server started on host:" + SocketCreator.getLocalHost()
         + " port: " + this.serverPort);
   }
 
+  private ThreadFactory newThreadFactory(final String namePrefix) {
+    return new ThreadFactory() {
+      private final AtomicInteger counter = new AtomicInteger();
+
+      @Override
+      public Thread newThread(Runnable r) {
+        Thread t = new Thread(r);
+        t.setName(namePrefix + counter.incrementAndGet());
+        t.setDaemon(true);
+        return t;
+      }
+    };
+  }
+
+  private int getNumWorkerThreads() {
+    int def = 4 * Runtime.getRuntime().availableProcessors();
+    int threads = Integer.getInteger(NUM_THREADS_SYS_PROP_NAME, def);
+    return threads > 0 ? threads : def;
+  }
+
   private InetAddress getBindAddress() throws UnknownHostException {
     return this.bindAddress == null || this.bindAddress.isEmpty() ? SocketCreator.getLocalHost()
         : InetAddress.getByName(this.bindAddress);
@@ -222,19 +250,21 @@ public class GemFireMemcachedServer {
     return system.getConfig().getSocketBufferSize();
   }
 
-  private void handleNewClient(Socket s) {
-    ConnectionHandler connHandler = new ConnectionHandler(s, cache, protocol);
-    executor.execute(connHandler);
-  }
-
   /**
    * shuts down this server and closes the embedded GemFire caching node
    */
   public void shutdown() {
-    if (acceptor != null) {
-      this.acceptor.interrupt();
+    if (this.serverChannel != null) {
+      this.serverChannel.close().syncUninterruptibly();
+    }
+    if (this.bossGroup != null) {
+      Future<?> c = this.bossGroup.shutdownGracefully();
+      Future<?> c2 = this.selectorGroup.shutdownGracefully();
+      Future<?> c3 = this.workerGroup.shutdownGracefully();
+      c.syncUninterruptibly();
+      c2.syncUninterruptibly();
+      c3.syncUninterruptibly();
     }
-    this.executor.shutdownNow();
     this.cache.close();
   }
 
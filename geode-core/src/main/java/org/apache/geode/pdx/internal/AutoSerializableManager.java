@@ -119,6 +119,15 @@ public class AutoSerializableManager {
   private final Set<String> loggedNoAutoSerializeMsg = new CopyOnWriteHashSet<String>();
 
 
+  /**
+   * If true then fields are accessed through method handles instead of reflection or Unsafe. Fields
+   * for which handles can not be created still use reflection.
+   */
+  private static final String USE_METHOD_HANDLES_PARAM =
+      DistributionConfig.GEMFIRE_PREFIX + "AutoSerializer.METHOD_HANDLES";
+
+  private volatile boolean useMethodHandles = Boolean.getBoolean(USE_METHOD_HANDLES_PARAM);
+
   private final ReflectionBasedAutoSerializer owner;
 
   public ReflectionBasedAutoSerializer getOwner() {
@@ -150,6 +159,20 @@ public class AutoSerializableManager {
     return this.checkPortability;
   }
 
+  public boolean isUsingMethodHandles() {
+    return this.useMethodHandles;
+  }
+
+  /**
+   * Changes how fields are accessed. Classes that have already been introspected are discarded so
+   * that their fields are accessed the new way on the next (de)serialization. The PDX wire format
+   * is the same in both modes.
+   */
+  public void setUseMethodHandles(boolean b) {
+    this.useMethodHandles = b;
+    resetCachedTypes();
+  }
+
   public void resetCachedTypes() {
     classMap.clear();
   }
@@ -168,6 +191,7 @@ public class AutoSerializableManager {
     cachedExcludedClasses.clear();
     loggedNoAutoSerializeMsg.clear();
     this.noHardcodedExcludes = Boolean.getBoolean(NO_HARDCODED_EXCLUDES_PARAM);
+    this.useMethodHandles = Boolean.getBoolean(USE_METHOD_HANDLES_PARAM);
   }
 
   /*
@@ -424,7 +448,11 @@ public class AutoSerializableManager {
     return FieldType.get(f.getType());
   }
 
-  private static class FieldWrapper {
+  /**
+   * Accesses a field reflectively. Subclasses access it in faster ways. It is public so that
+   * {@link MethodHandleFieldWrapper} can extend it from the class loader of each field.
+   */
+  public static class FieldWrapper {
     private final Field field;
 
     public FieldWrapper(Field f) {
@@ -654,11 +682,21 @@ public class AutoSerializableManager {
 
     protected PdxFieldWrapper(AutoSerializableManager owner, Field f, String name,
         boolean transformValue, boolean isIdentityField) {
-      FieldWrapper tmp;
-      if (unsafe != null) {
-        tmp = new UnsafeFieldWrapper(f);
-      } else {
-        tmp = new FieldWrapper(f);
+      FieldWrapper tmp = null;
+      if (owner.isUsingMethodHandles()) {
+        try {
+          tmp = MethodHandleFieldWrapper.create(f);
+        } catch (IllegalAccessException | RuntimeException ex) {
+          logger.info("Auto serializer could not create method handles for {}, using reflection",
+              f, ex);
+        }
+      }
+      if (tmp == null) {
+        if (unsafe != null) {
+          tmp = new UnsafeFieldWrapper(f);
+        } else {
+          tmp = new FieldWrapper(f);
+        }
       }
       this.field = tmp;
       this.fieldName = name;
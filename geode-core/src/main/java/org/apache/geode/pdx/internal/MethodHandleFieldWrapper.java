@@ -0,0 +1,321 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.pdx.internal;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.util.function.Supplier;
+
+import org.apache.geode.pdx.internal.AutoSerializableManager.FieldWrapper;
+
+/**
+ * Accesses a field of an auto serialized class through method handles held in static final
+ * fields. {@link #create(Field)} defines a copy of this class, with its own class loader, for each
+ * field. The JIT treats the static final handles of a copy as constants, so an access through them
+ * can be inlined down to the field access itself.
+ * <p>
+ * The handles are adapted to take the target as an Object so that accesses are invokeExact calls
+ * with no per call access checks or boxing of primitives. A copy is in a different runtime package
+ * than the rest of this package, so it only uses public classes and members of it.
+ *
+ * @since Geode 1.2
+ */
+public class MethodHandleFieldWrapper extends FieldWrapper {
+  private static final MethodHandle getter;
+  private static final MethodHandle setter;
+  private static final MethodHandle objectGetter;
+  private static final MethodHandle objectSetter;
+
+  static {
+    ClassLoader loader = MethodHandleFieldWrapper.class.getClassLoader();
+    if (loader instanceof Supplier) {
+      // a copy for one field, defined by a HandleLoader
+      MethodHandle[] handles = (MethodHandle[]) ((Supplier<?>) loader).get();
+      getter = handles[0];
+      setter = handles[1];
+      objectGetter = handles[2];
+      objectSetter = handles[3];
+    } else {
+      // the class the copies are defined from, which is never instantiated
+      getter = null;
+      setter = null;
+      objectGetter = null;
+      objectSetter = null;
+    }
+  }
+
+  /** The class file of this class, read when the first copy is defined */
+  private static byte[] classFile;
+
+  private MethodHandleFieldWrapper(Field f) {
+    super(f);
+  }
+
+  /**
+   * Returns a wrapper accessing the field through method handles held by a new copy of this class.
+   *
+   * @throws IllegalAccessException if handles can not be created for the field, in which case the
+   *         caller should fall back to a reflective wrapper
+   */
+  static FieldWrapper create(Field f) throws IllegalAccessException {
+    MethodHandles.Lookup lookup = MethodHandles.lookup();
+    MethodHandle g = lookup.unreflectGetter(f);
+    MethodHandle s = lookup.unreflectSetter(f);
+    Class<?> type = f.getType().isPrimitive() ? f.getType() : Object.class;
+    MethodHandle[] handles = new MethodHandle[] {
+        g.asType(MethodType.methodType(type, Object.class)),
+        s.asType(MethodType.methodType(void.class, Object.class, type)),
+        g.asType(MethodType.methodType(Object.class, Object.class)),
+        s.asType(MethodType.methodType(void.class, Object.class, Object.class))};
+
+    HandleLoader loader =
+        new HandleLoader(MethodHandleFieldWrapper.class.getClassLoader(), handles);
+    try {
+      Constructor<?> constructor =
+          loader.defineCopy(getClassFile()).getDeclaredConstructor(Field.class);
+      constructor.setAccessible(true);
+      return (FieldWrapper) constructor.newInstance(f);
+    } catch (IOException | ReflectiveOperationException e) {
+      Throwable cause = e instanceof InvocationTargetException ? e.getCause() : e;
+      throw new IllegalStateException("Could not define a method handle accessor for " + f,
+          cause);
+    }
+  }
+
+  private static synchronized byte[] getClassFile() throws IOException {
+    if (classFile == null) {
+      String name = MethodHandleFieldWrapper.class.getName();
+      try (InputStream in = MethodHandleFieldWrapper.class
+          .getResourceAsStream(name.substring(name.lastIndexOf('.') + 1) + ".class")) {
+        if (in == null) {
+          throw new IOException("class file of " + name + " not found");
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+          out.write(buffer, 0, read);
+        }
+        classFile = out.toByteArray();
+      }
+    }
+    return classFile;
+  }
+
+  /**
+   * Defines a copy of {@link MethodHandleFieldWrapper} and hands it the handles of its field while
+   * the copy is initialized.
+   */
+  private static class HandleLoader extends ClassLoader implements Supplier<MethodHandle[]> {
+    private final MethodHandle[] handles;
+
+    HandleLoader(ClassLoader parent, MethodHandle[] handles) {
+      super(parent);
+      this.handles = handles;
+    }
+
+    Class<?> defineCopy(byte[] classFile) {
+      return defineClass(MethodHandleFieldWrapper.class.getName(), classFile, 0,
+          classFile.length);
+    }
+
+    @Override
+    public MethodHandle[] get() {
+      return this.handles;
+    }
+  }
+
+  private static RuntimeException rethrow(Throwable t) {
+    if (t instanceof RuntimeException) {
+      return (RuntimeException) t;
+    } else if (t instanceof Error) {
+      throw (Error) t;
+    } else {
+      return new IllegalArgumentException(t);
+    }
+  }
+
+  @Override
+  public int getInt(Object o) throws IllegalArgumentException, IllegalAccessException {
+    try {
+      return (int) getter.invokeExact(o);
+    } catch (Throwable t) {
+      throw rethrow(t);
+    }
+  }
+
+  @Override
+  public void setInt(Object o, int v) throws IllegalArgumentException, IllegalAccessException {
+    try {
+      setter.invokeExact(o, v);
+    } catch (Throwable t) {
+      throw rethrow(t);
+    }
+  }
+
+  @Override
+  public boolean getBoolean(Object o) throws IllegalArgumentException, IllegalAccessException {
+    try {
+      return (boolean) getter.invokeExact(o);
+    } catch (Throwable t) {
+      throw rethrow(t);
+    }
+  }
+
+  @Override
+  public void setBoolean(Object o, boolean v)
+      throws IllegalArgumentException, IllegalAccessException {
+    try {
+      setter.invokeExact(o, v);
+    } catch (Throwable t) {
+      throw rethrow(t);
+    }
+  }
+
+  @Override
+  public byte getByte(Object o) throws IllegalArgumentException, IllegalAccessException {
+    try {
+      return (byte) getter.invokeExact(o);
+    } catch (Throwable t) {
+      throw rethrow(t);
+    }
+  }
+
+  @Override
+  public void setByte(Object o, byte v) throws IllegalArgumentException, IllegalAccessException {
+    try {
+      setter.invokeExact(o, v);
+    } catch (Throwable t) {
+      throw rethrow(t);
+    }
+  }
+
+  @Override
+  public short getShort(Object o) throws IllegalArgumentException, IllegalAccessException {
+    try {
+      return (short) getter.invokeExact(o);
+    } catch (Throwable t) {
+      throw rethrow(t);
+    }
+  }
+
+  @Override
+  public void setShort(Object o, short v) throws IllegalArgumentException, IllegalAccessException {
+    try {
+      setter.invokeExact(o, v);
+    } catch (Throwable t) {
+      throw rethrow(t);
+    }
+  }
+
+  @Override
+  public char getChar(Object o) throws IllegalArgumentException, IllegalAccessException {
+    try {
+      return (char) getter.invokeExact(o);
+    } catch (Throwable t) {
+      throw rethrow(t);
+    }
+  }
+
+  @Override
+  public void setChar(Object o, char v) throws IllegalArgumentException, IllegalAccessException {
+    try {
+      setter.invokeExact(o, v);
+    } catch (Throwable t) {
+      throw rethrow(t);
+    }
+  }
+
+  @Override
+  public long getLong(Object o) throws IllegalArgumentException, IllegalAccessException {
+    try {
+      return (long) getter.invokeExact(o);
+    } catch (Throwable t) {
+      throw rethrow(t);
+    }
+  }
+
+  @Override
+  public void setLong(Object o, long v) throws IllegalArgumentException, IllegalAccessException {
+    try {
+      setter.invokeExact(o, v);
+    } catch (Throwable t) {
+      throw rethrow(t);
+    }
+  }
+
+  @Override
+  public float getFloat(Object o) throws IllegalArgumentException, IllegalAccessException {
+    try {
+      return (float) getter.invokeExact(o);
+    } catch (Throwable t) {
+      throw rethrow(t);
+    }
+  }
+
+  @Override
+  public void setFloat(Object o, float v) throws IllegalArgumentException, IllegalAccessException {
+    try {
+      setter.invokeExact(o, v);
+    } catch (Throwable t) {
+      throw rethrow(t);
+    }
+  }
+
+  @Override
+  public double getDouble(Object o) throws IllegalArgumentException, IllegalAccessException {
+    try {
+      return (double) getter.invokeExact(o);
+    } catch (Throwable t) {
+      throw rethrow(t);
+    }
+  }
+
+  @Override
+  public void setDouble(Object o, double v)
+      throws IllegalArgumentException, IllegalAccessException {
+    try {
+      setter.invokeExact(o, v);
+    } catch (Throwable t) {
+      throw rethrow(t);
+    }
+  }
+
+  @Override
+  public Object getObject(Object o) throws IllegalArgumentException, IllegalAccessException {
+    try {
+      return objectGetter.invokeExact(o);
+    } catch (Throwable t) {
+      throw rethrow(t);
+    }
+  }
+
+  @Override
+  public void setObject(Object o, Object v)
+      throws IllegalArgumentException, IllegalAccessException {
+    try {
+      objectSetter.invokeExact(o, v);
+    } catch (Throwable t) {
+      throw rethrow(t);
+    }
+  }
+}
@@ -0,0 +1,179 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.pdx.internal;
+
+import org.apache.geode.pdx.FieldType;
+import org.apache.geode.pdx.PdxFieldTypeMismatchException;
+
+/**
+ * Reads one field of a {@link PdxType} from pdx instances of that type. The field is resolved by
+ * name once, when the accessor is created by {@link PdxType#getFieldAccessor(String)}, so reads
+ * go straight to the field's offset. Primitive fields are returned without boxing and String
+ * fields can be read as a {@link PdxString} so that they can be compared without being decoded.
+ * <p>
+ * An accessor can be used with an instance of a different type, for example another version of
+ * the same class. The field is then looked up by name in that instance's type.
+ * 
+ * @since Geode 1.2
+ */
+public class PdxFieldAccessor {
+  private final PdxType pdxType;
+  private final PdxField field;
+
+  PdxFieldAccessor(PdxType pdxType, PdxField field) {
+    this.pdxType = pdxType;
+    this.field = field;
+  }
+
+  public PdxType getPdxType() {
+    return this.pdxType;
+  }
+
+  public PdxField getPdxField() {
+    return this.field;
+  }
+
+  public String getFieldName() {
+    return this.field.getFieldName();
+  }
+
+  public FieldType getFieldType() {
+    return this.field.getFieldType();
+  }
+
+  /**
+   * Returns true if the field can be read from the instance without a name lookup.
+   */
+  public boolean isFor(PdxInstanceImpl instance) {
+    return instance.getPdxType() == this.pdxType;
+  }
+
+  public char readChar(PdxInstanceImpl instance) {
+    PdxReaderImpl reader = getReader(instance);
+    PdxField ft = getField(reader, FieldType.CHAR);
+    return ft == null ? 0 : reader.readChar(ft);
+  }
+
+  public boolean readBoolean(PdxInstanceImpl instance) {
+    PdxReaderImpl reader = getReader(instance);
+    PdxField ft = getField(reader, FieldType.BOOLEAN);
+    return ft != null && reader.readBoolean(ft);
+  }
+
+  public byte readByte(PdxInstanceImpl instance) {
+    PdxReaderImpl reader = getReader(instance);
+    PdxField ft = getField(reader, FieldType.BYTE);
+    return ft == null ? 0 : reader.readByte(ft);
+  }
+
+  public short readShort(PdxInstanceImpl instance) {
+    PdxReaderImpl reader = getReader(instance);
+    PdxField ft = getField(reader, FieldType.SHORT);
+    return ft == null ? 0 : reader.readShort(ft);
+  }
+
+  public int readInt(PdxInstanceImpl instance) {
+    PdxReaderImpl reader = getReader(instance);
+    PdxField ft = getField(reader, FieldType.INT);
+    return ft == null ? 0 : reader.readInt(ft);
+  }
+
+  public long readLong(PdxInstanceImpl instance) {
+    PdxReaderImpl reader = getReader(instance);
+    PdxField ft = getField(reader, FieldType.LONG);
+    return ft == null ? 0 : reader.readLong(ft);
+  }
+
+  public float readFloat(PdxInstanceImpl instance) {
+    PdxReaderImpl reader = getReader(instance);
+    PdxField ft = getField(reader, FieldType.FLOAT);
+    return ft == null ? 0 : reader.readFloat(ft);
+  }
+
+  public double readDouble(PdxInstanceImpl instance) {
+    PdxReaderImpl reader = getReader(instance);
+    PdxField ft = getField(reader, FieldType.DOUBLE);
+    return ft == null ? 0 : reader.readDouble(ft);
+  }
+
+  /**
+   * Returns the value of a String field without decoding it.
+   * 
+   * @return the value or null if the field is null or does not exist
+   */
+  public PdxString readPdxString(PdxInstanceImpl instance) {
+    PdxReaderImpl reader = getReader(instance);
+    PdxField ft = getField(reader, FieldType.STRING);
+    return ft == null ? null : reader.readPdxString(ft);
+  }
+
+  /**
+   * Returns true if the String field is equal to the given value. The field is compared in its
+   * serialized form.
+   */
+  public boolean stringEquals(PdxInstanceImpl instance, PdxString value) {
+    PdxString fieldValue = readPdxString(instance);
+    if (fieldValue == null) {
+      return value == null;
+    }
+    return fieldValue.equals(value);
+  }
+
+  /**
+   * Same as {@link PdxInstanceImpl#getField(String)}.
+   */
+  public Object readField(PdxInstanceImpl instance) {
+    PdxReaderImpl reader = getReader(instance);
+    PdxField ft = getField(reader, null);
+    return ft == null ? null : reader.readField(ft);
+  }
+
+  /**
+   * Same as {@link PdxInstanceImpl#getRawField(String)}.
+   */
+  public Object readRawField(PdxInstanceImpl instance) {
+    PdxReaderImpl reader = getReader(instance);
+    PdxField ft = getField(reader, null);
+    return ft == null ? null : reader.readRawField(ft);
+  }
+
+  private PdxReaderImpl getReader(PdxInstanceImpl instance) {
+    return instance.getUnmodifiableReader(getFieldName());
+  }
+
+  /**
+   * @param expectedType the type the field must have or null if any type is allowed
+   * @return the field in the reader's type or null if it does not have the field
+   */
+  private PdxField getField(PdxReaderImpl reader, FieldType expectedType) {
+    PdxField ft = this.field;
+    if (reader.getPdxType() != this.pdxType) {
+      ft = reader.getPdxField(getFieldName());
+      if (ft == null) {
+        return null;
+      }
+    }
+    if (expectedType != null && ft.getFieldType() != expectedType) {
+      throw new PdxFieldTypeMismatchException("Expected " + expectedType
+          + " field but found field of type " + ft.getTypeIdString());
+    }
+    return ft;
+  }
+
+  @Override
+  public String toString() {
+    return "PdxFieldAccessor[" + this.pdxType.getClassName() + "." + getFieldName() + "]";
+  }
+}
@@ -28,6 +28,8 @@ import java.util.Map;
 import java.util.SortedSet;
 import java.util.TreeMap;
 import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicReference;
 
 import org.apache.geode.DataSerializable;
@@ -65,6 +67,8 @@ public class PdxType implements DataSerializable {
   private final ArrayList<PdxField> fields = new ArrayList<PdxField>();
 
   private final transient Map<String, PdxField> fieldsMap = new HashMap<String, PdxField>();
+  private final transient ConcurrentMap<String, PdxFieldAccessor> fieldAccessors =
+      new ConcurrentHashMap<String, PdxFieldAccessor>();
   private transient volatile SortedSet<PdxField> sortedIdentityFields;
 
   public PdxType() {
@@ -334,6 +338,28 @@ public class PdxType implements DataSerializable {
     return result;
   }
 
+  /**
+   * Returns an accessor that reads the named field from instances of this type without looking the
+   * field up again. Accessors are created on first use and then cached on this type.
+   * 
+   * @return the accessor or null if this type does not have the field
+   */
+  public PdxFieldAccessor getFieldAccessor(String fieldName) {
+    PdxFieldAccessor result = this.fieldAccessors.get(fieldName);
+    if (result == null) {
+      PdxField field = getPdxField(fieldName);
+      if (field == null) {
+        return null;
+      }
+      result = new PdxFieldAccessor(this, field);
+      PdxFieldAccessor existing = this.fieldAccessors.putIfAbsent(fieldName, result);
+      if (existing != null) {
+        result = existing;
+      }
+    }
+    return result;
+  }
+
   public List<PdxField> getFields() {
     return Collections.unmodifiableList(this.fields);
   }
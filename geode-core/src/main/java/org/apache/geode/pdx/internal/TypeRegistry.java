@@ -17,6 +17,7 @@ package org.apache.geode.pdx.internal;
 import static java.lang.Integer.*;
 
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicReference;
 
 import org.apache.logging.log4j.Logger;
@@ -31,8 +32,6 @@ import org.apache.geode.internal.InternalDataSerializer;
 import org.apache.geode.internal.cache.InternalCache;
 import org.apache.geode.internal.i18n.LocalizedStrings;
 import org.apache.geode.internal.logging.LogService;
-import org.apache.geode.internal.util.concurrent.CopyOnWriteHashMap;
-import org.apache.geode.internal.util.concurrent.CopyOnWriteWeakHashMap;
 import org.apache.geode.pdx.PdxSerializationException;
 import org.apache.geode.pdx.PdxSerializer;
 import org.apache.geode.pdx.ReflectionBasedAutoSerializer;
@@ -43,23 +42,30 @@ public class TypeRegistry {
   private static final boolean DISABLE_TYPE_REGISTRY =
       Boolean.getBoolean(DistributionConfig.GEMFIRE_PREFIX + "TypeRegistry.DISABLE_PDX_REGISTRY");
 
-  private final Map<Integer, PdxType> idToType = new CopyOnWriteHashMap<>();
+  /*
+   * All of the caches below are read on every serialization and deserialization of a pdx object
+   * so they are concurrent maps whose reads never block. Classes and enum constants are compared
+   * by identity so the local caches use weak identity keys to allow class unloading.
+   */
+  private final Map<Integer, PdxType> idToType = new ConcurrentHashMap<>();
 
-  private final Map<PdxType, Integer> typeToId = new CopyOnWriteHashMap<>();
+  private final Map<PdxType, Integer> typeToId = new ConcurrentHashMap<>();
 
-  private final Map<Class<?>, PdxType> localTypeIds = new CopyOnWriteWeakHashMap<>();
+  private final WeakConcurrentIdentityHashMap<Class<?>, PdxType> localTypeIds =
+      WeakConcurrentIdentityHashMap.make();
 
-  private final Map<Class<?>, Map<Integer, UnreadPdxType>> localTypeIdMaps =
-      new CopyOnWriteWeakHashMap<>();
+  private final WeakConcurrentIdentityHashMap<Class<?>, Map<Integer, UnreadPdxType>> localIdMaps =
+      WeakConcurrentIdentityHashMap.make();
 
   private final WeakConcurrentIdentityHashMap<Object, PdxUnreadData> unreadDataMap =
       WeakConcurrentIdentityHashMap.make();
 
-  private final Map<Integer, EnumInfo> idToEnum = new CopyOnWriteHashMap<>();
+  private final Map<Integer, EnumInfo> idToEnum = new ConcurrentHashMap<>();
 
-  private final Map<EnumInfo, Integer> enumInfoToId = new CopyOnWriteHashMap<>();
+  private final Map<EnumInfo, Integer> enumInfoToId = new ConcurrentHashMap<>();
 
-  private final Map<Enum<?>, Integer> localEnumIds = new CopyOnWriteWeakHashMap<>();
+  private final WeakConcurrentIdentityHashMap<Enum<?>, Integer> localEnumIds =
+      WeakConcurrentIdentityHashMap.make();
 
   private final TypeRegistration distributedTypeRegistry;
 
@@ -92,7 +98,7 @@ public class TypeRegistry {
 
   public void testClearLocalTypeRegistry() {
     this.localTypeIds.clear();
-    this.localTypeIdMaps.clear();
+    this.localIdMaps.clear();
     this.localEnumIds.clear();
   }
 
@@ -132,19 +138,22 @@ public class TypeRegistry {
       return pdxType;
     }
 
-    synchronized (this) {
-      pdxType = this.distributedTypeRegistry.getType(typeId);
-      if (pdxType != null) {
-        this.idToType.put(typeId, pdxType);
-        this.typeToId.put(pdxType, typeId);
-        if (logger.isInfoEnabled()) {
-          logger.info("Adding: {}", pdxType.toFormattedString());
-        }
-        if (logger.isDebugEnabled()) {
-          logger.debug("Adding entry into pdx type registry, typeId: {}  {}", typeId, pdxType);
-        }
-        return pdxType;
+    // No lock is held while asking the distributed registry. Concurrent misses for the same id
+    // may both fetch it but only the first one is cached.
+    pdxType = this.distributedTypeRegistry.getType(typeId);
+    if (pdxType != null) {
+      PdxType existing = this.idToType.putIfAbsent(typeId, pdxType);
+      if (existing != null) {
+        return existing;
       }
+      this.typeToId.put(pdxType, typeId);
+      if (logger.isInfoEnabled()) {
+        logger.info("Adding: {}", pdxType.toFormattedString());
+      }
+      if (logger.isDebugEnabled()) {
+        logger.debug("Adding entry into pdx type registry, typeId: {}  {}", typeId, pdxType);
+      }
+      return pdxType;
     }
 
     return null;
@@ -163,7 +172,7 @@ public class TypeRegistry {
    * given local class. Returns null if no such local type exists.
    */
   UnreadPdxType getExistingTypeForClass(Class<?> aClass, int typeId) {
-    Map<Integer, UnreadPdxType> map = this.localTypeIdMaps.get(aClass);
+    Map<Integer, UnreadPdxType> map = this.localIdMaps.get(aClass);
     if (map != null) {
       return map.get(typeId);
     } else {
@@ -173,17 +182,16 @@ public class TypeRegistry {
 
   void defineUnreadType(Class<?> aClass, UnreadPdxType unreadPdxType) {
     int typeId = unreadPdxType.getTypeId();
-    // even though localTypeIdMaps is copy on write we need to sync it
-    // during write to safely update the nested map.
-    // We make the nested map copy-on-write so that readers don't need to sync.
-    synchronized (this.localTypeIdMaps) {
-      Map<Integer, UnreadPdxType> map = this.localTypeIdMaps.get(aClass);
-      if (map == null) {
-        map = new CopyOnWriteHashMap<Integer, UnreadPdxType>();
-        this.localTypeIdMaps.put(aClass, map);
+    // Both levels are concurrent maps so neither readers nor writers need to sync.
+    Map<Integer, UnreadPdxType> map = this.localIdMaps.get(aClass);
+    if (map == null) {
+      map = new ConcurrentHashMap<>();
+      Map<Integer, UnreadPdxType> existing = this.localIdMaps.putIfAbsent(aClass, map);
+      if (existing != null) {
+        map = existing;
       }
-      map.put(typeId, unreadPdxType);
     }
+    map.put(typeId, unreadPdxType);
   }
 
   /**
@@ -199,9 +207,8 @@ public class TypeRegistry {
 
     int id = this.distributedTypeRegistry.defineType(newType);
     newType.setTypeId(id);
-    PdxType oldType = this.idToType.get(id);
+    PdxType oldType = this.idToType.putIfAbsent(id, newType);
     if (oldType == null) {
-      this.idToType.put(id, newType);
       this.typeToId.put(newType, id);
       if (logger.isInfoEnabled()) {
         logger.info("Caching {}", newType.toFormattedString());
@@ -239,7 +246,10 @@ public class TypeRegistry {
         return t;
       }
       defineType(newType);
-      this.localTypeIds.put(o.getClass(), newType);
+      t = this.localTypeIds.putIfAbsent(o.getClass(), newType);
+      if (t != null) {
+        return t;
+      }
     } else {
       // Defining a type for PdxInstanceFactory.
       defineType(newType);
@@ -366,10 +376,11 @@ public class TypeRegistry {
       } else {
         result = this.distributedTypeRegistry.getEnumId(v);
         id = valueOf(result);
-        this.localEnumIds.put(v, id);
+        this.localEnumIds.putIfAbsent(v, id);
         EnumInfo ei = new EnumInfo(v);
-        this.idToEnum.put(id, ei);
-        this.enumInfoToId.put(ei, id);
+        if (this.idToEnum.putIfAbsent(id, ei) == null) {
+          this.enumInfoToId.put(ei, id);
+        }
       }
     }
     return result;
@@ -393,9 +404,8 @@ public class TypeRegistry {
       return existingId;
     }
     int id = this.distributedTypeRegistry.defineEnum(newInfo);
-    EnumInfo oldInfo = this.idToEnum.get(id);
+    EnumInfo oldInfo = this.idToEnum.putIfAbsent(id, newInfo);
     if (oldInfo == null) {
-      this.idToEnum.put(id, newInfo);
       this.enumInfoToId.put(newInfo, id);
       if (logger.isInfoEnabled()) {
         logger.info("Caching PDX Enum: {}, dsid={} typenum={}", newInfo, id >> 24, id & 0xFFFFFF);
@@ -437,7 +447,10 @@ public class TypeRegistry {
     if (ei == null) {
       ei = this.distributedTypeRegistry.getEnumById(enumId);
       if (ei != null) {
-        this.idToEnum.put(enumId, ei);
+        EnumInfo existing = this.idToEnum.putIfAbsent(enumId, ei);
+        if (existing != null) {
+          return existing;
+        }
         this.enumInfoToId.put(ei, enumId);
       }
     }
@@ -453,7 +466,7 @@ public class TypeRegistry {
       this.idToType.clear();
       this.typeToId.clear();
       this.localTypeIds.clear();
-      this.localTypeIdMaps.clear();
+      this.localIdMaps.clear();
       this.unreadDataMap.clear();
       this.idToEnum.clear();
       this.enumInfoToId.clear();
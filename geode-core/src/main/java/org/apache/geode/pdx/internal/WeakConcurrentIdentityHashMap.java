@@ -18,8 +18,8 @@ import java.lang.ref.Reference;
 import java.lang.ref.ReferenceQueue;
 import java.lang.ref.WeakReference;
 import java.util.HashMap;
-import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * <p>
@@ -69,6 +69,19 @@ class WeakConcurrentIdentityHashMap<K, V> {
     return map.put(keyref, value);
   }
 
+  /**
+   * Associates the value with the key unless the key is already mapped.
+   * 
+   * @return the existing value, or null if the value was added
+   */
+  public V putIfAbsent(K key, V value) {
+    expunge();
+    if (key == null)
+      throw new IllegalArgumentException("Null key");
+    WeakReference<K> keyref = makeReference(key, refQueue);
+    return map.putIfAbsent(keyref, value);
+  }
+
   public V remove(K key) {
     expunge();
     WeakReference<K> keyref = makeReference(key);
@@ -127,7 +140,8 @@ class WeakConcurrentIdentityHashMap<K, V> {
     private final int hashCode;
   }
 
-  private final Map<WeakReference<K>, V> map = new ConcurrentHashMap<WeakReference<K>, V>();
+  private final ConcurrentMap<WeakReference<K>, V> map =
+      new ConcurrentHashMap<WeakReference<K>, V>();
   private final ReferenceQueue<K> refQueue = new ReferenceQueue<K>();
 }
 
@@ -20,8 +20,6 @@ import java.io.IOException;
 import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.net.UnknownHostException;
-import java.util.Collection;
-import java.util.Map.Entry;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.Executors;
@@ -53,12 +51,9 @@ import org.apache.geode.cache.AttributesFactory;
 import org.apache.geode.cache.Cache;
 import org.apache.geode.cache.CacheFactory;
 import org.apache.geode.cache.DataPolicy;
-import org.apache.geode.cache.EntryEvent;
 import org.apache.geode.cache.Region;
-import org.apache.geode.cache.RegionDestroyedException;
 import org.apache.geode.cache.RegionFactory;
 import org.apache.geode.cache.RegionShortcut;
-import org.apache.geode.cache.util.CacheListenerAdapter;
 import org.apache.geode.distributed.internal.InternalDistributedSystem;
 import org.apache.geode.internal.cache.GemFireCacheImpl;
 import org.apache.geode.internal.cache.InternalCache;
@@ -71,6 +66,10 @@ import org.apache.geode.redis.internal.ByteToCommandDecoder;
 import org.apache.geode.redis.internal.Coder;
 import org.apache.geode.redis.internal.ExecutionHandlerContext;
 import org.apache.geode.redis.internal.RedisDataType;
+import org.apache.geode.redis.internal.RedisHash;
+import org.apache.geode.redis.internal.RedisList;
+import org.apache.geode.redis.internal.RedisSet;
+import org.apache.geode.redis.internal.RedisSortedSet;
 import org.apache.geode.redis.internal.RegionProvider;
 
 /**
@@ -79,16 +78,16 @@ import org.apache.geode.redis.internal.RegionProvider;
  * sent back to the client. The default connection port is 6379 but that can be altered when run
  * through GFSH or started through the provided static main class.
  * <p>
- * Each Redis data type instance is stored in a separate {@link Region} except for the Strings and
- * HyperLogLogs which are collectively stored in one Region respectively. That Region along with a
- * meta data region used internally are protected so the client may not store keys with the name
- * {@link GeodeRedisServer#REDIS_META_DATA_REGION} or {@link GeodeRedisServer#STRING_REGION}. The
- * default Region type is {@link RegionShortcut#PARTITION} although this can be changed by
- * specifying the SystemProperty {@value #DEFAULT_REGION_SYS_PROP_NAME} to a type defined by
- * {@link RegionShortcut}. If the {@link GeodeRedisServer#NUM_THREADS_SYS_PROP_NAME} system property
- * is set to 0, one thread per client will be created. Otherwise a worker thread pool of specified
- * size is used or a default size of 4 * {@link Runtime#availableProcessors()} if the property is
- * not set.
+ * Strings, HyperLogLogs, lists, hashes, sets and sorted sets are collectively stored in one Region
+ * per data type, a list, a hash, a set or a sorted set being a single entry of its Region. Those
+ * Regions along with a meta data region used internally are protected so the client may not store
+ * keys with the name {@link GeodeRedisServer#REDIS_META_DATA_REGION} or
+ * {@link GeodeRedisServer#STRING_REGION}. The default Region type is
+ * {@link RegionShortcut#PARTITION} although this can be changed by specifying the SystemProperty
+ * {@value #DEFAULT_REGION_SYS_PROP_NAME} to a type defined by {@link RegionShortcut}. If the
+ * {@link GeodeRedisServer#NUM_THREADS_SYS_PROP_NAME} system property is set to 0, one thread per
+ * client will be created. Otherwise a worker thread pool of specified size is used or a default
+ * size of 4 * {@link Runtime#availableProcessors()} if the property is not set.
  * <p>
  * Setting the AUTH password requires setting the property "redis-password" just as "redis-port"
  * would be in xml or through GFSH.
@@ -207,8 +206,6 @@ public class GeodeRedisServer {
 
   private RegionProvider regionCache;
 
-  private final MetaCacheListener metaListener;
-
   private EventLoopGroup bossGroup;
   private EventLoopGroup workerGroup;
   private final static int numExpirationThreads = 1;
@@ -232,6 +229,30 @@ public class GeodeRedisServer {
    */
   public static final String HLL_REGION = "ReDiS_HlL";
 
+  /**
+   * The field that defines the name of the {@link Region} which holds all of the lists. The
+   * current value of this field is {@code LIST_REGION}.
+   */
+  public static final String LIST_REGION = "ReDiS_LiSt";
+
+  /**
+   * The field that defines the name of the {@link Region} which holds all of the hashes. The
+   * current value of this field is {@code HASH_REGION}.
+   */
+  public static final String HASH_REGION = "ReDiS_HaSh";
+
+  /**
+   * The field that defines the name of the {@link Region} which holds all of the sets. The current
+   * value of this field is {@code SET_REGION}.
+   */
+  public static final String SET_REGION = "ReDiS_SeT";
+
+  /**
+   * The field that defines the name of the {@link Region} which holds all of the sorted sets. The
+   * current value of this field is {@code SORTED_SET_REGION}.
+   */
+  public static final String SORTED_SET_REGION = "ReDiS_ZsEt";
+
   /**
    * The field that defines the name of the {@link Region} which holds all of the Redis meta data.
    * The current value of this field is {@code REDIS_META_DATA_REGION}.
@@ -343,7 +364,6 @@ public class GeodeRedisServer {
     if (this.numWorkerThreads == 0)
       this.singleThreadPerConnection = true;
     this.numSelectorThreads = 1;
-    this.metaListener = new MetaCacheListener();
     this.expirationFutures = new ConcurrentHashMap<ByteArrayWrapper, ScheduledFuture<?>>();
     this.expirationExecutor =
         Executors.newScheduledThreadPool(numExpirationThreads, new ThreadFactory() {
@@ -419,6 +439,10 @@ public class GeodeRedisServer {
       Region<ByteArrayWrapper, ByteArrayWrapper> stringsRegion;
 
       Region<ByteArrayWrapper, HyperLogLogPlus> hLLRegion;
+      Region<ByteArrayWrapper, RedisList> listRegion;
+      Region<ByteArrayWrapper, RedisHash> hashRegion;
+      Region<ByteArrayWrapper, RedisSet> setRegion;
+      Region<ByteArrayWrapper, RedisSortedSet> sortedSetRegion;
       Region<String, RedisDataType> redisMetaData;
       InternalCache gemFireCache = (InternalCache) cache;
       try {
@@ -432,9 +456,28 @@ public class GeodeRedisServer {
               gemFireCache.createRegionFactory(this.DEFAULT_REGION_TYPE);
           hLLRegion = regionFactory.create(HLL_REGION);
         }
+        if ((listRegion = cache.getRegion(LIST_REGION)) == null) {
+          RegionFactory<ByteArrayWrapper, RedisList> regionFactory =
+              gemFireCache.createRegionFactory(this.DEFAULT_REGION_TYPE);
+          listRegion = regionFactory.create(LIST_REGION);
+        }
+        if ((hashRegion = cache.getRegion(HASH_REGION)) == null) {
+          RegionFactory<ByteArrayWrapper, RedisHash> regionFactory =
+              gemFireCache.createRegionFactory(this.DEFAULT_REGION_TYPE);
+          hashRegion = regionFactory.create(HASH_REGION);
+        }
+        if ((setRegion = cache.getRegion(SET_REGION)) == null) {
+          RegionFactory<ByteArrayWrapper, RedisSet> regionFactory =
+              gemFireCache.createRegionFactory(this.DEFAULT_REGION_TYPE);
+          setRegion = regionFactory.create(SET_REGION);
+        }
+        if ((sortedSetRegion = cache.getRegion(SORTED_SET_REGION)) == null) {
+          RegionFactory<ByteArrayWrapper, RedisSortedSet> regionFactory =
+              gemFireCache.createRegionFactory(this.DEFAULT_REGION_TYPE);
+          sortedSetRegion = regionFactory.create(SORTED_SET_REGION);
+        }
         if ((redisMetaData = cache.getRegion(REDIS_META_DATA_REGION)) == null) {
           AttributesFactory af = new AttributesFactory();
-          af.addCacheListener(metaListener);
           af.setDataPolicy(DataPolicy.REPLICATE);
           InternalRegionArguments ira =
               new InternalRegionArguments().setInternalRegion(true).setIsUsedForMetaRegion(true);
@@ -447,31 +490,15 @@ public class GeodeRedisServer {
         assErr.initCause(e);
         throw assErr;
       }
-      this.regionCache = new RegionProvider(stringsRegion, hLLRegion, redisMetaData,
-          expirationFutures, expirationExecutor, this.DEFAULT_REGION_TYPE);
+      this.regionCache = new RegionProvider(stringsRegion, hLLRegion, listRegion, hashRegion,
+          setRegion, sortedSetRegion, redisMetaData, expirationFutures, expirationExecutor);
       redisMetaData.put(REDIS_META_DATA_REGION, RedisDataType.REDIS_PROTECTED);
       redisMetaData.put(HLL_REGION, RedisDataType.REDIS_PROTECTED);
       redisMetaData.put(STRING_REGION, RedisDataType.REDIS_PROTECTED);
-    }
-    checkForRegions();
-  }
-
-  private void checkForRegions() {
-    Collection<Entry<String, RedisDataType>> entrySet = this.regionCache.metaEntrySet();
-    for (Entry<String, RedisDataType> entry : entrySet) {
-      String regionName = entry.getKey();
-      RedisDataType type = entry.getValue();
-      Region<?, ?> newRegion = cache.getRegion(regionName);
-      if (newRegion == null && type != RedisDataType.REDIS_STRING && type != RedisDataType.REDIS_HLL
-          && type != RedisDataType.REDIS_PROTECTED) {
-        try {
-          this.regionCache
-              .createRemoteRegionReferenceLocally(Coder.stringToByteArrayWrapper(regionName), type);
-        } catch (Exception e) {
-          if (logger.errorEnabled())
-            logger.error(e);
-        }
-      }
+      redisMetaData.put(LIST_REGION, RedisDataType.REDIS_PROTECTED);
+      redisMetaData.put(HASH_REGION, RedisDataType.REDIS_PROTECTED);
+      redisMetaData.put(SET_REGION, RedisDataType.REDIS_PROTECTED);
+      redisMetaData.put(SORTED_SET_REGION, RedisDataType.REDIS_PROTECTED);
     }
   }
 
@@ -554,60 +581,6 @@ public class GeodeRedisServer {
     this.serverChannel = f.channel();
   }
 
-  /**
-   * Takes an entry event and processes it. If the entry denotes that a
-   * {@link RedisDataType#REDIS_LIST} or {@link RedisDataType#REDIS_SORTEDSET} was created then this
-   * function will call the necessary calls to create the parameterized queries for those keys.
-   * 
-   * @param event EntryEvent from meta data region
-   */
-  private void afterKeyCreate(EntryEvent<String, RedisDataType> event) {
-    if (event.isOriginRemote()) {
-      final String key = (String) event.getKey();
-      final RedisDataType value = event.getNewValue();
-      if (value != RedisDataType.REDIS_STRING && value != RedisDataType.REDIS_HLL
-          && value != RedisDataType.REDIS_PROTECTED) {
-        try {
-          this.regionCache.createRemoteRegionReferenceLocally(Coder.stringToByteArrayWrapper(key),
-              value);
-        } catch (RegionDestroyedException ignore) { // Region already destroyed, ignore
-        }
-      }
-    }
-  }
-
-  /**
-   * When a key is removed then this function will make sure the associated queries with the key are
-   * also removed from each vm to avoid unnecessary data retention
-   */
-  private void afterKeyDestroy(EntryEvent<String, RedisDataType> event) {
-    if (event.isOriginRemote()) {
-      final String key = (String) event.getKey();
-      final RedisDataType value = event.getOldValue();
-      if (value != null && value != RedisDataType.REDIS_STRING && value != RedisDataType.REDIS_HLL
-          && value != RedisDataType.REDIS_PROTECTED) {
-        ByteArrayWrapper kW = Coder.stringToByteArrayWrapper(key);
-        Region<?, ?> r = this.regionCache.getRegion(kW);
-        if (r != null) {
-          this.regionCache.removeRegionReferenceLocally(kW, value);
-        }
-      }
-    }
-  }
-
-  private class MetaCacheListener extends CacheListenerAdapter<String, RedisDataType> {
-
-    @Override
-    public void afterCreate(EntryEvent<String, RedisDataType> event) {
-      afterKeyCreate(event);
-    }
-
-    @Override
-    public void afterDestroy(EntryEvent<String, RedisDataType> event) {
-      afterKeyDestroy(event);
-    }
-  }
-
   /**
    * Helper method to get GemFire set socket buffer size, possibly a default of 32k
    * 
@@ -632,7 +605,6 @@ public class GeodeRedisServer {
       this.serverChannel.close();
       c.syncUninterruptibly();
       c2.syncUninterruptibly();
-      this.regionCache.close();
       if (mainThread != null)
         mainThread.interrupt();
       for (ScheduledFuture<?> f : this.expirationFutures.values())
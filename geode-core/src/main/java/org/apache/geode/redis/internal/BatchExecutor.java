@@ -0,0 +1,38 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.redis.internal;
+
+import java.util.List;
+
+/**
+ * An {@link Executor} that can execute a run of consecutive commands of its type at once. When a
+ * client pipelines requests, the {@link ExecutionHandlerContext} groups consecutive commands of the
+ * same type and hands them to this executor so that their keys can be read or written with a
+ * single bulk region operation.
+ */
+public interface BatchExecutor extends Executor {
+
+  /**
+   * This method executes the commands and sets the response of each of them. The outcome must be
+   * the same as calling {@link #executeCommand(Command, ExecutionHandlerContext)} on each command
+   * in order. If an exception is thrown the caller executes the commands that do not have a
+   * response yet one at a time, so a response must only be set once its command took effect
+   * 
+   * @param commands The commands to be executed, in the order they were received
+   * @param context The execution context by which these commands are to be executed
+   */
+  public void executeCommands(List<Command> commands, ExecutionHandlerContext context);
+
+}
@@ -23,6 +23,8 @@ import io.netty.handler.codec.DecoderException;
 import io.netty.util.concurrent.EventExecutor;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Queue;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -49,6 +51,11 @@ import org.apache.geode.redis.GeodeRedisServer;
  * Besides being part of Netty's pipeline, this class also serves as a context to the execution of a
  * command. It abstracts transactions, provides access to the {@link RegionProvider} and anything
  * else an executing {@link Command} may need.
+ * <p>
+ * Commands pipelined by a client are answered with a single flush once everything read from the
+ * socket has been handled. Consecutive commands whose executor is a {@link BatchExecutor}, such as
+ * a run of GETs or SETs, are held back and executed together so that their keys are accessed with
+ * one bulk region operation.
  * 
  *
  */
@@ -58,6 +65,10 @@ public class ExecutionHandlerContext extends ChannelInboundHandlerAdapter {
   private static final int MAXIMUM_NUM_RETRIES = (1000 * 60) / WAIT_REGION_DSTRYD_MILLIS; // 60
                                                                                           // seconds
                                                                                           // total
+  /**
+   * Upper bound on the number of pipelined commands held back for one {@link BatchExecutor} call
+   */
+  private static final int MAX_BATCH_SIZE = 1024;
 
   private final Cache cache;
   private final GeodeRedisServer server;
@@ -67,6 +78,15 @@ public class ExecutionHandlerContext extends ChannelInboundHandlerAdapter {
   private final Runnable flusher;
   private final EventExecutor lastExecutor;
   private final ByteBufAllocator byteBufAllocator;
+  /**
+   * Consecutive commands of one {@link BatchExecutor} type that are waiting to be executed
+   */
+  private final List<Command> pendingBatch;
+  /**
+   * True while the commands of a read from the socket are being handled, the flush then happens
+   * once in {@link #channelReadComplete(ChannelHandlerContext)}
+   */
+  private boolean reading;
   /**
    * TransactionId for any transactions started by this client
    */
@@ -110,6 +130,8 @@ public class ExecutionHandlerContext extends ChannelInboundHandlerAdapter {
     };
     this.lastExecutor = channel.pipeline().lastContext().executor();
     this.byteBufAllocator = channel.alloc();
+    this.pendingBatch = new ArrayList<Command>();
+    this.reading = false;
     this.transactionID = null;
     this.transactionQueue = null; // Lazy
     this.regionProvider = regionProvider;
@@ -125,7 +147,7 @@ public class ExecutionHandlerContext extends ChannelInboundHandlerAdapter {
 
   private void writeToChannel(ByteBuf message) {
     channel.write(message, channel.voidPromise());
-    if (!needChannelFlush.getAndSet(true)) {
+    if (!needChannelFlush.getAndSet(true) && !reading) {
       this.lastExecutor.execute(flusher);
     }
   }
@@ -135,10 +157,67 @@ public class ExecutionHandlerContext extends ChannelInboundHandlerAdapter {
    */
   @Override
   public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
+    this.reading = true;
     Command command = (Command) msg;
+    if (isBatchable(command)) {
+      if (!pendingBatch.isEmpty()
+          && pendingBatch.get(0).getCommandType() != command.getCommandType())
+        executeBatch(ctx);
+      pendingBatch.add(command);
+      if (pendingBatch.size() >= MAX_BATCH_SIZE)
+        executeBatch(ctx);
+      return;
+    }
+    executeBatch(ctx);
     executeCommand(ctx, command);
   }
 
+  /**
+   * Executes whatever is left of the pipelined commands and flushes all of their responses at once
+   */
+  @Override
+  public void channelReadComplete(ChannelHandlerContext ctx) {
+    executeBatch(ctx);
+    this.reading = false;
+    flushChannel();
+  }
+
+  private boolean isBatchable(Command command) {
+    return isAuthenticated && !hasTransaction()
+        && command.getCommandType().getExecutor() instanceof BatchExecutor;
+  }
+
+  /**
+   * Executes the held back commands with their {@link BatchExecutor}. Should the batch fail, every
+   * command that was not answered yet is executed on its own so that it gets its usual retries and
+   * error response.
+   */
+  private void executeBatch(ChannelHandlerContext ctx) {
+    if (pendingBatch.isEmpty())
+      return;
+    List<Command> batch = new ArrayList<Command>(pendingBatch);
+    pendingBatch.clear();
+    BatchExecutor exec = (BatchExecutor) batch.get(0).getCommandType().getExecutor();
+    if (batch.size() > 1) {
+      try {
+        exec.executeCommands(batch, this);
+      } catch (Exception e) {
+        if (this.logger.fineEnabled())
+          this.logger.fine("GeodeRedisServer-Batch of " + batch.size() + " "
+              + batch.get(0).getCommandType() + " commands failed, executing them one by one", e);
+      }
+    }
+    for (Command command : batch) {
+      try {
+        if (command.getResponse() == null)
+          executeWithoutTransaction(exec, command);
+        writeToChannel(command.getResponse());
+      } catch (Exception e) {
+        writeToChannel(getExceptionResponse(ctx, e));
+      }
+    }
+  }
+
   /**
    * Exception handler for the entire pipeline
    */
@@ -148,6 +227,7 @@ public class ExecutionHandlerContext extends ChannelInboundHandlerAdapter {
       channelInactive(ctx);
       return;
     }
+    executeBatch(ctx);
     ByteBuf response = getExceptionResponse(ctx, cause);
     writeToChannel(response);
   }
@@ -181,6 +261,7 @@ public class ExecutionHandlerContext extends ChannelInboundHandlerAdapter {
   public void channelInactive(ChannelHandlerContext ctx) {
     if (logger.fineEnabled())
       logger.fine("GeodeRedisServer-Connection closing with " + ctx.channel().remoteAddress());
+    this.pendingBatch.clear();
     ctx.channel().close();
     ctx.close();
   }
@@ -209,6 +290,7 @@ public class ExecutionHandlerContext extends ChannelInboundHandlerAdapter {
       exec.executeCommand(command, this);
       ByteBuf response = command.getResponse();
       writeToChannel(response);
+      flushChannel();
       channelInactive(ctx);
     } else if (type == RedisCommandType.AUTH) {
       exec.executeCommand(command, this);
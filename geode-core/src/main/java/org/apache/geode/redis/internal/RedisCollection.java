@@ -0,0 +1,169 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.redis.internal;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+import org.apache.geode.DataSerializable;
+import org.apache.geode.DataSerializer;
+import org.apache.geode.Delta;
+import org.apache.geode.InternalGemFireException;
+import org.apache.geode.InvalidDeltaException;
+import org.apache.geode.internal.HeapDataOutputStream;
+import org.apache.geode.internal.Version;
+
+/**
+ * Base class of the Redis collections that are stored as a single entry value rather than as a
+ * {@link org.apache.geode.cache.Region} per key. Every modification made through a subclass is
+ * also recorded as an operation, so when the collection is put back into its Region only those
+ * operations are distributed as a {@link Delta} instead of the whole collection.
+ * <p>
+ * All access to the contents of a collection is synchronized on the collection itself because the
+ * instance held by the cache may be read by one thread while another applies a delta to it.
+ */
+public abstract class RedisCollection implements DataSerializable, Delta {
+
+  private static final long serialVersionUID = -3318386423396716853L;
+
+  /**
+   * The operations recorded since the last call to {@link #clearDelta()}
+   */
+  private transient HeapDataOutputStream delta;
+
+  private transient int deltaOperations;
+
+  /**
+   * Records an operation in the pending delta. The caller must hold the lock on this collection.
+   *
+   * @param operation Subclass specific operation code
+   * @param arguments Arguments of the operation
+   */
+  protected void recordOperation(byte operation, ByteArrayWrapper... arguments) {
+    try {
+      DataOutput out = startOperation(operation);
+      for (ByteArrayWrapper argument : arguments) {
+        writeWrapper(argument, out);
+      }
+    } catch (IOException e) {
+      throw new InternalGemFireException(e);
+    }
+  }
+
+  /**
+   * Records an operation taking a member and a numeric value in the pending delta. The caller must
+   * hold the lock on this collection.
+   *
+   * @param operation Subclass specific operation code
+   * @param argument Member the operation applies to
+   * @param value Value written after the member
+   */
+  protected void recordOperation(byte operation, ByteArrayWrapper argument, double value) {
+    try {
+      DataOutput out = startOperation(operation);
+      writeWrapper(argument, out);
+      out.writeDouble(value);
+    } catch (IOException e) {
+      throw new InternalGemFireException(e);
+    }
+  }
+
+  /**
+   * Records an operation taking a number, such as an index or a count, and values in the pending
+   * delta. The caller must hold the lock on this collection.
+   *
+   * @param operation Subclass specific operation code
+   * @param number Number written before the values
+   * @param arguments Values written after the number
+   */
+  protected void recordOperation(byte operation, int number, ByteArrayWrapper... arguments) {
+    try {
+      DataOutput out = startOperation(operation);
+      out.writeInt(number);
+      for (ByteArrayWrapper argument : arguments) {
+        writeWrapper(argument, out);
+      }
+    } catch (IOException e) {
+      throw new InternalGemFireException(e);
+    }
+  }
+
+  private DataOutput startOperation(byte operation) throws IOException {
+    if (this.delta == null) {
+      this.delta = new HeapDataOutputStream(Version.CURRENT);
+    }
+    this.delta.writeByte(operation);
+    this.deltaOperations++;
+    return this.delta;
+  }
+
+  /**
+   * Applies one operation read from a delta. Implementations must not record the operation again.
+   *
+   * @param operation Operation code passed to {@link #recordOperation}
+   * @param in Input to read the arguments of the operation from
+   */
+  protected abstract void applyOperation(byte operation, DataInput in) throws IOException;
+
+  /**
+   * Discards the recorded operations, called once the collection has been put into its Region
+   */
+  public synchronized void clearDelta() {
+    this.delta = null;
+    this.deltaOperations = 0;
+  }
+
+  @Override
+  public synchronized boolean hasDelta() {
+    return this.deltaOperations > 0;
+  }
+
+  @Override
+  public synchronized void toDelta(DataOutput out) throws IOException {
+    out.writeInt(this.deltaOperations);
+    if (this.delta != null) {
+      out.write(this.delta.toByteArray());
+    }
+  }
+
+  @Override
+  public synchronized void fromDelta(DataInput in) throws IOException, InvalidDeltaException {
+    int operations = in.readInt();
+    for (int i = 0; i < operations; i++) {
+      applyOperation(in.readByte(), in);
+    }
+  }
+
+  /**
+   * @return A copy of this collection without any recorded operations
+   */
+  public abstract RedisCollection copy();
+
+  public abstract int size();
+
+  public synchronized boolean isEmpty() {
+    return size() == 0;
+  }
+
+  protected static void writeWrapper(ByteArrayWrapper wrapper, DataOutput out)
+      throws IOException {
+    DataSerializer.writeByteArray(wrapper.toBytes(), out);
+  }
+
+  protected static ByteArrayWrapper readWrapper(DataInput in) throws IOException {
+    return new ByteArrayWrapper(DataSerializer.readByteArray(in));
+  }
+}
@@ -0,0 +1,162 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.redis.internal;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+/**
+ * The value of a {@link RedisDataType#REDIS_HASH} key. All of the fields of the hash are held in
+ * this one object which is stored in the
+ * {@link org.apache.geode.redis.GeodeRedisServer#HASH_REGION}.
+ */
+public class RedisHash extends RedisCollection {
+
+  private static final long serialVersionUID = 6148853564532936127L;
+
+  private static final byte PUT = 0;
+
+  private static final byte REMOVE = 1;
+
+  private HashMap<ByteArrayWrapper, ByteArrayWrapper> fields;
+
+  /**
+   * Empty constructor for serialization
+   */
+  public RedisHash() {
+    this.fields = new HashMap<ByteArrayWrapper, ByteArrayWrapper>(4);
+  }
+
+  private RedisHash(RedisHash other) {
+    synchronized (other) {
+      this.fields = new HashMap<ByteArrayWrapper, ByteArrayWrapper>(other.fields);
+    }
+  }
+
+  public synchronized ByteArrayWrapper get(ByteArrayWrapper field) {
+    return this.fields.get(field);
+  }
+
+  public synchronized boolean containsKey(ByteArrayWrapper field) {
+    return this.fields.containsKey(field);
+  }
+
+  public synchronized ByteArrayWrapper put(ByteArrayWrapper field, ByteArrayWrapper value) {
+    recordOperation(PUT, field, value);
+    return this.fields.put(field, value);
+  }
+
+  public synchronized ByteArrayWrapper putIfAbsent(ByteArrayWrapper field,
+      ByteArrayWrapper value) {
+    ByteArrayWrapper oldValue = this.fields.get(field);
+    if (oldValue == null) {
+      put(field, value);
+    }
+    return oldValue;
+  }
+
+  public synchronized void putAll(Map<ByteArrayWrapper, ByteArrayWrapper> map) {
+    for (Entry<ByteArrayWrapper, ByteArrayWrapper> entry : map.entrySet()) {
+      put(entry.getKey(), entry.getValue());
+    }
+  }
+
+  public synchronized ByteArrayWrapper remove(ByteArrayWrapper field) {
+    ByteArrayWrapper oldValue = this.fields.remove(field);
+    if (oldValue != null) {
+      recordOperation(REMOVE, field);
+    }
+    return oldValue;
+  }
+
+  /**
+   * @return A copy of the field names of this hash
+   */
+  public synchronized Set<ByteArrayWrapper> keySet() {
+    return new HashSet<ByteArrayWrapper>(this.fields.keySet());
+  }
+
+  /**
+   * @return A copy of the values of this hash
+   */
+  public synchronized Collection<ByteArrayWrapper> values() {
+    return new ArrayList<ByteArrayWrapper>(this.fields.values());
+  }
+
+  /**
+   * @return A copy of the field and value pairs of this hash
+   */
+  public synchronized List<Entry<ByteArrayWrapper, ByteArrayWrapper>> entrySet() {
+    List<Entry<ByteArrayWrapper, ByteArrayWrapper>> entries =
+        new ArrayList<Entry<ByteArrayWrapper, ByteArrayWrapper>>(this.fields.size());
+    for (Entry<ByteArrayWrapper, ByteArrayWrapper> entry : this.fields.entrySet()) {
+      entries.add(new SimpleImmutableEntry<ByteArrayWrapper, ByteArrayWrapper>(entry));
+    }
+    return entries;
+  }
+
+  @Override
+  public synchronized int size() {
+    return this.fields.size();
+  }
+
+  @Override
+  public RedisHash copy() {
+    return new RedisHash(this);
+  }
+
+  @Override
+  protected void applyOperation(byte operation, DataInput in) throws IOException {
+    ByteArrayWrapper field = readWrapper(in);
+    if (operation == PUT) {
+      this.fields.put(field, readWrapper(in));
+    } else {
+      this.fields.remove(field);
+    }
+  }
+
+  @Override
+  public synchronized void toData(DataOutput out) throws IOException {
+    out.writeInt(this.fields.size());
+    for (Entry<ByteArrayWrapper, ByteArrayWrapper> entry : this.fields.entrySet()) {
+      writeWrapper(entry.getKey(), out);
+      writeWrapper(entry.getValue(), out);
+    }
+  }
+
+  @Override
+  public synchronized void fromData(DataInput in) throws IOException, ClassNotFoundException {
+    int size = in.readInt();
+    this.fields = new HashMap<ByteArrayWrapper, ByteArrayWrapper>(Math.max(4, size * 4 / 3 + 1));
+    for (int i = 0; i < size; i++) {
+      this.fields.put(readWrapper(in), readWrapper(in));
+    }
+  }
+
+  @Override
+  public synchronized String toString() {
+    return "RedisHash" + this.fields;
+  }
+}
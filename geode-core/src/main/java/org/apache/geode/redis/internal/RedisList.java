@@ -0,0 +1,259 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.redis.internal;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The value of a {@link RedisDataType#REDIS_LIST} key. All of the elements of the list are held in
+ * this one object which is stored in the
+ * {@link org.apache.geode.redis.GeodeRedisServer#LIST_REGION}.
+ * <p>
+ * As in Redis, the indexes taken by the methods of this class are zero based and negative indexes
+ * count from the tail of the list, -1 being the last element.
+ */
+public class RedisList extends RedisCollection {
+
+  private static final long serialVersionUID = 5702937462163894117L;
+
+  private static final byte PUSH_HEAD = 0;
+
+  private static final byte PUSH_TAIL = 1;
+
+  private static final byte REMOVE_HEAD = 2;
+
+  private static final byte REMOVE_TAIL = 3;
+
+  private static final byte SET = 4;
+
+  private static final byte REMOVE = 5;
+
+  private ArrayList<ByteArrayWrapper> elements;
+
+  /**
+   * Empty constructor for serialization
+   */
+  public RedisList() {
+    this.elements = new ArrayList<ByteArrayWrapper>(4);
+  }
+
+  private RedisList(RedisList other) {
+    synchronized (other) {
+      this.elements = new ArrayList<ByteArrayWrapper>(other.elements);
+    }
+  }
+
+  public synchronized void pushHead(ByteArrayWrapper element) {
+    this.elements.add(0, element);
+    recordOperation(PUSH_HEAD, element);
+  }
+
+  public synchronized void pushTail(ByteArrayWrapper element) {
+    this.elements.add(element);
+    recordOperation(PUSH_TAIL, element);
+  }
+
+  /**
+   * @return The removed first element or null if this list is empty
+   */
+  public synchronized ByteArrayWrapper popHead() {
+    if (this.elements.isEmpty()) {
+      return null;
+    }
+    recordOperation(REMOVE_HEAD, 1);
+    return this.elements.remove(0);
+  }
+
+  /**
+   * @return The removed last element or null if this list is empty
+   */
+  public synchronized ByteArrayWrapper popTail() {
+    if (this.elements.isEmpty()) {
+      return null;
+    }
+    recordOperation(REMOVE_TAIL, 1);
+    return this.elements.remove(this.elements.size() - 1);
+  }
+
+  /**
+   * @return The element at the index or null if the index is out of range
+   */
+  public synchronized ByteArrayWrapper get(int index) {
+    int offset = toOffset(index);
+    if (offset < 0 || offset >= this.elements.size()) {
+      return null;
+    }
+    return this.elements.get(offset);
+  }
+
+  /**
+   * @return False if the index is out of range, in which case this list is not changed
+   */
+  public synchronized boolean set(int index, ByteArrayWrapper element) {
+    int offset = toOffset(index);
+    if (offset < 0 || offset >= this.elements.size()) {
+      return false;
+    }
+    this.elements.set(offset, element);
+    recordOperation(SET, offset, element);
+    return true;
+  }
+
+  /**
+   * @param start Index of the first element, bounded by the head of this list
+   * @param stop Index of the last element, bounded by the tail of this list
+   * @return A copy of the elements between both indexes inclusive
+   */
+  public synchronized List<ByteArrayWrapper> range(int start, int stop) {
+    int from = Math.max(toOffset(start), 0);
+    int to = Math.min(toOffset(stop), this.elements.size() - 1);
+    if (from > to) {
+      return new ArrayList<ByteArrayWrapper>(0);
+    }
+    return new ArrayList<ByteArrayWrapper>(this.elements.subList(from, to + 1));
+  }
+
+  /**
+   * Removes the elements equal to the given one
+   *
+   * @param count The number of elements to remove starting from the head, or from the tail if
+   *        negative, or 0 to remove all of them
+   * @return The number of removed elements
+   */
+  public synchronized int remove(ByteArrayWrapper element, int count) {
+    List<Integer> offsets = new ArrayList<Integer>();
+    int limit = count == 0 ? Integer.MAX_VALUE : Math.abs(count);
+    if (count >= 0) {
+      for (int i = 0; i < this.elements.size() && offsets.size() < limit; i++) {
+        if (this.elements.get(i).equals(element)) {
+          offsets.add(0, i);
+        }
+      }
+    } else {
+      for (int i = this.elements.size() - 1; i >= 0 && offsets.size() < limit; i--) {
+        if (this.elements.get(i).equals(element)) {
+          offsets.add(i);
+        }
+      }
+    }
+    // offsets are in descending order, so removing one does not move the following ones
+    for (int offset : offsets) {
+      this.elements.remove(offset);
+      recordOperation(REMOVE, offset);
+    }
+    return offsets.size();
+  }
+
+  /**
+   * Removes the elements that are not between both indexes inclusive
+   *
+   * @param start Index of the first element to keep, bounded by the head of this list
+   * @param stop Index of the last element to keep, bounded by the tail of this list
+   */
+  public synchronized void trim(int start, int stop) {
+    int size = this.elements.size();
+    int from = Math.max(toOffset(start), 0);
+    int to = Math.min(toOffset(stop), size - 1);
+    if (from > to) {
+      removeTail(size);
+      return;
+    }
+    removeTail(size - 1 - to);
+    removeHead(from);
+  }
+
+  private void removeHead(int count) {
+    if (count > 0) {
+      this.elements.subList(0, count).clear();
+      recordOperation(REMOVE_HEAD, count);
+    }
+  }
+
+  private void removeTail(int count) {
+    if (count > 0) {
+      int size = this.elements.size();
+      this.elements.subList(size - count, size).clear();
+      recordOperation(REMOVE_TAIL, count);
+    }
+  }
+
+  private int toOffset(int index) {
+    return index < 0 ? this.elements.size() + index : index;
+  }
+
+  @Override
+  public synchronized int size() {
+    return this.elements.size();
+  }
+
+  @Override
+  public RedisList copy() {
+    return new RedisList(this);
+  }
+
+  @Override
+  protected void applyOperation(byte operation, DataInput in) throws IOException {
+    switch (operation) {
+      case PUSH_HEAD:
+        this.elements.add(0, readWrapper(in));
+        break;
+      case PUSH_TAIL:
+        this.elements.add(readWrapper(in));
+        break;
+      case REMOVE_HEAD:
+        this.elements.subList(0, in.readInt()).clear();
+        break;
+      case REMOVE_TAIL:
+        int size = this.elements.size();
+        this.elements.subList(size - in.readInt(), size).clear();
+        break;
+      case SET:
+        int offset = in.readInt();
+        this.elements.set(offset, readWrapper(in));
+        break;
+      case REMOVE:
+        this.elements.remove(in.readInt());
+        break;
+      default:
+        throw new IOException("Unknown list operation " + operation);
+    }
+  }
+
+  @Override
+  public synchronized void toData(DataOutput out) throws IOException {
+    out.writeInt(this.elements.size());
+    for (ByteArrayWrapper element : this.elements) {
+      writeWrapper(element, out);
+    }
+  }
+
+  @Override
+  public synchronized void fromData(DataInput in) throws IOException, ClassNotFoundException {
+    int size = in.readInt();
+    this.elements = new ArrayList<ByteArrayWrapper>(Math.max(4, size));
+    for (int i = 0; i < size; i++) {
+      this.elements.add(readWrapper(in));
+    }
+  }
+
+  @Override
+  public synchronized String toString() {
+    return "RedisList" + this.elements;
+  }
+}
@@ -0,0 +1,133 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.redis.internal;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * The value of a {@link RedisDataType#REDIS_SET} key. All of the members of the set are held in
+ * this one object which is stored in the
+ * {@link org.apache.geode.redis.GeodeRedisServer#SET_REGION}.
+ */
+public class RedisSet extends RedisCollection {
+
+  private static final long serialVersionUID = -1440612817390236547L;
+
+  private static final byte ADD = 0;
+
+  private static final byte REMOVE = 1;
+
+  private HashSet<ByteArrayWrapper> members;
+
+  /**
+   * Empty constructor for serialization
+   */
+  public RedisSet() {
+    this.members = new HashSet<ByteArrayWrapper>(4);
+  }
+
+  private RedisSet(RedisSet other) {
+    synchronized (other) {
+      this.members = new HashSet<ByteArrayWrapper>(other.members);
+    }
+  }
+
+  public synchronized boolean contains(ByteArrayWrapper member) {
+    return this.members.contains(member);
+  }
+
+  public synchronized boolean add(ByteArrayWrapper member) {
+    boolean added = this.members.add(member);
+    if (added) {
+      recordOperation(ADD, member);
+    }
+    return added;
+  }
+
+  /**
+   * @return The number of members that were not already in this set
+   */
+  public synchronized int addAll(Collection<ByteArrayWrapper> members) {
+    int added = 0;
+    for (ByteArrayWrapper member : members) {
+      if (add(member)) {
+        added++;
+      }
+    }
+    return added;
+  }
+
+  public synchronized boolean remove(ByteArrayWrapper member) {
+    boolean removed = this.members.remove(member);
+    if (removed) {
+      recordOperation(REMOVE, member);
+    }
+    return removed;
+  }
+
+  /**
+   * @return A copy of the members of this set
+   */
+  public synchronized Set<ByteArrayWrapper> members() {
+    return new HashSet<ByteArrayWrapper>(this.members);
+  }
+
+  @Override
+  public synchronized int size() {
+    return this.members.size();
+  }
+
+  @Override
+  public RedisSet copy() {
+    return new RedisSet(this);
+  }
+
+  @Override
+  protected void applyOperation(byte operation, DataInput in) throws IOException {
+    ByteArrayWrapper member = readWrapper(in);
+    if (operation == ADD) {
+      this.members.add(member);
+    } else {
+      this.members.remove(member);
+    }
+  }
+
+  @Override
+  public synchronized void toData(DataOutput out) throws IOException {
+    out.writeInt(this.members.size());
+    for (ByteArrayWrapper member : this.members) {
+      writeWrapper(member, out);
+    }
+  }
+
+  @Override
+  public synchronized void fromData(DataInput in) throws IOException, ClassNotFoundException {
+    int size = in.readInt();
+    this.members = new HashSet<ByteArrayWrapper>(Math.max(4, size * 4 / 3 + 1));
+    for (int i = 0; i < size; i++) {
+      this.members.add(readWrapper(in));
+    }
+  }
+
+  @Override
+  public synchronized String toString() {
+    return "RedisSet" + this.members;
+  }
+}
@@ -0,0 +1,570 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.redis.internal;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The value of a {@link RedisDataType#REDIS_SORTEDSET} key. All of the members of the sorted set
+ * are held in this one object which is stored in the
+ * {@link org.apache.geode.redis.GeodeRedisServer#SORTED_SET_REGION}.
+ * <p>
+ * The score of each member is kept in a map and the members are also linked into a skip list
+ * ordered by score and then by member. Every link of the skip list records how many members it
+ * skips, so looking up the rank of a member or the member at a rank takes O(log N) just like
+ * looking up a score range.
+ * <p>
+ * As in Redis, the lexicographical operations assume that all members have the same score.
+ */
+public class RedisSortedSet extends RedisCollection {
+
+  private static final long serialVersionUID = 2394781659012983459L;
+
+  private static final byte ADD = 0;
+
+  private static final byte REMOVE = 1;
+
+  private static final int MAX_LEVEL = 32;
+
+  /**
+   * Probability of a node of the skip list having one more level
+   */
+  private static final double LEVEL_PROBABILITY = 0.25;
+
+  private HashMap<ByteArrayWrapper, Double> scores;
+
+  private transient Node head;
+
+  private transient int level;
+
+  /**
+   * Empty constructor for serialization
+   */
+  public RedisSortedSet() {
+    this.scores = new HashMap<ByteArrayWrapper, Double>(4);
+    clearSkipList();
+  }
+
+  private RedisSortedSet(RedisSortedSet other) {
+    this();
+    synchronized (other) {
+      for (Node x = other.head.next[0]; x != null; x = x.next[0]) {
+        this.scores.put(x.member, x.score);
+        insert(x.member, x.score);
+      }
+    }
+  }
+
+  /**
+   * @return The score of the member or null if it is not in this sorted set
+   */
+  public synchronized Double getScore(ByteArrayWrapper member) {
+    return this.scores.get(member);
+  }
+
+  /**
+   * Adds the member or changes its score if it is already in this sorted set
+   *
+   * @return True if the member was not already in this sorted set
+   */
+  public synchronized boolean add(ByteArrayWrapper member, double score) {
+    Double oldScore = this.scores.put(member, score);
+    if (oldScore != null) {
+      if (oldScore == score) {
+        return false;
+      }
+      delete(member, oldScore);
+    }
+    insert(member, score);
+    recordOperation(ADD, member, score);
+    return oldScore == null;
+  }
+
+  public synchronized boolean remove(ByteArrayWrapper member) {
+    Double score = this.scores.remove(member);
+    if (score == null) {
+      return false;
+    }
+    delete(member, score);
+    recordOperation(REMOVE, member);
+    return true;
+  }
+
+  /**
+   * @param reverse If the rank is in descending order
+   * @return The zero based rank of the member or -1 if it is not in this sorted set
+   */
+  public synchronized int rank(ByteArrayWrapper member, boolean reverse) {
+    Double score = this.scores.get(member);
+    if (score == null) {
+      return -1;
+    }
+    int rank = getRank(member, score);
+    return reverse ? this.scores.size() - rank : rank - 1;
+  }
+
+  /**
+   * @param start Zero based rank of the first member, must be a valid rank
+   * @param stop Zero based rank of the last member, must be a valid rank
+   * @param reverse If the ranks are in descending order
+   * @return The members between both ranks inclusive together with their scores
+   */
+  public synchronized List<Entry<ByteArrayWrapper, DoubleWrapper>> range(int start, int stop,
+      boolean reverse) {
+    List<Entry<ByteArrayWrapper, DoubleWrapper>> range =
+        new ArrayList<Entry<ByteArrayWrapper, DoubleWrapper>>(Math.max(0, stop - start + 1));
+    if (start > stop) {
+      return range;
+    }
+    int length = this.scores.size();
+    Node x = getByRank(reverse ? length - start : start + 1);
+    for (int i = start; i <= stop && x != null; i++) {
+      range.add(toEntry(x));
+      x = reverse ? x.backward : x.next[0];
+    }
+    return range;
+  }
+
+  /**
+   * @param offset Number of members in the range to skip
+   * @param limit Maximum number of members to return or a negative number for no limit
+   * @return The members whose score is in the range together with their scores, in descending
+   *         order when reversed
+   */
+  public synchronized List<Entry<ByteArrayWrapper, DoubleWrapper>> rangeByScore(double min,
+      boolean minInclusive, double max, boolean maxInclusive, boolean reverse, int offset,
+      int limit) {
+    List<Entry<ByteArrayWrapper, DoubleWrapper>> range =
+        new ArrayList<Entry<ByteArrayWrapper, DoubleWrapper>>();
+    Node x = reverse ? lastInScoreRange(min, minInclusive, max, maxInclusive)
+        : firstInScoreRange(min, minInclusive, max, maxInclusive);
+    x = skip(x, offset, reverse);
+    while (x != null && limit-- != 0) {
+      if (reverse ? !gteMin(x.score, min, minInclusive) : !lteMax(x.score, max, maxInclusive)) {
+        break;
+      }
+      range.add(toEntry(x));
+      x = reverse ? x.backward : x.next[0];
+    }
+    return range;
+  }
+
+  /**
+   * @return The number of members whose score is in the range
+   */
+  public synchronized int count(double min, boolean minInclusive, double max,
+      boolean maxInclusive) {
+    Node first = firstInScoreRange(min, minInclusive, max, maxInclusive);
+    if (first == null) {
+      return 0;
+    }
+    Node last = lastInScoreRange(min, minInclusive, max, maxInclusive);
+    return getRank(last.member, last.score) - getRank(first.member, first.score) + 1;
+  }
+
+  /**
+   * @param min Lowest member or null for no lower bound
+   * @param max Highest member or null for no upper bound
+   * @param offset Number of members in the range to skip
+   * @param limit Maximum number of members to return or a negative number for no limit
+   * @return The members in the range in ascending order
+   */
+  public synchronized List<ByteArrayWrapper> rangeByLex(ByteArrayWrapper min,
+      boolean minInclusive, ByteArrayWrapper max, boolean maxInclusive, int offset, int limit) {
+    List<ByteArrayWrapper> range = new ArrayList<ByteArrayWrapper>();
+    Node x = skip(firstInLexRange(min, minInclusive, max, maxInclusive), offset, false);
+    while (x != null && limit-- != 0 && lteMax(x.member, max, maxInclusive)) {
+      range.add(x.member);
+      x = x.next[0];
+    }
+    return range;
+  }
+
+  /**
+   * @param min Lowest member or null for no lower bound
+   * @param max Highest member or null for no upper bound
+   * @return The number of members in the range
+   */
+  public synchronized int lexCount(ByteArrayWrapper min, boolean minInclusive,
+      ByteArrayWrapper max, boolean maxInclusive) {
+    Node first = firstInLexRange(min, minInclusive, max, maxInclusive);
+    if (first == null) {
+      return 0;
+    }
+    Node last = lastInLexRange(min, minInclusive, max, maxInclusive);
+    return getRank(last.member, last.score) - getRank(first.member, first.score) + 1;
+  }
+
+  /**
+   * @return The number of members removed
+   * @see #range(int, int, boolean)
+   */
+  public synchronized int removeRange(int start, int stop) {
+    return removeAll(range(start, stop, false));
+  }
+
+  /**
+   * @return The number of members removed
+   * @see #rangeByScore
+   */
+  public synchronized int removeRangeByScore(double min, boolean minInclusive, double max,
+      boolean maxInclusive) {
+    return removeAll(rangeByScore(min, minInclusive, max, maxInclusive, false, 0, -1));
+  }
+
+  /**
+   * @return The number of members removed
+   * @see #rangeByLex
+   */
+  public synchronized int removeRangeByLex(ByteArrayWrapper min, boolean minInclusive,
+      ByteArrayWrapper max, boolean maxInclusive) {
+    List<ByteArrayWrapper> range = rangeByLex(min, minInclusive, max, maxInclusive, 0, -1);
+    for (ByteArrayWrapper member : range) {
+      remove(member);
+    }
+    return range.size();
+  }
+
+  /**
+   * @return A copy of the members of this sorted set together with their scores in ascending order
+   */
+  public synchronized List<Entry<ByteArrayWrapper, DoubleWrapper>> entries() {
+    if (this.scores.isEmpty()) {
+      return Collections.emptyList();
+    }
+    return range(0, this.scores.size() - 1, false);
+  }
+
+  @Override
+  public synchronized int size() {
+    return this.scores.size();
+  }
+
+  @Override
+  public RedisSortedSet copy() {
+    return new RedisSortedSet(this);
+  }
+
+  @Override
+  protected void applyOperation(byte operation, DataInput in) throws IOException {
+    ByteArrayWrapper member = readWrapper(in);
+    Double oldScore;
+    if (operation == ADD) {
+      double score = in.readDouble();
+      oldScore = this.scores.put(member, score);
+      if (oldScore != null) {
+        delete(member, oldScore);
+      }
+      insert(member, score);
+    } else {
+      oldScore = this.scores.remove(member);
+      if (oldScore != null) {
+        delete(member, oldScore);
+      }
+    }
+  }
+
+  @Override
+  public synchronized void toData(DataOutput out) throws IOException {
+    out.writeInt(this.scores.size());
+    for (Node x = this.head.next[0]; x != null; x = x.next[0]) {
+      writeWrapper(x.member, out);
+      out.writeDouble(x.score);
+    }
+  }
+
+  @Override
+  public synchronized void fromData(DataInput in) throws IOException, ClassNotFoundException {
+    int size = in.readInt();
+    this.scores = new HashMap<ByteArrayWrapper, Double>(Math.max(4, size * 4 / 3 + 1));
+    clearSkipList();
+    for (int i = 0; i < size; i++) {
+      ByteArrayWrapper member = readWrapper(in);
+      double score = in.readDouble();
+      this.scores.put(member, score);
+      insert(member, score);
+    }
+  }
+
+  @Override
+  public synchronized String toString() {
+    return "RedisSortedSet" + this.scores;
+  }
+
+  private int removeAll(List<Entry<ByteArrayWrapper, DoubleWrapper>> entries) {
+    for (Entry<ByteArrayWrapper, DoubleWrapper> entry : entries) {
+      remove(entry.getKey());
+    }
+    return entries.size();
+  }
+
+  private static Entry<ByteArrayWrapper, DoubleWrapper> toEntry(Node node) {
+    return new SimpleImmutableEntry<ByteArrayWrapper, DoubleWrapper>(node.member,
+        new DoubleWrapper(node.score));
+  }
+
+  /**
+   * A member of the skip list. {@code span[i]} is the number of members passed when following
+   * {@code next[i]}
+   */
+  private static class Node {
+    final ByteArrayWrapper member;
+    final double score;
+    final Node[] next;
+    final int[] span;
+    Node backward;
+
+    Node(int level, ByteArrayWrapper member, double score) {
+      this.member = member;
+      this.score = score;
+      this.next = new Node[level];
+      this.span = new int[level];
+    }
+  }
+
+  private void clearSkipList() {
+    this.head = new Node(MAX_LEVEL, null, 0);
+    this.level = 1;
+  }
+
+  private static int randomLevel() {
+    int level = 1;
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    while (level < MAX_LEVEL && random.nextDouble() < LEVEL_PROBABILITY) {
+      level++;
+    }
+    return level;
+  }
+
+  /**
+   * Orders the node by score and then by member
+   */
+  private static int compare(Node node, ByteArrayWrapper member, double score) {
+    if (node.score < score) {
+      return -1;
+    } else if (node.score > score) {
+      return 1;
+    }
+    return node.member.compareTo(member);
+  }
+
+  private void insert(ByteArrayWrapper member, double score) {
+    Node[] update = new Node[MAX_LEVEL];
+    int[] rank = new int[MAX_LEVEL];
+    Node x = this.head;
+    for (int i = this.level - 1; i >= 0; i--) {
+      rank[i] = i == this.level - 1 ? 0 : rank[i + 1];
+      while (x.next[i] != null && compare(x.next[i], member, score) < 0) {
+        rank[i] += x.span[i];
+        x = x.next[i];
+      }
+      update[i] = x;
+    }
+    // The member is always put into the map first, so the list holds one member less
+    int length = this.scores.size() - 1;
+    int newLevel = randomLevel();
+    if (newLevel > this.level) {
+      for (int i = this.level; i < newLevel; i++) {
+        rank[i] = 0;
+        update[i] = this.head;
+        this.head.span[i] = length;
+      }
+      this.level = newLevel;
+    }
+    x = new Node(newLevel, member, score);
+    for (int i = 0; i < newLevel; i++) {
+      x.next[i] = update[i].next[i];
+      update[i].next[i] = x;
+      x.span[i] = update[i].span[i] - (rank[0] - rank[i]);
+      update[i].span[i] = rank[0] - rank[i] + 1;
+    }
+    for (int i = newLevel; i < this.level; i++) {
+      update[i].span[i]++;
+    }
+    x.backward = update[0] == this.head ? null : update[0];
+    if (x.next[0] != null) {
+      x.next[0].backward = x;
+    }
+  }
+
+  private void delete(ByteArrayWrapper member, double score) {
+    Node[] update = new Node[MAX_LEVEL];
+    Node x = this.head;
+    for (int i = this.level - 1; i >= 0; i--) {
+      while (x.next[i] != null && compare(x.next[i], member, score) < 0) {
+        x = x.next[i];
+      }
+      update[i] = x;
+    }
+    x = x.next[0];
+    if (x == null || compare(x, member, score) != 0) {
+      return;
+    }
+    for (int i = 0; i < this.level; i++) {
+      if (update[i].next[i] == x) {
+        update[i].span[i] += x.span[i] - 1;
+        update[i].next[i] = x.next[i];
+      } else {
+        update[i].span[i]--;
+      }
+    }
+    if (x.next[0] != null) {
+      x.next[0].backward = x.backward;
+    }
+    while (this.level > 1 && this.head.next[this.level - 1] == null) {
+      this.level--;
+    }
+  }
+
+  /**
+   * @return The one based rank of the member, which must be in this sorted set
+   */
+  private int getRank(ByteArrayWrapper member, double score) {
+    int rank = 0;
+    Node x = this.head;
+    for (int i = this.level - 1; i >= 0; i--) {
+      while (x.next[i] != null && compare(x.next[i], member, score) <= 0) {
+        rank += x.span[i];
+        x = x.next[i];
+      }
+      if (x != this.head && x.member.equals(member)) {
+        return rank;
+      }
+    }
+    return 0;
+  }
+
+  /**
+   * @return The node at the one based rank or null if there is none
+   */
+  private Node getByRank(int rank) {
+    int traversed = 0;
+    Node x = this.head;
+    for (int i = this.level - 1; i >= 0; i--) {
+      while (x.next[i] != null && traversed + x.span[i] <= rank) {
+        traversed += x.span[i];
+        x = x.next[i];
+      }
+      if (traversed == rank) {
+        return x == this.head ? null : x;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * @return The node the given number of positions after or before the node, or null
+   */
+  private Node skip(Node node, int offset, boolean reverse) {
+    if (node == null || offset <= 0) {
+      return node;
+    }
+    int rank = getRank(node.member, node.score) + (reverse ? -offset : offset);
+    return rank > 0 ? getByRank(rank) : null;
+  }
+
+  private static boolean gteMin(double score, double min, boolean minInclusive) {
+    return minInclusive ? score >= min : score > min;
+  }
+
+  private static boolean lteMax(double score, double max, boolean maxInclusive) {
+    return maxInclusive ? score <= max : score < max;
+  }
+
+  private static boolean gteMin(ByteArrayWrapper member, ByteArrayWrapper min,
+      boolean minInclusive) {
+    if (min == null) {
+      return true;
+    }
+    int cmp = member.compareTo(min);
+    return minInclusive ? cmp >= 0 : cmp > 0;
+  }
+
+  private static boolean lteMax(ByteArrayWrapper member, ByteArrayWrapper max,
+      boolean maxInclusive) {
+    if (max == null) {
+      return true;
+    }
+    int cmp = member.compareTo(max);
+    return maxInclusive ? cmp <= 0 : cmp < 0;
+  }
+
+  private Node firstInScoreRange(double min, boolean minInclusive, double max,
+      boolean maxInclusive) {
+    Node x = this.head;
+    for (int i = this.level - 1; i >= 0; i--) {
+      while (x.next[i] != null && !gteMin(x.next[i].score, min, minInclusive)) {
+        x = x.next[i];
+      }
+    }
+    x = x.next[0];
+    if (x == null || !lteMax(x.score, max, maxInclusive)) {
+      return null;
+    }
+    return x;
+  }
+
+  private Node lastInScoreRange(double min, boolean minInclusive, double max,
+      boolean maxInclusive) {
+    Node x = this.head;
+    for (int i = this.level - 1; i >= 0; i--) {
+      while (x.next[i] != null && lteMax(x.next[i].score, max, maxInclusive)) {
+        x = x.next[i];
+      }
+    }
+    if (x == this.head || !gteMin(x.score, min, minInclusive)) {
+      return null;
+    }
+    return x;
+  }
+
+  private Node firstInLexRange(ByteArrayWrapper min, boolean minInclusive, ByteArrayWrapper max,
+      boolean maxInclusive) {
+    Node x = this.head;
+    for (int i = this.level - 1; i >= 0; i--) {
+      while (x.next[i] != null && !gteMin(x.next[i].member, min, minInclusive)) {
+        x = x.next[i];
+      }
+    }
+    x = x.next[0];
+    if (x == null || !lteMax(x.member, max, maxInclusive)) {
+      return null;
+    }
+    return x;
+  }
+
+  private Node lastInLexRange(ByteArrayWrapper min, boolean minInclusive, ByteArrayWrapper max,
+      boolean maxInclusive) {
+    Node x = this.head;
+    for (int i = this.level - 1; i >= 0; i--) {
+      while (x.next[i] != null && lteMax(x.next[i].member, max, maxInclusive)) {
+        x = x.next[i];
+      }
+    }
+    if (x == this.head || !gteMin(x.member, min, minInclusive)) {
+      return null;
+    }
+    return x;
+  }
+}
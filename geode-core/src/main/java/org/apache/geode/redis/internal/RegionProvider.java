@@ -14,55 +14,33 @@
  */
 package org.apache.geode.redis.internal;
 
-import java.io.Closeable;
-import java.util.HashMap;
+import io.netty.util.ReferenceCountUtil;
+
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
 
-import org.apache.geode.cache.Cache;
-import org.apache.geode.cache.CacheTransactionManager;
 import org.apache.geode.cache.Region;
-import org.apache.geode.cache.RegionShortcut;
-import org.apache.geode.cache.TransactionId;
-import org.apache.geode.cache.query.IndexExistsException;
-import org.apache.geode.cache.query.IndexInvalidException;
-import org.apache.geode.cache.query.IndexNameConflictException;
-import org.apache.geode.cache.query.Query;
-import org.apache.geode.cache.query.QueryInvalidException;
-import org.apache.geode.cache.query.QueryService;
-import org.apache.geode.cache.query.RegionNotFoundException;
-import org.apache.geode.internal.cache.GemFireCacheImpl;
 import org.apache.geode.redis.internal.executor.ExpirationExecutor;
-import org.apache.geode.redis.internal.executor.ListQuery;
-import org.apache.geode.redis.internal.executor.SortedSetQuery;
 import org.apache.geode.internal.hll.HyperLogLogPlus;
-import org.apache.geode.management.cli.Result;
-import org.apache.geode.management.cli.Result.Status;
-import org.apache.geode.management.internal.cli.commands.CreateAlterDestroyRegionCommands;
-import org.apache.geode.redis.GeodeRedisServer;
 
 /**
- * This class stands between {@link Executor} and {@link Cache#getRegion(String)}. This is needed
- * because some keys for Redis represented as a {@link Region} in {@link GeodeRedisServer} come with
- * additional state. Therefore getting, creating, or destroying a {@link Region} needs to be
- * synchronized, which is done away with and abstracted by this class.
+ * This class stands between {@link Executor} and the {@link Region}s holding the Redis data. Every
+ * data type is stored in one Region, and this class keeps the type of each key in the meta data
+ * Region in step with the entry holding its value.
  */
-public class RegionProvider implements Closeable {
-
-  private final ConcurrentHashMap<ByteArrayWrapper, Region<?, ?>> regions;
+public class RegionProvider {
 
   /**
    * This is the Redis meta data {@link Region} that holds the {@link RedisDataType} information for
-   * all Regions created. The mapping is a {@link String} key which is the name of the
-   * {@link Region} created to hold the data to the RedisDataType it contains.
+   * all keys. The mapping is a {@link String} key which is the Redis key, or the name of a
+   * {@link Region} used internally, to the RedisDataType it contains.
    */
   private final Region<String, RedisDataType> redisMetaRegion;
 
@@ -78,34 +56,66 @@ public class RegionProvider implements Closeable {
    */
   private final Region<ByteArrayWrapper, HyperLogLogPlus> hLLRegion;
 
-  private final Cache cache;
-  private final QueryService queryService;
-  private final ConcurrentMap<ByteArrayWrapper, Map<Enum<?>, Query>> preparedQueries =
-      new ConcurrentHashMap<ByteArrayWrapper, Map<Enum<?>, Query>>();
+  /**
+   * This is the {@link RedisDataType#REDIS_LIST} {@link Region}. Each entry holds all of the
+   * elements of one list as a {@link RedisList}
+   */
+  private final Region<ByteArrayWrapper, RedisList> listRegion;
+
+  /**
+   * This is the {@link RedisDataType#REDIS_HASH} {@link Region}. Each entry holds all of the fields
+   * of one hash as a {@link RedisHash}
+   */
+  private final Region<ByteArrayWrapper, RedisHash> hashRegion;
+
+  /**
+   * This is the {@link RedisDataType#REDIS_SET} {@link Region}. Each entry holds all of the members
+   * of one set as a {@link RedisSet}
+   */
+  private final Region<ByteArrayWrapper, RedisSet> setRegion;
+
+  /**
+   * This is the {@link RedisDataType#REDIS_SORTEDSET} {@link Region}. Each entry holds all of the
+   * members of one sorted set as a {@link RedisSortedSet}
+   */
+  private final Region<ByteArrayWrapper, RedisSortedSet> sortedSetRegion;
+
+  /**
+   * Number of locks guarding the updates of the entries of {@link #listRegion},
+   * {@link #hashRegion}, {@link #setRegion} and {@link #sortedSetRegion}. Keys share locks so that
+   * the number of locks does not grow with the number of keys
+   */
+  private static final int NUM_COLLECTION_LOCKS = 1024;
+
+  private final Lock[] collectionLocks;
+
   private final ConcurrentMap<ByteArrayWrapper, ScheduledFuture<?>> expirationsMap;
   private final ScheduledExecutorService expirationExecutor;
-  private final RegionShortcut defaultRegionType;
-  private static final CreateAlterDestroyRegionCommands cliCmds =
-      new CreateAlterDestroyRegionCommands();
-  private final ConcurrentHashMap<String, Lock> locks;
 
   public RegionProvider(Region<ByteArrayWrapper, ByteArrayWrapper> stringsRegion,
       Region<ByteArrayWrapper, HyperLogLogPlus> hLLRegion,
+      Region<ByteArrayWrapper, RedisList> listRegion,
+      Region<ByteArrayWrapper, RedisHash> hashRegion, Region<ByteArrayWrapper, RedisSet> setRegion,
+      Region<ByteArrayWrapper, RedisSortedSet> sortedSetRegion,
       Region<String, RedisDataType> redisMetaRegion,
       ConcurrentMap<ByteArrayWrapper, ScheduledFuture<?>> expirationsMap,
-      ScheduledExecutorService expirationExecutor, RegionShortcut defaultShortcut) {
-    if (stringsRegion == null || hLLRegion == null || redisMetaRegion == null)
+      ScheduledExecutorService expirationExecutor) {
+    if (stringsRegion == null || hLLRegion == null || listRegion == null || hashRegion == null
+        || setRegion == null || sortedSetRegion == null || redisMetaRegion == null)
       throw new NullPointerException();
-    this.regions = new ConcurrentHashMap<ByteArrayWrapper, Region<?, ?>>();
     this.stringsRegion = stringsRegion;
     this.hLLRegion = hLLRegion;
+    this.listRegion = listRegion;
+    this.hashRegion = hashRegion;
+    this.setRegion = setRegion;
+    this.sortedSetRegion = sortedSetRegion;
+    this.collectionLocks = new Lock[NUM_COLLECTION_LOCKS];
+    for (int i = 0; i < NUM_COLLECTION_LOCKS; i++) {
+      this.collectionLocks[i] = new ReentrantLock();
+    }
     this.redisMetaRegion = redisMetaRegion;
-    this.cache = GemFireCacheImpl.getInstance();
-    this.queryService = cache.getQueryService();
     this.expirationsMap = expirationsMap;
     this.expirationExecutor = expirationExecutor;
-    this.defaultRegionType = defaultShortcut;
-    this.locks = new ConcurrentHashMap<String, Lock>();
   }
 
   public boolean existsKey(ByteArrayWrapper key) {
@@ -140,28 +150,6 @@ public class RegionProvider implements Closeable {
     return this.redisMetaRegion.get(key.toString());
   }
 
-  public Region<?, ?> getRegion(ByteArrayWrapper key) {
-    return this.regions.get(key);
-  }
-
-  public void removeRegionReferenceLocally(ByteArrayWrapper key, RedisDataType type) {
-    Lock lock = this.locks.get(key.toString());
-    boolean locked = false;
-    try {
-      locked = lock.tryLock();
-      // If we cannot get the lock we ignore this remote event, this key has local event
-      // that started independently, ignore this event to prevent deadlock
-      if (locked) {
-        cancelKeyExpiration(key);
-        removeRegionState(key, type);
-      }
-    } finally {
-      if (locked) {
-        lock.unlock();
-      }
-    }
-  }
-
   public boolean removeKey(ByteArrayWrapper key) {
     RedisDataType type = getRedisDataType(key);
     return removeKey(key, type);
@@ -174,7 +162,7 @@ public class RegionProvider implements Closeable {
   public boolean removeKey(ByteArrayWrapper key, RedisDataType type, boolean cancelExpiration) {
     if (type == null || type == RedisDataType.REDIS_PROTECTED)
       return false;
-    Lock lock = this.locks.get(key.toString());
+    Lock lock = isCollection(type) ? getCollectionLock(key) : null;
     try {
       if (lock != null) {// Strings/hlls will not have locks
         lock.lock();
@@ -186,7 +174,7 @@ public class RegionProvider implements Closeable {
         } else if (type == RedisDataType.REDIS_HLL) {
           return this.hLLRegion.remove(key) != null;
         } else {
-          return destroyRegion(key, type);
+          return getCollectionRegion(type).remove(key) != null;
         }
       } catch (Exception exc) {
         return false;
@@ -195,8 +183,6 @@ public class RegionProvider implements Closeable {
           cancelKeyExpiration(key);
         else
           removeKeyExpiration(key);
-        if (lock != null)
-          this.locks.remove(key.toString());
       }
     } finally {
       if (lock != null) {
@@ -205,226 +191,97 @@ public class RegionProvider implements Closeable {
     }
   }
 
-  public Region<?, ?> getOrCreateRegion(ByteArrayWrapper key, RedisDataType type,
-      ExecutionHandlerContext context) {
-    return getOrCreateRegion0(key, type, context, true);
-  }
-
-  public void createRemoteRegionReferenceLocally(ByteArrayWrapper key, RedisDataType type) {
-    if (type == null || type == RedisDataType.REDIS_STRING || type == RedisDataType.REDIS_HLL)
-      return;
-    Region<?, ?> r = this.regions.get(key);
-    if (r != null)
-      return;
-    if (!this.regions.contains(key)) {
-      String stringKey = key.toString();
-      Lock lock = this.locks.get(stringKey);
-      if (lock == null) {
-        this.locks.putIfAbsent(stringKey, new ReentrantLock());
-        lock = this.locks.get(stringKey);
-      }
-      boolean locked = false;
-      try {
-        locked = lock.tryLock();
-        // If we cannot get the lock then this remote event may have been initialized
-        // independently on this machine, so if we wait on the lock it is more than
-        // likely we will deadlock just to do the same task. This event can be ignored
-        if (locked) {
-          r = cache.getRegion(key.toString());
-          // If r is null, this implies that we are after a create/destroy
-          // simply ignore. Calls to getRegion or getOrCreate will work correctly
-          if (r == null)
-            return;
-
-          if (type == RedisDataType.REDIS_LIST) {
-            doInitializeList(key, r);
-          } else if (type == RedisDataType.REDIS_SORTEDSET) {
-            try {
-              doInitializeSortedSet(key, r);
-            } catch (RegionNotFoundException | IndexInvalidException e) {
-              // ignore
-            }
-          }
-          this.regions.put(key, r);
-        }
-      } finally {
-        if (locked) {
-          lock.unlock();
-        }
-      }
-    }
-  }
-
-  private Region<?, ?> getOrCreateRegion0(ByteArrayWrapper key, RedisDataType type,
-      ExecutionHandlerContext context, boolean addToMeta) {
+  /**
+   * Changes the {@link RedisList}, {@link RedisHash}, {@link RedisSet} or {@link RedisSortedSet}
+   * stored at a key, creating it if the key does not exist. The update is applied while holding the
+   * lock of the key and the collection is put back into its {@link Region} afterwards, which
+   * distributes only the changes made by the update. If the update leaves the collection empty the
+   * key is removed.
+   * <p>
+   * The lock only excludes other clients of this server, so a new collection is created with
+   * {@link Region#putIfAbsent}. If another server created the key first, the update is applied
+   * again to the collection it created.
+   *
+   * @param key Key of the collection
+   * @param type One of {@link RedisDataType#REDIS_LIST}, {@link RedisDataType#REDIS_HASH},
+   *        {@link RedisDataType#REDIS_SET} or {@link RedisDataType#REDIS_SORTEDSET}
+   * @param context Context of the client, can be null
+   * @param update Function changing the collection, may be applied more than once
+   * @return The result of the update
+   */
+  @SuppressWarnings("unchecked")
+  public <V extends RedisCollection, R> R updateCollection(ByteArrayWrapper key,
+      RedisDataType type, ExecutionHandlerContext context, Function<V, R> update) {
     checkDataType(key, type);
-    Region<?, ?> r = this.regions.get(key);
-    if (r != null && r.isDestroyed()) {
-      removeKey(key, type);
-      r = null;
-    }
-    if (r == null) {
-      String stringKey = key.toString();
-      Lock lock = this.locks.get(stringKey);
-      if (lock == null) {
-        this.locks.putIfAbsent(stringKey, new ReentrantLock());
-        lock = this.locks.get(stringKey);
-      }
-
-      try {
-        lock.lock();
-        r = regions.get(key);
-        if (r == null) {
-          boolean hasTransaction = context != null && context.hasTransaction(); // Can create
-                                                                                // without context
-          CacheTransactionManager txm = null;
-          TransactionId transactionId = null;
-          try {
-            if (hasTransaction) {
-              txm = cache.getCacheTransactionManager();
-              transactionId = txm.suspend();
-            }
-            Exception concurrentCreateDestroyException = null;
-            do {
-              concurrentCreateDestroyException = null;
-              r = createRegionGlobally(stringKey);
-              try {
-                if (type == RedisDataType.REDIS_LIST) {
-                  doInitializeList(key, r);
-                } else if (type == RedisDataType.REDIS_SORTEDSET) {
-                  try {
-                    doInitializeSortedSet(key, r);
-                  } catch (RegionNotFoundException | IndexInvalidException e) {
-                    concurrentCreateDestroyException = e;
-                  }
-                }
-              } catch (QueryInvalidException e) {
-                if (e.getCause() instanceof RegionNotFoundException) {
-                  concurrentCreateDestroyException = e;
-                }
-              }
-            } while (concurrentCreateDestroyException != null);
-            this.regions.put(key, r);
-            if (addToMeta) {
-              RedisDataType existingType = metaPutIfAbsent(key, type);
-              if (existingType != null && existingType != type)
-                throw new RedisDataTypeMismatchException(
-                    "The key name \"" + key + "\" is already used by a " + existingType.toString());
-            }
-          } finally {
-            if (hasTransaction)
-              txm.resume(transactionId);
+    Region<ByteArrayWrapper, RedisCollection> region = getCollectionRegion(type);
+    Lock lock = getCollectionLock(key);
+    lock.lock();
+    try {
+      while (true) {
+        RedisCollection collection = region.get(key);
+        boolean created = collection == null;
+        if (created) {
+          collection = newCollection(type);
+        } else if (context != null && context.hasTransaction()) {
+          // The value read in a transaction is the committed one, only change a copy of it
+          collection = collection.copy();
+        }
+        R result = update.apply((V) collection);
+        if (collection.isEmpty()) {
+          if (!created) {
+            removeKey(key, type);
+          }
+        } else if (created) {
+          RedisDataType existingType = metaPutIfAbsent(key, type);
+          if (existingType != null && existingType != type)
+            throw new RedisDataTypeMismatchException(
+                "The key name \"" + key + "\" is already used by a " + existingType.toString());
+          // A new collection is distributed whole
+          collection.clearDelta();
+          if (region.putIfAbsent(key, collection) != null) {
+            // Another server created the key, apply the update to its collection instead
+            ReferenceCountUtil.release(result);
+            continue;
           }
+        } else if (collection.hasDelta()) {
+          region.put(key, collection);
+          collection.clearDelta();
         }
-      } finally {
-        lock.unlock();
+        return result;
       }
+    } finally {
+      lock.unlock();
     }
-    return r;
   }
 
-  /**
-   * SYNCHRONIZE EXTERNALLY OF this.locks.get(key.toString())!!!!!
-   * 
-   * @param key Key of region to destroy
-   * @param type Type of region to destroyu
-   * @return Flag if destroyed
-   */
-  private boolean destroyRegion(ByteArrayWrapper key, RedisDataType type) {
-    Region<?, ?> r = this.regions.get(key);
-    if (r != null) {
-      try {
-        r.destroyRegion();
-      } catch (Exception e) {
-        return false;
-      } finally {
-        removeRegionState(key, type);
-      }
-    }
-    return true;
+  private boolean isCollection(RedisDataType type) {
+    return type == RedisDataType.REDIS_LIST || type == RedisDataType.REDIS_HASH
+        || type == RedisDataType.REDIS_SET || type == RedisDataType.REDIS_SORTEDSET;
   }
 
-  /**
-   * Do not call this method if you are not synchronized on the lock associated with this key
-   * 
-   * @param key Key of region to remove
-   * @param type Type of key to remove all state
-   */
-  private void removeRegionState(ByteArrayWrapper key, RedisDataType type) {
-    this.preparedQueries.remove(key);
-    this.regions.remove(key);
+  private RedisCollection newCollection(RedisDataType type) {
+    if (type == RedisDataType.REDIS_LIST)
+      return new RedisList();
+    if (type == RedisDataType.REDIS_HASH)
+      return new RedisHash();
+    if (type == RedisDataType.REDIS_SET)
+      return new RedisSet();
+    return new RedisSortedSet();
   }
 
-  private void doInitializeSortedSet(ByteArrayWrapper key, Region<?, ?> r)
-      throws RegionNotFoundException, IndexInvalidException {
-    String fullpath = r.getFullPath();
-    try {
-      queryService.createIndex("scoreIndex", "entry.value.score",
-          r.getFullPath() + ".entrySet entry");
-      queryService.createIndex("scoreIndex2", "value.score", r.getFullPath() + ".values value");
-    } catch (IndexNameConflictException | IndexExistsException | UnsupportedOperationException e) {
-      // ignore, these indexes already exist or unsupported but make sure prepared queries are made
-    }
-    HashMap<Enum<?>, Query> queryList = new HashMap<Enum<?>, Query>();
-    for (SortedSetQuery lq : SortedSetQuery.values()) {
-      String queryString = lq.getQueryString(fullpath);
-      Query query = this.queryService.newQuery(queryString);
-      queryList.put(lq, query);
-    }
-    this.preparedQueries.put(key, queryList);
-  }
-
-  private void doInitializeList(ByteArrayWrapper key, Region r) {
-    r.put("head", Integer.valueOf(0));
-    r.put("tail", Integer.valueOf(0));
-    String fullpath = r.getFullPath();
-    HashMap<Enum<?>, Query> queryList = new HashMap<Enum<?>, Query>();
-    for (ListQuery lq : ListQuery.values()) {
-      String queryString = lq.getQueryString(fullpath);
-      Query query = this.queryService.newQuery(queryString);
-      queryList.put(lq, query);
-    }
-    this.preparedQueries.put(key, queryList);
+  @SuppressWarnings("unchecked")
+  private Region<ByteArrayWrapper, RedisCollection> getCollectionRegion(RedisDataType type) {
+    if (type == RedisDataType.REDIS_LIST)
+      return (Region<ByteArrayWrapper, RedisCollection>) (Region<?, ?>) this.listRegion;
+    if (type == RedisDataType.REDIS_HASH)
+      return (Region<ByteArrayWrapper, RedisCollection>) (Region<?, ?>) this.hashRegion;
+    if (type == RedisDataType.REDIS_SET)
+      return (Region<ByteArrayWrapper, RedisCollection>) (Region<?, ?>) this.setRegion;
+    return (Region<ByteArrayWrapper, RedisCollection>) (Region<?, ?>) this.sortedSetRegion;
   }
 
-  /**
-   * This method creates a Region globally with the given name. If there is an error in the
-   * creation, a runtime exception will be thrown.
-   * 
-   * @param key Name of Region to create
-   * @return Region Region created globally
-   */
-  private Region<?, ?> createRegionGlobally(String key) {
-    Region<?, ?> r = null;
-    r = cache.getRegion(key);
-    if (r != null)
-      return r;
-    do {
-      Result result = cliCmds.createRegion(key, defaultRegionType, null, null, true, null, null,
-          null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
-          null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
-          null, null);
-      r = cache.getRegion(key);
-      if (result.getStatus() == Status.ERROR && r == null) {
-        String err = "";
-        while (result.hasNextLine())
-          err += result.nextLine();
-        throw new RegionCreationException(err);
-      }
-    } while (r == null); // The region can be null in the case that it is concurrently destroyed by
-    // a remote even triggered internally by Geode
-    return r;
-  }
-
-  public Query getQuery(ByteArrayWrapper key, Enum<?> query) {
-    return this.preparedQueries.get(key).get(query);
-    /*
-     * if (query instanceof ListQuery) { return
-     * this.queryService.newQuery(((ListQuery)query).getQueryString(this.regions.get(key).
-     * getFullPath())); } else { return
-     * this.queryService.newQuery(((SortedSetQuery)query).getQueryString(this.regions.get(key).
-     * getFullPath())); }
-     */
+  private Lock getCollectionLock(ByteArrayWrapper key) {
+    return this.collectionLocks[(key.hashCode() & Integer.MAX_VALUE) % NUM_COLLECTION_LOCKS];
   }
 
   /**
@@ -445,10 +302,6 @@ public class RegionProvider implements Closeable {
           "The key name \"" + key + "\" is already used by a " + currentType.toString());
   }
 
-  public boolean regionExists(ByteArrayWrapper key) {
-    return this.regions.containsKey(key);
-  }
-
   public Region<ByteArrayWrapper, ByteArrayWrapper> getStringsRegion() {
     return this.stringsRegion;
   }
@@ -457,6 +310,22 @@ public class RegionProvider implements Closeable {
     return this.hLLRegion;
   }
 
+  public Region<ByteArrayWrapper, RedisList> getListRegion() {
+    return this.listRegion;
+  }
+
+  public Region<ByteArrayWrapper, RedisHash> getHashRegion() {
+    return this.hashRegion;
+  }
+
+  public Region<ByteArrayWrapper, RedisSet> getSetRegion() {
+    return this.setRegion;
+  }
+
+  public Region<ByteArrayWrapper, RedisSortedSet> getSortedSetRegion() {
+    return this.sortedSetRegion;
+  }
+
   private RedisDataType getRedisDataType(String key) {
     return this.redisMetaRegion.get(key);
   }
@@ -549,17 +418,4 @@ public class RegionProvider implements Closeable {
     return future != null ? future.getDelay(TimeUnit.MILLISECONDS) : 0L;
   }
 
-  @Override
-  public void close() {
-    this.preparedQueries.clear();
-  }
-
-  public String dumpRegionsCache() {
-    StringBuilder builder = new StringBuilder();
-    for (Entry<ByteArrayWrapper, Region<?, ?>> e : this.regions.entrySet()) {
-      builder.append(e.getKey() + " --> {" + e.getValue() + "}\n");
-    }
-    return builder.toString();
-  }
-
 }
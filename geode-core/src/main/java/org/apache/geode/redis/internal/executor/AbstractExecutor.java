@@ -14,8 +14,6 @@
  */
 package org.apache.geode.redis.internal.executor;
 
-import org.apache.geode.cache.Region;
-import org.apache.geode.cache.query.Query;
 import org.apache.geode.redis.internal.ByteArrayWrapper;
 import org.apache.geode.redis.internal.ExecutionHandlerContext;
 import org.apache.geode.redis.internal.Executor;
@@ -34,7 +32,7 @@ public abstract class AbstractExecutor implements Executor {
   /**
    * Number of Regions used by GeodeRedisServer internally
    */
-  public static final int NUM_DEFAULT_REGIONS = 3;
+  public static final int NUM_DEFAULT_REGIONS = 7;
 
   /**
    * Max length of a list
@@ -46,28 +44,6 @@ public abstract class AbstractExecutor implements Executor {
    */
   protected static final int millisInSecond = 1000;
 
-  /**
-   * Getter method for a {@link Region} in the case that a Region should be created if one with the
-   * given name does not exist. Before getting or creating a Region, a check is first done to make
-   * sure the desired key doesn't already exist with a different {@link RedisDataType}. If there is
-   * a data type mismatch this method will throw a {@link RuntimeException}.
-   * 
-   * ********************** IMPORTANT NOTE ********************************************** This
-   * method will not fail in returning a Region unless an internal error occurs, so if a Region is
-   * destroyed right after it is created, it will attempt to retry until a reference to that Region
-   * is obtained
-   * *************************************************************************************
-   * 
-   * @param context Client client
-   * @param key String key of desired key
-   * @param type Type of data type desired
-   * @return Region with name key
-   */
-  protected Region<?, ?> getOrCreateRegion(ExecutionHandlerContext context, ByteArrayWrapper key,
-      RedisDataType type) {
-    return context.getRegionProvider().getOrCreateRegion(key, type, context);
-  }
-
   /**
    * Checks if the given key is associated with the passed data type. If there is a mismatch, a
    * {@link RuntimeException} is thrown
@@ -88,10 +64,6 @@ public abstract class AbstractExecutor implements Executor {
           "The key name \"" + key + "\" is already used by a " + currentType.toString());
   }
 
-  protected Query getQuery(ByteArrayWrapper key, Enum<?> type, ExecutionHandlerContext context) {
-    return context.getRegionProvider().getQuery(key, type);
-  }
-
   protected boolean removeEntry(ByteArrayWrapper key, RedisDataType type,
       ExecutionHandlerContext context) {
     if (type == null || type == RedisDataType.REDIS_PROTECTED)
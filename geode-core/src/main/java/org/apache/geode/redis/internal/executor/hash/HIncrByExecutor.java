@@ -16,12 +16,10 @@ package org.apache.geode.redis.internal.executor.hash;
 
 import java.util.List;
 
-import org.apache.geode.cache.Region;
 import org.apache.geode.redis.internal.ByteArrayWrapper;
 import org.apache.geode.redis.internal.Coder;
 import org.apache.geode.redis.internal.Command;
 import org.apache.geode.redis.internal.ExecutionHandlerContext;
-import org.apache.geode.redis.internal.RedisDataType;
 import org.apache.geode.redis.internal.RedisConstants.ArityDef;
 
 public class HIncrByExecutor extends HashExecutor {
@@ -58,53 +56,47 @@ public class HIncrByExecutor extends HashExecutor {
 
     ByteArrayWrapper key = command.getKey();
 
-    Region<ByteArrayWrapper, ByteArrayWrapper> keyRegion =
-        getOrCreateRegion(context, key, RedisDataType.REDIS_HASH);
-
     byte[] byteField = commandElems.get(FIELD_INDEX);
     ByteArrayWrapper field = new ByteArrayWrapper(byteField);
 
-    /*
-     * Put incrememnt as value if field doesn't exist
-     */
+    command.setResponse(updateHash(context, key, hash -> {
+      /*
+       * Put incrememnt as value if field doesn't exist
+       */
 
-    ByteArrayWrapper oldValue = keyRegion.get(field);
+      ByteArrayWrapper oldValue = hash.get(field);
 
-    if (oldValue == null) {
-      keyRegion.put(field, new ByteArrayWrapper(incrArray));
-      command.setResponse(Coder.getIntegerResponse(context.getByteBufAllocator(), increment));
-      return;
-    }
+      if (oldValue == null) {
+        hash.put(field, new ByteArrayWrapper(incrArray));
+        return Coder.getIntegerResponse(context.getByteBufAllocator(), increment);
+      }
 
-    /*
-     * If the field did exist then increment the field
-     */
+      /*
+       * If the field did exist then increment the field
+       */
 
-    long value;
+      long value;
 
-    try {
-      value = Long.parseLong(oldValue.toString());
-    } catch (NumberFormatException e) {
-      command.setResponse(
-          Coder.getErrorResponse(context.getByteBufAllocator(), ERROR_FIELD_NOT_USABLE));
-      return;
-    }
+      try {
+        value = Long.parseLong(oldValue.toString());
+      } catch (NumberFormatException e) {
+        return Coder.getErrorResponse(context.getByteBufAllocator(), ERROR_FIELD_NOT_USABLE);
+      }
 
-    /*
-     * Check for overflow
-     */
-    if ((value >= 0 && increment > (Long.MAX_VALUE - value))
-        || (value <= 0 && increment < (Long.MIN_VALUE - value))) {
-      command.setResponse(Coder.getErrorResponse(context.getByteBufAllocator(), ERROR_OVERFLOW));
-      return;
-    }
+      /*
+       * Check for overflow
+       */
+      if ((value >= 0 && increment > (Long.MAX_VALUE - value))
+          || (value <= 0 && increment < (Long.MIN_VALUE - value))) {
+        return Coder.getErrorResponse(context.getByteBufAllocator(), ERROR_OVERFLOW);
+      }
 
-    value += increment;
-    // String newValue = String.valueOf(value);
+      value += increment;
 
-    keyRegion.put(field, new ByteArrayWrapper(Coder.longToBytes(value)));
+      hash.put(field, new ByteArrayWrapper(Coder.longToBytes(value)));
 
-    command.setResponse(Coder.getIntegerResponse(context.getByteBufAllocator(), value));
+      return Coder.getIntegerResponse(context.getByteBufAllocator(), value);
+    }));
 
   }
 
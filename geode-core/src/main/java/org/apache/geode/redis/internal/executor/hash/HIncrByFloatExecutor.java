@@ -16,11 +16,9 @@ package org.apache.geode.redis.internal.executor.hash;
 
 import java.util.List;
 
-import org.apache.geode.cache.Region;
 import org.apache.geode.redis.internal.ByteArrayWrapper;
 import org.apache.geode.redis.internal.Command;
 import org.apache.geode.redis.internal.ExecutionHandlerContext;
-import org.apache.geode.redis.internal.RedisDataType;
 import org.apache.geode.redis.internal.Coder;
 import org.apache.geode.redis.internal.RedisConstants.ArityDef;
 
@@ -59,46 +57,40 @@ public class HIncrByFloatExecutor extends HashExecutor {
 
     ByteArrayWrapper key = command.getKey();
 
-    Region<ByteArrayWrapper, ByteArrayWrapper> keyRegion =
-        getOrCreateRegion(context, key, RedisDataType.REDIS_HASH);
-
     byte[] byteField = commandElems.get(FIELD_INDEX);
     ByteArrayWrapper field = new ByteArrayWrapper(byteField);
 
-    /*
-     * Put incrememnt as value if field doesn't exist
-     */
-
-    ByteArrayWrapper oldValue = keyRegion.get(field);
-
-    if (oldValue == null) {
-      keyRegion.put(field, new ByteArrayWrapper(incrArray));
-      command.setResponse(Coder.getBulkStringResponse(context.getByteBufAllocator(), increment));
-      return;
-    }
-
-    /*
-     * If the field did exist then increment the field
-     */
-    String valueS = oldValue.toString();
-    if (valueS.contains(" ")) {
-      command.setResponse(
-          Coder.getErrorResponse(context.getByteBufAllocator(), ERROR_FIELD_NOT_USABLE));
-      return;
-    }
-    Double value;
-
-    try {
-      value = Coder.stringToDouble(valueS);
-    } catch (NumberFormatException e) {
-      command.setResponse(
-          Coder.getErrorResponse(context.getByteBufAllocator(), ERROR_FIELD_NOT_USABLE));
-      return;
-    }
-
-    value += increment;
-    keyRegion.put(field, new ByteArrayWrapper(Coder.doubleToBytes(value)));
-    command.setResponse(Coder.getBulkStringResponse(context.getByteBufAllocator(), value));
+    command.setResponse(updateHash(context, key, hash -> {
+      /*
+       * Put incrememnt as value if field doesn't exist
+       */
+
+      ByteArrayWrapper oldValue = hash.get(field);
+
+      if (oldValue == null) {
+        hash.put(field, new ByteArrayWrapper(incrArray));
+        return Coder.getBulkStringResponse(context.getByteBufAllocator(), increment);
+      }
+
+      /*
+       * If the field did exist then increment the field
+       */
+      String valueS = oldValue.toString();
+      if (valueS.contains(" ")) {
+        return Coder.getErrorResponse(context.getByteBufAllocator(), ERROR_FIELD_NOT_USABLE);
+      }
+      Double value;
+
+      try {
+        value = Coder.stringToDouble(valueS);
+      } catch (NumberFormatException e) {
+        return Coder.getErrorResponse(context.getByteBufAllocator(), ERROR_FIELD_NOT_USABLE);
+      }
+
+      value += increment;
+      hash.put(field, new ByteArrayWrapper(Coder.doubleToBytes(value)));
+      return Coder.getBulkStringResponse(context.getByteBufAllocator(), value);
+    }));
   }
 
 }
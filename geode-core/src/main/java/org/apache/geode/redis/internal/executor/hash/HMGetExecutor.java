@@ -16,14 +16,13 @@ package org.apache.geode.redis.internal.executor.hash;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 
-import org.apache.geode.cache.Region;
 import org.apache.geode.redis.internal.ByteArrayWrapper;
 import org.apache.geode.redis.internal.Coder;
 import org.apache.geode.redis.internal.Command;
 import org.apache.geode.redis.internal.ExecutionHandlerContext;
 import org.apache.geode.redis.internal.RedisDataType;
+import org.apache.geode.redis.internal.RedisHash;
 import org.apache.geode.redis.internal.RedisConstants.ArityDef;
 
 public class HMGetExecutor extends HashExecutor {
@@ -39,10 +38,10 @@ public class HMGetExecutor extends HashExecutor {
 
     ByteArrayWrapper key = command.getKey();
 
-    Region<ByteArrayWrapper, ByteArrayWrapper> keyRegion = getRegion(context, key);
+    RedisHash hash = getHash(context, key);
     checkDataType(key, RedisDataType.REDIS_HASH, context);
 
-    if (keyRegion == null) {
+    if (hash == null) {
       command.setResponse(
           Coder.getArrayOfNils(context.getByteBufAllocator(), commandElems.size() - 2));
       return;
@@ -55,15 +54,13 @@ public class HMGetExecutor extends HashExecutor {
       fields.add(field);
     }
 
-    Map<ByteArrayWrapper, ByteArrayWrapper> results = keyRegion.getAll(fields);
-
     ArrayList<ByteArrayWrapper> values = new ArrayList<ByteArrayWrapper>();
 
     /*
      * This is done to preserve order in the output
      */
     for (ByteArrayWrapper field : fields)
-      values.add(results.get(field));
+      values.add(hash.get(field));
 
     command.setResponse(Coder.getBulkStringArrayResponse(context.getByteBufAllocator(), values));
 
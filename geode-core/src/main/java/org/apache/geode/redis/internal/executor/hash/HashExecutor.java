@@ -14,27 +14,34 @@
  */
 package org.apache.geode.redis.internal.executor.hash;
 
-import org.apache.geode.cache.Region;
+import java.util.function.Function;
+
 import org.apache.geode.redis.internal.ByteArrayWrapper;
 import org.apache.geode.redis.internal.ExecutionHandlerContext;
 import org.apache.geode.redis.internal.RedisDataType;
+import org.apache.geode.redis.internal.RedisHash;
 import org.apache.geode.redis.internal.executor.AbstractExecutor;
 
 public abstract class HashExecutor extends AbstractExecutor {
 
   protected final int FIELD_INDEX = 2;
 
-  @SuppressWarnings("unchecked")
-  protected Region<ByteArrayWrapper, ByteArrayWrapper> getOrCreateRegion(
-      ExecutionHandlerContext context, ByteArrayWrapper key, RedisDataType type) {
-    return (Region<ByteArrayWrapper, ByteArrayWrapper>) context.getRegionProvider()
-        .getOrCreateRegion(key, type, context);
+  /**
+   * @return The hash stored at the key or null if the key does not exist
+   */
+  protected RedisHash getHash(ExecutionHandlerContext context, ByteArrayWrapper key) {
+    return context.getRegionProvider().getHashRegion().get(key);
   }
 
-  @SuppressWarnings("unchecked")
-  protected Region<ByteArrayWrapper, ByteArrayWrapper> getRegion(ExecutionHandlerContext context,
-      ByteArrayWrapper key) {
-    return (Region<ByteArrayWrapper, ByteArrayWrapper>) context.getRegionProvider().getRegion(key);
+  /**
+   * Changes the hash stored at the key, creating it if it does not exist yet
+   *
+   * @see org.apache.geode.redis.internal.RegionProvider#updateCollection
+   */
+  protected <R> R updateHash(ExecutionHandlerContext context, ByteArrayWrapper key,
+      Function<RedisHash, R> update) {
+    return context.getRegionProvider().updateCollection(key, RedisDataType.REDIS_HASH, context,
+        update);
   }
 
 }
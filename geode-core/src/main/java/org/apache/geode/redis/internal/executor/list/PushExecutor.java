@@ -14,21 +14,18 @@
  */
 package org.apache.geode.redis.internal.executor.list;
 
+import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.atomic.AtomicInteger;
 
-import org.apache.geode.cache.Region;
 import org.apache.geode.redis.internal.ByteArrayWrapper;
 import org.apache.geode.redis.internal.Command;
 import org.apache.geode.redis.internal.ExecutionHandlerContext;
 import org.apache.geode.redis.internal.Extendable;
-import org.apache.geode.redis.internal.RedisDataType;
 import org.apache.geode.redis.internal.Coder;
 
 public abstract class PushExecutor extends PushXExecutor implements Extendable {
 
   private final int START_VALUES_INDEX = 2;
-  static volatile AtomicInteger puts = new AtomicInteger(0);
 
   @Override
   public void executeCommand(Command command, ExecutionHandlerContext context) {
@@ -41,11 +38,16 @@ public abstract class PushExecutor extends PushXExecutor implements Extendable {
 
     ByteArrayWrapper key = command.getKey();
 
-    Region<Integer, ByteArrayWrapper> keyRegion =
-        getOrCreateRegion(context, key, RedisDataType.REDIS_LIST);
-    pushElements(key, commandElems, START_VALUES_INDEX, commandElems.size(), keyRegion, pushType(),
-        context);
-    int listSize = keyRegion.size() - LIST_EMPTY_SIZE;
+    List<ByteArrayWrapper> elements =
+        new ArrayList<ByteArrayWrapper>(commandElems.size() - START_VALUES_INDEX);
+    for (int i = START_VALUES_INDEX; i < commandElems.size(); i++)
+      elements.add(new ByteArrayWrapper(commandElems.get(i)));
+
+    int listSize = updateList(context, key, list -> {
+      for (ByteArrayWrapper element : elements)
+        push(list, element, pushType());
+      return list.size();
+    });
     command.setResponse(Coder.getIntegerResponse(context.getByteBufAllocator(), listSize));
   }
 
@@ -16,13 +16,13 @@ package org.apache.geode.redis.internal.executor.list;
 
 import java.util.List;
 
-import org.apache.geode.cache.Region;
 import org.apache.geode.redis.internal.ByteArrayWrapper;
 import org.apache.geode.redis.internal.Coder;
 import org.apache.geode.redis.internal.Command;
 import org.apache.geode.redis.internal.ExecutionHandlerContext;
 import org.apache.geode.redis.internal.Extendable;
 import org.apache.geode.redis.internal.RedisDataType;
+import org.apache.geode.redis.internal.RedisList;
 
 public abstract class PushXExecutor extends ListExecutor implements Extendable {
 
@@ -39,15 +39,21 @@ public abstract class PushXExecutor extends ListExecutor implements Extendable {
 
     ByteArrayWrapper key = command.getKey();
 
-    Region<Integer, ByteArrayWrapper> keyRegion = getRegion(context, key);
-    if (keyRegion == null) {
+    checkDataType(key, RedisDataType.REDIS_LIST, context);
+    RedisList list = getList(context, key);
+    if (list == null) {
       command.setResponse(Coder.getIntegerResponse(context.getByteBufAllocator(), NOT_EXISTS));
       return;
     }
-    checkDataType(key, RedisDataType.REDIS_LIST, context);
-    pushElements(key, commandElems, 2, 3, keyRegion, pushType(), context);
-
-    int listSize = keyRegion.size() - LIST_EMPTY_SIZE;
+    ByteArrayWrapper element = new ByteArrayWrapper(commandElems.get(2));
+
+    int listSize = updateList(context, key, current -> {
+      // the list was removed since it was read
+      if (current.isEmpty())
+        return NOT_EXISTS;
+      push(current, element, pushType());
+      return current.size();
+    });
 
     command.setResponse(Coder.getIntegerResponse(context.getByteBufAllocator(), listSize));
   }
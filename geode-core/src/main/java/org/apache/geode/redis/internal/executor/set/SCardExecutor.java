@@ -16,12 +16,12 @@ package org.apache.geode.redis.internal.executor.set;
 
 import java.util.List;
 
-import org.apache.geode.cache.Region;
 import org.apache.geode.redis.internal.ByteArrayWrapper;
 import org.apache.geode.redis.internal.Command;
 import org.apache.geode.redis.internal.ExecutionHandlerContext;
 import org.apache.geode.redis.internal.RedisConstants.ArityDef;
 import org.apache.geode.redis.internal.RedisDataType;
+import org.apache.geode.redis.internal.RedisSet;
 import org.apache.geode.redis.internal.Coder;
 
 public class SCardExecutor extends SetExecutor {
@@ -40,15 +40,14 @@ public class SCardExecutor extends SetExecutor {
 
     ByteArrayWrapper key = command.getKey();
     checkDataType(key, RedisDataType.REDIS_SET, context);
-    Region<ByteArrayWrapper, Boolean> keyRegion =
-        (Region<ByteArrayWrapper, Boolean>) context.getRegionProvider().getRegion(key);
+    RedisSet set = getSet(context, key);
 
-    if (keyRegion == null) {
+    if (set == null) {
       command.setResponse(Coder.getIntegerResponse(context.getByteBufAllocator(), NOT_EXISTS));
       return;
     }
 
-    command.setResponse(Coder.getIntegerResponse(context.getByteBufAllocator(), keyRegion.size()));
+    command.setResponse(Coder.getIntegerResponse(context.getByteBufAllocator(), set.size()));
   }
 
 }
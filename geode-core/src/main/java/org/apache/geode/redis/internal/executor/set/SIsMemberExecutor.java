@@ -16,12 +16,12 @@ package org.apache.geode.redis.internal.executor.set;
 
 import java.util.List;
 
-import org.apache.geode.cache.Region;
 import org.apache.geode.redis.internal.ByteArrayWrapper;
 import org.apache.geode.redis.internal.Command;
 import org.apache.geode.redis.internal.ExecutionHandlerContext;
 import org.apache.geode.redis.internal.RedisConstants.ArityDef;
 import org.apache.geode.redis.internal.RedisDataType;
+import org.apache.geode.redis.internal.RedisSet;
 import org.apache.geode.redis.internal.Coder;
 
 public class SIsMemberExecutor extends SetExecutor {
@@ -44,16 +44,14 @@ public class SIsMemberExecutor extends SetExecutor {
     ByteArrayWrapper member = new ByteArrayWrapper(commandElems.get(2));
 
     checkDataType(key, RedisDataType.REDIS_SET, context);
-    @SuppressWarnings("unchecked")
-    Region<ByteArrayWrapper, Boolean> keyRegion =
-        (Region<ByteArrayWrapper, Boolean>) context.getRegionProvider().getRegion(key);
+    RedisSet set = getSet(context, key);
 
-    if (keyRegion == null) {
+    if (set == null) {
       command.setResponse(Coder.getIntegerResponse(context.getByteBufAllocator(), NOT_EXISTS));
       return;
     }
 
-    if (keyRegion.containsKey(member))
+    if (set.contains(member))
       command.setResponse(Coder.getIntegerResponse(context.getByteBufAllocator(), EXISTS));
     else
       command.setResponse(Coder.getIntegerResponse(context.getByteBufAllocator(), NOT_EXISTS));
@@ -16,13 +16,13 @@ package org.apache.geode.redis.internal.executor.set;
 
 import java.util.List;
 
-import org.apache.geode.cache.Region;
 import org.apache.geode.redis.internal.ByteArrayWrapper;
 import org.apache.geode.redis.internal.Coder;
 import org.apache.geode.redis.internal.Command;
 import org.apache.geode.redis.internal.ExecutionHandlerContext;
 import org.apache.geode.redis.internal.RedisConstants.ArityDef;
 import org.apache.geode.redis.internal.RedisDataType;
+import org.apache.geode.redis.internal.RedisSet;
 
 public class SMoveExecutor extends SetExecutor {
 
@@ -45,28 +45,21 @@ public class SMoveExecutor extends SetExecutor {
 
     checkDataType(source, RedisDataType.REDIS_SET, context);
     checkDataType(destination, RedisDataType.REDIS_SET, context);
-    @SuppressWarnings("unchecked")
-    Region<ByteArrayWrapper, Boolean> sourceRegion =
-        (Region<ByteArrayWrapper, Boolean>) context.getRegionProvider().getRegion(source);
+    RedisSet sourceSet = getSet(context, source);
 
-    if (sourceRegion == null) {
+    if (sourceSet == null) {
       command.setResponse(Coder.getIntegerResponse(context.getByteBufAllocator(), NOT_MOVED));
       return;
     }
 
-    Object oldVal = sourceRegion.get(mem);
-    sourceRegion.remove(mem);
+    boolean removed = updateSet(context, source, set -> set.remove(mem));
 
-    if (oldVal == null) {
+    if (!removed) {
       command.setResponse(Coder.getIntegerResponse(context.getByteBufAllocator(), NOT_MOVED));
       return;
     }
 
-    @SuppressWarnings("unchecked")
-    Region<ByteArrayWrapper, Boolean> destinationRegion =
-        (Region<ByteArrayWrapper, Boolean>) getOrCreateRegion(context, destination,
-            RedisDataType.REDIS_SET);
-    destinationRegion.put(mem, true);
+    updateSet(context, destination, set -> set.add(mem));
 
     command.setResponse(Coder.getIntegerResponse(context.getByteBufAllocator(), MOVED));
   }
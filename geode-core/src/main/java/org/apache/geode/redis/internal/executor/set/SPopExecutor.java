@@ -17,12 +17,12 @@ package org.apache.geode.redis.internal.executor.set;
 import java.util.List;
 import java.util.Random;
 
-import org.apache.geode.cache.Region;
 import org.apache.geode.redis.internal.ByteArrayWrapper;
 import org.apache.geode.redis.internal.Command;
 import org.apache.geode.redis.internal.Coder;
 import org.apache.geode.redis.internal.ExecutionHandlerContext;
 import org.apache.geode.redis.internal.RedisConstants.ArityDef;
+import org.apache.geode.redis.internal.RedisSet;
 
 public class SPopExecutor extends SetExecutor {
 
@@ -36,23 +36,28 @@ public class SPopExecutor extends SetExecutor {
     }
 
     ByteArrayWrapper key = command.getKey();
-    @SuppressWarnings("unchecked")
-    Region<ByteArrayWrapper, Boolean> keyRegion =
-        (Region<ByteArrayWrapper, Boolean>) context.getRegionProvider().getRegion(key);
-    if (keyRegion == null || keyRegion.isEmpty()) {
+    RedisSet set = getSet(context, key);
+    if (set == null || set.isEmpty()) {
       command.setResponse(Coder.getNilResponse(context.getByteBufAllocator()));
       return;
     }
 
-    Random rand = new Random();
+    ByteArrayWrapper pop = updateSet(context, key, current -> {
+      if (current.isEmpty())
+        return null;
 
-    ByteArrayWrapper[] entries = keyRegion.keySet().toArray(new ByteArrayWrapper[keyRegion.size()]);
+      Random rand = new Random();
 
-    ByteArrayWrapper pop = entries[rand.nextInt(entries.length)];
+      ByteArrayWrapper[] entries =
+          current.members().toArray(new ByteArrayWrapper[current.size()]);
 
-    keyRegion.remove(pop);
-    if (keyRegion.isEmpty()) {
-      context.getRegionProvider().removeKey(key);
+      ByteArrayWrapper member = entries[rand.nextInt(entries.length)];
+      current.remove(member);
+      return member;
+    });
+    if (pop == null) {
+      command.setResponse(Coder.getNilResponse(context.getByteBufAllocator()));
+      return;
     }
     command.setResponse(Coder.getBulkStringResponse(context.getByteBufAllocator(), pop.toBytes()));
   }
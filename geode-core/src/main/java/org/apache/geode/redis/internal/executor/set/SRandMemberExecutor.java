@@ -20,12 +20,12 @@ import java.util.List;
 import java.util.Random;
 import java.util.Set;
 
-import org.apache.geode.cache.Region;
 import org.apache.geode.redis.internal.ByteArrayWrapper;
 import org.apache.geode.redis.internal.Command;
 import org.apache.geode.redis.internal.Coder;
 import org.apache.geode.redis.internal.ExecutionHandlerContext;
 import org.apache.geode.redis.internal.RedisConstants.ArityDef;
+import org.apache.geode.redis.internal.RedisSet;
 
 public class SRandMemberExecutor extends SetExecutor {
 
@@ -42,9 +42,7 @@ public class SRandMemberExecutor extends SetExecutor {
     }
 
     ByteArrayWrapper key = command.getKey();
-    @SuppressWarnings("unchecked")
-    Region<ByteArrayWrapper, Boolean> keyRegion =
-        (Region<ByteArrayWrapper, Boolean>) context.getRegionProvider().getRegion(key);
+    RedisSet set = getSet(context, key);
 
     int count = 1;
 
@@ -58,22 +56,23 @@ public class SRandMemberExecutor extends SetExecutor {
       }
     }
 
-    if (keyRegion == null || count == 0) {
+    if (set == null || count == 0) {
       command.setResponse(Coder.getNilResponse(context.getByteBufAllocator()));
       return;
     }
 
-    int members = keyRegion.size();
+    Set<ByteArrayWrapper> setMembers = set.members();
+    int members = setMembers.size();
 
     if (members <= count && count != 1) {
-      command.setResponse(Coder.getBulkStringArrayResponse(context.getByteBufAllocator(),
-          new HashSet<ByteArrayWrapper>(keyRegion.keySet())));
+      command.setResponse(
+          Coder.getBulkStringArrayResponse(context.getByteBufAllocator(), setMembers));
       return;
     }
 
     Random rand = new Random();
 
-    ByteArrayWrapper[] entries = keyRegion.keySet().toArray(new ByteArrayWrapper[members]);
+    ByteArrayWrapper[] entries = setMembers.toArray(new ByteArrayWrapper[members]);
 
     if (count == 1) {
       ByteArrayWrapper randEntry = entries[rand.nextInt(entries.length)];
@@ -14,8 +14,32 @@
  */
 package org.apache.geode.redis.internal.executor.set;
 
+import java.util.function.Function;
+
+import org.apache.geode.redis.internal.ByteArrayWrapper;
+import org.apache.geode.redis.internal.ExecutionHandlerContext;
+import org.apache.geode.redis.internal.RedisDataType;
+import org.apache.geode.redis.internal.RedisSet;
 import org.apache.geode.redis.internal.executor.AbstractExecutor;
 
 public abstract class SetExecutor extends AbstractExecutor {
 
+  /**
+   * @return The set stored at the key or null if the key does not exist
+   */
+  protected RedisSet getSet(ExecutionHandlerContext context, ByteArrayWrapper key) {
+    return context.getRegionProvider().getSetRegion().get(key);
+  }
+
+  /**
+   * Changes the set stored at the key, creating it if it does not exist yet
+   *
+   * @see org.apache.geode.redis.internal.RegionProvider#updateCollection
+   */
+  protected <R> R updateSet(ExecutionHandlerContext context, ByteArrayWrapper key,
+      Function<RedisSet, R> update) {
+    return context.getRegionProvider().updateCollection(key, RedisDataType.REDIS_SET, context,
+        update);
+  }
+
 }
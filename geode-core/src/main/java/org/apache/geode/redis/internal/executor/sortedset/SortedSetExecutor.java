@@ -14,30 +14,32 @@
  */
 package org.apache.geode.redis.internal.executor.sortedset;
 
-import org.apache.geode.cache.Region;
+import java.util.function.Function;
+
 import org.apache.geode.redis.internal.ByteArrayWrapper;
-import org.apache.geode.redis.internal.DoubleWrapper;
 import org.apache.geode.redis.internal.ExecutionHandlerContext;
 import org.apache.geode.redis.internal.RedisDataType;
+import org.apache.geode.redis.internal.RedisSortedSet;
 import org.apache.geode.redis.internal.executor.AbstractExecutor;
 
 public abstract class SortedSetExecutor extends AbstractExecutor {
 
-  @Override
-  protected Region<ByteArrayWrapper, DoubleWrapper> getOrCreateRegion(
-      ExecutionHandlerContext context, ByteArrayWrapper key, RedisDataType type) {
-    @SuppressWarnings("unchecked")
-    Region<ByteArrayWrapper, DoubleWrapper> r = (Region<ByteArrayWrapper, DoubleWrapper>) context
-        .getRegionProvider().getOrCreateRegion(key, type, context);
-    return r;
+  /**
+   * @return The sorted set stored at the key or null if the key does not exist
+   */
+  protected RedisSortedSet getSortedSet(ExecutionHandlerContext context, ByteArrayWrapper key) {
+    return context.getRegionProvider().getSortedSetRegion().get(key);
   }
 
-  protected Region<ByteArrayWrapper, DoubleWrapper> getRegion(ExecutionHandlerContext context,
-      ByteArrayWrapper key) {
-    @SuppressWarnings("unchecked")
-    Region<ByteArrayWrapper, DoubleWrapper> r =
-        (Region<ByteArrayWrapper, DoubleWrapper>) context.getRegionProvider().getRegion(key);
-    return r;
+  /**
+   * Changes the sorted set stored at the key, creating it if it does not exist yet
+   *
+   * @see org.apache.geode.redis.internal.RegionProvider#updateCollection
+   */
+  protected <R> R updateSortedSet(ExecutionHandlerContext context, ByteArrayWrapper key,
+      Function<RedisSortedSet, R> update) {
+    return context.getRegionProvider().updateCollection(key, RedisDataType.REDIS_SORTEDSET,
+        context, update);
   }
 
 }
@@ -14,17 +14,15 @@
  */
 package org.apache.geode.redis.internal.executor.sortedset;
 
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 
-import org.apache.geode.cache.Region;
 import org.apache.geode.redis.internal.ByteArrayWrapper;
 import org.apache.geode.redis.internal.Coder;
 import org.apache.geode.redis.internal.Command;
-import org.apache.geode.redis.internal.DoubleWrapper;
 import org.apache.geode.redis.internal.ExecutionHandlerContext;
-import org.apache.geode.redis.internal.RedisDataType;
 import org.apache.geode.redis.internal.RedisConstants.ArityDef;
 
 public class ZAddExecutor extends SortedSetExecutor {
@@ -42,32 +40,12 @@ public class ZAddExecutor extends SortedSetExecutor {
     }
 
     ByteArrayWrapper key = command.getKey();
-    int numberOfAdds = 0;
 
-    if (commandElems.size() > 4) {
-      Map<ByteArrayWrapper, DoubleWrapper> map = new HashMap<ByteArrayWrapper, DoubleWrapper>();
-      for (int i = 2; i < commandElems.size(); i++) {
-        byte[] scoreArray = commandElems.get(i++);
-        byte[] memberArray = commandElems.get(i);
+    Map<ByteArrayWrapper, Double> map = new LinkedHashMap<ByteArrayWrapper, Double>();
+    for (int i = 2; i < commandElems.size(); i++) {
+      byte[] scoreArray = commandElems.get(i++);
+      byte[] memberArray = commandElems.get(i);
 
-        Double score;
-        try {
-          score = Coder.bytesToDouble(scoreArray);
-        } catch (NumberFormatException e) {
-          command.setResponse(
-              Coder.getErrorResponse(context.getByteBufAllocator(), ERROR_NOT_NUMERICAL));
-          return;
-        }
-
-        map.put(new ByteArrayWrapper(memberArray), new DoubleWrapper(score));
-        numberOfAdds++;
-      }
-      Region<ByteArrayWrapper, DoubleWrapper> keyRegion =
-          getOrCreateRegion(context, key, RedisDataType.REDIS_SORTEDSET);
-      keyRegion.putAll(map);
-    } else {
-      byte[] scoreArray = commandElems.get(2);
-      byte[] memberArray = commandElems.get(3);
       Double score;
       try {
         score = Coder.bytesToDouble(scoreArray);
@@ -76,14 +54,19 @@ public class ZAddExecutor extends SortedSetExecutor {
             Coder.getErrorResponse(context.getByteBufAllocator(), ERROR_NOT_NUMERICAL));
         return;
       }
-      Region<ByteArrayWrapper, DoubleWrapper> keyRegion =
-          getOrCreateRegion(context, key, RedisDataType.REDIS_SORTEDSET);
-      Object oldVal = keyRegion.put(new ByteArrayWrapper(memberArray), new DoubleWrapper(score));
 
-      if (oldVal == null)
-        numberOfAdds = 1;
+      map.put(new ByteArrayWrapper(memberArray), score);
     }
 
+    int numberOfAdds = updateSortedSet(context, key, current -> {
+      int added = 0;
+      for (Entry<ByteArrayWrapper, Double> entry : map.entrySet()) {
+        if (current.add(entry.getKey(), entry.getValue()))
+          added++;
+      }
+      return added;
+    });
+
     command.setResponse(Coder.getIntegerResponse(context.getByteBufAllocator(), numberOfAdds));
   }
 
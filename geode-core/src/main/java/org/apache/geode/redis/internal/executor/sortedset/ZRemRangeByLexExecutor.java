@@ -14,21 +14,15 @@
  */
 package org.apache.geode.redis.internal.executor.sortedset;
 
-import java.util.ArrayList;
-import java.util.Collection;
 import java.util.List;
 
-import org.apache.geode.cache.Region;
-import org.apache.geode.cache.query.Query;
-import org.apache.geode.cache.query.SelectResults;
 import org.apache.geode.redis.internal.ByteArrayWrapper;
 import org.apache.geode.redis.internal.Coder;
 import org.apache.geode.redis.internal.Command;
-import org.apache.geode.redis.internal.DoubleWrapper;
 import org.apache.geode.redis.internal.ExecutionHandlerContext;
 import org.apache.geode.redis.internal.RedisConstants.ArityDef;
 import org.apache.geode.redis.internal.RedisDataType;
-import org.apache.geode.redis.internal.executor.SortedSetQuery;
+import org.apache.geode.redis.internal.RedisSortedSet;
 
 public class ZRemRangeByLexExecutor extends SortedSetExecutor {
 
@@ -50,112 +44,47 @@ public class ZRemRangeByLexExecutor extends SortedSetExecutor {
     ByteArrayWrapper key = command.getKey();
 
     checkDataType(key, RedisDataType.REDIS_SORTEDSET, context);
-    Region<ByteArrayWrapper, DoubleWrapper> keyRegion = getRegion(context, key);
+    RedisSortedSet sortedSet = getSortedSet(context, key);
 
-    if (keyRegion == null) {
+    if (sortedSet == null) {
       command
           .setResponse(Coder.getIntegerResponse(context.getByteBufAllocator(), ERROR_NOT_EXISTS));
       return;
     }
 
-    boolean minInclusive = false;
-    boolean maxInclusive = false;
-
     byte[] minArray = commandElems.get(2);
     byte[] maxArray = commandElems.get(3);
     String startString = Coder.bytesToString(minArray);
     String stopString = Coder.bytesToString(maxArray);
+    boolean minInclusive = minArray[0] == Coder.OPEN_BRACKET_ID;
+    boolean maxInclusive = maxArray[0] == Coder.OPEN_BRACKET_ID;
 
-    if (minArray[0] == Coder.OPEN_BRACE_ID) {
-      startString = startString.substring(1);
-      minInclusive = false;
-    } else if (minArray[0] == Coder.OPEN_BRACKET_ID) {
+    if (minArray[0] == Coder.OPEN_BRACE_ID || minArray[0] == Coder.OPEN_BRACKET_ID) {
       startString = startString.substring(1);
-      minInclusive = true;
     } else if (minArray[0] != Coder.HYPHEN_ID) {
       command
           .setResponse(Coder.getErrorResponse(context.getByteBufAllocator(), ERROR_ILLEGAL_SYNTAX));
       return;
     }
 
-    if (maxArray[0] == Coder.OPEN_BRACE_ID) {
-      stopString = stopString.substring(1);
-      maxInclusive = false;
-    } else if (maxArray[0] == Coder.OPEN_BRACKET_ID) {
+    if (maxArray[0] == Coder.OPEN_BRACE_ID || maxArray[0] == Coder.OPEN_BRACKET_ID) {
       stopString = stopString.substring(1);
-      maxInclusive = true;
     } else if (maxArray[0] != Coder.PLUS_ID) {
       command
           .setResponse(Coder.getErrorResponse(context.getByteBufAllocator(), ERROR_ILLEGAL_SYNTAX));
       return;
     }
 
-    Collection<ByteArrayWrapper> removeList;
-    try {
-      removeList = getRange(key, keyRegion, context, Coder.stringToByteArrayWrapper(startString),
-          Coder.stringToByteArrayWrapper(stopString), minInclusive, maxInclusive);
-    } catch (Exception e) {
-      throw new RuntimeException(e);
-    }
-
-    int numRemoved = 0;
+    // - and + are the unbounded ends of the range
+    ByteArrayWrapper min = minArray[0] == Coder.HYPHEN_ID ? null
+        : Coder.stringToByteArrayWrapper(startString);
+    ByteArrayWrapper max = maxArray[0] == Coder.PLUS_ID ? null
+        : Coder.stringToByteArrayWrapper(stopString);
 
-    for (ByteArrayWrapper entry : removeList) {
-      Object oldVal = keyRegion.remove(entry);
-      if (oldVal != null)
-        numRemoved++;
-    }
+    int numRemoved = updateSortedSet(context, key,
+        current -> current.removeRangeByLex(min, minInclusive, max, maxInclusive));
 
     command.setResponse(Coder.getIntegerResponse(context.getByteBufAllocator(), numRemoved));
   }
 
-  private Collection<ByteArrayWrapper> getRange(ByteArrayWrapper key,
-      Region<ByteArrayWrapper, DoubleWrapper> keyRegion, ExecutionHandlerContext context,
-      ByteArrayWrapper start, ByteArrayWrapper stop, boolean startInclusive, boolean stopInclusive)
-      throws Exception {
-    if (start.equals("-") && stop.equals("+"))
-      return new ArrayList<ByteArrayWrapper>(keyRegion.keySet());
-    else if (start.equals("+") || stop.equals("-"))
-      return null;
-
-    Query query;
-    Object[] params;
-    if (start.equals("-")) {
-      if (stopInclusive) {
-        query = getQuery(key, SortedSetQuery.ZRANGEBYLEXNINFI, context);
-      } else {
-        query = getQuery(key, SortedSetQuery.ZRANGEBYLEXNINF, context);
-      }
-      params = new Object[] {stop, INFINITY_LIMIT};
-    } else if (stop.equals("+")) {
-      if (startInclusive) {
-        query = getQuery(key, SortedSetQuery.ZRANGEBYLEXPINFI, context);
-      } else {
-        query = getQuery(key, SortedSetQuery.ZRANGEBYLEXPINF, context);
-      }
-      params = new Object[] {start, INFINITY_LIMIT};
-    } else {
-      if (startInclusive) {
-        if (stopInclusive) {
-          query = getQuery(key, SortedSetQuery.ZRANGEBYLEXSTISI, context);
-        } else {
-          query = getQuery(key, SortedSetQuery.ZRANGEBYLEXSTI, context);
-        }
-      } else {
-        if (stopInclusive) {
-          query = getQuery(key, SortedSetQuery.ZRANGEBYLEXSI, context);
-        } else {
-          query = getQuery(key, SortedSetQuery.ZRANGEBYLEX, context);
-        }
-      }
-      params = new Object[] {start, stop, INFINITY_LIMIT};
-    }
-
-    @SuppressWarnings("unchecked")
-    SelectResults<ByteArrayWrapper> results =
-        (SelectResults<ByteArrayWrapper>) query.execute(params);
-
-    return results.asList();
-  }
-
 }
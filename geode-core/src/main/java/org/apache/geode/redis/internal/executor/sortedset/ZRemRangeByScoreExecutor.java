@@ -14,22 +14,15 @@
  */
 package org.apache.geode.redis.internal.executor.sortedset;
 
-import java.util.Collection;
 import java.util.List;
-import java.util.Map.Entry;
 
-import org.apache.geode.cache.Region;
-import org.apache.geode.cache.query.Query;
-import org.apache.geode.cache.query.SelectResults;
-import org.apache.geode.cache.query.Struct;
 import org.apache.geode.redis.internal.ByteArrayWrapper;
 import org.apache.geode.redis.internal.Coder;
 import org.apache.geode.redis.internal.Command;
-import org.apache.geode.redis.internal.DoubleWrapper;
 import org.apache.geode.redis.internal.ExecutionHandlerContext;
 import org.apache.geode.redis.internal.RedisConstants.ArityDef;
 import org.apache.geode.redis.internal.RedisDataType;
-import org.apache.geode.redis.internal.executor.SortedSetQuery;
+import org.apache.geode.redis.internal.RedisSortedSet;
 
 public class ZRemRangeByScoreExecutor extends SortedSetExecutor {
 
@@ -50,15 +43,13 @@ public class ZRemRangeByScoreExecutor extends SortedSetExecutor {
     ByteArrayWrapper key = command.getKey();
 
     checkDataType(key, RedisDataType.REDIS_SORTEDSET, context);
-    Region<ByteArrayWrapper, DoubleWrapper> keyRegion = getRegion(context, key);
+    RedisSortedSet sortedSet = getSortedSet(context, key);
 
-    if (keyRegion == null) {
+    if (sortedSet == null) {
       command.setResponse(Coder.getIntegerResponse(context.getByteBufAllocator(), NOT_EXISTS));
       return;
     }
 
-    boolean startInclusive = true;
-    boolean stopInclusive = true;
     double start;
     double stop;
 
@@ -66,13 +57,13 @@ public class ZRemRangeByScoreExecutor extends SortedSetExecutor {
     byte[] stopArray = commandElems.get(3);
     String startString = Coder.bytesToString(startArray);
     String stopString = Coder.bytesToString(stopArray);
-    if (startArray[0] == Coder.OPEN_BRACE_ID) {
+    boolean startInclusive = startArray[0] != Coder.OPEN_BRACE_ID;
+    boolean stopInclusive = stopArray[0] != Coder.OPEN_BRACE_ID;
+    if (!startInclusive) {
       startString = startString.substring(1);
-      startInclusive = false;
     }
-    if (stopArray[0] == Coder.OPEN_BRACE_ID) {
+    if (!stopInclusive) {
       stopString = stopString.substring(1);
-      stopInclusive = false;
     }
 
     try {
@@ -83,63 +74,10 @@ public class ZRemRangeByScoreExecutor extends SortedSetExecutor {
       return;
     }
 
-    int numRemoved = 0;
+    int numRemoved = updateSortedSet(context, key,
+        current -> current.removeRangeByScore(start, startInclusive, stop, stopInclusive));
 
-    Collection<?> removeList = null;
-    try {
-      if (start == Double.NEGATIVE_INFINITY && stop == Double.POSITIVE_INFINITY && startInclusive
-          && stopInclusive) {
-        numRemoved = keyRegion.size();
-        context.getRegionProvider().removeKey(key);
-      } else {
-        removeList = getKeys(context, key, keyRegion, start, stop, startInclusive, stopInclusive);
-      }
-    } catch (Exception e) {
-      throw new RuntimeException(e);
-    }
-
-    if (removeList != null) {
-      for (Object entry : removeList) {
-        ByteArrayWrapper remove = null;
-        if (entry instanceof Entry)
-          remove = (ByteArrayWrapper) ((Entry<?, ?>) entry).getKey();
-        else if (entry instanceof Struct)
-          remove = (ByteArrayWrapper) ((Struct) entry).getFieldValues()[0];
-        Object oldVal = keyRegion.remove(remove);
-        if (oldVal != null)
-          numRemoved++;
-        if (keyRegion.isEmpty())
-          context.getRegionProvider().removeKey(key);
-      }
-    }
     command.setResponse(Coder.getIntegerResponse(context.getByteBufAllocator(), numRemoved));
   }
 
-  private Collection<?> getKeys(ExecutionHandlerContext context, ByteArrayWrapper key,
-      Region<ByteArrayWrapper, DoubleWrapper> keyRegion, double start, double stop,
-      boolean startInclusive, boolean stopInclusive) throws Exception {
-    if (start == Double.POSITIVE_INFINITY || stop == Double.NEGATIVE_INFINITY || (start > stop))
-      return null;
-
-    Query query;
-    Object[] params;
-    if (startInclusive) {
-      if (stopInclusive) {
-        query = getQuery(key, SortedSetQuery.ZRBSSTISI, context);
-      } else {
-        query = getQuery(key, SortedSetQuery.ZRBSSTI, context);
-      }
-    } else {
-      if (stopInclusive) {
-        query = getQuery(key, SortedSetQuery.ZRBSSI, context);
-      } else {
-        query = getQuery(key, SortedSetQuery.ZRBS, context);
-      }
-    }
-    params = new Object[] {start, stop, INFINITY_LIMIT};
-
-    SelectResults<?> results = (SelectResults<?>) query.execute(params);
-
-    return (Collection<?>) results.asList();
-  }
 }
@@ -14,15 +14,22 @@
  */
 package org.apache.geode.redis.internal.executor.string;
 
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
 import org.apache.geode.cache.Region;
+import org.apache.geode.redis.internal.BatchExecutor;
 import org.apache.geode.redis.internal.ByteArrayWrapper;
 import org.apache.geode.redis.internal.Command;
 import org.apache.geode.redis.internal.ExecutionHandlerContext;
 import org.apache.geode.redis.internal.RedisDataType;
+import org.apache.geode.redis.internal.RedisDataTypeMismatchException;
 import org.apache.geode.redis.internal.Coder;
 import org.apache.geode.redis.internal.RedisConstants.ArityDef;
 
-public class GetExecutor extends StringExecutor {
+public class GetExecutor extends StringExecutor implements BatchExecutor {
 
   @Override
   public void executeCommand(Command command, ExecutionHandlerContext context) {
@@ -48,4 +55,44 @@ public class GetExecutor extends StringExecutor {
 
   }
 
+  /**
+   * Pipelined GETs are answered with one {@link Region#getAll(java.util.Collection)} for all of
+   * their keys
+   */
+  @Override
+  public void executeCommands(List<Command> commands, ExecutionHandlerContext context) {
+    Region<ByteArrayWrapper, ByteArrayWrapper> r = context.getRegionProvider().getStringsRegion();
+
+    Set<ByteArrayWrapper> keys = new HashSet<ByteArrayWrapper>();
+    for (Command command : commands) {
+      if (command.getProcessedCommand().size() < 2) {
+        command.setResponse(
+            Coder.getErrorResponse(context.getByteBufAllocator(), ArityDef.GETEXECUTOR));
+        continue;
+      }
+      ByteArrayWrapper key = command.getKey();
+      try {
+        checkDataType(key, RedisDataType.REDIS_STRING, context);
+      } catch (RedisDataTypeMismatchException e) {
+        command.setResponse(
+            Coder.getWrongTypeResponse(context.getByteBufAllocator(), e.getMessage()));
+        continue;
+      }
+      keys.add(key);
+    }
+
+    Map<ByteArrayWrapper, ByteArrayWrapper> values = r.getAll(keys);
+
+    for (Command command : commands) {
+      if (command.getResponse() != null)
+        continue;
+      ByteArrayWrapper wrapper = values.get(command.getKey());
+      if (wrapper == null)
+        command.setResponse(Coder.getNilResponse(context.getByteBufAllocator()));
+      else
+        command.setResponse(
+            Coder.getBulkStringResponse(context.getByteBufAllocator(), wrapper.toBytes()));
+    }
+  }
+
 }
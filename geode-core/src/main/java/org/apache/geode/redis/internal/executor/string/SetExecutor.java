@@ -14,17 +14,22 @@
  */
 package org.apache.geode.redis.internal.executor.string;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.apache.geode.cache.Region;
+import org.apache.geode.redis.internal.BatchExecutor;
 import org.apache.geode.redis.internal.ByteArrayWrapper;
 import org.apache.geode.redis.internal.Command;
 import org.apache.geode.redis.internal.Coder;
 import org.apache.geode.redis.internal.ExecutionHandlerContext;
 import org.apache.geode.redis.internal.RedisConstants.ArityDef;
+import org.apache.geode.redis.internal.RedisDataTypeMismatchException;
 import org.apache.geode.redis.internal.executor.AbstractExecutor;
 
-public class SetExecutor extends StringExecutor {
+public class SetExecutor extends StringExecutor implements BatchExecutor {
 
   private final String SUCCESS = "OK";
 
@@ -110,6 +115,54 @@ public class SetExecutor extends StringExecutor {
 
   }
 
+  /**
+   * Pipelined SETs without options are written with one {@link Region#putAll(Map)}. A SET with
+   * options first writes out the plain SETs received before it and is then executed on its own
+   */
+  @Override
+  public void executeCommands(List<Command> commands, ExecutionHandlerContext context) {
+    Region<ByteArrayWrapper, ByteArrayWrapper> r = context.getRegionProvider().getStringsRegion();
+
+    Map<ByteArrayWrapper, ByteArrayWrapper> map =
+        new LinkedHashMap<ByteArrayWrapper, ByteArrayWrapper>();
+    List<Command> pending = new ArrayList<Command>();
+    for (Command command : commands) {
+      List<byte[]> commandElems = command.getProcessedCommand();
+      if (commandElems.size() != 3) {
+        putAll(r, map, pending, context);
+        executeCommand(command, context);
+        continue;
+      }
+      ByteArrayWrapper key = command.getKey();
+      try {
+        checkAndSetDataType(key, context);
+      } catch (RedisDataTypeMismatchException e) {
+        command.setResponse(
+            Coder.getWrongTypeResponse(context.getByteBufAllocator(), e.getMessage()));
+        continue;
+      }
+      map.put(key, new ByteArrayWrapper(commandElems.get(VALUE_INDEX)));
+      pending.add(command);
+    }
+    putAll(r, map, pending, context);
+  }
+
+  /**
+   * Writes out the collected plain SETs and only then acknowledges them, so that a failure leaves
+   * them without a response for the caller to retry
+   */
+  private void putAll(Region<ByteArrayWrapper, ByteArrayWrapper> r,
+      Map<ByteArrayWrapper, ByteArrayWrapper> map, List<Command> pending,
+      ExecutionHandlerContext context) {
+    if (pending.isEmpty())
+      return;
+    r.putAll(map);
+    for (Command command : pending)
+      command.setResponse(Coder.getSimpleStringResponse(context.getByteBufAllocator(), SUCCESS));
+    map.clear();
+    pending.clear();
+  }
+
   private boolean setNX(Region<ByteArrayWrapper, ByteArrayWrapper> r, Command command,
       ByteArrayWrapper key, ByteArrayWrapper valueWrapper, ExecutionHandlerContext context) {
     checkAndSetDataType(key, context);
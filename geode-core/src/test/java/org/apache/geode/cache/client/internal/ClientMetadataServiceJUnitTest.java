@@ -0,0 +1,111 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.client.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.Cache;
+import org.apache.geode.distributed.internal.ServerLocation;
+import org.apache.geode.internal.cache.LocalRegion;
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category(UnitTest.class)
+public class ClientMetadataServiceJUnitTest {
+
+  private static final String REGION_PATH = "/region";
+
+  private final ServerLocation primaryServer = new ServerLocation("primary", 1);
+  private final ServerLocation randomServer = new ServerLocation("random", 2);
+
+  private ClientMetadataService service;
+  private ClientPartitionAdvisor advisor;
+  private LocalRegion region;
+
+  @Before
+  public void setUp() {
+    Cache cache = mock(Cache.class);
+    this.service = spy(new ClientMetadataService(cache));
+
+    this.region = mock(LocalRegion.class);
+    when(this.region.getFullPath()).thenReturn(REGION_PATH);
+    doNothing().when(this.service).scheduleGetPRMetaData(this.region, false);
+
+    // integer keys hash to bucket (key % 2)
+    this.advisor = mock(ClientPartitionAdvisor.class);
+    when(this.advisor.getTotalNumBuckets()).thenReturn(2);
+    when(this.advisor.adviseRandomServerLocation()).thenReturn(this.randomServer);
+    this.service.getClientPRMetadata_TEST_ONLY().put(REGION_PATH, this.advisor);
+  }
+
+  @Test
+  public void keysOfBucketsWithoutMetadataAreSentToRandomServer() {
+    when(this.advisor.advisePrimaryServerLocation(0)).thenReturn(this.primaryServer);
+    when(this.advisor.advisePrimaryServerLocation(1)).thenReturn(null);
+
+    Map<ServerLocation, HashSet> serverToKeys =
+        this.service.getBulkOpServerToFilterMap(Arrays.asList(0, 1, 2, 3), this.region);
+
+    assertThat(serverToKeys).hasSize(2);
+    assertThat(serverToKeys.get(this.primaryServer)).containsOnly(0, 2);
+    assertThat(serverToKeys.get(this.randomServer)).containsOnly(1, 3);
+    verify(this.service).scheduleGetPRMetaData(this.region, false);
+  }
+
+  @Test
+  public void allKeysAreRoutedWhenNoBucketHasMetadata() {
+    Map<ServerLocation, HashSet> serverToKeys =
+        this.service.getBulkOpServerToFilterMap(Arrays.asList(0, 1, 2, 3), this.region);
+
+    assertThat(serverToKeys).hasSize(1);
+    assertThat(serverToKeys.get(this.randomServer)).containsOnly(0, 1, 2, 3);
+    verify(this.service).scheduleGetPRMetaData(this.region, false);
+  }
+
+  @Test
+  public void metadataIsNotRefreshedWhenAllBucketsAreKnown() {
+    when(this.advisor.advisePrimaryServerLocation(0)).thenReturn(this.primaryServer);
+    when(this.advisor.advisePrimaryServerLocation(1)).thenReturn(this.randomServer);
+
+    Map<ServerLocation, HashSet> serverToKeys =
+        this.service.getBulkOpServerToFilterMap(Arrays.asList(0, 1, 2, 3), this.region);
+
+    assertThat(serverToKeys.get(this.primaryServer)).containsOnly(0, 2);
+    assertThat(serverToKeys.get(this.randomServer)).containsOnly(1, 3);
+    verify(this.service, never()).scheduleGetPRMetaData(this.region, false);
+  }
+
+  @Test
+  public void returnsNullWithoutRegionMetadata() {
+    this.service.getClientPRMetadata_TEST_ONLY().clear();
+
+    assertThat(this.service.getBulkOpServerToFilterMap(Arrays.asList(0, 1), this.region))
+        .isNull();
+    verify(this.service).scheduleGetPRMetaData(this.region, false);
+  }
+}
@@ -0,0 +1,196 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.distributed.internal.locks;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+
+import org.awaitility.Awaitility;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.distributed.DistributedLockService;
+import org.apache.geode.test.dunit.Host;
+import org.apache.geode.test.dunit.Invoke;
+import org.apache.geode.test.dunit.VM;
+import org.apache.geode.test.dunit.internal.JUnit4DistributedTestCase;
+import org.apache.geode.test.junit.categories.DLockTest;
+import org.apache.geode.test.junit.categories.DistributedTest;
+
+/**
+ * Verifies that leases cached by {@link DLockService#setCacheLockGrants(boolean)} are given back
+ * to the grantor when other members need them.
+ */
+@Category({DistributedTest.class, DLockTest.class})
+public class DLockCachedGrantsDUnitTest extends JUnit4DistributedTestCase {
+
+  private static final String LOCK_NAME = "lock";
+
+  private VM lessee;
+  private VM requester;
+  private String serviceName;
+
+  @Override
+  public final void postSetUp() throws Exception {
+    Host host = Host.getHost(0);
+    this.lessee = host.getVM(0);
+    this.requester = host.getVM(1);
+    this.serviceName = getUniqueName();
+
+    // the grantor stays in the controller so that revokes are sent between members
+    createService(this.serviceName).becomeLockGrantor();
+    final String name = this.serviceName;
+    this.lessee.invoke(() -> createService(name));
+    this.requester.invoke(() -> createService(name));
+  }
+
+  @Override
+  public final void preTearDown() throws Exception {
+    Invoke.invokeInEveryVM(() -> DLockService.destroyAll());
+    DLockService.destroyAll();
+  }
+
+  @Test
+  public void tryLockFromOtherMemberRevokesCachedLease() {
+    final String name = this.serviceName;
+    this.lessee.invoke(() -> {
+      DLockService service = getService(name);
+      assertThat(service.lock(LOCK_NAME, -1, -1)).isTrue();
+      service.unlock(LOCK_NAME);
+      assertThat(isLeaseCached(service)).isTrue();
+    });
+
+    this.requester.invoke(() -> {
+      DLockService service = getService(name);
+      // the first failed try-lock makes the grantor revoke the cached lease
+      Awaitility.await().atMost(30, TimeUnit.SECONDS)
+          .until(() -> service.lock(LOCK_NAME, 0, -1));
+      service.unlock(LOCK_NAME);
+    });
+
+    // the lessee releases the revoked lease locally after the grantor has it back
+    this.lessee.invoke(() -> Awaitility.await().atMost(30, TimeUnit.SECONDS)
+        .until(() -> !isLeaseCached(getService(name))));
+  }
+
+  @Test
+  public void grantorWhichDoesNotCacheGrantsRevokesCachedLease() {
+    // whether a lease is cached is up to the lessee, not the grantor
+    getService(this.serviceName).setCacheLockGrants(false);
+
+    final String name = this.serviceName;
+    this.lessee.invoke(() -> {
+      DLockService service = getService(name);
+      assertThat(service.lock(LOCK_NAME, -1, -1)).isTrue();
+      service.unlock(LOCK_NAME);
+      assertThat(isLeaseCached(service)).isTrue();
+    });
+
+    this.requester.invoke(() -> {
+      DLockService service = getService(name);
+      assertThat(service.lock(LOCK_NAME, 30000, -1)).isTrue();
+      service.unlock(LOCK_NAME);
+    });
+  }
+
+  @Test
+  public void cachedLeaseIsReusedAfterRevokedLeaseIsReleased() {
+    final String name = this.serviceName;
+    this.lessee.invoke(() -> {
+      DLockService service = getService(name);
+      assertThat(service.lock(LOCK_NAME, -1, -1)).isTrue();
+      service.unlock(LOCK_NAME);
+    });
+
+    this.requester.invoke(() -> {
+      DLockService service = getService(name);
+      assertThat(service.lock(LOCK_NAME, 30000, -1)).isTrue();
+      service.unlock(LOCK_NAME);
+    });
+
+    this.lessee.invoke(() -> {
+      DLockService service = getService(name);
+      assertThat(service.lock(LOCK_NAME, 30000, -1)).isTrue();
+      service.unlock(LOCK_NAME);
+      assertThat(isLeaseCached(service)).isTrue();
+    });
+  }
+
+  @Test
+  public void resumeLockingReleasesSuspendLockingToken() {
+    final String name = this.serviceName;
+    this.lessee.invoke(() -> {
+      DLockService service = getService(name);
+      assertThat(service.suspendLocking(30000)).isTrue();
+      service.resumeLocking();
+      assertThat(service.isLockingSuspendedByCurrentThread()).isFalse();
+    });
+
+    this.requester.invoke(() -> {
+      DLockService service = getService(name);
+      assertThat(service.suspendLocking(30000)).isTrue();
+      service.resumeLocking();
+    });
+
+    this.lessee.invoke(() -> {
+      DLockService service = getService(name);
+      assertThat(service.lock(LOCK_NAME, 30000, -1)).isTrue();
+      service.unlock(LOCK_NAME);
+    });
+  }
+
+  @Test
+  public void suspendLockingRevokesCachedLeases() {
+    final String name = this.serviceName;
+    this.lessee.invoke(() -> {
+      DLockService service = getService(name);
+      assertThat(service.lock(LOCK_NAME, -1, -1)).isTrue();
+      service.unlock(LOCK_NAME);
+      assertThat(isLeaseCached(service)).isTrue();
+    });
+
+    this.requester.invoke(() -> {
+      DLockService service = getService(name);
+      assertThat(service.suspendLocking(30000)).isTrue();
+      service.resumeLocking();
+    });
+
+    // the lessee releases the revoked lease locally after the grantor has it back
+    this.lessee.invoke(() -> Awaitility.await().atMost(30, TimeUnit.SECONDS)
+        .until(() -> !isLeaseCached(getService(name))));
+  }
+
+  private static DLockService createService(String name) {
+    DLockService service =
+        (DLockService) DistributedLockService.create(name, getSystemStatic());
+    service.setCacheLockGrants(true);
+    return service;
+  }
+
+  private static DLockService getService(String name) {
+    return (DLockService) DistributedLockService.getServiceNamed(name);
+  }
+
+  private static boolean isLeaseCached(DLockService service) {
+    DLockToken token = service.getToken(LOCK_NAME);
+    if (token == null) {
+      return false;
+    }
+    synchronized (token) {
+      return token.isLeaseCached();
+    }
+  }
+}
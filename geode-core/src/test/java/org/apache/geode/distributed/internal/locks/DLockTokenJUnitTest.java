@@ -0,0 +1,111 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.distributed.internal.locks;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.distributed.internal.membership.InternalDistributedMember;
+import org.apache.geode.test.junit.categories.DLockTest;
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category({UnitTest.class, DLockTest.class})
+public class DLockTokenJUnitTest {
+
+  private DLockToken token;
+  private RemoteThread remoteThread;
+
+  @Before
+  public void setUp() {
+    this.token = new DLockToken(null, "lock");
+    this.remoteThread = new RemoteThread(mock(InternalDistributedMember.class), 1);
+    this.token.incUsage();
+  }
+
+  @Test
+  public void cachedLeaseIsReusedWithoutChangingUsage() {
+    this.token.grantLock(Long.MAX_VALUE, 7, 0, this.remoteThread);
+
+    assertThat(this.token.cacheLease()).isTrue();
+    assertThat(this.token.isLeaseCached()).isTrue();
+    assertThat(this.token.isLeaseHeld()).isTrue();
+    assertThat(this.token.isLeaseHeldByCurrentThread()).isFalse();
+    assertThat(this.token.getUsageCount()).isEqualTo(1);
+
+    this.token.incUsage();
+    assertThat(this.token.grantCachedLease(this.remoteThread)).isTrue();
+    assertThat(this.token.isLeaseCached()).isFalse();
+    assertThat(this.token.isLeaseHeldByCurrentThread()).isTrue();
+    assertThat(this.token.getLeaseId()).isEqualTo(7);
+    assertThat(this.token.getUsageCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void expiringLeaseIsNotCached() {
+    this.token.grantLock(Long.MAX_VALUE - 1, 7, 0, this.remoteThread);
+
+    assertThat(this.token.cacheLease()).isFalse();
+    assertThat(this.token.isLeaseCached()).isFalse();
+  }
+
+  @Test
+  public void revokedCachedLeaseIsNotReused() {
+    this.token.grantLock(Long.MAX_VALUE, 7, 0, this.remoteThread);
+    this.token.cacheLease();
+
+    assertThat(this.token.revokeLease(7)).isTrue();
+    assertThat(this.token.grantCachedLease(this.remoteThread)).isFalse();
+
+    assertThat(this.token.releaseLock(7, this.remoteThread)).isTrue();
+    assertThat(this.token.isLeaseHeld()).isFalse();
+    assertThat(this.token.isLeaseCached()).isFalse();
+    assertThat(this.token.getUsageCount()).isEqualTo(0);
+  }
+
+  @Test
+  public void leaseRevokedWhileHeldIsNotCachedOnUnlock() {
+    this.token.grantLock(Long.MAX_VALUE, 7, 0, this.remoteThread);
+
+    assertThat(this.token.revokeLease(7)).isFalse();
+    assertThat(this.token.cacheLease()).isFalse();
+  }
+
+  @Test
+  public void suspendLockingTokenIsNotCached() {
+    DLockToken suspendToken = new DLockToken(null, DLockService.SUSPEND_LOCKING_TOKEN);
+    suspendToken.incUsage();
+    suspendToken.grantLock(Long.MAX_VALUE, 7, 0, this.remoteThread);
+
+    assertThat(suspendToken.cacheLease()).isFalse();
+    assertThat(suspendToken.isLeaseCached()).isFalse();
+  }
+
+  @Test
+  public void newGrantReplacesCachedLeaseUsage() {
+    this.token.grantLock(Long.MAX_VALUE, 7, 0, this.remoteThread);
+    this.token.cacheLease();
+
+    this.token.incUsage();
+    this.token.grantLock(Long.MAX_VALUE, 8, 0, this.remoteThread);
+
+    assertThat(this.token.isLeaseCached()).isFalse();
+    assertThat(this.token.getLeaseId()).isEqualTo(8);
+    assertThat(this.token.getUsageCount()).isEqualTo(1);
+  }
+}
@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.distributed.internal.locks;
+
+import static org.apache.geode.distributed.ConfigurationProperties.LOCATORS;
+import static org.apache.geode.distributed.ConfigurationProperties.MCAST_PORT;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Properties;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.distributed.DistributedLockService;
+import org.apache.geode.distributed.DistributedSystem;
+import org.apache.geode.distributed.internal.InternalDistributedSystem;
+import org.apache.geode.test.junit.categories.DLockTest;
+import org.apache.geode.test.junit.categories.IntegrationTest;
+
+@Category({IntegrationTest.class, DLockTest.class})
+public class PartitionedDLockServiceIntegrationTest {
+
+  private static final String SERVICE_NAME = "partitionedService";
+
+  private InternalDistributedSystem system;
+  private PartitionedDLockService service;
+
+  @Before
+  public void setUp() {
+    Properties props = new Properties();
+    props.setProperty(MCAST_PORT, "0");
+    props.setProperty(LOCATORS, "");
+    this.system = (InternalDistributedSystem) DistributedSystem.connect(props);
+    this.service = PartitionedDLockService.create(SERVICE_NAME, this.system, 4);
+  }
+
+  @After
+  public void tearDown() {
+    this.system.disconnect();
+  }
+
+  @Test
+  public void locksAreGrantedByTheirPartition() {
+    for (int i = 0; i < 20; i++) {
+      String name = "lock-" + i;
+      assertThat(this.service.lock(name, -1, -1)).isTrue();
+      assertThat(this.service.isHeldByCurrentThread(name)).isTrue();
+      assertThat(this.service.getPartition(name).isHeldByCurrentThread(name)).isTrue();
+
+      this.service.unlock(name);
+      assertThat(this.service.isHeldByCurrentThread(name)).isFalse();
+    }
+  }
+
+  @Test
+  public void suspendAndResumeLockingCoverEveryPartition() {
+    assertThat(this.service.suspendLocking(10000)).isTrue();
+    assertThat(this.service.isLockingSuspendedByCurrentThread()).isTrue();
+
+    this.service.resumeLocking();
+    assertThat(this.service.isLockingSuspendedByCurrentThread()).isFalse();
+
+    assertThat(this.service.lock("lock", 10000, -1)).isTrue();
+    this.service.unlock("lock");
+  }
+
+  @Test
+  public void serviceIsFoundThroughDistributedLockService() {
+    assertThat(DistributedLockService.getServiceNamed(SERVICE_NAME)).isSameAs(this.service);
+  }
+
+  @Test
+  public void destroyAllForgetsPartitionedServices() {
+    DLockService.destroyAll();
+
+    assertThat(PartitionedDLockService.getServiceNamed(SERVICE_NAME)).isNull();
+    assertThat(PartitionedDLockService.create(SERVICE_NAME, this.system, 4)).isNotNull();
+  }
+
+  @Test
+  public void disconnectForgetsPartitionedServices() {
+    this.system.disconnect();
+
+    assertThat(PartitionedDLockService.getServiceNamed(SERVICE_NAME)).isNull();
+  }
+}
@@ -0,0 +1,134 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.distributed.internal.locks;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.distributed.internal.membership.InternalDistributedMember;
+import org.apache.geode.internal.util.BlobHelper;
+import org.apache.geode.test.junit.categories.DLockTest;
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category({UnitTest.class, DLockTest.class})
+public class PartitionedDLockServiceJUnitTest {
+
+  private static final int PARTITIONS = 64;
+
+  @Test
+  public void partitionIndexIsStableAndInRange() {
+    for (int i = 0; i < 10000; i++) {
+      String name = "lock-" + i;
+      int index = PartitionedDLockService.getPartitionIndex(name, PARTITIONS);
+      assertThat(index).isBetween(0, PARTITIONS - 1);
+      assertThat(PartitionedDLockService.getPartitionIndex(new String(name), PARTITIONS))
+          .isEqualTo(index);
+    }
+  }
+
+  @Test
+  public void enumNamePartitionIsDerivedFromSerializedForm() throws Exception {
+    for (LockName name : LockName.values()) {
+      int index = PartitionedDLockService.getPartitionIndex(name, PARTITIONS);
+      assertThat(index).isBetween(0, PARTITIONS - 1);
+      // the identity hash code of an enum constant differs between members, its serialized form
+      // does not
+      assertThat(index).isEqualTo(PartitionedDLockService
+          .spreadToPartition(Arrays.hashCode(BlobHelper.serializeToBlob(name)), PARTITIONS));
+    }
+  }
+
+  @Test
+  public void equalNamesWithDifferentHashCodesShareAPartition() {
+    for (int i = 0; i < 100; i++) {
+      IdentityHashedName name = new IdentityHashedName("lock-" + i);
+      assertThat(PartitionedDLockService.getPartitionIndex(new IdentityHashedName("lock-" + i),
+          PARTITIONS)).isEqualTo(PartitionedDLockService.getPartitionIndex(name, PARTITIONS));
+    }
+  }
+
+  @Test
+  public void partitionsAreSpreadAcrossMembers() {
+    Set<InternalDistributedMember> members = createMembers(4);
+    Set<InternalDistributedMember> owners = new HashSet<>();
+    for (int i = 0; i < PARTITIONS; i++) {
+      owners.add(PartitionedDLockService.getPartitionOwner("service", i, members));
+    }
+    assertThat(owners).isEqualTo(members);
+  }
+
+  @Test
+  public void joiningMemberOnlyTakesPartitionsFromOthers() {
+    Set<InternalDistributedMember> members = createMembers(4);
+    InternalDistributedMember[] before = new InternalDistributedMember[PARTITIONS];
+    for (int i = 0; i < PARTITIONS; i++) {
+      before[i] = PartitionedDLockService.getPartitionOwner("service", i, members);
+    }
+
+    InternalDistributedMember joiner = new InternalDistributedMember("localhost", 20000);
+    members.add(joiner);
+    for (int i = 0; i < PARTITIONS; i++) {
+      InternalDistributedMember after =
+          PartitionedDLockService.getPartitionOwner("service", i, members);
+      assertThat(after).isIn(before[i], joiner);
+    }
+  }
+
+  @Test
+  public void noMembersHasNoOwner() {
+    assertThat(PartitionedDLockService.getPartitionOwner("service", 0, new HashSet<>())).isNull();
+  }
+
+  private enum LockName {
+    FIRST, SECOND, THIRD
+  }
+
+  /**
+   * A lock name which is equal to another with the same id but, like a name without a hashCode
+   * override in another member, has a different hash code
+   */
+  private static class IdentityHashedName implements Serializable {
+    private final String id;
+
+    IdentityHashedName(String id) {
+      this.id = id;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      return other instanceof IdentityHashedName && ((IdentityHashedName) other).id.equals(id);
+    }
+
+    @Override
+    public int hashCode() {
+      return System.identityHashCode(this);
+    }
+  }
+
+  private Set<InternalDistributedMember> createMembers(int count) {
+    Set<InternalDistributedMember> members = new HashSet<>();
+    for (int i = 0; i < count; i++) {
+      members.add(new InternalDistributedMember("localhost", 10000 + i));
+    }
+    return members;
+  }
+}
@@ -0,0 +1,164 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.internal.util.concurrent.CustomEntryConcurrentHashMap;
+import org.apache.geode.internal.util.concurrent.CustomEntryConcurrentHashMap.HashEntry;
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category(UnitTest.class)
+public class CompactRegionEntryMapTest {
+
+  private RegionEntryContext context;
+  private RegionEntryFactory factory;
+  private CompactRegionEntryMap map;
+
+  @Before
+  public void setUp() {
+    context = mock(RegionEntryContext.class);
+    factory = VMThinRegionEntryHeap.getCompactEntryFactory();
+    map = new CompactRegionEntryMap(16, 0.75f, 16);
+  }
+
+  private RegionEntry entry(Object key) {
+    return factory.createEntry(context, key, "value");
+  }
+
+  @Test
+  public void putIfAbsentKeepsFirstEntry() {
+    RegionEntry first = entry(1);
+    RegionEntry second = entry(1);
+
+    assertThat(map.putIfAbsent(1, first)).isNull();
+    assertThat(map.putIfAbsent(1, second)).isSameAs(first);
+    assertThat(map.get(1)).isSameAs(first);
+    assertThat(map.size()).isEqualTo(1);
+  }
+
+  @Test
+  public void removeRequiresMatchingEntry() {
+    RegionEntry first = entry("key");
+    map.put("key", first);
+
+    assertThat(map.remove("key", entry("key"))).isFalse();
+    assertThat(map.remove("key", first)).isTrue();
+    assertThat(map.get("key")).isNull();
+    assertThat(map.isEmpty()).isTrue();
+  }
+
+  @Test
+  public void keepsAllEntriesWhenGrowing() {
+    for (int i = 0; i < 10000; i++) {
+      map.put((long) i, entry((long) i));
+    }
+    for (int i = 0; i < 10000; i += 2) {
+      map.remove((long) i);
+    }
+
+    assertThat(map.size()).isEqualTo(5000);
+    for (int i = 0; i < 10000; i++) {
+      assertThat(map.containsKey((long) i)).isEqualTo(i % 2 == 1);
+    }
+  }
+
+  @Test
+  public void reusesRemovedSlotsWithoutGrowing() {
+    for (int i = 0; i < 100000; i++) {
+      map.put(i, entry(i));
+      map.remove(i);
+    }
+
+    assertThat(map.isEmpty()).isTrue();
+    map.put(7, entry(7));
+    assertThat(map.get(7)).isNotNull();
+  }
+
+  @Test
+  public void iteratorRemovesEntries() {
+    for (int i = 0; i < 100; i++) {
+      map.put(i, entry(i));
+    }
+
+    Set<Object> keys = new HashSet<>();
+    Iterator<Map.Entry<Object, Object>> it = map.entrySetWithReusableEntries().iterator();
+    while (it.hasNext()) {
+      Map.Entry<Object, Object> me = it.next();
+      assertThat(((RegionEntry) me.getValue()).getKey()).isEqualTo(me.getKey());
+      keys.add(me.getKey());
+      it.remove();
+    }
+
+    assertThat(keys).hasSize(100);
+    assertThat(map.isEmpty()).isTrue();
+  }
+
+  @Test
+  public void compactEntriesDeriveHashFromKey() {
+    HashEntry<Object, Object> re = (HashEntry<Object, Object>) entry("key");
+
+    assertThat(re.getEntryHash()).isEqualTo(CustomEntryConcurrentHashMap.keyHash("key", true));
+    assertThat(re.getNextEntry()).isNull();
+    assertThatThrownBy(() -> re.setNextEntry((HashEntry<Object, Object>) entry("other")))
+        .isInstanceOf(UnsupportedOperationException.class);
+  }
+
+  @Test
+  public void concurrentPutIfAbsentHasOneWinnerPerKey() throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<Integer>> futures = new ArrayList<>();
+      for (int t = 0; t < 4; t++) {
+        futures.add(executor.submit(new Callable<Integer>() {
+          public Integer call() {
+            int wins = 0;
+            for (int i = 0; i < 20000; i++) {
+              if (map.putIfAbsent(i, entry(i)) == null) {
+                wins++;
+              }
+            }
+            return wins;
+          }
+        }));
+      }
+      int wins = 0;
+      for (Future<Integer> future : futures) {
+        wins += future.get();
+      }
+      assertThat(wins).isEqualTo(20000);
+      assertThat(map.size()).isEqualTo(20000);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+}
@@ -0,0 +1,122 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.util.UUID;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category(UnitTest.class)
+public class PrimitiveKeyRegionEntryMapTest {
+
+  private RegionEntryContext context;
+  private RegionEntryFactory factory;
+
+  @Before
+  public void setUp() {
+    context = mock(RegionEntryContext.class);
+    factory = VMThinRegionEntryHeap.getCompactEntryFactory();
+  }
+
+  private RegionEntry entry(Object key) {
+    return factory.createEntry(context, key, "value");
+  }
+
+  private static int indexOf(CompactRegionEntryMap.Table tab, Object entry) {
+    for (int index = 0; index < tab.length(); index++) {
+      if (tab.slots.get(index) == entry) {
+        return index;
+      }
+    }
+    throw new AssertionError("entry not found");
+  }
+
+  @Test
+  public void findsLongKeysWithoutBoxing() {
+    PrimitiveKeyRegionEntryMap map = new PrimitiveKeyRegionEntryMap(Long.class, 16, 0.75f, 16);
+    for (long key = 0; key < 1000; key++) {
+      map.put(key, entry(key));
+    }
+
+    for (long key = 0; key < 1000; key++) {
+      assertThat(map.getEntry(key)).isSameAs(map.get(key));
+      assertThat(map.getEntry(key).getKey()).isEqualTo(key);
+    }
+    assertThat(map.getEntry(1000L)).isNull();
+  }
+
+  @Test
+  public void doesNotMatchKeysOfAnotherClass() {
+    PrimitiveKeyRegionEntryMap map = new PrimitiveKeyRegionEntryMap(Long.class, 16, 0.75f, 16);
+    map.put(5L, entry(5L));
+
+    assertThat(map.get(5)).isNull();
+    assertThat(map.get(5L)).isNotNull();
+  }
+
+  @Test
+  public void distinguishesUUIDsWithTheSameDigest() {
+    PrimitiveKeyRegionEntryMap map = new PrimitiveKeyRegionEntryMap(UUID.class, 16, 0.75f, 16);
+    UUID first = new UUID(5, 3);
+    UUID second = new UUID(6, 0);
+    RegionEntry firstEntry = entry(first);
+    RegionEntry secondEntry = entry(second);
+
+    map.put(first, firstEntry);
+    map.put(second, secondEntry);
+
+    assertThat(map.get(first)).isSameAs(firstEntry);
+    assertThat(map.get(second)).isSameAs(secondEntry);
+    assertThat(map.remove(first)).isSameAs(firstEntry);
+    assertThat(map.get(second)).isSameAs(secondEntry);
+  }
+
+  @Test
+  public void matchesEntryReadBeforeItsSlotWasReused() {
+    PrimitiveKeyRegionEntryMap map = new PrimitiveKeyRegionEntryMap(Long.class, 16, 0.75f, 16);
+    RegionEntry firstEntry = entry(5L);
+    map.put(5L, firstEntry);
+    PrimitiveKeyRegionEntryMap.DigestTable tab =
+        (PrimitiveKeyRegionEntryMap.DigestTable) map.getTable();
+    int index = indexOf(tab, firstEntry);
+
+    // another key takes over the slot between a reader loading the entry and its digest
+    tab.digests.set(index, 7L);
+    tab.slots.set(index, entry(7L));
+
+    assertThat(map.isSlotKey(tab, index, firstEntry, 5L)).isTrue();
+    assertThat(map.isSlotKey(tab, index, firstEntry, 7L)).isFalse();
+  }
+
+  @Test
+  public void keepsDigestsWhenGrowing() {
+    PrimitiveKeyRegionEntryMap map = new PrimitiveKeyRegionEntryMap(Integer.class, 2, 0.75f, 1);
+    for (int key = 0; key < 10000; key++) {
+      map.put(key, entry(key));
+    }
+
+    assertThat(map.size()).isEqualTo(10000);
+    for (int key = 0; key < 10000; key++) {
+      assertThat(map.get(key)).isNotNull();
+    }
+  }
+}
@@ -0,0 +1,188 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.awaitility.Awaitility;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.mockito.InOrder;
+
+import org.apache.geode.CancelCriterion;
+import org.apache.geode.cache.DataPolicy;
+import org.apache.geode.cache.Scope;
+import org.apache.geode.distributed.internal.DM;
+import org.apache.geode.internal.cache.versions.RegionVersionVector;
+import org.apache.geode.internal.cache.versions.VersionHolder;
+import org.apache.geode.internal.cache.versions.VersionStamp;
+import org.apache.geode.internal.cache.versions.VersionTag;
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category(UnitTest.class)
+public class TombstoneServiceJUnitTest {
+
+  private long originalMaxSleepTime;
+  private int originalGCThreads;
+  private ExecutorService executor;
+  private TombstoneService tombstoneService;
+
+  @Before
+  public void setUp() {
+    originalMaxSleepTime = TombstoneService.MAX_SLEEP_TIME;
+    originalGCThreads = TombstoneService.GC_THREADS;
+    TombstoneService.MAX_SLEEP_TIME = 10;
+    executor = Executors.newFixedThreadPool(4);
+  }
+
+  @After
+  public void tearDown() {
+    if (tombstoneService != null) {
+      tombstoneService.stop();
+    }
+    executor.shutdownNow();
+    TombstoneService.MAX_SLEEP_TIME = originalMaxSleepTime;
+    TombstoneService.GC_THREADS = originalGCThreads;
+  }
+
+  @Test
+  public void unscheduleTombstonesDropsOnlyTheExpiredTombstonesOfThatRegion() throws Exception {
+    createTombstoneService();
+    DistributedRegion cleared = createRegion(DataPolicy.REPLICATE);
+    DistributedRegion other = createRegion(DataPolicy.REPLICATE);
+    scheduleTombstone(cleared, "cleared");
+    scheduleTombstone(cleared, "cleared2");
+    RegionEntry otherEntry = scheduleTombstone(other, "other");
+    RegionEntry otherEntry2 = scheduleTombstone(other, "other2");
+    awaitExpiredTombstoneCount(4);
+
+    tombstoneService.unscheduleTombstones(cleared);
+
+    assertThat(tombstoneService.getExpiredTombstoneCountForTests()).isEqualTo(2);
+    assertThat(tombstoneService.getScheduledTombstoneCount()).isEqualTo(2);
+
+    assertThat(tombstoneService.forceBatchExpirationForTests(0)).isTrue();
+
+    verify(cleared.getRegionMap(), never()).removeTombstone(any(RegionEntry.class),
+        any(VersionHolder.class), eq(false), eq(true));
+    verify(other.getRegionMap(), times(2)).removeTombstone(any(RegionEntry.class),
+        any(VersionHolder.class), eq(false), eq(true));
+    verify(other.getRegionMap()).removeTombstone(eq(otherEntry), any(VersionHolder.class),
+        eq(false), eq(true));
+    verify(other.getRegionMap()).removeTombstone(eq(otherEntry2), any(VersionHolder.class),
+        eq(false), eq(true));
+    assertThat(tombstoneService.getScheduledTombstoneCount()).isEqualTo(0);
+  }
+
+  @Test
+  public void batchSpanningSeveralBucketsIsRemovedByHelperThreads() throws Exception {
+    final int numRegions = 3;
+    TombstoneService.GC_THREADS = numRegions;
+    createTombstoneService();
+    final CountDownLatch allRegionsInProgress = new CountDownLatch(numRegions);
+    final Set<Thread> removingThreads = ConcurrentHashMap.newKeySet();
+    final Set<Boolean> concurrent = ConcurrentHashMap.newKeySet();
+    for (int i = 0; i < numRegions; i++) {
+      DistributedRegion region = createRegion(DataPolicy.REPLICATE);
+      when(region.getRegionMap().removeTombstone(any(RegionEntry.class),
+          any(VersionHolder.class), eq(false), eq(true))).thenAnswer(invocation -> {
+            removingThreads.add(Thread.currentThread());
+            allRegionsInProgress.countDown();
+            concurrent.add(allRegionsInProgress.await(10, TimeUnit.SECONDS));
+            return true;
+          });
+      scheduleTombstone(region, "key" + i);
+    }
+    awaitExpiredTombstoneCount(numRegions);
+
+    assertThat(tombstoneService.forceBatchExpirationForTests(0)).isTrue();
+
+    assertThat(removingThreads).hasSize(numRegions);
+    assertThat(concurrent).containsExactly(true);
+    assertThat(tombstoneService.getScheduledTombstoneCount()).isEqualTo(0);
+  }
+
+  @Test
+  public void gcRVVIsPersistedBeforeTombstonesAreRemoved() throws Exception {
+    createTombstoneService();
+    DistributedRegion region = createRegion(DataPolicy.PERSISTENT_REPLICATE);
+    DiskRegion diskRegion = mock(DiskRegion.class);
+    DiskStoreImpl diskStore = mock(DiskStoreImpl.class);
+    when(region.getDiskRegion()).thenReturn(diskRegion);
+    when(diskRegion.getDiskStore()).thenReturn(diskStore);
+    RegionEntry entry = scheduleTombstone(region, "key");
+    awaitExpiredTombstoneCount(1);
+
+    assertThat(tombstoneService.forceBatchExpirationForTests(0)).isTrue();
+
+    InOrder inOrder = inOrder(diskRegion, region.getRegionMap(), diskStore);
+    inOrder.verify(diskRegion).writeRVVGC(region);
+    inOrder.verify(region.getRegionMap()).removeTombstone(eq(entry), any(VersionHolder.class),
+        eq(false), eq(true));
+    inOrder.verify(diskStore).scheduleCompaction();
+  }
+
+  private void createTombstoneService() {
+    InternalCache cache = mock(InternalCache.class);
+    DM dm = mock(DM.class);
+    when(cache.getCachePerfStats()).thenReturn(mock(CachePerfStats.class));
+    when(cache.getCancelCriterion()).thenReturn(mock(CancelCriterion.class));
+    when(cache.getDistributionManager()).thenReturn(dm);
+    when(dm.getWaitingThreadPool()).thenReturn(executor);
+    // tombstones are scheduled with a zero timestamp, so they all have expired already
+    when(cache.cacheTimeMillis()).thenReturn(TombstoneService.REPLICATE_TOMBSTONE_TIMEOUT + 1);
+    tombstoneService = TombstoneService.initialize(cache);
+  }
+
+  private DistributedRegion createRegion(DataPolicy dataPolicy) {
+    DistributedRegion region = mock(DistributedRegion.class);
+    region.dataPolicy = dataPolicy;
+    when(region.getDataPolicy()).thenReturn(dataPolicy);
+    when(region.getScope()).thenReturn(Scope.DISTRIBUTED_ACK);
+    when(region.getRegionMap()).thenReturn(mock(RegionMap.class));
+    when(region.getVersionVector()).thenReturn(mock(RegionVersionVector.class));
+    return region;
+  }
+
+  private RegionEntry scheduleTombstone(LocalRegion region, Object key) {
+    RegionEntry entry = mock(RegionEntry.class);
+    when(entry.getKey()).thenReturn(key);
+    when(entry.getVersionStamp()).thenReturn(mock(VersionStamp.class));
+    tombstoneService.scheduleTombstone(region, entry, mock(VersionTag.class));
+    return entry;
+  }
+
+  private void awaitExpiredTombstoneCount(int count) {
+    Awaitility.await().atMost(30, TimeUnit.SECONDS)
+        .until(() -> tombstoneService.getExpiredTombstoneCountForTests() == count);
+  }
+}
@@ -0,0 +1,249 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.execute;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinWorkerThread;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+
+import org.apache.geode.cache.DataPolicy;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.RegionAttributes;
+import org.apache.geode.cache.execute.Function;
+import org.apache.geode.cache.execute.FunctionContext;
+import org.apache.geode.cache.execute.FunctionException;
+import org.apache.geode.cache.execute.ResultSender;
+import org.apache.geode.distributed.internal.DM;
+import org.apache.geode.distributed.internal.InternalDistributedSystem;
+import org.apache.geode.internal.cache.BucketAdvisor;
+import org.apache.geode.internal.cache.PartitionedRegion;
+import org.apache.geode.internal.cache.partitioned.RegionAdvisor;
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category(UnitTest.class)
+public class BucketParallelFunctionExecutionTest {
+
+  @Test
+  public void executesDirectlyWhenNotBucketParallel() {
+    Function fn = mock(Function.class);
+    RegionFunctionContextImpl context = mock(RegionFunctionContextImpl.class);
+    when(fn.isBucketParallel()).thenReturn(false);
+
+    BucketParallelFunctionExecution.execute(fn, context);
+
+    verify(fn).execute(context);
+    verify(context, never()).getLocalBucketSet(any(Region.class));
+  }
+
+  @Test
+  public void executesDirectlyWithoutRegionContext() {
+    Function fn = mock(Function.class);
+    FunctionContext context = mock(FunctionContext.class);
+    when(fn.isBucketParallel()).thenReturn(true);
+
+    BucketParallelFunctionExecution.execute(fn, context);
+
+    verify(fn).execute(context);
+  }
+
+  @Test
+  public void executesDirectlyOnReplicatedRegion() {
+    Function fn = mock(Function.class);
+    RegionFunctionContextImpl context = mock(RegionFunctionContextImpl.class);
+    when(fn.isBucketParallel()).thenReturn(true);
+    when(context.getDataSet()).thenReturn(mock(Region.class));
+
+    BucketParallelFunctionExecution.execute(fn, context);
+
+    verify(fn).execute(context);
+  }
+
+  @Test
+  public void executesDirectlyForSingleBucket() {
+    Function fn = mock(Function.class);
+    RegionFunctionContextImpl context = mock(RegionFunctionContextImpl.class);
+    PartitionedRegion pr = mock(PartitionedRegion.class);
+    when(fn.isBucketParallel()).thenReturn(true);
+    when(context.getDataSet()).thenReturn(pr);
+    when(context.getLocalBucketSet(pr)).thenReturn(Collections.singleton(3));
+
+    BucketParallelFunctionExecution.execute(fn, context);
+
+    verify(fn).execute(context);
+  }
+
+  @Test
+  public void invokesFunctionOncePerLocalBucketOnForkJoinPool() {
+    PartitionedRegion pr = partitionedRegion();
+    Collection<Integer> invokedBuckets = new ConcurrentLinkedQueue<>();
+    Collection<Thread> invokingThreads = new ConcurrentLinkedQueue<>();
+    Function fn = bucketParallelFunction(pr, bucketId -> {
+      invokedBuckets.add(bucketId);
+      invokingThreads.add(Thread.currentThread());
+    });
+    RegionFunctionContextImpl context = context(pr, mock(ResultSender.class), 1, 2, 3);
+
+    BucketParallelFunctionExecution.execute(fn, context);
+
+    assertThat(invokedBuckets).containsExactlyInAnyOrder(1, 2, 3);
+    assertThat(invokingThreads).hasOnlyElementsOfType(ForkJoinWorkerThread.class);
+    verify(fn, times(3)).execute(any(FunctionContext.class));
+    verify(fn, never()).execute(context);
+  }
+
+  @Test
+  public void sendsResultsInBucketOrder() {
+    PartitionedRegion pr = partitionedRegion();
+    Function fn = bucketParallelFunction(pr, bucketId -> {
+      if (bucketId == 1) {
+        // finish the lowest bucket last
+        sleep(100);
+      }
+    });
+    ResultSender sender = mock(ResultSender.class);
+
+    BucketParallelFunctionExecution.execute(fn, context(pr, sender, 3, 1, 2));
+
+    InOrder inOrder = inOrder(sender);
+    inOrder.verify(sender).sendResult(1);
+    inOrder.verify(sender).sendResult(10);
+    inOrder.verify(sender).sendResult(2);
+    inOrder.verify(sender).sendResult(20);
+    inOrder.verify(sender).sendResult(3);
+    inOrder.verify(sender).lastResult(30);
+    inOrder.verifyNoMoreInteractions();
+  }
+
+  @Test
+  public void movedBucketFailsExecutionBeforeAnyResultIsSent() {
+    PartitionedRegion pr = partitionedRegion(2);
+    Function fn = bucketParallelFunction(pr, bucketId -> {
+    });
+    ResultSender sender = mock(ResultSender.class);
+
+    assertThatThrownBy(
+        () -> BucketParallelFunctionExecution.execute(fn, context(pr, sender, 1, 2, 3)))
+            .isInstanceOf(BucketMovedException.class);
+
+    verify(sender, never()).sendResult(any());
+    verify(sender, never()).lastResult(any());
+  }
+
+  @Test
+  public void movedBucketIsReportedForReexecutionOfHAFunction() {
+    PartitionedRegion pr = partitionedRegion(2);
+    Function fn = bucketParallelFunction(pr, bucketId -> {
+    });
+    when(fn.isHA()).thenReturn(true);
+    InternalResultSender sender = mock(InternalResultSender.class);
+    DM dm = mock(DM.class);
+    InternalDistributedSystem system = mock(InternalDistributedSystem.class);
+    when(dm.getSystem()).thenReturn(system);
+    when(system.getFunctionStats(any(String.class))).thenReturn(mock(FunctionStats.class));
+    AbstractExecution execution = mock(AbstractExecution.class, CALLS_REAL_METHODS);
+
+    execution.executeFunctionLocally(fn, context(pr, sender, 1, 2, 3), sender, dm);
+
+    // the caller re-executes the function on the buckets' new hosts for this exception
+    ArgumentCaptor<Throwable> exception = ArgumentCaptor.forClass(Throwable.class);
+    verify(sender).setException(exception.capture());
+    assertThat(exception.getValue()).isInstanceOf(FunctionException.class)
+        .hasCauseInstanceOf(InternalFunctionInvocationTargetException.class);
+    assertThat(exception.getValue().getCause().getCause())
+        .isInstanceOf(BucketMovedException.class);
+    verify(sender, never()).lastResult(any());
+  }
+
+  /**
+   * Returns a partitioned region hosting every bucket except the moved ones.
+   */
+  private static PartitionedRegion partitionedRegion(Integer... movedBuckets) {
+    PartitionedRegion pr = mock(PartitionedRegion.class);
+    RegionAttributes attributes = mock(RegionAttributes.class);
+    when(attributes.getDataPolicy()).thenReturn(DataPolicy.PARTITION);
+    when(pr.getAttributes()).thenReturn(attributes);
+    RegionAdvisor regionAdvisor = mock(RegionAdvisor.class);
+    when(pr.getRegionAdvisor()).thenReturn(regionAdvisor);
+    BucketAdvisor hosting = mock(BucketAdvisor.class);
+    when(hosting.isHosting()).thenReturn(true);
+    when(regionAdvisor.getBucketAdvisor(anyInt())).thenReturn(hosting);
+    for (Integer bucketId : movedBuckets) {
+      when(regionAdvisor.getBucketAdvisor(bucketId)).thenReturn(mock(BucketAdvisor.class));
+    }
+    return pr;
+  }
+
+  private static RegionFunctionContextImpl context(PartitionedRegion pr, ResultSender sender,
+      Integer... buckets) {
+    Set<Integer> bucketSet = new HashSet<>(Arrays.asList(buckets));
+    return new RegionFunctionContextImpl("fn", pr, null, null, null, bucketSet, sender, false);
+  }
+
+  private interface BucketAction {
+    void run(int bucketId);
+  }
+
+  /**
+   * Returns a bucket parallel function which runs the action for the bucket of each invocation and
+   * then sends the bucket id and ten times the bucket id as its results.
+   */
+  private static Function bucketParallelFunction(PartitionedRegion pr, BucketAction action) {
+    Function fn = mock(Function.class);
+    when(fn.getId()).thenReturn("fn");
+    when(fn.isBucketParallel()).thenReturn(true);
+    when(fn.hasResult()).thenReturn(true);
+    doAnswer(invocation -> {
+      RegionFunctionContextImpl context = (RegionFunctionContextImpl) invocation.getArguments()[0];
+      Set<Integer> buckets = context.getLocalBucketSet(pr);
+      assertThat(buckets).hasSize(1);
+      int bucketId = buckets.iterator().next();
+      action.run(bucketId);
+      context.getResultSender().sendResult(bucketId);
+      context.getResultSender().lastResult(bucketId * 10);
+      return null;
+    }).when(fn).execute(any(FunctionContext.class));
+    return fn;
+  }
+
+  private static void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
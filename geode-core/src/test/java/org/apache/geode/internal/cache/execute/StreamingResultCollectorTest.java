@@ -0,0 +1,218 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.execute;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.execute.FunctionException;
+import org.apache.geode.distributed.DistributedMember;
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category(UnitTest.class)
+public class StreamingResultCollectorTest {
+
+  private DistributedMember localMember;
+  private DistributedMember remoteMember;
+  private StreamingResultCollector<Integer> collector;
+
+  @Before
+  public void setUp() {
+    this.localMember = mock(DistributedMember.class);
+    this.remoteMember = mock(DistributedMember.class);
+    this.collector = new StreamingResultCollector<Integer>(2);
+    this.collector.setCredits(null, this.localMember);
+  }
+
+  @Test
+  public void iteratorReturnsResultsAddedByOtherThreads() throws Exception {
+    Thread producer = new Thread(new Runnable() {
+      public void run() {
+        for (int i = 0; i < 10; i++) {
+          collector.addResult(localMember, i);
+        }
+        collector.endResults();
+      }
+    });
+    producer.start();
+
+    List<Integer> results = new ArrayList<Integer>();
+    for (Iterator<Integer> it = this.collector.getResult(); it.hasNext();) {
+      results.add(it.next());
+    }
+    producer.join();
+
+    assertThat(results).containsExactly(0, 1, 2, 3, 4, 5, 6, 7, 8, 9);
+  }
+
+  @Test
+  public void localProducerBlocksAtCapacity() throws Exception {
+    Thread producer = new Thread(new Runnable() {
+      public void run() {
+        for (int i = 0; i < 3; i++) {
+          collector.addResult(localMember, i);
+        }
+      }
+    });
+    producer.start();
+    producer.join(TimeUnit.SECONDS.toMillis(1));
+
+    assertThat(producer.isAlive()).isTrue();
+    assertThat(this.collector.size()).isEqualTo(2);
+
+    this.collector.getResult().next();
+    producer.join(TimeUnit.SECONDS.toMillis(30));
+    assertThat(producer.isAlive()).isFalse();
+    assertThat(this.collector.size()).isEqualTo(2);
+  }
+
+  @Test
+  public void remoteResultsAndConsumerThreadDoNotBlock() {
+    for (int i = 0; i < 5; i++) {
+      this.collector.addResult(this.remoteMember, i);
+      this.collector.addResult(this.localMember, i);
+    }
+    assertThat(this.collector.size()).isEqualTo(10);
+  }
+
+  @Test
+  public void serverResultReaderBlocksAtCapacity() throws Exception {
+    final Thread[] reader = new Thread[1];
+    this.collector.readInBackground(new Runnable() {
+      public void run() {
+        reader[0] = Thread.currentThread();
+        for (int i = 0; i < 3; i++) {
+          collector.addResult(remoteMember, i);
+        }
+        collector.endResults();
+      }
+    });
+
+    Thread.sleep(TimeUnit.SECONDS.toMillis(1));
+    assertThat(reader[0].isAlive()).isTrue();
+    assertThat(this.collector.size()).isEqualTo(2);
+
+    List<Integer> results = new ArrayList<Integer>();
+    for (Iterator<Integer> it = this.collector.getResult(); it.hasNext();) {
+      results.add(it.next());
+    }
+    assertThat(results).containsExactly(0, 1, 2);
+  }
+
+  @Test
+  public void serverResultReaderFailureIsThrownByIterator() {
+    this.collector.readInBackground(new Runnable() {
+      public void run() {
+        collector.addResult(remoteMember, 1);
+        throw new IllegalStateException("failed");
+      }
+    });
+
+    Iterator<Integer> it = this.collector.getResult();
+    assertThat(it.next()).isEqualTo(1);
+    assertThatThrownBy(it::hasNext).isInstanceOf(FunctionException.class)
+        .hasCauseInstanceOf(IllegalStateException.class);
+  }
+
+  @Test
+  public void failureIsThrownAfterEarlierResults() {
+    this.collector.addResult(this.remoteMember, 1);
+    this.collector.fail(new IllegalStateException("failed"));
+
+    Iterator<Integer> it = this.collector.getResult();
+    assertThat(it.next()).isEqualTo(1);
+    assertThatThrownBy(it::hasNext).isInstanceOf(FunctionException.class)
+        .hasCauseInstanceOf(IllegalStateException.class);
+  }
+
+  @Test
+  public void closeUnblocksLocalProducerAndDiscardsResults() throws Exception {
+    Thread producer = new Thread(new Runnable() {
+      public void run() {
+        for (int i = 0; i < 3; i++) {
+          collector.addResult(localMember, i);
+        }
+      }
+    });
+    producer.start();
+    producer.join(TimeUnit.SECONDS.toMillis(1));
+    assertThat(producer.isAlive()).isTrue();
+
+    this.collector.close();
+    producer.join(TimeUnit.SECONDS.toMillis(30));
+
+    assertThat(producer.isAlive()).isFalse();
+    assertThat(this.collector.size()).isEqualTo(0);
+    assertThat(this.collector.getResult().hasNext()).isFalse();
+  }
+
+  @Test
+  public void closeAndFailureReleaseCredits() {
+    FunctionResultFlowControl.Credits credits = mock(FunctionResultFlowControl.Credits.class);
+    this.collector.setCredits(credits, this.localMember);
+    this.collector.close();
+    verify(credits).release();
+
+    StreamingResultCollector<Integer> failed = new StreamingResultCollector<Integer>(2);
+    FunctionResultFlowControl.Credits failedCredits = mock(FunctionResultFlowControl.Credits.class);
+    failed.setCredits(failedCredits, this.localMember);
+    failed.fail(new IllegalStateException("failed"));
+    verify(failedCredits).release();
+  }
+
+  @Test
+  public void timedIteratorReturnsResultsReceivedInTime() {
+    this.collector.addResult(this.remoteMember, 1);
+    this.collector.endResults();
+
+    Iterator<Integer> it = this.collector.getResult(30, TimeUnit.SECONDS);
+    assertThat(it.next()).isEqualTo(1);
+    assertThat(it.hasNext()).isFalse();
+  }
+
+  @Test
+  public void timedIteratorFailsAndClosesWhenResultsAreLate() {
+    this.collector.addResult(this.remoteMember, 1);
+
+    Iterator<Integer> it = this.collector.getResult(100, TimeUnit.MILLISECONDS);
+    assertThat(it.next()).isEqualTo(1);
+    assertThatThrownBy(it::hasNext).isInstanceOf(FunctionException.class);
+    assertThat(this.collector.isClosed()).isTrue();
+  }
+
+  @Test
+  public void clearResultsRestartsTheStream() {
+    this.collector.addResult(this.remoteMember, 1);
+    this.collector.endResults();
+    this.collector.clearResults();
+    this.collector.addResult(this.remoteMember, 2);
+    this.collector.endResults();
+
+    Iterator<Integer> it = this.collector.getResult();
+    assertThat(it.next()).isEqualTo(2);
+    assertThat(it.hasNext()).isFalse();
+  }
+}
@@ -16,9 +16,14 @@ package org.apache.geode.internal.cache.versions;
 
 import static org.junit.Assert.*;
 
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
 
+import org.apache.geode.internal.HeapDataOutputStream;
+import org.apache.geode.internal.Version;
 import org.apache.geode.test.junit.categories.UnitTest;
 
 @Category(UnitTest.class)
@@ -41,4 +46,54 @@ public class RVVExceptionJUnitTest {
     ex.add(6);
     assertEquals(8, ex.getHighestReceivedVersion());
   }
+
+  @Test
+  public void testRVVExceptionR() {
+    RVVExceptionR ex = new RVVExceptionR(5, 10);
+    ex.add(8);
+    ex.add(6);
+    assertEquals(8, ex.getHighestReceivedVersion());
+    ex.add(5);
+    assertEquals(8, ex.getHighestReceivedVersion());
+  }
+
+  @Test
+  public void testRVVExceptionRMergesRuns() {
+    RVVExceptionR ex = new RVVExceptionR(0, 100);
+    ex.add(10);
+    ex.add(12);
+    ex.add(11);
+    ex.add(50);
+    assertArrayEquals(new long[] {10, 12, 50, 50}, ex.getReceivedRuns());
+    assertTrue(ex.contains(11));
+    assertFalse(ex.contains(13));
+    ex.add(1);
+    assertEquals(1, ex.previousVersion);
+  }
+
+  @Test
+  public void testLargeExceptionCreatesRuns() {
+    assertTrue(RVVException.createException(0, 1000000, 1) instanceof RVVExceptionR);
+    assertTrue(RVVException.createException(0, 100, 1) instanceof RVVExceptionB);
+  }
+
+  @Test
+  public void testCompactForm() throws Exception {
+    RVVExceptionR ex = new RVVExceptionR(0, 1000000);
+    RVVExceptionB bitSetEx = new RVVExceptionB(0, 1000000);
+    for (long v = 1000; v < 900000; v++) {
+      if (v % 50000 != 0) {
+        ex.add(v);
+        bitSetEx.add(v);
+      }
+    }
+    HeapDataOutputStream out = new HeapDataOutputStream(Version.CURRENT);
+    ex.toDataCompact(out);
+    assertTrue(out.size() < 100);
+    RVVException result = RVVException
+        .createCompactException(new DataInputStream(new ByteArrayInputStream(out.toByteArray())));
+    assertTrue(result instanceof RVVExceptionR);
+    assertTrue(result.sameAs(ex));
+    assertTrue(bitSetEx.sameAs(result));
+  }
 }
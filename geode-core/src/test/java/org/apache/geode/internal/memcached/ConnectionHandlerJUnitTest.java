@@ -0,0 +1,230 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.memcached;
+
+import static org.apache.geode.distributed.ConfigurationProperties.LOCATORS;
+import static org.apache.geode.distributed.ConfigurationProperties.MCAST_PORT;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.Cache;
+import org.apache.geode.cache.CacheFactory;
+import org.apache.geode.cache.CacheWriterException;
+import org.apache.geode.cache.EntryEvent;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.RegionShortcut;
+import org.apache.geode.cache.util.CacheWriterAdapter;
+import org.apache.geode.internal.memcached.commands.SetCommand;
+import org.apache.geode.memcached.GemFireMemcachedServer;
+import org.apache.geode.memcached.GemFireMemcachedServer.Protocol;
+import org.apache.geode.test.junit.categories.IntegrationTest;
+
+/**
+ * Feeds framed binary requests to a {@link ConnectionHandler} and checks the replies of the
+ * requests it executes in batches
+ */
+@Category(IntegrationTest.class)
+public class ConnectionHandlerJUnitTest {
+
+  private static final Charset ASCII = Charset.forName("US-ASCII");
+
+  private static final byte GET = 0x00;
+  private static final byte SET = 0x01;
+  private static final byte GETQ = 0x09;
+  private static final byte NOOP = 0x0a;
+  private static final byte SETQ = 0x11;
+
+  private Cache cache;
+  private Region<Object, ValueWrapper> region;
+  private EmbeddedChannel channel;
+
+  @Before
+  public void setUp() {
+    cache = new CacheFactory().set(MCAST_PORT, "0").set(LOCATORS, "").create();
+    region = cache.<Object, ValueWrapper>createRegionFactory(RegionShortcut.REPLICATE)
+        .create(GemFireMemcachedServer.REGION_NAME);
+    channel = new EmbeddedChannel(new ConnectionHandler(cache, Protocol.BINARY));
+  }
+
+  @After
+  public void tearDown() {
+    channel.finishAndReleaseAll();
+    cache.close();
+  }
+
+  @Test
+  public void getqMissesAreNotAnswered() {
+    region.put(key("a"), ValueWrapper.getWrappedValue(bytes("A"), 0));
+    region.put(key("c"), ValueWrapper.getWrappedValue(bytes("C"), 0));
+
+    channel.writeInbound(get(GETQ, 1, "a"), get(GETQ, 2, "b"), get(GETQ, 3, "c"), noop(4));
+
+    List<ByteBuffer> replies = readReplies();
+    assertThat(replies).hasSize(3);
+    assertReply(replies.get(0), GETQ, 1, ResponseStatus.NO_ERROR);
+    assertThat(value(replies.get(0))).isEqualTo("A");
+    assertReply(replies.get(1), GETQ, 3, ResponseStatus.NO_ERROR);
+    assertThat(value(replies.get(1))).isEqualTo("C");
+    assertReply(replies.get(2), NOOP, 4, ResponseStatus.NO_ERROR);
+  }
+
+  @Test
+  public void eachReplyCarriesTheOpcodeAndOpaqueOfItsRequest() {
+    region.put(key("a"), ValueWrapper.getWrappedValue(bytes("A"), 0));
+
+    channel.writeInbound(get(GET, 10, "a"), get(GET, 11, "missing"), get(GETQ, 12, "a"),
+        set(SET, 13, "x", "X", 0, 0L), set(SET, 14, "y", "Y", 0, 0L), noop(15));
+
+    List<ByteBuffer> replies = readReplies();
+    assertThat(replies).hasSize(6);
+    assertReply(replies.get(0), GET, 10, ResponseStatus.NO_ERROR);
+    assertReply(replies.get(1), GET, 11, ResponseStatus.KEY_NOT_FOUND);
+    assertReply(replies.get(2), GETQ, 12, ResponseStatus.NO_ERROR);
+    assertReply(replies.get(3), SET, 13, ResponseStatus.NO_ERROR);
+    assertReply(replies.get(4), SET, 14, ResponseStatus.NO_ERROR);
+    assertReply(replies.get(5), NOOP, 15, ResponseStatus.NO_ERROR);
+    assertThat(region.get(key("x")).getValue()).isEqualTo(bytes("X"));
+    assertThat(region.get(key("y")).getValue()).isEqualTo(bytes("Y"));
+  }
+
+  @Test
+  public void failedBatchIsExecutedOneRequestAtATime() {
+    region.getAttributesMutator().setCacheWriter(new CacheWriterAdapter<Object, ValueWrapper>() {
+      @Override
+      public void beforeCreate(EntryEvent<Object, ValueWrapper> event) {
+        if (event.getKey().equals(key("bad"))) {
+          throw new CacheWriterException("rejected");
+        }
+      }
+    });
+
+    channel.writeInbound(set(SETQ, 1, "good1", "1", 0, 0L), set(SETQ, 2, "bad", "2", 0, 0L),
+        set(SETQ, 3, "good2", "3", 0, 0L), noop(4));
+
+    List<ByteBuffer> replies = readReplies();
+    assertThat(replies).hasSize(2);
+    assertReply(replies.get(0), SETQ, 2, ResponseStatus.INTERNAL_ERROR);
+    assertReply(replies.get(1), NOOP, 4, ResponseStatus.NO_ERROR);
+    assertThat(region.get(key("good1")).getValue()).isEqualTo(bytes("1"));
+    assertThat(region.get(key("good2")).getValue()).isEqualTo(bytes("3"));
+    assertThat(region.containsKey(key("bad"))).isFalse();
+  }
+
+  @Test
+  public void setWithCasIsExecutedOnItsOwn() {
+    region.put(key("k"), ValueWrapper.getWrappedValue(bytes("old"), 0));
+
+    channel.writeInbound(set(SETQ, 1, "a", "1", 0, 0L), set(SETQ, 2, "k", "new", 0, 12345L),
+        set(SETQ, 3, "b", "2", 0, 0L), noop(4));
+
+    List<ByteBuffer> replies = readReplies();
+    assertThat(replies).hasSize(2);
+    assertReply(replies.get(0), SETQ, 2, ResponseStatus.KEY_EXISTS);
+    assertReply(replies.get(1), NOOP, 4, ResponseStatus.NO_ERROR);
+    assertThat(region.get(key("k")).getValue()).isEqualTo(bytes("old"));
+    assertThat(region.get(key("a")).getValue()).isEqualTo(bytes("1"));
+    assertThat(region.get(key("b")).getValue()).isEqualTo(bytes("2"));
+  }
+
+  @Test
+  public void onlySetsWithoutCasAndExpiryAreBatchable() {
+    SetCommand command = new SetCommand();
+
+    assertThat(command.isBatchable(set(SETQ, 1, "k", "v", 0, 0L))).isTrue();
+    assertThat(command.isBatchable(set(SETQ, 1, "k", "v", 0, 12345L))).isFalse();
+    assertThat(command.isBatchable(set(SETQ, 1, "k", "v", 60, 0L))).isFalse();
+  }
+
+  private List<ByteBuffer> readReplies() {
+    List<ByteBuffer> replies = new ArrayList<ByteBuffer>();
+    ByteBuf reply;
+    while ((reply = channel.readOutbound()) != null) {
+      replies.add(ByteBuffer.wrap(ByteBufUtil.getBytes(reply)));
+      reply.release();
+    }
+    return replies;
+  }
+
+  private void assertReply(ByteBuffer reply, byte opcode, int opaque, ResponseStatus status) {
+    assertThat(reply.get(1)).isEqualTo(opcode);
+    assertThat(reply.getShort(6)).isEqualTo(status.asShort());
+    assertThat(reply.getInt(12)).isEqualTo(opaque);
+  }
+
+  /**
+   * @return the value of a GET reply, which follows the 4 bytes of flags
+   */
+  private String value(ByteBuffer reply) {
+    int bodyLength = reply.getInt(8);
+    return new String(reply.array(), 28, bodyLength - 4, ASCII);
+  }
+
+  private ByteBuffer get(byte opcode, int opaque, String key) {
+    return request(opcode, opaque, new byte[0], key, "", 0L);
+  }
+
+  private ByteBuffer set(byte opcode, int opaque, String key, String value, int expiry, long cas) {
+    ByteBuffer extras = ByteBuffer.allocate(8);
+    extras.putInt(0);
+    extras.putInt(expiry);
+    return request(opcode, opaque, extras.array(), key, value, cas);
+  }
+
+  private ByteBuffer noop(int opaque) {
+    return request(NOOP, opaque, new byte[0], "", "", 0L);
+  }
+
+  private ByteBuffer request(byte opcode, int opaque, byte[] extras, String key, String value,
+      long cas) {
+    byte[] keyBytes = bytes(key);
+    byte[] valueBytes = bytes(value);
+    int bodyLength = extras.length + keyBytes.length + valueBytes.length;
+    ByteBuffer request = ByteBuffer.allocate(24 + bodyLength);
+    request.put((byte) 0x80);
+    request.put(opcode);
+    request.putShort((short) keyBytes.length);
+    request.put((byte) extras.length);
+    request.put((byte) 0);
+    request.putShort((short) 0);
+    request.putInt(bodyLength);
+    request.putInt(opaque);
+    request.putLong(cas);
+    request.put(extras);
+    request.put(keyBytes);
+    request.put(valueBytes);
+    request.flip();
+    return request;
+  }
+
+  private static KeyWrapper key(String key) {
+    return KeyWrapper.getWrappedKey(bytes(key));
+  }
+
+  private static byte[] bytes(String value) {
+    return value.getBytes(ASCII);
+  }
+}
@@ -0,0 +1,128 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.memcached;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.TooLongFrameException;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.memcached.GemFireMemcachedServer.Protocol;
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category(UnitTest.class)
+public class RequestDecoderJUnitTest {
+
+  private static final Charset ASCII = Charset.forName("US-ASCII");
+
+  @Test
+  public void asciiRequestsArePipelined() {
+    EmbeddedChannel channel = new EmbeddedChannel(new RequestDecoder(Protocol.ASCII));
+    channel.writeInbound(ascii("get k1 k2\r\nset k 0 0 5\r\nhello\r\nversion\r\n"));
+
+    assertThat(asString(channel.readInbound())).isEqualTo("get k1 k2\r\n");
+    assertThat(asString(channel.readInbound())).isEqualTo("set k 0 0 5\r\nhello\r\n");
+    assertThat(asString(channel.readInbound())).isEqualTo("version\r\n");
+    assertThat((Object) channel.readInbound()).isNull();
+  }
+
+  @Test
+  public void asciiStorageCommandWaitsForDataBlock() {
+    EmbeddedChannel channel = new EmbeddedChannel(new RequestDecoder(Protocol.ASCII));
+    channel.writeInbound(ascii("set k 0 0 5\r\nhel"));
+    assertThat((Object) channel.readInbound()).isNull();
+
+    channel.writeInbound(ascii("lo\r\n"));
+    assertThat(asString(channel.readInbound())).isEqualTo("set k 0 0 5\r\nhello\r\n");
+  }
+
+  @Test
+  public void binaryRequestWaitsForBody() {
+    EmbeddedChannel channel = new EmbeddedChannel(new RequestDecoder(Protocol.BINARY));
+    ByteBuf request = Unpooled.buffer(27);
+    request.writeByte(0x80);
+    request.writeByte(0x00);
+    request.writeShort(3);
+    request.writeZero(4);
+    request.writeInt(3);
+    request.writeZero(12);
+    request.writeBytes("key".getBytes(ASCII));
+
+    channel.writeInbound(request.readRetainedSlice(20));
+    assertThat((Object) channel.readInbound()).isNull();
+
+    channel.writeInbound(request);
+    ByteBuffer decoded = channel.readInbound();
+    assertThat(decoded.position()).isEqualTo(0);
+    assertThat(decoded.limit()).isEqualTo(27);
+    assertThat(decoded.get(1)).isEqualTo((byte) 0x00);
+  }
+
+  @Test
+  public void binaryRequestLongerThanTheMaximumClosesTheConnection() {
+    EmbeddedChannel channel = new EmbeddedChannel(new RequestDecoder(Protocol.BINARY, 64));
+    ByteBuf header = Unpooled.buffer(24);
+    header.writeByte(0x80);
+    header.writeByte(0x01);
+    header.writeShort(3);
+    header.writeZero(4);
+    header.writeInt(Integer.MAX_VALUE);
+    header.writeZero(12);
+
+    assertThatThrownBy(() -> channel.writeInbound(header))
+        .isInstanceOf(TooLongFrameException.class);
+    assertThat(channel.isOpen()).isFalse();
+    assertThat((Object) channel.readInbound()).isNull();
+  }
+
+  @Test
+  public void asciiLineWithoutNewlineLongerThanTheMaximumClosesTheConnection() {
+    EmbeddedChannel channel = new EmbeddedChannel(new RequestDecoder(Protocol.ASCII, 16));
+    channel.writeInbound(ascii("get kkkkkkkkkkkk"));
+    assertThat(channel.isOpen()).isTrue();
+
+    assertThatThrownBy(() -> channel.writeInbound(ascii("k")))
+        .isInstanceOf(TooLongFrameException.class);
+    assertThat(channel.isOpen()).isFalse();
+    assertThat((Object) channel.readInbound()).isNull();
+  }
+
+  @Test
+  public void asciiDataBlockLongerThanTheMaximumClosesTheConnection() {
+    EmbeddedChannel channel = new EmbeddedChannel(new RequestDecoder(Protocol.ASCII, 64));
+
+    assertThatThrownBy(() -> channel.writeInbound(ascii("version\r\nset k 0 0 100\r\n")))
+        .isInstanceOf(TooLongFrameException.class);
+    assertThat(channel.isOpen()).isFalse();
+    assertThat(asString(channel.readInbound())).isEqualTo("version\r\n");
+    assertThat((Object) channel.readInbound()).isNull();
+  }
+
+  private ByteBuf ascii(String request) {
+    return Unpooled.copiedBuffer(request, ASCII);
+  }
+
+  private String asString(Object request) {
+    return ASCII.decode((ByteBuffer) request).toString();
+  }
+}
@@ -451,6 +451,128 @@ public class FreeListManagerTest {
         .isEqualTo(originalFragment.getAddress() + (16 + 8));
   }
 
+  @Test
+  public void defragmentIncrementallyCombinesAdjacentFreeChunks() {
+    setUpSingleSlabManager();
+    OffHeapStoredObject c1 = freeListManager.allocate(24);
+    OffHeapStoredObject c2 = freeListManager.allocate(24);
+    OffHeapStoredObject c3 = freeListManager.allocate(24);
+    OffHeapStoredObject.release(c1.getAddress(), this.freeListManager);
+    OffHeapStoredObject.release(c2.getAddress(), this.freeListManager);
+
+    assertThat(this.freeListManager.defragmentIncrementally(10)).isEqualTo(2);
+
+    List<Fragment> fragments = this.freeListManager.getFragmentList();
+    assertThat(fragments).hasSize(2);
+    Fragment combined = fragments.get(1);
+    assertThat(combined.getAddress()).isEqualTo(c1.getAddress());
+    assertThat(combined.getSize()).isEqualTo(c1.getSize() + c2.getSize());
+    verify(this.stats, times(1)).incDefragmentationChunksCombined(2);
+    verify(this.stats, times(1)).endIncrementalDefragmentation(anyLong());
+  }
+
+  @Test
+  public void defragmentIncrementallyLeavesNonAdjacentChunksOnFreeLists() {
+    setUpSingleSlabManager();
+    OffHeapStoredObject c1 = freeListManager.allocate(24);
+    OffHeapStoredObject c2 = freeListManager.allocate(24);
+    OffHeapStoredObject c3 = freeListManager.allocate(24);
+    OffHeapStoredObject.release(c1.getAddress(), this.freeListManager);
+    OffHeapStoredObject.release(c3.getAddress(), this.freeListManager);
+
+    assertThat(this.freeListManager.defragmentIncrementally(10)).isZero();
+
+    assertThat(this.freeListManager.getFragmentList()).hasSize(1);
+    assertThat(this.freeListManager.getFreeTinyMemory()).isEqualTo(c1.getSize() + c3.getSize());
+    verify(this.stats, never()).incDefragmentationChunksCombined(anyInt());
+  }
+
+  @Test
+  public void defragmentIncrementallyPollsAtMostMaxChunks() {
+    setUpSingleSlabManager();
+    OffHeapStoredObject c1 = freeListManager.allocate(24);
+    OffHeapStoredObject c2 = freeListManager.allocate(24);
+    OffHeapStoredObject c3 = freeListManager.allocate(24);
+    OffHeapStoredObject c4 = freeListManager.allocate(24);
+    OffHeapStoredObject.release(c1.getAddress(), this.freeListManager);
+    OffHeapStoredObject.release(c2.getAddress(), this.freeListManager);
+    OffHeapStoredObject.release(c3.getAddress(), this.freeListManager);
+
+    assertThat(this.freeListManager.defragmentIncrementally(2)).isEqualTo(2);
+    assertThat(this.freeListManager.getFreeTinyMemory()).isEqualTo(c1.getSize());
+    assertThat(this.freeListManager.defragmentIncrementally(1)).isZero();
+    assertThat(this.freeListManager.getFreeTinyMemory()).isEqualTo(c1.getSize());
+  }
+
+  @Test
+  public void allocationCacheCarvesBatchFromFragment() {
+    FreeListManager cachingManager =
+        new FreeListManager(ma, new Slab[] {new SlabImpl(DEFAULT_SLAB_SIZE)}, 64, 4);
+    try {
+      OffHeapStoredObject c1 = cachingManager.allocate(24);
+      OffHeapStoredObject c2 = cachingManager.allocate(24);
+
+      assertThat(c2.getAddress()).isEqualTo(c1.getAddress() + c1.getSize());
+      assertThat(cachingManager.getFragmentList().get(0).getFreeIndex())
+          .isEqualTo(4 * c1.getSize());
+    } finally {
+      cachingManager.freeSlabs();
+    }
+  }
+
+  @Test
+  public void allocationCacheReusesFreedChunkWithoutSharedFreeList() {
+    FreeListManager cachingManager =
+        new FreeListManager(ma, new Slab[] {new SlabImpl(DEFAULT_SLAB_SIZE)}, 64, 4);
+    try {
+      OffHeapStoredObject c1 = cachingManager.allocate(24);
+      OffHeapStoredObject.release(c1.getAddress(), cachingManager);
+
+      assertThat(cachingManager.getFreeTinyMemory()).isZero();
+      OffHeapStoredObject c2 = cachingManager.allocate(24);
+      assertThat(c2.getAddress()).isEqualTo(c1.getAddress());
+      validateChunkSizes(c2, 24);
+    } finally {
+      cachingManager.freeSlabs();
+    }
+  }
+
+  @Test
+  public void allocationCacheDrainsBatchToSharedFreeListWhenFull() {
+    FreeListManager cachingManager =
+        new FreeListManager(ma, new Slab[] {new SlabImpl(DEFAULT_SLAB_SIZE)}, 64, 2);
+    try {
+      ArrayList<OffHeapStoredObject> chunks = new ArrayList<>();
+      for (int i = 0; i < 5; i++) {
+        chunks.add(cachingManager.allocate(24));
+      }
+      for (OffHeapStoredObject c : chunks) {
+        OffHeapStoredObject.release(c.getAddress(), cachingManager);
+      }
+
+      // the cache holds at most 4 chunks per size class so a batch of 2 was returned
+      assertThat(cachingManager.getFreeTinyMemory()).isEqualTo(2 * chunks.get(0).getSize());
+    } finally {
+      cachingManager.freeSlabs();
+    }
+  }
+
+  @Test
+  public void defragmentDrainsAllocationCaches() {
+    FreeListManager cachingManager =
+        new FreeListManager(ma, new Slab[] {new SlabImpl(DEFAULT_SLAB_SIZE)}, 64, 4);
+    try {
+      OffHeapStoredObject c1 = cachingManager.allocate(24);
+      OffHeapStoredObject.release(c1.getAddress(), cachingManager);
+
+      assertThat(cachingManager.defragment(DEFAULT_SLAB_SIZE)).isTrue();
+      assertThat(cachingManager.getFragmentList()).hasSize(1);
+      assertThat(cachingManager.getFragmentList().get(0).getSize()).isEqualTo(DEFAULT_SLAB_SIZE);
+    } finally {
+      cachingManager.freeSlabs();
+    }
+  }
+
   @Test
   public void allocationsThatLeaveLessThanMinChunkSizeFreeInAFragment() {
     int SMALL_SLAB = 16;
@@ -95,6 +95,32 @@ public class NullOffHeapMemoryStats implements OffHeapMemoryStats {
   @Override
   public void endDefragmentation(long start) {}
 
+  @Override
+  public long startIncrementalDefragmentation() {
+    return 0;
+  }
+
+  @Override
+  public void endIncrementalDefragmentation(long start) {}
+
+  @Override
+  public int getIncrementalDefragmentations() {
+    return 0;
+  }
+
+  @Override
+  public long getIncrementalDefragmentationTime() {
+    return 0;
+  }
+
+  @Override
+  public void incDefragmentationChunksCombined(int value) {}
+
+  @Override
+  public long getDefragmentationChunksCombined() {
+    return 0;
+  }
+
   @Override
   public void setFragmentation(int value) {}
 
@@ -0,0 +1,133 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.util.concurrent;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category(UnitTest.class)
+public class CustomEntryConcurrentHashMapJUnitTest {
+
+  @Test
+  public void entriesRemainVisibleWhileResizeIsInProgress() {
+    CustomEntryConcurrentHashMap<Integer, Integer> map =
+        new CustomEntryConcurrentHashMap<>(1, 0.75f, 1);
+    Map<Integer, Integer> expected = new HashMap<>();
+    Random random = new Random(1);
+
+    for (int i = 0; i < 100000; i++) {
+      int key = random.nextInt(20000);
+      if (random.nextInt(3) == 0) {
+        assertThat(map.remove(key)).isEqualTo(expected.remove(key));
+      } else {
+        assertThat(map.put(key, i)).isEqualTo(expected.put(key, i));
+      }
+      if (i % 10000 == 0) {
+        Map<Integer, Integer> iterated = new HashMap<>();
+        for (Map.Entry<Integer, Integer> entry : map.entrySet()) {
+          assertThat(iterated.put(entry.getKey(), entry.getValue())).isNull();
+        }
+        assertThat(iterated).isEqualTo(expected);
+      }
+    }
+
+    assertThat(map.size()).isEqualTo(expected.size());
+    for (Map.Entry<Integer, Integer> entry : expected.entrySet()) {
+      assertThat(map.get(entry.getKey())).isEqualTo(entry.getValue());
+      assertThat(map.containsValue(entry.getValue())).isTrue();
+    }
+    map.clear();
+    assertThat(map.isEmpty()).isTrue();
+  }
+
+  @Test
+  public void readersAndIteratorsDoNotMissEntriesWhileWritersGrowTheMap() throws Exception {
+    final CustomEntryConcurrentHashMap<Integer, Integer> map =
+        new CustomEntryConcurrentHashMap<>(1, 0.75f, 4);
+    final int stableKeys = 5000;
+    for (int i = 0; i < stableKeys; i++) {
+      map.put(i, i);
+    }
+    final AtomicBoolean done = new AtomicBoolean();
+    final AtomicReference<String> failure = new AtomicReference<>();
+
+    List<Thread> writers = new ArrayList<>();
+    for (int w = 1; w <= 2; w++) {
+      final int base = w * 1000000;
+      writers.add(new Thread(() -> {
+        for (int round = 0; round < 5; round++) {
+          for (int i = 0; i < 50000; i++) {
+            map.put(base + i, i);
+          }
+          for (int i = 0; i < 50000; i++) {
+            map.remove(base + i);
+          }
+        }
+      }));
+    }
+    List<Thread> readers = new ArrayList<>();
+    readers.add(new Thread(() -> {
+      Random random = new Random();
+      while (!done.get()) {
+        int key = random.nextInt(stableKeys);
+        if (!Integer.valueOf(key).equals(map.get(key))) {
+          failure.compareAndSet(null, "lost key " + key);
+        }
+      }
+    }));
+    readers.add(new Thread(() -> {
+      while (!done.get()) {
+        BitSet seen = new BitSet(stableKeys);
+        for (Integer key : map.keySet()) {
+          if (key < stableKeys) {
+            if (seen.get(key)) {
+              failure.compareAndSet(null, "key iterated twice " + key);
+            }
+            seen.set(key);
+          }
+        }
+        if (seen.cardinality() != stableKeys) {
+          failure.compareAndSet(null, "iteration missed keys " + seen.cardinality());
+        }
+      }
+    }));
+
+    readers.forEach(Thread::start);
+    writers.forEach(Thread::start);
+    for (Thread writer : writers) {
+      writer.join();
+    }
+    done.set(true);
+    for (Thread reader : readers) {
+      reader.join();
+    }
+
+    assertThat(failure.get()).isNull();
+    assertThat(map.size()).isEqualTo(stableKeys);
+  }
+}
@@ -183,6 +183,37 @@ public class AutoSerializableJUnitTest {
     assertEquals(m, dObj);
   }
 
+  @Test
+  public void testMethodHandlesWriteSameBytes() throws Exception {
+    setupSerializer(false, false, "org.apache.geode.pdx.DomainObjectPdxAuto");
+    DomainObjectPdxAuto objOut = new DomainObjectPdxAuto(4);
+    objOut.set("string_0", "test string value");
+    objOut.set("long_0", 99L);
+    objOut.set("anEnum", DomainObjectPdxAuto.Day.FRIDAY);
+    objOut.aBoolean = true;
+    objOut.aChar = 'c';
+    objOut.aByte = 1;
+    objOut.aShort = 2;
+    objOut.anInt = 3;
+    objOut.aLong = 4L;
+    objOut.aFloat = 5.0f;
+    objOut.aDouble = 6.0;
+    objOut.anIntArray = new int[] {7, 8};
+
+    HeapDataOutputStream reflectionOut = new HeapDataOutputStream(Version.CURRENT);
+    DataSerializer.writeObject(objOut, reflectionOut);
+
+    this.manager.setUseMethodHandles(true);
+    assertTrue(this.manager.isUsingMethodHandles());
+    HeapDataOutputStream methodHandleOut = new HeapDataOutputStream(Version.CURRENT);
+    DataSerializer.writeObject(objOut, methodHandleOut);
+
+    assertArrayEquals(reflectionOut.toByteArray(), methodHandleOut.toByteArray());
+    Object dObj = DataSerializer
+        .readObject(new DataInputStream(new ByteArrayInputStream(methodHandleOut.toByteArray())));
+    assertEquals(objOut, dObj);
+  }
+
   // This class can only be serialized by the auto serializer
   // if the unsafe code is available.
   // If unsafe is not available it automatically ignores this class
@@ -20,7 +20,11 @@ import org.apache.geode.internal.HeapDataOutputStream;
 import org.apache.geode.internal.Version;
 import org.apache.geode.internal.cache.GemFireCacheImpl;
 import org.apache.geode.pdx.internal.EnumInfo.PdxInstanceEnumInfo;
+import org.apache.geode.pdx.internal.PdxFieldAccessor;
 import org.apache.geode.pdx.internal.PdxInstanceFactoryImpl;
+import org.apache.geode.pdx.internal.PdxInstanceImpl;
+import org.apache.geode.pdx.internal.PdxString;
+import org.apache.geode.pdx.internal.PdxType;
 import org.apache.geode.test.junit.categories.IntegrationTest;
 import org.apache.geode.test.junit.categories.SerializationTest;
 import org.junit.After;
@@ -84,6 +88,43 @@ public class PdxInstanceJUnitTest {
     assertEquals("hello", fieldInstance.getField("afield"));
   }
 
+  @Test
+  public void testFieldAccessor() throws IOException, ClassNotFoundException {
+    PdxInstanceFactory pf = PdxInstanceFactoryImpl.newCreator("AccessorTest", false);
+    pf.writeInt("id", 7);
+    pf.writeLong("amount", 42L);
+    pf.writeString("name", "abc");
+    pf.writeString("nullName", null);
+    PdxInstanceImpl instance = (PdxInstanceImpl) pf.create();
+    PdxType type = instance.getPdxType();
+
+    PdxFieldAccessor id = type.getFieldAccessor("id");
+    assertSame(id, type.getFieldAccessor("id"));
+    assertNull(type.getFieldAccessor("missing"));
+    assertTrue(id.isFor(instance));
+    assertEquals(7, id.readInt(instance));
+    assertEquals(Integer.valueOf(7), id.readField(instance));
+    assertEquals(42L, type.getFieldAccessor("amount").readLong(instance));
+
+    PdxFieldAccessor name = type.getFieldAccessor("name");
+    assertEquals(new PdxString("abc"), name.readPdxString(instance));
+    assertEquals(new PdxString("abc"), name.readRawField(instance));
+    assertTrue(name.stringEquals(instance, new PdxString("abc")));
+    assertFalse(name.stringEquals(instance, new PdxString("abd")));
+    assertNull(type.getFieldAccessor("nullName").readPdxString(instance));
+
+    try {
+      name.readInt(instance);
+      fail("expected PdxFieldTypeMismatchException");
+    } catch (PdxFieldTypeMismatchException expected) {
+    }
+
+    WritablePdxInstance writable = instance.createWriter();
+    writable.setField("id", 8);
+    assertEquals(8, id.readInt((PdxInstanceImpl) writable));
+    assertEquals(7, id.readInt(instance));
+  }
+
   @Test
   public void testHashCodeAndEqualsSameType() throws IOException, ClassNotFoundException {
     PdxInstance instance = getAllFields(0);
@@ -0,0 +1,70 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.pdx.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.reflect.Field;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.pdx.internal.AutoSerializableManager.FieldWrapper;
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category(UnitTest.class)
+public class MethodHandleFieldWrapperTest {
+
+  private static class Value {
+    private int anInt;
+    private long aLong;
+    private String aString;
+  }
+
+  private static FieldWrapper wrapper(String fieldName) throws Exception {
+    Field field = Value.class.getDeclaredField(fieldName);
+    field.setAccessible(true);
+    return MethodHandleFieldWrapper.create(field);
+  }
+
+  @Test
+  public void eachFieldHasItsOwnCopyOfTheClass() throws Exception {
+    FieldWrapper intWrapper = wrapper("anInt");
+    FieldWrapper longWrapper = wrapper("aLong");
+
+    assertThat(intWrapper.getClass().getName()).isEqualTo(MethodHandleFieldWrapper.class.getName());
+    assertThat(intWrapper.getClass()).isNotEqualTo(MethodHandleFieldWrapper.class)
+        .isNotEqualTo(longWrapper.getClass());
+  }
+
+  @Test
+  public void readsAndWritesFields() throws Exception {
+    Value value = new Value();
+    FieldWrapper intWrapper = wrapper("anInt");
+    FieldWrapper longWrapper = wrapper("aLong");
+    FieldWrapper stringWrapper = wrapper("aString");
+
+    intWrapper.setInt(value, 1);
+    longWrapper.setLong(value, 2L);
+    stringWrapper.setObject(value, "three");
+
+    assertThat(value.anInt).isEqualTo(1);
+    assertThat(intWrapper.getInt(value)).isEqualTo(1);
+    assertThat(longWrapper.getLong(value)).isEqualTo(2L);
+    assertThat(longWrapper.getObject(value)).isEqualTo(2L);
+    assertThat(stringWrapper.getObject(value)).isEqualTo("three");
+    assertThat(intWrapper.getField()).isEqualTo(Value.class.getDeclaredField("anInt"));
+  }
+}
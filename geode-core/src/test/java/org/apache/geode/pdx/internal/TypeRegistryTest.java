@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.pdx.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.internal.cache.InternalCache;
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category(UnitTest.class)
+public class TypeRegistryTest {
+
+  private TypeRegistry typeRegistry;
+
+  @Before
+  public void setUp() throws Exception {
+    this.typeRegistry = new TypeRegistry(mock(InternalCache.class), true);
+  }
+
+  @Test
+  public void unreadTypesAreKeptPerClassAndTypeId() throws Exception {
+    UnreadPdxType stringType = createUnreadType(String.class, 1);
+    UnreadPdxType integerType = createUnreadType(Integer.class, 2);
+
+    this.typeRegistry.defineUnreadType(String.class, stringType);
+    this.typeRegistry.defineUnreadType(Integer.class, integerType);
+
+    assertThat(this.typeRegistry.getExistingTypeForClass(String.class, 1)).isSameAs(stringType);
+    assertThat(this.typeRegistry.getExistingTypeForClass(Integer.class, 2)).isSameAs(integerType);
+    assertThat(this.typeRegistry.getExistingTypeForClass(String.class, 2)).isNull();
+    assertThat(this.typeRegistry.getExistingTypeForClass(Long.class, 1)).isNull();
+  }
+
+  @Test
+  public void concurrentUnreadTypeDefinitionsForSameClassAreAllKept() throws Exception {
+    final int threadCount = 8;
+    final CountDownLatch start = new CountDownLatch(1);
+    List<Thread> threads = new ArrayList<>();
+    for (int i = 0; i < threadCount; i++) {
+      final int typeId = i + 1;
+      Thread thread = new Thread(() -> {
+        try {
+          start.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        this.typeRegistry.defineUnreadType(String.class, createUnreadType(String.class, typeId));
+      });
+      thread.start();
+      threads.add(thread);
+    }
+    start.countDown();
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    for (int i = 1; i <= threadCount; i++) {
+      assertThat(this.typeRegistry.getExistingTypeForClass(String.class, i)).isNotNull();
+    }
+  }
+
+  @Test
+  public void testClearLocalTypeRegistryRemovesUnreadTypes() throws Exception {
+    this.typeRegistry.defineUnreadType(String.class, createUnreadType(String.class, 1));
+
+    this.typeRegistry.testClearLocalTypeRegistry();
+
+    assertThat(this.typeRegistry.getExistingTypeForClass(String.class, 1)).isNull();
+    assertThat(this.typeRegistry.getExistingTypeForClass(String.class)).isNull();
+  }
+
+  private static UnreadPdxType createUnreadType(Class<?> aClass, int typeId) {
+    PdxType pdxType = new PdxType(aClass.getName(), true);
+    pdxType.setTypeId(typeId);
+    return new UnreadPdxType(pdxType, new int[0]);
+  }
+}
@@ -0,0 +1,223 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.redis.internal;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Matchers.*;
+import static org.mockito.Mockito.*;
+
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelOutboundHandlerAdapter;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.LogWriter;
+import org.apache.geode.cache.Cache;
+import org.apache.geode.cache.Region;
+import org.apache.geode.redis.GeodeRedisServer;
+import org.apache.geode.test.junit.categories.UnitTest;
+
+/**
+ * Checks how pipelined GETs and SETs are batched by {@link ExecutionHandlerContext}, with the
+ * strings region backed by a plain map
+ */
+@Category(UnitTest.class)
+public class ExecutionHandlerContextJUnitTest {
+
+  private static final Charset UTF8 = Charset.forName("UTF-8");
+
+  private final Map<ByteArrayWrapper, ByteArrayWrapper> data =
+      new HashMap<ByteArrayWrapper, ByteArrayWrapper>();
+
+  private Region<ByteArrayWrapper, ByteArrayWrapper> stringsRegion;
+  private RegionProvider regionProvider;
+  private FlushCounter flushCounter;
+  private EmbeddedChannel channel;
+
+  @Before
+  @SuppressWarnings("unchecked")
+  public void setUp() {
+    stringsRegion = mock(Region.class);
+    when(stringsRegion.get(any())).thenAnswer(invocation -> data.get(invocation.getArguments()[0]));
+    when(stringsRegion.put(any(), any())).thenAnswer(invocation -> data
+        .put((ByteArrayWrapper) invocation.getArguments()[0],
+            (ByteArrayWrapper) invocation.getArguments()[1]));
+    when(stringsRegion.putIfAbsent(any(), any())).thenAnswer(invocation -> data
+        .putIfAbsent((ByteArrayWrapper) invocation.getArguments()[0],
+            (ByteArrayWrapper) invocation.getArguments()[1]));
+    when(stringsRegion.getAll(anyCollection())).thenAnswer(invocation -> {
+      Map<Object, ByteArrayWrapper> values = new HashMap<Object, ByteArrayWrapper>();
+      for (Object key : (Collection<Object>) invocation.getArguments()[0]) {
+        values.put(key, data.get(key));
+      }
+      return values;
+    });
+    doAnswer(invocation -> {
+      data.putAll((Map<ByteArrayWrapper, ByteArrayWrapper>) invocation.getArguments()[0]);
+      return null;
+    }).when(stringsRegion).putAll(anyMap());
+
+    regionProvider = mock(RegionProvider.class);
+    when(regionProvider.getStringsRegion()).thenReturn(stringsRegion);
+
+    Cache cache = mock(Cache.class);
+    when(cache.getLogger()).thenReturn(mock(LogWriter.class));
+
+    flushCounter = new FlushCounter();
+    channel = new EmbeddedChannel(flushCounter);
+    channel.pipeline().addLast(new ExecutionHandlerContext(channel, cache, regionProvider,
+        mock(GeodeRedisServer.class), null));
+  }
+
+  @Test
+  public void repliesStayInOrderAcrossMixedPipeline() {
+    data.put(wrap("a"), wrap("1"));
+    data.put(wrap("b"), wrap("2"));
+
+    channel.writeInbound(command("GET", "a"), command("GET", "missing"), command("SET", "c", "3"),
+        command("SET", "d", "4"), command("PING"), command("GET", "c"), command("GET", "b"),
+        command("SET", "e", "5"));
+
+    assertThat(readReplies()).containsExactly("$1\r\n1\r\n", "$-1\r\n", "+OK\r\n", "+OK\r\n",
+        "+PONG\r\n", "$1\r\n3\r\n", "$1\r\n2\r\n", "+OK\r\n");
+    verify(stringsRegion, times(2)).getAll(anyCollection());
+    verify(stringsRegion, times(1)).putAll(anyMap());
+    verify(stringsRegion, never()).get(any());
+    assertThat(data).containsEntry(wrap("e"), wrap("5"));
+  }
+
+  @Test
+  public void setWithOptionsInsideBatchKeepsItsPlace() {
+    channel.writeInbound(command("SET", "a", "1"), command("SET", "a", "2", "NX"),
+        command("SET", "b", "3"));
+
+    assertThat(readReplies()).containsExactly("+OK\r\n", "$-1\r\n", "+OK\r\n");
+    assertThat(data).containsEntry(wrap("a"), wrap("1")).containsEntry(wrap("b"), wrap("3"));
+  }
+
+  @Test
+  public void failedGetAllFallsBackToOneGetPerCommand() {
+    data.put(wrap("a"), wrap("1"));
+    data.put(wrap("b"), wrap("2"));
+    when(stringsRegion.getAll(anyCollection())).thenThrow(new IllegalArgumentException("boom"));
+
+    channel.writeInbound(command("GET", "a"), command("GET", "missing"), command("GET", "b"));
+
+    assertThat(readReplies()).containsExactly("$1\r\n1\r\n", "$-1\r\n", "$1\r\n2\r\n");
+    verify(stringsRegion).get(wrap("a"));
+    verify(stringsRegion).get(wrap("missing"));
+    verify(stringsRegion).get(wrap("b"));
+  }
+
+  @Test
+  public void failedPutAllFallsBackToOnePutPerCommand() {
+    doThrow(new IllegalArgumentException("boom")).when(stringsRegion).putAll(anyMap());
+
+    channel.writeInbound(command("SET", "a", "1"), command("SET", "b", "2"));
+
+    assertThat(readReplies()).containsExactly("+OK\r\n", "+OK\r\n");
+    verify(stringsRegion).put(wrap("a"), wrap("1"));
+    verify(stringsRegion).put(wrap("b"), wrap("2"));
+    assertThat(data).containsEntry(wrap("a"), wrap("1")).containsEntry(wrap("b"), wrap("2"));
+  }
+
+  @Test
+  public void wrongTypeKeyInsideGetBatchOnlyFailsThatCommand() {
+    data.put(wrap("a"), wrap("1"));
+    data.put(wrap("b"), wrap("2"));
+    when(regionProvider.getRedisDataType(wrap("h"))).thenReturn(RedisDataType.REDIS_HASH);
+
+    channel.writeInbound(command("GET", "a"), command("GET", "h"), command("GET", "b"));
+
+    List<String> replies = readReplies();
+    assertThat(replies).hasSize(3);
+    assertThat(replies.get(0)).isEqualTo("$1\r\n1\r\n");
+    assertThat(replies.get(1)).startsWith("-WRONGTYPE ");
+    assertThat(replies.get(2)).isEqualTo("$1\r\n2\r\n");
+  }
+
+  @Test
+  public void wrongTypeKeyInsideSetBatchIsNotWritten() {
+    when(regionProvider.metaPutIfAbsent(wrap("h"), RedisDataType.REDIS_STRING))
+        .thenReturn(RedisDataType.REDIS_HASH);
+
+    channel.writeInbound(command("SET", "a", "1"), command("SET", "h", "2"),
+        command("SET", "b", "3"));
+
+    List<String> replies = readReplies();
+    assertThat(replies).hasSize(3);
+    assertThat(replies.get(0)).isEqualTo("+OK\r\n");
+    assertThat(replies.get(1)).startsWith("-WRONGTYPE ");
+    assertThat(replies.get(2)).isEqualTo("+OK\r\n");
+    assertThat(data).containsOnlyKeys(wrap("a"), wrap("b"));
+  }
+
+  @Test
+  public void repliesOfOneReadAreFlushedOnce() {
+    channel.writeInbound(command("SET", "a", "1"), command("SET", "b", "2"), command("PING"),
+        command("GET", "a"), command("GET", "b"), command("PING"));
+
+    assertThat(flushCounter.flushes).isEqualTo(1);
+    assertThat(readReplies()).hasSize(6);
+
+    channel.writeInbound(command("GET", "a"));
+
+    assertThat(flushCounter.flushes).isEqualTo(2);
+    assertThat(readReplies()).containsExactly("$1\r\n1\r\n");
+  }
+
+  private List<String> readReplies() {
+    List<String> replies = new ArrayList<String>();
+    ByteBuf reply;
+    while ((reply = channel.readOutbound()) != null) {
+      replies.add(reply.toString(UTF8));
+      reply.release();
+    }
+    return replies;
+  }
+
+  private static Command command(String... elements) {
+    List<byte[]> commandElems = new ArrayList<byte[]>();
+    for (String element : elements) {
+      commandElems.add(Coder.stringToBytes(element));
+    }
+    return new Command(commandElems);
+  }
+
+  private static ByteArrayWrapper wrap(String value) {
+    return Coder.stringToByteArrayWrapper(value);
+  }
+
+  private static class FlushCounter extends ChannelOutboundHandlerAdapter {
+
+    private int flushes;
+
+    @Override
+    public void flush(ChannelHandlerContext ctx) throws Exception {
+      flushes++;
+      super.flush(ctx);
+    }
+  }
+}
@@ -0,0 +1,112 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.redis.internal;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.internal.HeapDataOutputStream;
+import org.apache.geode.internal.Version;
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category(UnitTest.class)
+public class RedisHashJUnitTest {
+
+  @Test
+  public void deltaContainsOnlyChangesSinceClear() throws Exception {
+    RedisHash hash = new RedisHash();
+    hash.put(wrap("a"), wrap("1"));
+    hash.put(wrap("b"), wrap("2"));
+    RedisHash remote = serializeAndDeserialize(hash);
+    hash.clearDelta();
+    assertThat(hash.hasDelta()).isFalse();
+
+    hash.put(wrap("c"), wrap("3"));
+    hash.put(wrap("a"), wrap("4"));
+    hash.remove(wrap("b"));
+    assertThat(hash.hasDelta()).isTrue();
+    applyDelta(hash, remote);
+
+    assertThat(remote.size()).isEqualTo(2);
+    assertThat(remote.get(wrap("a"))).isEqualTo(wrap("4"));
+    assertThat(remote.containsKey(wrap("b"))).isFalse();
+    assertThat(remote.get(wrap("c"))).isEqualTo(wrap("3"));
+    assertThat(remote.hasDelta()).isFalse();
+  }
+
+  @Test
+  public void unchangedHashHasNoDelta() {
+    RedisHash hash = new RedisHash();
+    hash.put(wrap("a"), wrap("1"));
+    hash.clearDelta();
+
+    assertThat(hash.putIfAbsent(wrap("a"), wrap("2"))).isEqualTo(wrap("1"));
+    assertThat(hash.remove(wrap("b"))).isNull();
+
+    assertThat(hash.hasDelta()).isFalse();
+    assertThat(hash.get(wrap("a"))).isEqualTo(wrap("1"));
+  }
+
+  @Test
+  public void copyIsIndependentOfOriginal() {
+    RedisHash hash = new RedisHash();
+    hash.put(wrap("a"), wrap("1"));
+
+    RedisHash copy = hash.copy();
+    copy.put(wrap("b"), wrap("2"));
+
+    assertThat(copy.hasDelta()).isTrue();
+    assertThat(hash.size()).isEqualTo(1);
+    assertThat(copy.keySet()).containsOnly(wrap("a"), wrap("b"));
+  }
+
+  @Test
+  public void serializesAllFields() throws Exception {
+    RedisHash hash = new RedisHash();
+    for (int i = 0; i < 100; i++) {
+      hash.put(wrap("field" + i), wrap("value" + i));
+    }
+
+    RedisHash result = serializeAndDeserialize(hash);
+
+    assertThat(result.size()).isEqualTo(100);
+    assertThat(result.entrySet()).containsOnlyElementsOf(hash.entrySet());
+  }
+
+  private static ByteArrayWrapper wrap(String value) {
+    return Coder.stringToByteArrayWrapper(value);
+  }
+
+  private static void applyDelta(RedisCollection source, RedisCollection target)
+      throws IOException {
+    HeapDataOutputStream out = new HeapDataOutputStream(Version.CURRENT);
+    source.toDelta(out);
+    target.fromDelta(new DataInputStream(new ByteArrayInputStream(out.toByteArray())));
+  }
+
+  private static RedisHash serializeAndDeserialize(RedisHash hash) throws Exception {
+    HeapDataOutputStream out = new HeapDataOutputStream(Version.CURRENT);
+    hash.toData(out);
+    RedisHash result = new RedisHash();
+    result.fromData(new DataInputStream(new ByteArrayInputStream(out.toByteArray())));
+    return result;
+  }
+}
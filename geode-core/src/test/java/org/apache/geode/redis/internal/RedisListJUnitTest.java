@@ -0,0 +1,119 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.redis.internal;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.internal.HeapDataOutputStream;
+import org.apache.geode.internal.Version;
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category(UnitTest.class)
+public class RedisListJUnitTest {
+
+  @Test
+  public void deltaReplaysEveryOperationInOrder() throws Exception {
+    RedisList list = new RedisList();
+    list.pushTail(wrap("a"));
+    list.pushTail(wrap("b"));
+    list.pushTail(wrap("a"));
+    RedisList remote = serializeAndDeserialize(list);
+    list.clearDelta();
+
+    list.pushHead(wrap("c"));
+    list.pushTail(wrap("d"));
+    assertThat(list.set(-1, wrap("e"))).isTrue();
+    assertThat(list.remove(wrap("a"), 0)).isEqualTo(2);
+    assertThat(list.popHead()).isEqualTo(wrap("c"));
+    list.pushTail(wrap("f"));
+    list.trim(0, 1);
+
+    HeapDataOutputStream out = new HeapDataOutputStream(Version.CURRENT);
+    list.toDelta(out);
+    remote.fromDelta(new DataInputStream(new ByteArrayInputStream(out.toByteArray())));
+
+    assertThat(remote.range(0, -1)).containsExactly(wrap("b"), wrap("e"));
+    assertThat(remote.range(0, -1)).isEqualTo(list.range(0, -1));
+  }
+
+  @Test
+  public void negativeIndexesCountFromTheTail() {
+    RedisList list = listOf("a", "b", "c");
+
+    assertThat(list.get(-1)).isEqualTo(wrap("c"));
+    assertThat(list.get(3)).isNull();
+    assertThat(list.get(-4)).isNull();
+    assertThat(list.set(3, wrap("d"))).isFalse();
+    assertThat(list.range(-2, 10)).containsExactly(wrap("b"), wrap("c"));
+    assertThat(list.range(2, 1)).isEmpty();
+  }
+
+  @Test
+  public void removeWithNegativeCountStartsFromTheTail() {
+    RedisList list = listOf("a", "b", "a", "c", "a");
+
+    assertThat(list.remove(wrap("a"), -2)).isEqualTo(2);
+    assertThat(list.range(0, -1)).containsExactly(wrap("a"), wrap("b"), wrap("c"));
+  }
+
+  @Test
+  public void trimOutOfRangeEmptiesTheList() {
+    RedisList list = listOf("a", "b", "c");
+
+    list.trim(5, 10);
+
+    assertThat(list.isEmpty()).isTrue();
+    assertThat(list.popTail()).isNull();
+  }
+
+  @Test
+  public void serializesAllElementsInOrder() throws Exception {
+    RedisList list = new RedisList();
+    for (int i = 0; i < 100; i++) {
+      list.pushTail(wrap("element" + i));
+    }
+
+    RedisList result = serializeAndDeserialize(list);
+
+    assertThat(result.range(0, -1)).isEqualTo(list.range(0, -1));
+    assertThat(result.hasDelta()).isFalse();
+  }
+
+  private static RedisList listOf(String... values) {
+    RedisList list = new RedisList();
+    for (String value : values) {
+      list.pushTail(wrap(value));
+    }
+    return list;
+  }
+
+  private static ByteArrayWrapper wrap(String value) {
+    return Coder.stringToByteArrayWrapper(value);
+  }
+
+  private static RedisList serializeAndDeserialize(RedisList list) throws Exception {
+    HeapDataOutputStream out = new HeapDataOutputStream(Version.CURRENT);
+    list.toData(out);
+    RedisList result = new RedisList();
+    result.fromData(new DataInputStream(new ByteArrayInputStream(out.toByteArray())));
+    return result;
+  }
+}
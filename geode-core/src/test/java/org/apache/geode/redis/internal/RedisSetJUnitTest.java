@@ -0,0 +1,86 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.redis.internal;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.util.Arrays;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.internal.HeapDataOutputStream;
+import org.apache.geode.internal.Version;
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category(UnitTest.class)
+public class RedisSetJUnitTest {
+
+  @Test
+  public void deltaContainsOnlyChangesSinceClear() throws Exception {
+    RedisSet set = new RedisSet();
+    set.addAll(Arrays.asList(wrap("a"), wrap("b")));
+    RedisSet remote = serializeAndDeserialize(set);
+    set.clearDelta();
+
+    assertThat(set.add(wrap("a"))).isFalse();
+    assertThat(set.hasDelta()).isFalse();
+    assertThat(set.add(wrap("c"))).isTrue();
+    assertThat(set.remove(wrap("a"))).isTrue();
+
+    HeapDataOutputStream out = new HeapDataOutputStream(Version.CURRENT);
+    set.toDelta(out);
+    remote.fromDelta(new DataInputStream(new ByteArrayInputStream(out.toByteArray())));
+
+    assertThat(remote.members()).containsOnly(wrap("b"), wrap("c"));
+    assertThat(remote.hasDelta()).isFalse();
+  }
+
+  @Test
+  public void addAllCountsNewMembers() {
+    RedisSet set = new RedisSet();
+    set.add(wrap("a"));
+
+    assertThat(set.addAll(Arrays.asList(wrap("a"), wrap("b"), wrap("b")))).isEqualTo(1);
+    assertThat(set.size()).isEqualTo(2);
+  }
+
+  @Test
+  public void serializesAllMembers() throws Exception {
+    RedisSet set = new RedisSet();
+    for (int i = 0; i < 100; i++) {
+      set.add(wrap("member" + i));
+    }
+
+    RedisSet result = serializeAndDeserialize(set);
+
+    assertThat(result.members()).isEqualTo(set.members());
+    assertThat(result.hasDelta()).isFalse();
+  }
+
+  private static ByteArrayWrapper wrap(String value) {
+    return Coder.stringToByteArrayWrapper(value);
+  }
+
+  private static RedisSet serializeAndDeserialize(RedisSet set) throws Exception {
+    HeapDataOutputStream out = new HeapDataOutputStream(Version.CURRENT);
+    set.toData(out);
+    RedisSet result = new RedisSet();
+    result.fromData(new DataInputStream(new ByteArrayInputStream(out.toByteArray())));
+    return result;
+  }
+}
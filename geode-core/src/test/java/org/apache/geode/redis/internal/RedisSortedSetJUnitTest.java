@@ -0,0 +1,157 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.redis.internal;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map.Entry;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.internal.HeapDataOutputStream;
+import org.apache.geode.internal.Version;
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category(UnitTest.class)
+public class RedisSortedSetJUnitTest {
+
+  @Test
+  public void membersAreOrderedByScoreThenMember() {
+    RedisSortedSet sortedSet = new RedisSortedSet();
+    sortedSet.add(wrap("c"), 1);
+    sortedSet.add(wrap("b"), 2);
+    sortedSet.add(wrap("a"), 1);
+
+    assertThat(members(sortedSet.entries())).containsExactly("a", "c", "b");
+    assertThat(sortedSet.rank(wrap("c"), false)).isEqualTo(1);
+    assertThat(sortedSet.rank(wrap("c"), true)).isEqualTo(1);
+    assertThat(sortedSet.rank(wrap("b"), true)).isEqualTo(0);
+    assertThat(sortedSet.rank(wrap("d"), false)).isEqualTo(-1);
+  }
+
+  @Test
+  public void changingScoreMovesMember() {
+    RedisSortedSet sortedSet = new RedisSortedSet();
+    assertThat(sortedSet.add(wrap("a"), 1)).isTrue();
+    sortedSet.add(wrap("b"), 2);
+
+    assertThat(sortedSet.add(wrap("a"), 3)).isFalse();
+
+    assertThat(sortedSet.getScore(wrap("a"))).isEqualTo(3.0);
+    assertThat(members(sortedSet.entries())).containsExactly("b", "a");
+    assertThat(sortedSet.size()).isEqualTo(2);
+  }
+
+  @Test
+  public void rangesByRankAndScore() {
+    RedisSortedSet sortedSet = new RedisSortedSet();
+    for (int i = 0; i < 100; i++) {
+      sortedSet.add(wrap("member" + i), i);
+    }
+
+    assertThat(members(sortedSet.range(10, 12, false))).containsExactly("member10", "member11",
+        "member12");
+    assertThat(members(sortedSet.range(0, 1, true))).containsExactly("member99", "member98");
+    assertThat(members(sortedSet.rangeByScore(20, false, 30, true, false, 2, 3)))
+        .containsExactly("member23", "member24", "member25");
+    assertThat(members(sortedSet.rangeByScore(20, true, 30, false, true, 0, -1))).hasSize(10)
+        .startsWith("member29").endsWith("member20");
+    assertThat(sortedSet.count(Double.NEGATIVE_INFINITY, true, 49.5, true)).isEqualTo(50);
+    assertThat(sortedSet.count(60, false, 50, false)).isEqualTo(0);
+
+    assertThat(sortedSet.removeRangeByScore(0, true, 50, false)).isEqualTo(50);
+    assertThat(sortedSet.removeRange(0, 9)).isEqualTo(10);
+    assertThat(sortedSet.rank(wrap("member60"), false)).isEqualTo(0);
+  }
+
+  @Test
+  public void lexRangesTreatNullAsUnbounded() {
+    RedisSortedSet sortedSet = new RedisSortedSet();
+    for (String member : new String[] {"a", "b", "c", "d", "e"}) {
+      sortedSet.add(wrap(member), 0);
+    }
+
+    assertThat(sortedSet.rangeByLex(wrap("b"), true, null, false, 1, 2))
+        .containsExactly(wrap("c"), wrap("d"));
+    assertThat(sortedSet.lexCount(null, false, wrap("c"), false)).isEqualTo(2);
+    assertThat(sortedSet.removeRangeByLex(wrap("b"), false, wrap("d"), true)).isEqualTo(2);
+    assertThat(sortedSet.rangeByLex(null, false, null, false, 0, -1))
+        .containsExactly(wrap("a"), wrap("b"), wrap("e"));
+  }
+
+  @Test
+  public void deltaContainsOnlyChangesSinceClear() throws Exception {
+    RedisSortedSet sortedSet = new RedisSortedSet();
+    sortedSet.add(wrap("a"), 1);
+    sortedSet.add(wrap("b"), 2);
+    RedisSortedSet remote = serializeAndDeserialize(sortedSet);
+    sortedSet.clearDelta();
+
+    assertThat(sortedSet.add(wrap("a"), 1)).isFalse();
+    assertThat(sortedSet.hasDelta()).isFalse();
+    sortedSet.add(wrap("a"), 5);
+    sortedSet.add(wrap("c"), 3);
+    sortedSet.remove(wrap("b"));
+
+    HeapDataOutputStream out = new HeapDataOutputStream(Version.CURRENT);
+    sortedSet.toDelta(out);
+    remote.fromDelta(new DataInputStream(new ByteArrayInputStream(out.toByteArray())));
+
+    assertThat(members(remote.entries())).containsExactly("c", "a");
+    assertThat(remote.getScore(wrap("a"))).isEqualTo(5.0);
+    assertThat(remote.hasDelta()).isFalse();
+  }
+
+  @Test
+  public void serializesAllMembers() throws Exception {
+    RedisSortedSet sortedSet = new RedisSortedSet();
+    for (int i = 0; i < 100; i++) {
+      sortedSet.add(wrap("member" + i), i % 7);
+    }
+
+    RedisSortedSet result = serializeAndDeserialize(sortedSet);
+
+    assertThat(members(result.entries())).isEqualTo(members(sortedSet.entries()));
+    assertThat(result.rank(wrap("member50"), false))
+        .isEqualTo(sortedSet.rank(wrap("member50"), false));
+    assertThat(result.hasDelta()).isFalse();
+  }
+
+  private static ByteArrayWrapper wrap(String value) {
+    return Coder.stringToByteArrayWrapper(value);
+  }
+
+  private static List<String> members(List<Entry<ByteArrayWrapper, DoubleWrapper>> entries) {
+    List<String> members = new ArrayList<String>();
+    for (Entry<ByteArrayWrapper, DoubleWrapper> entry : entries) {
+      members.add(entry.getKey().toString());
+    }
+    return members;
+  }
+
+  private static RedisSortedSet serializeAndDeserialize(RedisSortedSet sortedSet)
+      throws Exception {
+    HeapDataOutputStream out = new HeapDataOutputStream(Version.CURRENT);
+    sortedSet.toData(out);
+    RedisSortedSet result = new RedisSortedSet();
+    result.fromData(new DataInputStream(new ByteArrayInputStream(out.toByteArray())));
+    return result;
+  }
+}
@@ -0,0 +1,83 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.redis.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.Region;
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category(UnitTest.class)
+public class RegionProviderJUnitTest {
+
+  private static final ByteArrayWrapper KEY = new ByteArrayWrapper("key".getBytes());
+  private static final ByteArrayWrapper FIRST = new ByteArrayWrapper("first".getBytes());
+  private static final ByteArrayWrapper SECOND = new ByteArrayWrapper("second".getBytes());
+
+  private Region<ByteArrayWrapper, RedisSet> setRegion;
+  private RegionProvider regionProvider;
+
+  @Before
+  @SuppressWarnings("unchecked")
+  public void setUp() {
+    setRegion = mock(Region.class);
+    regionProvider = new RegionProvider(mock(Region.class), mock(Region.class),
+        mock(Region.class), mock(Region.class), setRegion, mock(Region.class),
+        mock(Region.class), new ConcurrentHashMap<>(), mock(ScheduledExecutorService.class));
+  }
+
+  @Test
+  public void newCollectionIsCreatedWithPutIfAbsent() {
+    int added = regionProvider.updateCollection(KEY, RedisDataType.REDIS_SET, null,
+        (RedisSet set) -> set.add(FIRST) ? 1 : 0);
+
+    assertThat(added).isEqualTo(1);
+    verify(setRegion).putIfAbsent(eq(KEY), any(RedisSet.class));
+    verify(setRegion, never()).put(any(), any());
+  }
+
+  @Test
+  public void updateIsReappliedToCollectionCreatedByAnotherServer() {
+    RedisSet existing = new RedisSet();
+    existing.add(FIRST);
+    existing.clearDelta();
+    // another server creates the key between the get and the putIfAbsent
+    when(setRegion.get(KEY)).thenReturn(null, existing);
+    when(setRegion.putIfAbsent(eq(KEY), any(RedisSet.class))).thenReturn(existing);
+
+    int size = regionProvider.updateCollection(KEY, RedisDataType.REDIS_SET, null,
+        (RedisSet set) -> {
+          set.add(SECOND);
+          return set.size();
+        });
+
+    assertThat(size).isEqualTo(2);
+    assertThat(existing.members()).containsOnly(FIRST, SECOND);
+    verify(setRegion).put(KEY, existing);
+  }
+}
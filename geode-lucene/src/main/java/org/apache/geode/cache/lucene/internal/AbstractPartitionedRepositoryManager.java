@@ -47,6 +47,15 @@ public abstract class AbstractPartitionedRepositoryManager implements Repository
   protected final ConcurrentHashMap<Integer, IndexRepository> indexRepositories =
       new ConcurrentHashMap<Integer, IndexRepository>();
 
+  /**
+   * A lock per bucket held while its repository is computed. Opening a repository reads the index
+   * from the file region, so it is not done inside {@link ConcurrentHashMap#compute}, which would
+   * also block every other bucket hashed to the same bin. This way the repositories of all of the
+   * buckets that become primary during recovery are opened in parallel.
+   */
+  private final ConcurrentHashMap<Integer, Object> bucketLocks =
+      new ConcurrentHashMap<Integer, Object>();
+
   /** The user region for this index */
   protected PartitionedRegion userRegion = null;
   protected final LuceneSerializer serializer;
@@ -105,20 +114,27 @@ public abstract class AbstractPartitionedRepositoryManager implements Repository
     } catch (InterruptedException e) {
       throw new InternalGemFireError("Uable to create index repository", e);
     }
-    IndexRepository repo = indexRepositories.compute(bucketId, (key, oldRepository) -> {
-      try {
-        if (closed) {
-          if (oldRepository != null) {
-            oldRepository.cleanup();
-          }
-          throw new LuceneIndexDestroyedException(index.getName(), index.getRegionPath());
+    synchronized (bucketLocks.computeIfAbsent(bucketId, key -> new Object())) {
+      IndexRepository oldRepository = indexRepositories.get(bucketId);
+      if (closed) {
+        if (oldRepository != null) {
+          oldRepository.cleanup();
         }
-        return computeRepository(bucketId, serializer, index, userRegion, oldRepository);
+        throw new LuceneIndexDestroyedException(index.getName(), index.getRegionPath());
+      }
+      IndexRepository repo;
+      try {
+        repo = computeRepository(bucketId, serializer, index, userRegion, oldRepository);
       } catch (IOException e) {
         throw new InternalGemFireError("Unable to create index repository", e);
       }
-    });
-    return repo;
+      if (repo == null) {
+        indexRepositories.remove(bucketId);
+      } else {
+        indexRepositories.put(bucketId, repo);
+      }
+      return repo;
+    }
   }
 
   protected void allowRepositoryComputation() {
@@ -22,6 +22,7 @@ import org.apache.geode.cache.lucene.internal.partition.BucketTargetingMap;
 import org.apache.geode.cache.lucene.internal.repository.IndexRepository;
 import org.apache.geode.cache.lucene.internal.repository.IndexRepositoryImpl;
 import org.apache.geode.cache.lucene.internal.repository.serializer.LuceneSerializer;
+import org.apache.geode.cache.query.internal.DefaultQuery;
 import org.apache.geode.distributed.DistributedLockService;
 import org.apache.geode.internal.cache.BucketRegion;
 import org.apache.geode.internal.cache.PartitionedRegion;
@@ -77,6 +78,7 @@ public class IndexRepositoryFactory {
     }
 
     final IndexRepository repo;
+    final long start = indexForPR.getIndexStats().startRepositoryCreation();
     try {
       RegionDirectory dir = new RegionDirectory(getBucketTargetingMap(fileAndChunkBucket, bucketId),
           indexForPR.getFileSystemStats());
@@ -84,6 +86,9 @@ public class IndexRepositoryFactory {
       IndexWriter writer = new IndexWriter(dir, config);
       repo = new IndexRepositoryImpl(fileAndChunkBucket, writer, serializer,
           indexForPR.getIndexStats(), dataBucket, lockService, lockName);
+      if (dir.getFileSystem().hasUncommittedChanges()) {
+        reindex(repo, userRegion, dataBucket);
+      }
       success = true;
       return repo;
     } catch (IOException e) {
@@ -91,6 +96,7 @@ public class IndexRepositoryFactory {
           + " for file region:" + fileAndChunkBucket.getFullPath());
       throw e;
     } finally {
+      indexForPR.getIndexStats().endRepositoryCreation(start);
       if (!success) {
         lockService.unlock(lockName);
       }
@@ -98,6 +104,30 @@ public class IndexRepositoryFactory {
 
   }
 
+  /**
+   * Rebuilds the index of a bucket from its data. Used when the previous primary failed before
+   * committing changes it had already taken off the queue, which are not delivered again.
+   */
+  private void reindex(IndexRepository repo, PartitionedRegion userRegion, BucketRegion dataBucket)
+      throws IOException {
+    logger.info("Rebuilding Lucene index for bucket " + dataBucket.getFullPath()
+        + " because it has changes that were not committed");
+    repo.getWriter().deleteAll();
+    // Try to get a PDX instance if possible, rather than a deserialized object
+    DefaultQuery.setPdxReadSerialized(true);
+    try {
+      for (Object key : dataBucket.keySet()) {
+        Object value = LuceneEventListener.getValue(userRegion.getEntry(key));
+        if (value != null) {
+          repo.create(key, value);
+        }
+      }
+    } finally {
+      DefaultQuery.setPdxReadSerialized(false);
+    }
+    repo.commit();
+  }
+
   private Map getBucketTargetingMap(BucketRegion region, int bucketId) {
     return new BucketTargetingMap(region, bucketId);
   }
@@ -19,6 +19,8 @@ import java.io.IOException;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.geode.cache.EntryDestroyedException;
 import org.apache.geode.cache.Region.Entry;
@@ -34,16 +36,40 @@ import org.apache.geode.cache.asyncqueue.AsyncEventListener;
 import org.apache.geode.cache.lucene.internal.repository.RepositoryManager;
 import org.apache.geode.cache.lucene.internal.repository.IndexRepository;
 import org.apache.geode.cache.query.internal.DefaultQuery;
+import org.apache.geode.distributed.internal.DM;
+import org.apache.geode.distributed.internal.DistributionConfig;
+import org.apache.geode.internal.SystemTimer;
 import org.apache.geode.internal.cache.BucketNotFoundException;
+import org.apache.geode.internal.cache.InternalCache;
 import org.apache.geode.internal.cache.PrimaryBucketException;
 import org.apache.geode.internal.logging.LogService;
 import org.apache.lucene.store.AlreadyClosedException;
 
 /**
  * An Async event queue listener that writes all of the events in batches to Lucene
+ * 
+ * By default every affected index repository is committed at the end of each batch. If a commit
+ * interval is configured the changes are only made visible to queries at the end of each batch,
+ * and a repository is committed once the interval has passed since its last commit or it has
+ * accumulated the configured number of uncommitted changes. A repository with uncommitted changes
+ * is recorded as such in its regions before the batch is acknowledged, so that its index is
+ * rebuilt from the data if the member fails before committing.
  */
 public class LuceneEventListener implements AsyncEventListener {
 
+  /**
+   * Milliseconds to wait between commits of an index repository. Zero commits after every batch.
+   */
+  static final long COMMIT_INTERVAL = Long
+      .getLong(DistributionConfig.GEMFIRE_PREFIX + "LuceneEventListener.COMMIT_INTERVAL", 0);
+
+  /**
+   * Number of uncommitted changes to an index repository that forces a commit before the commit
+   * interval has passed
+   */
+  static final int COMMIT_SIZE = Integer
+      .getInteger(DistributionConfig.GEMFIRE_PREFIX + "LuceneEventListener.COMMIT_SIZE", 10000);
+
   private static LuceneExceptionObserver exceptionObserver = exception -> {
   };
 
@@ -51,12 +77,52 @@ public class LuceneEventListener implements AsyncEventListener {
 
   private final RepositoryManager repositoryManager;
 
-  public LuceneEventListener(RepositoryManager repositoryManager) {
+  private final long commitIntervalNanos;
+
+  private final int commitSize;
+
+  /** repositories with changes that have been refreshed but not committed */
+  private final Set<IndexRepository> uncommittedRepos = ConcurrentHashMap.newKeySet();
+
+  /**
+   * commits repositories that stop receiving events, scheduled on the cache's timer only if there
+   * is a commit interval
+   */
+  private final SystemTimer.SystemTimerTask committer;
+
+  public LuceneEventListener(InternalCache cache, RepositoryManager repositoryManager) {
+    this(cache, repositoryManager, COMMIT_INTERVAL, COMMIT_SIZE);
+  }
+
+  LuceneEventListener(InternalCache cache, RepositoryManager repositoryManager,
+      long commitInterval, int commitSize) {
     this.repositoryManager = repositoryManager;
+    this.commitIntervalNanos = TimeUnit.MILLISECONDS.toNanos(commitInterval);
+    this.commitSize = commitSize;
+    if (commitInterval > 0) {
+      final DM dm = cache.getDistributionManager();
+      this.committer = new SystemTimer.SystemTimerTask() {
+        @Override
+        public void run2() {
+          // commits write to regions, so keep them off the timer thread
+          dm.getWaitingThreadPool().execute(LuceneEventListener.this::commitIdleRepositories);
+        }
+      };
+      cache.getCCPTimer().schedule(this.committer, commitInterval, commitInterval);
+    } else {
+      this.committer = null;
+    }
   }
 
   @Override
-  public void close() {}
+  public void close() {
+    if (committer != null) {
+      committer.cancel();
+      for (IndexRepository repo : uncommittedRepos) {
+        commitUncommitted(repo);
+      }
+    }
+  }
 
   @Override
   public boolean processEvents(List<AsyncEvent> events) {
@@ -97,7 +163,13 @@ public class LuceneEventListener implements AsyncEventListener {
       }
 
       for (IndexRepository repo : affectedRepos) {
-        repo.commit();
+        if (isCommitDue(repo)) {
+          uncommittedRepos.remove(repo);
+          repo.commit();
+        } else {
+          repo.refresh();
+          uncommittedRepos.add(repo);
+        }
       }
       return true;
     } catch (BucketNotFoundException | RegionDestroyedException | PrimaryBucketException e) {
@@ -116,7 +188,36 @@ public class LuceneEventListener implements AsyncEventListener {
     }
   }
 
-  private Object getValue(Region.Entry entry) {
+  private boolean isCommitDue(IndexRepository repo) {
+    return commitIntervalNanos <= 0 || repo.getUncommittedUpdates() >= commitSize
+        || System.nanoTime() - repo.getLastCommitTime() >= commitIntervalNanos;
+  }
+
+  private void commitIdleRepositories() {
+    for (IndexRepository repo : uncommittedRepos) {
+      if (System.nanoTime() - repo.getLastCommitTime() >= commitIntervalNanos) {
+        commitUncommitted(repo);
+      }
+    }
+  }
+
+  private void commitUncommitted(IndexRepository repo) {
+    if (!uncommittedRepos.remove(repo)) {
+      // committed by another thread
+      return;
+    }
+    if (repo.isClosed()) {
+      // closing the repository committed its changes
+      return;
+    }
+    try {
+      repo.commit();
+    } catch (IOException | AlreadyClosedException | CacheClosedException e) {
+      logger.debug("Unable to commit lucene index changes", e);
+    }
+  }
+
+  static Object getValue(Region.Entry entry) {
     final EntrySnapshot es = (EntrySnapshot) entry;
     Object value;
     try {
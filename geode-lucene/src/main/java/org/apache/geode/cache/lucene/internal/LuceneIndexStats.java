@@ -46,6 +46,12 @@ public class LuceneIndexStats {
   private static final int commitsId;
   private static final int commitTimeId;
   private static final int commitsInProgressId;
+  private static final int refreshesId;
+  private static final int refreshTimeId;
+  private static final int uncommittedUpdatesId;
+  private static final int repositoryCreationsId;
+  private static final int repositoryCreationTimeId;
+  private static final int repositoryCreationsInProgressId;
   private static final int documentsId;
 
   private final Statistics stats;
@@ -81,6 +87,21 @@ public class LuceneIndexStats {
             "nanoseconds"),
         f.createIntGauge("commitsInProgress", "Number of lucene index commits in progress",
             "operations"),
+        f.createIntCounter("refreshes",
+            "Number of times lucene index changes were made visible to queries without a commit",
+            "operations"),
+        f.createLongCounter("refreshTime",
+            "Amount of time spent making lucene index changes visible to queries", "nanoseconds"),
+        f.createIntGauge("uncommittedUpdates",
+            "Number of lucene index documents added/removed that have not been committed yet",
+            "operations"),
+        f.createIntCounter("repositoryCreations",
+            "Number of lucene index repositories opened for primary buckets on this member",
+            "operations"),
+        f.createLongCounter("repositoryCreationTime",
+            "Amount of time spent opening lucene index repositories", "nanoseconds"),
+        f.createIntGauge("repositoryCreationsInProgress",
+            "Number of lucene index repositories currently being opened", "operations"),
         f.createIntGauge("documents", "Number of documents in the index", "documents"),});
 
     queryExecutionsId = statsType.nameToId("queryExecutions");
@@ -98,6 +119,12 @@ public class LuceneIndexStats {
     commitsId = statsType.nameToId("commits");
     commitTimeId = statsType.nameToId("commitTime");
     commitsInProgressId = statsType.nameToId("commitsInProgress");
+    refreshesId = statsType.nameToId("refreshes");
+    refreshTimeId = statsType.nameToId("refreshTime");
+    uncommittedUpdatesId = statsType.nameToId("uncommittedUpdates");
+    repositoryCreationsId = statsType.nameToId("repositoryCreations");
+    repositoryCreationTimeId = statsType.nameToId("repositoryCreationTime");
+    repositoryCreationsInProgressId = statsType.nameToId("repositoryCreationsInProgress");
     documentsId = statsType.nameToId("documents");
   }
 
@@ -175,6 +202,42 @@ public class LuceneIndexStats {
     stats.incInt(commitsId, 1);
   }
 
+  /**
+   * @return the timestamp that marks the start of the operation
+   */
+  public long startRefresh() {
+    return getStatTime();
+  }
+
+  /**
+   * @param start the timestamp taken when the operation started
+   */
+  public void endRefresh(long start) {
+    stats.incLong(refreshTimeId, getStatTime() - start);
+    stats.incInt(refreshesId, 1);
+  }
+
+  public void incUncommittedUpdates(int delta) {
+    stats.incInt(uncommittedUpdatesId, delta);
+  }
+
+  /**
+   * @return the timestamp that marks the start of the operation
+   */
+  public long startRepositoryCreation() {
+    stats.incInt(repositoryCreationsInProgressId, 1);
+    return getStatTime();
+  }
+
+  /**
+   * @param start the timestamp taken when the operation started
+   */
+  public void endRepositoryCreation(long start) {
+    stats.incLong(repositoryCreationTimeId, getStatTime() - start);
+    stats.incInt(repositoryCreationsInProgressId, -1);
+    stats.incInt(repositoryCreationsId, 1);
+  }
+
   public void addDocumentsSupplier(IntSupplier supplier) {
     this.documentsSuppliers.add(supplier);
   }
@@ -231,6 +294,30 @@ public class LuceneIndexStats {
     return stats.getInt(commitsInProgressId);
   }
 
+  public int getRefreshes() {
+    return stats.getInt(refreshesId);
+  }
+
+  public long getRefreshTime() {
+    return stats.getLong(refreshTimeId);
+  }
+
+  public int getUncommittedUpdates() {
+    return stats.getInt(uncommittedUpdatesId);
+  }
+
+  public int getRepositoryCreations() {
+    return stats.getInt(repositoryCreationsId);
+  }
+
+  public long getRepositoryCreationTime() {
+    return stats.getLong(repositoryCreationTimeId);
+  }
+
+  public int getRepositoryCreationsInProgress() {
+    return stats.getInt(repositoryCreationsInProgressId);
+  }
+
   public Statistics getStats() {
     return this.stats;
   }
@@ -0,0 +1,79 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.lucene.internal.distributed;
+
+import java.util.PriorityQueue;
+
+import org.apache.geode.cache.lucene.internal.repository.IndexResultCollector;
+
+/**
+ * Tracks the best scores collected from the repositories searched by a query on a member. Once
+ * limit results have been collected, a result has to score at least as well as the lowest of them
+ * to make the merged results, so the repositories searched next are told to skip any document that
+ * scores lower.
+ */
+class CompetitiveScoreTracker {
+  private final int limit;
+
+  private final PriorityQueue<Float> bestScores = new PriorityQueue<>();
+
+  CompetitiveScoreTracker(int limit) {
+    this.limit = limit;
+  }
+
+  /**
+   * @return a collector that passes results on to the given collector, recording their scores
+   */
+  IndexResultCollector track(final IndexResultCollector collector) {
+    return new IndexResultCollector() {
+      @Override
+      public String getName() {
+        return collector.getName();
+      }
+
+      @Override
+      public int size() {
+        return collector.size();
+      }
+
+      @Override
+      public void collect(Object key, float score) {
+        addScore(score);
+        collector.collect(key, score);
+      }
+
+      @Override
+      public float getMinimumCompetitiveScore() {
+        return CompetitiveScoreTracker.this.getMinimumCompetitiveScore();
+      }
+    };
+  }
+
+  void addScore(float score) {
+    if (bestScores.size() < limit) {
+      bestScores.add(score);
+    } else if (score > bestScores.peek()) {
+      bestScores.poll();
+      bestScores.add(score);
+    }
+  }
+
+  float getMinimumCompetitiveScore() {
+    if (limit <= 0 || bestScores.size() < limit) {
+      return Float.NEGATIVE_INFINITY;
+    }
+    return bestScores.peek();
+  }
+}
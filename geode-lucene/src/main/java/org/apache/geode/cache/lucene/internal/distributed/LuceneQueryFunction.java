@@ -96,6 +96,11 @@ public class LuceneQueryFunction implements Function, InternalEntity {
       manager = new TopEntriesCollectorManager(null, resultLimit);
     }
 
+    // the default collectors keep the best results by score, so buckets searched later only
+    // need to find documents that beat the ones already collected
+    CompetitiveScoreTracker scoreTracker = manager instanceof TopEntriesCollectorManager
+        ? new CompetitiveScoreTracker(((TopEntriesCollectorManager) manager).getLimit()) : null;
+
     Collection<IndexResultCollector> results = new ArrayList<>();
     TopEntriesCollector mergedResult = null;
     try {
@@ -110,7 +115,8 @@ public class LuceneQueryFunction implements Function, InternalEntity {
           if (logger.isDebugEnabled()) {
             logger.debug("Executing search on repo: " + repo.toString());
           }
-          repo.query(query, resultLimit, collector);
+          repo.query(query, resultLimit,
+              scoreTracker == null ? collector : scoreTracker.track(collector));
           results.add(collector);
         }
         mergedResult = (TopEntriesCollector) manager.reduce(results);
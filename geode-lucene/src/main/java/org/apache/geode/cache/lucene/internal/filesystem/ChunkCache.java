@@ -0,0 +1,118 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.lucene.internal.filesystem;
+
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+import org.apache.geode.distributed.internal.DistributionConfig;
+
+/**
+ * A least recently used cache of file chunks, shared by all of the file systems in this member.
+ * Chunks are copied into direct byte buffers so the cached data lives outside of the java heap and
+ * does not have to be fetched and deserialized from the region again by repeated searches.
+ *
+ * The cache relies on chunks never changing once the file they belong to is closed, which lucene
+ * guarantees by writing every file once. The file system removes chunks from the cache when it
+ * writes or deletes them.
+ */
+class ChunkCache {
+
+  /**
+   * Maximum number of bytes of chunks to cache in this member. Zero disables the cache.
+   */
+  static final long CHUNK_CACHE_SIZE =
+      Long.getLong(DistributionConfig.GEMFIRE_PREFIX + "FileSystem.CHUNK_CACHE_SIZE", 0);
+
+  private static final ChunkCache instance = new ChunkCache(CHUNK_CACHE_SIZE);
+
+  private final long maxBytes;
+
+  /** guarded by this */
+  private final LinkedHashMap<ChunkKey, ByteBuffer> chunks = new LinkedHashMap<>(16, 0.75f, true);
+
+  /** guarded by this */
+  private long bytes;
+
+  static ChunkCache getInstance() {
+    return instance;
+  }
+
+  ChunkCache(long maxBytes) {
+    this.maxBytes = maxBytes;
+  }
+
+  boolean isEnabled() {
+    return maxBytes > 0;
+  }
+
+  /**
+   * @return a buffer positioned at the start of the cached chunk, or null if it is not cached
+   */
+  ByteBuffer get(ChunkKey key) {
+    ByteBuffer chunk;
+    synchronized (this) {
+      chunk = chunks.get(key);
+    }
+    return chunk == null ? null : chunk.duplicate();
+  }
+
+  /**
+   * Copy a chunk into the cache, evicting the least recently used chunks to make room for it
+   *
+   * @return a buffer positioned at the start of the cached chunk
+   */
+  ByteBuffer put(ChunkKey key, byte[] chunk) {
+    if (chunk.length > maxBytes) {
+      return ByteBuffer.wrap(chunk);
+    }
+    ByteBuffer buffer = ByteBuffer.allocateDirect(chunk.length);
+    buffer.put(chunk);
+    buffer.flip();
+    ByteBuffer readOnly = buffer.asReadOnlyBuffer();
+    // the key may be reused by the caller
+    ChunkKey copy = new ChunkKey(key.getFileId(), key.getChunkId());
+    synchronized (this) {
+      ByteBuffer old = chunks.put(copy, readOnly);
+      if (old != null) {
+        bytes -= old.capacity();
+      }
+      bytes += chunk.length;
+      for (Iterator<ByteBuffer> it = chunks.values().iterator(); bytes > maxBytes;) {
+        bytes -= it.next().capacity();
+        it.remove();
+      }
+    }
+    return readOnly.duplicate();
+  }
+
+  void remove(ChunkKey key) {
+    synchronized (this) {
+      ByteBuffer old = chunks.remove(key);
+      if (old != null) {
+        bytes -= old.capacity();
+      }
+    }
+  }
+
+  synchronized long getBytes() {
+    return bytes;
+  }
+
+  synchronized int getChunkCount() {
+    return chunks.size();
+  }
+}
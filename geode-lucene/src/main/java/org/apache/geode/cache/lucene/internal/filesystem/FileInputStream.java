@@ -17,6 +17,7 @@ package org.apache.geode.cache.lucene.internal.filesystem;
 
 import java.io.EOFException;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 
 /**
  * An input stream that reads chunks from a File saved in the region. This input stream will keep
@@ -25,7 +26,7 @@ import java.io.IOException;
 class FileInputStream extends SeekableInputStream {
 
   private final File file;
-  private byte[] chunk = null;
+  private ByteBuffer chunk = null;
   private int chunkPosition = 0;
   private int chunkId = 0;
   private boolean open = true;
@@ -37,7 +38,8 @@ class FileInputStream extends SeekableInputStream {
 
   public FileInputStream(FileInputStream other) {
     this.file = other.file;
-    this.chunk = other.chunk;
+    // the buffer's position is shared, so the clone needs its own view of the chunk
+    this.chunk = other.chunk == null ? null : other.chunk.duplicate();
     this.chunkId = other.chunkId;
     this.chunkPosition = other.chunkPosition;
     this.open = other.open;
@@ -53,7 +55,7 @@ class FileInputStream extends SeekableInputStream {
       return -1;
     }
 
-    return chunk[chunkPosition++] & 0xff;
+    return chunk.get(chunkPosition++) & 0xff;
   }
 
   @Override
@@ -65,7 +67,7 @@ class FileInputStream extends SeekableInputStream {
     int targetPosition = (int) (position % file.getChunkSize());
 
     if (targetChunk != (this.chunkId - 1)) {
-      chunk = file.getFileSystem().getChunk(this.file, targetChunk);
+      chunk = file.getFileSystem().getChunkBuffer(this.file, targetChunk);
       chunkId = targetChunk + 1;
       chunkPosition = targetPosition;
     } else {
@@ -100,7 +102,8 @@ class FileInputStream extends SeekableInputStream {
     int read = 0;
     while (len > 0) {
       final int min = Math.min(remaining(), len);
-      System.arraycopy(chunk, chunkPosition, b, off, min);
+      chunk.position(chunkPosition);
+      chunk.get(b, off, min);
       off += min;
       len -= min;
       chunkPosition += min;
@@ -133,7 +136,7 @@ class FileInputStream extends SeekableInputStream {
   }
 
   private int remaining() {
-    return chunk.length - chunkPosition;
+    return chunk.limit() - chunkPosition;
   }
 
   private void checkAndFetchNextChunk() {
@@ -143,7 +146,7 @@ class FileInputStream extends SeekableInputStream {
   }
 
   private void nextChunk() {
-    chunk = file.getFileSystem().getChunk(this.file, chunkId++);
+    chunk = file.getFileSystem().getChunkBuffer(this.file, chunkId++);
     chunkPosition = 0;
   }
 
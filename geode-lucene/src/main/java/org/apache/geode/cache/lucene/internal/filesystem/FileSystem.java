@@ -20,8 +20,10 @@ import org.apache.logging.log4j.Logger;
 
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.Collection;
 import java.util.Map;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 /**
@@ -41,7 +43,14 @@ public class FileSystem {
   private final Map fileAndChunkRegion;
 
   static final int CHUNK_SIZE = 1024 * 1024; // 1 MB
+
+  /**
+   * Key of the entry recording that the index stored in this file system has changes which have
+   * not been committed. No file has this id, since file ids are random UUIDs.
+   */
+  static final ChunkKey UNCOMMITTED_CHANGES_KEY = new ChunkKey(new UUID(0, 0), 0);
   private final FileSystemStats stats;
+  private final ChunkCache chunkCache;
 
   /**
    * Create filesystem that will store data in the two provided regions. The fileAndChunkRegion
@@ -53,8 +62,13 @@ public class FileSystem {
    * @param fileAndChunkRegion the region to store metadata about the files
    */
   public FileSystem(Map fileAndChunkRegion, FileSystemStats stats) {
+    this(fileAndChunkRegion, stats, ChunkCache.getInstance());
+  }
+
+  FileSystem(Map fileAndChunkRegion, FileSystemStats stats, ChunkCache chunkCache) {
     this.fileAndChunkRegion = fileAndChunkRegion;
     this.stats = stats;
+    this.chunkCache = chunkCache;
   }
 
   public Collection<String> listFileNames() {
@@ -62,6 +76,27 @@ public class FileSystem {
         .filter(entry -> (entry instanceof String)).collect(Collectors.toList());
   }
 
+  /**
+   * Records whether the index stored in this file system has changes which have not been
+   * committed. The record is kept in the file and chunk region, so it survives the failure of the
+   * member making the changes.
+   */
+  public void setUncommittedChanges(boolean uncommitted) {
+    if (uncommitted) {
+      fileAndChunkRegion.put(UNCOMMITTED_CHANGES_KEY, new byte[0]);
+    } else {
+      fileAndChunkRegion.remove(UNCOMMITTED_CHANGES_KEY);
+    }
+  }
+
+  /**
+   * @return true if the index stored in this file system was recorded to have changes which have
+   *         not been committed
+   */
+  public boolean hasUncommittedChanges() {
+    return fileAndChunkRegion.containsKey(UNCOMMITTED_CHANGES_KEY);
+  }
+
   public File createFile(final String name) throws IOException {
     // TODO lock region ?
     final File file = new File(this, name);
@@ -117,6 +152,7 @@ public class FileSystem {
       final ChunkKey key = new ChunkKey(file.id, 0);
       while (true) {
         // TODO consider mutable ChunkKey
+        chunkCache.remove(key);
         if (null == fileAndChunkRegion.remove(key)) {
           // no more chunks
           break;
@@ -159,6 +195,7 @@ public class FileSystem {
     // exist. Purge all of the chunks that are larger than the file metadata
     if (id >= file.chunks) {
       while (fileAndChunkRegion.containsKey(key)) {
+        chunkCache.remove(key);
         fileAndChunkRegion.remove(key);
         key.chunkId++;
       }
@@ -175,8 +212,41 @@ public class FileSystem {
     return chunk;
   }
 
+  /**
+   * Get a chunk for reading, from the chunk cache if it is enabled
+   *
+   * @return a buffer positioned at the start of the chunk, or null if the chunk does not exist
+   */
+  ByteBuffer getChunkBuffer(final File file, final int id) {
+    if (!chunkCache.isEnabled() || id >= file.chunks) {
+      final byte[] chunk = getChunk(file, id);
+      return chunk == null ? null : ByteBuffer.wrap(chunk);
+    }
+
+    final ChunkKey key = new ChunkKey(file.id, id);
+    ByteBuffer cached = chunkCache.get(key);
+    // all chunks but the last are full, so a cached chunk of any other length is from an
+    // earlier version of a file that was appended to by another member
+    final int expectedLength =
+        (int) Math.min(file.getChunkSize(), file.length - (long) id * file.getChunkSize());
+    if (cached != null && cached.remaining() == expectedLength) {
+      stats.incChunkCacheHits(1);
+      stats.incReadBytes(expectedLength);
+      return cached;
+    }
+
+    stats.incChunkCacheMisses(1);
+    final byte[] chunk = getChunk(file, id);
+    if (chunk == null) {
+      chunkCache.remove(key);
+      return null;
+    }
+    return chunkCache.put(key, chunk);
+  }
+
   public void putChunk(final File file, final int id, final byte[] chunk) {
     final ChunkKey key = new ChunkKey(file.id, id);
+    chunkCache.remove(key);
     fileAndChunkRegion.put(key, chunk);
     stats.incWrittenBytes(chunk.length);
   }
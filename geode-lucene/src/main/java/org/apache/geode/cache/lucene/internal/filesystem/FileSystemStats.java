@@ -39,6 +39,8 @@ public class FileSystemStats {
   private static final int fileDeletesId;
   private static final int fileRenamesId;
   private static final int bytesId;
+  private static final int chunkCacheHitsId;
+  private static final int chunkCacheMissesId;
 
   static {
     final StatisticsTypeFactory f = StatisticsTypeFactoryImpl.singleton();
@@ -53,7 +55,12 @@ public class FileSystemStats {
             f.createIntCounter("fileRenames", "Number of files renamed", "files"),
             f.createIntGauge("files", "Number of files on this member", "files"),
             f.createIntGauge("chunks", "Number of file chunks on this member", "chunks"),
-            f.createLongGauge("bytes", "Number of bytes on this member", "bytes"),});
+            f.createLongGauge("bytes", "Number of bytes on this member", "bytes"),
+            f.createLongCounter("chunkCacheHits",
+                "Number of file chunk reads satisfied by the chunk cache", "operations"),
+            f.createLongCounter("chunkCacheMisses",
+                "Number of file chunk reads that had to fetch the chunk from the region",
+                "operations"),});
 
     readBytesId = statsType.nameToId("readBytes");
     writtenBytesId = statsType.nameToId("writtenBytes");
@@ -62,6 +69,8 @@ public class FileSystemStats {
     fileDeletesId = statsType.nameToId("fileDeletes");
     fileRenamesId = statsType.nameToId("fileRenames");
     bytesId = statsType.nameToId("bytes");
+    chunkCacheHitsId = statsType.nameToId("chunkCacheHits");
+    chunkCacheMissesId = statsType.nameToId("chunkCacheMisses");
   }
 
   public FileSystemStats(StatisticsFactory f, String name) {
@@ -92,6 +101,14 @@ public class FileSystemStats {
     stats.incInt(fileRenamesId, delta);
   }
 
+  public void incChunkCacheHits(final int delta) {
+    stats.incLong(chunkCacheHitsId, delta);
+  }
+
+  public void incChunkCacheMisses(final int delta) {
+    stats.incLong(chunkCacheMissesId, delta);
+  }
+
   public void setBytesSupplier(LongSupplier supplier) {
     stats.setLongSupplier(bytesId, supplier);
   }
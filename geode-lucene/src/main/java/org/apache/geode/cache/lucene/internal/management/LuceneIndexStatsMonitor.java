@@ -69,10 +69,14 @@ public class LuceneIndexStatsMonitor extends MBeanStatsMonitor {
 
     int documents = getStatistic(StatsKey.DOCUMENTS).intValue();
 
+    int repositoryCreations = getStatistic(StatsKey.REPOSITORY_CREATIONS).intValue();
+    int repositoryCreationsInProgress =
+        getStatistic(StatsKey.REPOSITORY_CREATIONS_IN_PROGRESS).intValue();
+
     return new LuceneIndexMetrics(index.getRegionPath(), index.getName(), queryExecutions,
         queryExecutionTime, queryRateAverageLatencyValue, queryExecutionsInProgress,
         queryExecutionTotalHits, updates, updateTime, updateRateAverageLatencyValue,
         updatesInProgress, commits, commitTime, commitRateAverageLatencyValue, commitsInProgress,
-        documents);
+        documents, repositoryCreations, repositoryCreationsInProgress);
   }
 }
@@ -30,4 +30,7 @@ public class StatsKey {
   public static final String QUERIES_TOTAL_HITS = "queryExecutionTotalHits";
 
   public static final String DOCUMENTS = "documents";
+
+  public static final String REPOSITORY_CREATIONS = "repositoryCreations";
+  public static final String REPOSITORY_CREATIONS_IN_PROGRESS = "repositoryCreationsInProgress";
 }
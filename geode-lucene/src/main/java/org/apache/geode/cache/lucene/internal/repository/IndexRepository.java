@@ -67,6 +67,25 @@ public interface IndexRepository {
    */
   void commit() throws IOException;
 
+  /**
+   * Make the changes since the last refresh visible to queries without committing them. Until the
+   * next commit the index is recorded to have uncommitted changes, so that it is rebuilt if this
+   * member fails before committing them.
+   * 
+   * @throws IOException
+   */
+  void refresh() throws IOException;
+
+  /**
+   * @return the number of changes made to the index since the last commit
+   */
+  int getUncommittedUpdates();
+
+  /**
+   * @return the {@link System#nanoTime()} at which the index was last committed
+   */
+  long getLastCommitTime();
+
   Region<?, ?> getRegion();
 
   /**
@@ -17,6 +17,8 @@ package org.apache.geode.cache.lucene.internal.repository;
 
 import org.apache.geode.cache.Region;
 import org.apache.geode.cache.lucene.internal.LuceneIndexStats;
+import org.apache.geode.cache.lucene.internal.directory.RegionDirectory;
+import org.apache.geode.cache.lucene.internal.filesystem.FileSystem;
 import org.apache.geode.cache.lucene.internal.repository.serializer.LuceneSerializer;
 import org.apache.geode.cache.lucene.internal.repository.serializer.SerializerUtil;
 import org.apache.geode.distributed.DistributedLockService;
@@ -27,12 +29,14 @@ import org.apache.geode.internal.logging.LogService;
 import org.apache.logging.log4j.Logger;
 import org.apache.lucene.document.Document;
 import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.LeafReaderContext;
 import org.apache.lucene.index.Term;
 import org.apache.lucene.search.*;
 import org.apache.lucene.store.AlreadyClosedException;
 import org.apache.geode.distributed.LockNotHeldException;
 
 import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.IntSupplier;
 
 /**
@@ -53,6 +57,14 @@ public class IndexRepositoryImpl implements IndexRepository {
   private DocumentCountSupplier documentCountSupplier;
   private final DistributedLockService lockService;
   private String lockName;
+  private final AtomicInteger uncommittedUpdates = new AtomicInteger();
+  private volatile long lastCommitTime = System.nanoTime();
+
+  /** the file system holding the index, or null if the index is not stored in regions */
+  private final FileSystem fileSystem;
+
+  /** true if the file system records that the index has uncommitted changes; guarded by this */
+  private boolean uncommittedChangesRecorded;
 
   private static final Logger logger = LogService.getLogger();
 
@@ -76,6 +88,12 @@ public class IndexRepositoryImpl implements IndexRepository {
     stats.addDocumentsSupplier(documentCountSupplier);
     this.lockService = lockService;
     this.lockName = lockName;
+    if (writer.getDirectory() instanceof RegionDirectory) {
+      this.fileSystem = ((RegionDirectory) writer.getDirectory()).getFileSystem();
+      this.uncommittedChangesRecorded = this.fileSystem.hasUncommittedChanges();
+    } else {
+      this.fileSystem = null;
+    }
   }
 
   @Override
@@ -86,6 +104,7 @@ public class IndexRepositoryImpl implements IndexRepository {
       SerializerUtil.addKey(key, doc);
       serializer.toDocument(value, doc);
       writer.addDocument(doc);
+      incUncommittedUpdates();
     } finally {
       stats.endUpdate(start);
     }
@@ -99,6 +118,7 @@ public class IndexRepositoryImpl implements IndexRepository {
       SerializerUtil.addKey(key, doc);
       serializer.toDocument(value, doc);
       writer.updateDocument(SerializerUtil.getKeyTerm(doc), doc);
+      incUncommittedUpdates();
     } finally {
       stats.endUpdate(start);
     }
@@ -110,6 +130,7 @@ public class IndexRepositoryImpl implements IndexRepository {
     try {
       Term keyTerm = SerializerUtil.toKeyTerm(key);
       writer.deleteDocuments(keyTerm);
+      incUncommittedUpdates();
     } finally {
       stats.endUpdate(start);
     }
@@ -121,7 +142,7 @@ public class IndexRepositoryImpl implements IndexRepository {
     int totalHits = 0;
     IndexSearcher searcher = searcherManager.acquire();
     try {
-      TopDocs docs = searcher.search(query, limit);
+      TopDocs docs = search(searcher, query, limit, collector.getMinimumCompetitiveScore());
       totalHits = docs.totalHits;
       for (ScoreDoc scoreDoc : docs.scoreDocs) {
         Document doc = searcher.doc(scoreDoc.doc);
@@ -137,17 +158,73 @@ public class IndexRepositoryImpl implements IndexRepository {
     }
   }
 
+  private TopDocs search(IndexSearcher searcher, Query query, int limit, float minimumScore)
+      throws IOException {
+    if (minimumScore == Float.NEGATIVE_INFINITY) {
+      return searcher.search(query, limit);
+    }
+    int numHits = Math.max(1, Math.min(limit, searcher.getIndexReader().maxDoc()));
+    TopScoreDocCollector topDocsCollector = TopScoreDocCollector.create(numHits);
+    // documents below the minimum score are not passed on, but still count as hits
+    TotalHitCountCollector hitCountCollector = new TotalHitCountCollector();
+    searcher.search(query, MultiCollector.wrap(hitCountCollector,
+        new MinimumScoreCollector(topDocsCollector, minimumScore)));
+    TopDocs docs = topDocsCollector.topDocs();
+    docs.totalHits = hitCountCollector.getTotalHits();
+    return docs;
+  }
+
   @Override
   public synchronized void commit() throws IOException {
     long start = stats.startCommit();
     try {
+      // changes made while committing are counted towards the next commit
+      stats.incUncommittedUpdates(-uncommittedUpdates.getAndSet(0));
+      lastCommitTime = System.nanoTime();
       writer.commit();
+      if (uncommittedChangesRecorded) {
+        fileSystem.setUncommittedChanges(false);
+        uncommittedChangesRecorded = false;
+      }
       searcherManager.maybeRefresh();
     } finally {
       stats.endCommit(start);
     }
   }
 
+  @Override
+  public void refresh() throws IOException {
+    long start = stats.startRefresh();
+    try {
+      synchronized (this) {
+        // a commit in progress may not include the changes being refreshed, so the record is made
+        // after it has finished
+        if (fileSystem != null && !uncommittedChangesRecorded) {
+          fileSystem.setUncommittedChanges(true);
+          uncommittedChangesRecorded = true;
+        }
+      }
+      searcherManager.maybeRefresh();
+    } finally {
+      stats.endRefresh(start);
+    }
+  }
+
+  @Override
+  public int getUncommittedUpdates() {
+    return uncommittedUpdates.get();
+  }
+
+  @Override
+  public long getLastCommitTime() {
+    return lastCommitTime;
+  }
+
+  private void incUncommittedUpdates() {
+    uncommittedUpdates.incrementAndGet();
+    stats.incUncommittedUpdates(1);
+  }
+
   public IndexWriter getWriter() {
     return writer;
   }
@@ -170,8 +247,16 @@ public class IndexRepositoryImpl implements IndexRepository {
   public void cleanup() {
     try {
       stats.removeDocumentsSupplier(documentCountSupplier);
+      // closing the writer commits any changes that are pending
+      stats.incUncommittedUpdates(-uncommittedUpdates.getAndSet(0));
       try {
         writer.close();
+        synchronized (this) {
+          if (uncommittedChangesRecorded) {
+            fileSystem.setUncommittedChanges(false);
+            uncommittedChangesRecorded = false;
+          }
+        }
       } catch (Exception e) {
         logger.debug("Unable to clean up index repository", e);
       }
@@ -186,6 +271,40 @@ public class IndexRepositoryImpl implements IndexRepository {
     }
   }
 
+  /**
+   * Passes on only the documents that score at least the minimum score, so that documents that
+   * cannot make the results are neither queued nor loaded
+   */
+  private static class MinimumScoreCollector extends FilterCollector {
+    private final float minimumScore;
+
+    MinimumScoreCollector(Collector in, float minimumScore) {
+      super(in);
+      this.minimumScore = minimumScore;
+    }
+
+    @Override
+    public LeafCollector getLeafCollector(LeafReaderContext context) throws IOException {
+      return new FilterLeafCollector(super.getLeafCollector(context)) {
+        private Scorer scorer;
+
+        @Override
+        public void setScorer(Scorer scorer) throws IOException {
+          // the wrapped collector asks for the score again
+          this.scorer = new ScoreCachingWrappingScorer(scorer);
+          super.setScorer(this.scorer);
+        }
+
+        @Override
+        public void collect(int doc) throws IOException {
+          if (scorer.score() >= minimumScore) {
+            super.collect(doc);
+          }
+        }
+      };
+    }
+  }
+
   private class DocumentCountSupplier implements IntSupplier {
     @Override
     public int getAsInt() {
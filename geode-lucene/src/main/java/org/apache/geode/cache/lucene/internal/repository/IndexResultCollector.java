@@ -48,4 +48,15 @@ public interface IndexResultCollector {
    * @param score the score of this result document assigned by Lucene
    */
   void collect(Object key, float score);
+
+  /**
+   * Returns the lowest score a result needs to be of interest to this IndexResultCollector. The
+   * IndexRepository may skip documents that score lower instead of collecting them.
+   *
+   * @return the minimum competitive score, or {@link Float#NEGATIVE_INFINITY} to collect every
+   *         result
+   */
+  default float getMinimumCompetitiveScore() {
+    return Float.NEGATIVE_INFINITY;
+  }
 }
@@ -52,6 +52,10 @@ public class LuceneIndexMetrics {
 
   private final int documents;
 
+  private final int repositoryCreations;
+
+  private final int repositoryCreationsInProgress;
+
   /**
    * This constructor is to be used by internal JMX framework only. A user should not try to create
    * an instance of this class.
@@ -59,12 +63,14 @@ public class LuceneIndexMetrics {
   @ConstructorProperties({"regionPath", "indexName", "queryExecutions", "queryExecutionTime",
       "queryRateAverageLatency", "queryExecutionsInProgress", "queryExecutionTotalHits", "updates",
       "updateTime", "updateRateAverageLatency", "updatesInProgress", "commits", "commitTime",
-      "commitRateAverageLatency", "commitsInProgress", "documents"})
+      "commitRateAverageLatency", "commitsInProgress", "documents", "repositoryCreations",
+      "repositoryCreationsInProgress"})
   public LuceneIndexMetrics(String regionPath, String indexName, int queryExecutions,
       long queryExecutionTime, long queryRateAverageLatency, int queryExecutionsInProgress,
       long queryExecutionTotalHits, int updates, long updateTime, long updateRateAverageLatency,
       int updatesInProgress, int commits, long commitTime, long commitRateAverageLatency,
-      int commitsInProgress, int documents) {
+      int commitsInProgress, int documents, int repositoryCreations,
+      int repositoryCreationsInProgress) {
     this.regionPath = regionPath;
     this.indexName = indexName;
     this.queryExecutions = queryExecutions;
@@ -81,6 +87,8 @@ public class LuceneIndexMetrics {
     this.commitRateAverageLatency = commitRateAverageLatency;
     this.commitsInProgress = commitsInProgress;
     this.documents = documents;
+    this.repositoryCreations = repositoryCreations;
+    this.repositoryCreationsInProgress = repositoryCreationsInProgress;
   }
 
   /**
@@ -229,6 +237,25 @@ public class LuceneIndexMetrics {
     return documents;
   }
 
+  /**
+   * Returns the number of bucket index repositories opened for the {@link LuceneIndex}
+   *
+   * @return Returns the number of bucket index repositories opened for the Lucene Index
+   */
+  public int getRepositoryCreations() {
+    return repositoryCreations;
+  }
+
+  /**
+   * Returns the number of bucket index repositories being opened for the {@link LuceneIndex}, for
+   * example while the buckets of a recovering member become primary
+   *
+   * @return Returns the number of bucket index repositories being opened for the Lucene Index
+   */
+  public int getRepositoryCreationsInProgress() {
+    return repositoryCreationsInProgress;
+  }
+
   /**
    * Outputs the string message containing all the stats stored for the {@link LuceneIndex}
    *
@@ -248,7 +275,9 @@ public class LuceneIndexMetrics {
         .append(this.updatesInProgress).append("; commits=").append(this.commits)
         .append("; commitTime=").append(this.commitTime).append("; commitRateAverageLatency=")
         .append(this.commitRateAverageLatency).append("; commitsInProgress=")
-        .append(this.commitsInProgress).append("; documents=").append(this.documents).append("]")
-        .toString();
+        .append(this.commitsInProgress).append("; documents=").append(this.documents)
+        .append("; repositoryCreations=").append(this.repositoryCreations)
+        .append("; repositoryCreationsInProgress=").append(this.repositoryCreationsInProgress)
+        .append("]").toString();
   }
 }
@@ -27,7 +27,9 @@ import java.util.List;
 import java.util.concurrent.atomic.AtomicReference;
 
 import org.apache.geode.InternalGemFireError;
+import org.apache.geode.internal.SystemTimer;
 import org.apache.geode.internal.cache.EntrySnapshot;
+import org.apache.geode.internal.cache.InternalCache;
 import org.apache.geode.internal.cache.RegionEntry;
 import org.junit.After;
 import org.junit.Before;
@@ -67,7 +69,7 @@ public class LuceneEventListenerJUnitTest {
 
     Mockito.when(manager.getRepository(eq(region1), any(), eq(callback1))).thenReturn(repo1);
     Mockito.when(manager.getRepository(eq(region2), any(), eq(null))).thenReturn(repo2);
-    LuceneEventListener listener = new LuceneEventListener(manager);
+    LuceneEventListener listener = new LuceneEventListener(null, manager);
     List<AsyncEvent> events = new ArrayList<AsyncEvent>();
 
     int numEntries = 100;
@@ -106,6 +108,38 @@ public class LuceneEventListenerJUnitTest {
     verify(repo2, times(1)).commit();
   }
 
+  @Test
+  public void shouldRefreshInsteadOfCommittingWithinCommitInterval() throws Exception {
+    RepositoryManager manager = Mockito.mock(RepositoryManager.class);
+    IndexRepository repo = Mockito.mock(IndexRepository.class);
+    Region region = Mockito.mock(Region.class);
+    Mockito.when(manager.getRepository(eq(region), any(), any())).thenReturn(repo);
+    Mockito.when(repo.getLastCommitTime()).thenReturn(System.nanoTime());
+    Mockito.when(repo.getUncommittedUpdates()).thenReturn(1);
+    AsyncEvent event = Mockito.mock(AsyncEvent.class);
+    Mockito.when(event.getRegion()).thenReturn(region);
+    Mockito.when(event.getKey()).thenReturn(1);
+
+    InternalCache cache = mock(InternalCache.class);
+    SystemTimer timer = mock(SystemTimer.class);
+    when(cache.getCCPTimer()).thenReturn(timer);
+
+    LuceneEventListener listener = new LuceneEventListener(cache, manager, 60000, 2);
+    verify(timer).schedule(any(SystemTimer.SystemTimerTask.class), eq(60000L), eq(60000L));
+    try {
+      listener.processEvents(Collections.singletonList(event));
+      verify(repo, times(1)).refresh();
+      verify(repo, never()).commit();
+
+      Mockito.when(repo.getUncommittedUpdates()).thenReturn(2);
+      listener.processEvents(Collections.singletonList(event));
+      verify(repo, times(1)).refresh();
+      verify(repo, times(1)).commit();
+    } finally {
+      listener.close();
+    }
+  }
+
   @Test
   public void shouldHandleBucketNotFoundExceptionWithoutLoggingError()
       throws BucketNotFoundException {
@@ -113,7 +147,7 @@ public class LuceneEventListenerJUnitTest {
     Logger log = Mockito.mock(Logger.class);
     Mockito.when(manager.getRepository(any(), any(), any()))
         .thenThrow(BucketNotFoundException.class);
-    LuceneEventListener listener = new LuceneEventListener(manager);
+    LuceneEventListener listener = new LuceneEventListener(null, manager);
     listener.logger = log;
     AsyncEvent event = Mockito.mock(AsyncEvent.class);
     boolean result = listener.processEvents(Arrays.asList(new AsyncEvent[] {event}));
@@ -127,7 +161,7 @@ public class LuceneEventListenerJUnitTest {
     Mockito.when(manager.getRepository(any(), any(), any())).thenThrow(IOException.class);
     AtomicReference<Throwable> lastException = new AtomicReference<>();
     LuceneEventListener.setExceptionObserver(lastException::set);
-    LuceneEventListener listener = new LuceneEventListener(manager);
+    LuceneEventListener listener = new LuceneEventListener(null, manager);
     AsyncEvent event = Mockito.mock(AsyncEvent.class);
     try {
       listener.processEvents(Arrays.asList(new AsyncEvent[] {event}));
@@ -100,6 +100,18 @@ public class LuceneIndexStatsJUnitTest {
     verifyIncLong("commitTime", -5);
   }
 
+  @Test
+  public void shouldIncrementRepositoryCreationStats() {
+
+    stats.startRepositoryCreation();
+    verifyIncInt("repositoryCreationsInProgress", 1);
+    stats.endRepositoryCreation(5);
+    verifyIncInt("repositoryCreationsInProgress", -1);
+    verifyIncInt("repositoryCreations", 1);
+    // Because the initial stat time is 0 and the final time is 5, the delta is -5
+    verifyIncLong("repositoryCreationTime", -5);
+  }
+
   @Test
   public void shouldPollSuppliersForDocumentStat() {
     stats.addDocumentsSupplier(() -> 5);
@@ -0,0 +1,48 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.lucene.internal.distributed;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.lucene.internal.repository.IndexResultCollector;
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category(UnitTest.class)
+public class CompetitiveScoreTrackerJUnitTest {
+
+  @Test
+  public void minimumScoreIsLowestOfBestScoresOnceLimitIsReached() {
+    CompetitiveScoreTracker tracker = new CompetitiveScoreTracker(2);
+    TopEntriesCollector collector = new TopEntriesCollector("repo1", 2);
+    IndexResultCollector tracked = tracker.track(collector);
+
+    tracked.collect("key-1", .3f);
+    assertEquals(Float.NEGATIVE_INFINITY, tracked.getMinimumCompetitiveScore(), 0f);
+    tracked.collect("key-2", .5f);
+    assertEquals(.3f, tracked.getMinimumCompetitiveScore(), 0f);
+
+    IndexResultCollector tracked2 = tracker.track(new TopEntriesCollector("repo2", 2));
+    tracked2.collect("key-3", .4f);
+    assertEquals(.4f, tracked2.getMinimumCompetitiveScore(), 0f);
+    tracked2.collect("key-4", .1f);
+    assertEquals(.4f, tracked.getMinimumCompetitiveScore(), 0f);
+
+    assertEquals(2, collector.size());
+    assertEquals("repo1", tracked.getName());
+  }
+}
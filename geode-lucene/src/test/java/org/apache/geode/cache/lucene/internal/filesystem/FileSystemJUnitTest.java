@@ -474,6 +474,32 @@ public class FileSystemJUnitTest {
     assertEquals(bytes.length, actualByteCount);
   }
 
+  @Test
+  public void testReadsThroughChunkCache() throws Exception {
+    ChunkCache chunkCache = new ChunkCache(LARGE_CHUNK);
+    system = new FileSystem(fileAndChunkRegion, fileSystemStats, chunkCache);
+    File file = system.createFile("file");
+    byte[] bytes = getRandomBytes(LARGE_CHUNK);
+    OutputStream outputStream = file.getOutputStream();
+    outputStream.write(bytes);
+    outputStream.close();
+
+    assertContents(bytes, file);
+    verify(fileSystemStats, times(6)).incChunkCacheMisses(1);
+    verify(fileSystemStats, never()).incChunkCacheHits(1);
+    assertEquals(LARGE_CHUNK, chunkCache.getBytes());
+    assertEquals(6, chunkCache.getChunkCount());
+
+    InputStream is = file.getInputStream();
+    is.skip(bytes.length - 1);
+    assertEquals(bytes[bytes.length - 1] & 0xff, is.read());
+    verify(fileSystemStats, atLeast(1)).incChunkCacheHits(1);
+
+    system.deleteFile("file");
+    assertEquals(0, chunkCache.getChunkCount());
+    assertEquals(0, chunkCache.getBytes());
+  }
+
   @Test
   public void testDeletePossiblyRenamedFileDoesNotDestroyChunks() throws Exception {
     ConcurrentHashMap spyFileRegion = Mockito.spy(fileAndChunkRegion);
@@ -83,6 +83,18 @@ public class FileSystemStatsJUnitTest {
     verifyIncInt("temporaryFileCreates", 5);
   }
 
+  @Test
+  public void shouldIncrementChunkCacheHits() {
+    stats.incChunkCacheHits(5);
+    verifyIncLong("chunkCacheHits", 5);
+  }
+
+  @Test
+  public void shouldIncrementChunkCacheMisses() {
+    stats.incChunkCacheMisses(5);
+    verifyIncLong("chunkCacheMisses", 5);
+  }
+
   private void verifyIncInt(final String statName, final int value) {
     final int statId = type.nameToId(statName);
     verify(statistics).incInt(eq(statId), eq(value));
@@ -21,7 +21,10 @@ import static org.mockito.Mockito.*;
 import java.io.IOException;
 import java.io.Serializable;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Random;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
@@ -35,6 +38,7 @@ import org.apache.lucene.index.IndexWriter;
 import org.apache.lucene.index.IndexWriterConfig;
 import org.apache.lucene.queryparser.classic.ParseException;
 import org.apache.lucene.queryparser.classic.QueryParser;
+import org.apache.lucene.search.Query;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
@@ -46,6 +50,7 @@ import org.apache.geode.cache.lucene.internal.LuceneIndexStats;
 import org.apache.geode.cache.lucene.internal.directory.RegionDirectory;
 import org.apache.geode.cache.lucene.internal.filesystem.ChunkKey;
 import org.apache.geode.cache.lucene.internal.filesystem.File;
+import org.apache.geode.cache.lucene.internal.filesystem.FileSystem;
 import org.apache.geode.cache.lucene.internal.filesystem.FileSystemStats;
 import org.apache.geode.cache.lucene.internal.repository.serializer.HeterogeneousLuceneSerializer;
 import org.apache.geode.cache.lucene.internal.repository.serializer.Type2;
@@ -104,6 +109,63 @@ public class IndexRepositoryImplJUnitTest {
     checkQuery("NotARealWord", "s");
   }
 
+  @Test
+  public void testQuerySkipsDocumentsBelowMinimumCompetitiveScore()
+      throws IOException, ParseException {
+    repo.create("key1", new Type2("doughnut", 1, 2L, 3.0, 4.0f, "Grape Ape doughnut"));
+    repo.create("key2",
+        new Type2("bacon bar bacon maple bar", 1, 2L, 3.0, 4.0f, "Captain my Captain doughnut"));
+    repo.commit();
+
+    Query query = new QueryParser("s", analyzer).parse("doughnut");
+    Map<Object, Float> scores = new HashMap<>();
+    repo.query(query, 100, new KeyCollector() {
+      @Override
+      public void collect(Object key, float score) {
+        scores.put(key, score);
+      }
+    });
+    assertEquals(1, scores.size());
+    float score = scores.get("key1");
+
+    KeyCollector aboveScore = new KeyCollector() {
+      @Override
+      public float getMinimumCompetitiveScore() {
+        return score + 1;
+      }
+    };
+    repo.query(query, 100, aboveScore);
+    assertEquals(Collections.emptySet(), aboveScore.results);
+
+    KeyCollector atScore = new KeyCollector() {
+      @Override
+      public float getMinimumCompetitiveScore() {
+        return score;
+      }
+    };
+    repo.query(query, 100, atScore);
+    assertEquals(Collections.singleton("key1"), atScore.results);
+  }
+
+  @Test
+  public void queryStatsCountDocumentsBelowMinimumCompetitiveScore()
+      throws IOException, ParseException {
+    repo.create("key1", new Type2("doughnut", 1, 2L, 3.0, 4.0f, "Grape Ape doughnut"));
+    repo.create("key2", new Type2("doughnut", 1, 2L, 3.0, 4.0f, "Cream doughnut"));
+    repo.commit();
+
+    Query query = new QueryParser("s", analyzer).parse("doughnut");
+    KeyCollector aboveAllScores = new KeyCollector() {
+      @Override
+      public float getMinimumCompetitiveScore() {
+        return Float.MAX_VALUE;
+      }
+    };
+    repo.query(query, 100, aboveAllScores);
+    assertEquals(Collections.emptySet(), aboveAllScores.results);
+    verify(stats, times(1)).endRepositoryQuery(anyLong(), eq(2));
+  }
+
   @Test
   public void testEmptyRepo() throws IOException, ParseException {
     checkQuery("NotARealWord", "s");
@@ -153,6 +215,27 @@ public class IndexRepositoryImplJUnitTest {
     verify(stats, times(1)).endCommit(anyLong());
   }
 
+  @Test
+  public void uncommittedChangesAreRecordedUntilCommit() throws IOException {
+    FileSystem fileSystem = ((RegionDirectory) writer.getDirectory()).getFileSystem();
+    repo.create("key1", new Type2("bar", 1, 2L, 3.0, 4.0f, "Grape Ape doughnut"));
+    repo.refresh();
+    assertTrue(fileSystem.hasUncommittedChanges());
+
+    repo.commit();
+    assertFalse(fileSystem.hasUncommittedChanges());
+  }
+
+  @Test
+  public void closingCommitsAndClearsUncommittedChanges() throws IOException {
+    FileSystem fileSystem = ((RegionDirectory) writer.getDirectory()).getFileSystem();
+    repo.create("key1", new Type2("bar", 1, 2L, 3.0, 4.0f, "Grape Ape doughnut"));
+    repo.refresh();
+
+    repo.cleanup();
+    assertFalse(fileSystem.hasUncommittedChanges());
+  }
+
   @Test
   public void queryShouldUpdateStats() throws IOException, ParseException {
     repo.create("key2",